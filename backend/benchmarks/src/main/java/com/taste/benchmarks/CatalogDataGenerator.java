@@ -0,0 +1,308 @@
+package com.taste.benchmarks;
+
+import com.taste.model.Allergen;
+import com.taste.model.DietaryPreference;
+import com.taste.model.PriceRange;
+import com.taste.model.PrivacyLevel;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Seeds a catalog of {@code recipes} recipes, half as many restaurants and a twentieth as
+ * many users, with their element collections, ingredients, menu items, precomputed masks and
+ * a skewed follow graph. Rows are written with explicit ids through batched JDBC, bypassing
+ * the entity listeners, into a schema Hibernate has already created. Output is deterministic
+ * for a given seed.
+ *
+ * <p>Standalone: {@code CatalogDataGenerator <jdbcUrl> <user> <password> <recipes> [seed]}
+ * fills an empty development database the application has started against once.
+ */
+public class CatalogDataGenerator {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final int SPAN_MINUTES = 2 * 365 * 24 * 60;
+
+    private final Random random;
+
+    public CatalogDataGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        if (args.length < 4) {
+            System.err.println("Usage: CatalogDataGenerator <jdbcUrl> <user> <password> <recipes> [seed]");
+            System.exit(1);
+        }
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42L;
+        try (Connection connection = DriverManager.getConnection(args[0], args[1], args[2])) {
+            CatalogSize size = new CatalogDataGenerator(seed).generate(connection, Integer.parseInt(args[3]));
+            System.out.println("Generated " + size);
+        }
+    }
+
+    public CatalogSize generate(DataSource dataSource, int recipes) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return generate(connection, recipes);
+        }
+    }
+
+    public CatalogSize generate(Connection connection, int recipes) throws SQLException {
+        boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            int users = Math.max(100, recipes / 20);
+            int restaurants = Math.max(1, recipes / 2);
+            insertUsers(connection, users);
+            insertFollows(connection, users);
+            insertRecipes(connection, recipes, users);
+            insertRestaurants(connection, restaurants, users);
+            connection.commit();
+            return new CatalogSize(users, recipes, restaurants);
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void insertUsers(Connection connection, int users) throws SQLException {
+        try (Batch rows = new Batch(connection, "INSERT INTO users (id, username, email, password, first_name, last_name, privacy_level, dietary_mask, allergen_mask, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)");
+             Batch preferences = new Batch(rows, "INSERT INTO user_dietary_preferences (user_id, preference) VALUES (?, ?)");
+             Batch allergies = new Batch(rows, "INSERT INTO user_allergies (user_id, allergy) VALUES (?, ?)")) {
+            for (long id = 1; id <= users; id++) {
+                Set<DietaryPreference> diet = randomPreferences(0.3);
+                Set<String> allergyNames = randomSubset(Vocabulary.ALLERGENS, 0.1, 2);
+                Timestamp created = randomTimestamp();
+                rows.add(id, "user" + id, "user" + id + "@example.com",
+                        "$2a$10$7EqJtq98hPqEX7fNZaFWoOhi5BzWdQ9YTGzcj5RwHGBY.Mr9ZCvWC",
+                        "First" + id, "Last" + id, PrivacyLevel.PUBLIC.name(),
+                        DietaryPreference.toMask(diet), Allergen.toMask(allergyNames), created, created);
+                for (DietaryPreference preference : diet) {
+                    preferences.add(id, preference.name());
+                }
+                for (String allergy : allergyNames) {
+                    allergies.add(id, allergy);
+                }
+            }
+        }
+    }
+
+    private void insertFollows(Connection connection, int users) throws SQLException {
+        try (Batch follows = new Batch(connection, "INSERT INTO user_follows (follower_id, followed_id) VALUES (?, ?)")) {
+            for (long follower = 1; follower <= users; follower++) {
+                Set<Long> followed = new LinkedHashSet<>();
+                int count = Vocabulary.skewed(random, 60) + 1;
+                while (followed.size() < Math.min(count, users - 1)) {
+                    // Popular users are followed far more often
+                    long target = Vocabulary.skewed(random, users) + 1;
+                    if (target != follower) {
+                        followed.add(target);
+                    }
+                }
+                for (Long target : followed) {
+                    follows.add(follower, target);
+                }
+            }
+        }
+        // The app maintains these counters per follow; seed them in one pass instead
+        try (Statement counts = connection.createStatement()) {
+            counts.executeUpdate("UPDATE users u SET "
+                    + "follower_count = (SELECT COUNT(*) FROM user_follows f WHERE f.followed_id = u.id), "
+                    + "following_count = (SELECT COUNT(*) FROM user_follows f WHERE f.follower_id = u.id)");
+        }
+    }
+
+    private void insertRecipes(Connection connection, int recipes, int users) throws SQLException {
+        try (Batch rows = new Batch(connection, "INSERT INTO recipes (id, title, description, instructions, servings, prep_time_minutes, cook_time_minutes, difficulty, image_url, privacy_level, dietary_mask, allergen_mask, author_id, share_token, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)");
+             Batch ingredients = new Batch(rows, "INSERT INTO recipe_ingredients (id, name, quantity, unit, notes, display_order, recipe_id) VALUES (?, ?, ?, ?, ?, ?, ?)");
+             Batch tags = new Batch(rows, "INSERT INTO recipe_tags (recipe_id, tag) VALUES (?, ?)");
+             Batch categories = new Batch(rows, "INSERT INTO recipe_categories (recipe_id, category) VALUES (?, ?)");
+             Batch preferences = new Batch(rows, "INSERT INTO recipe_dietary_preferences (recipe_id, preference) VALUES (?, ?)");
+             Batch allergens = new Batch(rows, "INSERT INTO recipe_allergens (recipe_id, allergen) VALUES (?, ?)")) {
+            long ingredientId = 1;
+            for (long id = 1; id <= recipes; id++) {
+                String title = Vocabulary.pick(random, Vocabulary.ADJECTIVES) + " " + Vocabulary.pick(random, Vocabulary.DISHES);
+                Set<DietaryPreference> diet = randomPreferences(0.5);
+                Set<String> allergenNames = randomSubset(Vocabulary.ALLERGENS, 0.4, 3);
+                Timestamp created = timestampFor(id, recipes);
+                rows.add(id, title, sentence(20), sentence(120), 1 + random.nextInt(8), 5 + random.nextInt(40),
+                        1 + random.nextInt(120), 1 + random.nextInt(5), "/uploads/recipes/" + id + ".jpg",
+                        randomPrivacy().name(), DietaryPreference.toMask(diet), Allergen.toMask(allergenNames),
+                        (long) Vocabulary.skewed(random, users) + 1, "r" + Long.toHexString(id * 2654435761L),
+                        created, created);
+
+                int ingredientCount = 4 + random.nextInt(10);
+                for (int order = 0; order < ingredientCount; order++) {
+                    ingredients.add(ingredientId++, Vocabulary.pick(random, Vocabulary.INGREDIENTS),
+                            BigDecimal.valueOf(1 + random.nextInt(500), 1), Vocabulary.pick(random, Vocabulary.UNITS),
+                            random.nextInt(4) == 0 ? "finely chopped" : null, order, id);
+                }
+                for (String tag : randomSubset(Vocabulary.TAGS, 0.8, 4)) {
+                    tags.add(id, tag);
+                }
+                for (String category : randomSubset(Vocabulary.CATEGORIES, 1.0, 2)) {
+                    categories.add(id, category);
+                }
+                for (DietaryPreference preference : diet) {
+                    preferences.add(id, preference.name());
+                }
+                for (String allergen : allergenNames) {
+                    allergens.add(id, allergen);
+                }
+            }
+        }
+    }
+
+    private void insertRestaurants(Connection connection, int restaurants, int users) throws SQLException {
+        try (Batch rows = new Batch(connection, "INSERT INTO restaurants (id, name, description, address, phone, website, image_url, rating, notes, price_range, privacy_level, dietary_mask, author_id, latitude, longitude, share_token, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)");
+             Batch menuItems = new Batch(rows, "INSERT INTO menu_items (id, name, description, price, rating, category, dietary_mask, allergen_mask, version, restaurant_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0, ?)");
+             Batch cuisines = new Batch(rows, "INSERT INTO restaurant_cuisines (restaurant_id, cuisine) VALUES (?, ?)");
+             Batch tags = new Batch(rows, "INSERT INTO restaurant_tags (restaurant_id, tag) VALUES (?, ?)");
+             Batch options = new Batch(rows, "INSERT INTO restaurant_dietary_options (restaurant_id, option) VALUES (?, ?)")) {
+            long menuItemId = 1;
+            for (long id = 1; id <= restaurants; id++) {
+                double[] city = Vocabulary.CITIES[random.nextInt(Vocabulary.CITIES.length)];
+                // Popular places are entered again and again under the same name
+                String name = random.nextInt(5) == 0
+                        ? "The " + Vocabulary.RESTAURANT_WORDS.get(Vocabulary.skewed(random, 5))
+                        : Vocabulary.pick(random, Vocabulary.RESTAURANT_WORDS) + " " + Vocabulary.pick(random, Vocabulary.RESTAURANT_WORDS);
+                Set<DietaryPreference> diet = randomPreferences(0.4);
+                Timestamp created = timestampFor(id, restaurants);
+                rows.add(id, name, sentence(25), (1 + random.nextInt(300)) + " " + Vocabulary.pick(random, Vocabulary.STREETS),
+                        "+1 555 " + (1000 + random.nextInt(9000)), "https://example.com/r/" + id,
+                        "/uploads/restaurants/" + id + ".jpg", BigDecimal.valueOf(10 + random.nextInt(41), 1),
+                        random.nextBoolean() ? sentence(10) : null, PriceRange.values()[random.nextInt(4)].name(),
+                        randomPrivacy().name(), DietaryPreference.toMask(diet), (long) Vocabulary.skewed(random, users) + 1,
+                        city[0] + random.nextGaussian() * 0.05, city[1] + random.nextGaussian() * 0.05,
+                        "s" + Long.toHexString(id * 2654435761L), created, created);
+
+                int itemCount = 3 + random.nextInt(12);
+                for (int i = 0; i < itemCount; i++) {
+                    menuItems.add(menuItemId++, Vocabulary.pick(random, Vocabulary.DISHES), sentence(8),
+                            BigDecimal.valueOf(500 + random.nextInt(4000), 2), BigDecimal.valueOf(10 + random.nextInt(41), 1),
+                            Vocabulary.pick(random, Vocabulary.CATEGORIES), (short) 0, 0L, id);
+                }
+                for (String cuisine : randomSubset(Vocabulary.CUISINES, 1.0, 2)) {
+                    cuisines.add(id, cuisine);
+                }
+                for (String tag : randomSubset(Vocabulary.TAGS, 0.5, 3)) {
+                    tags.add(id, tag);
+                }
+                for (DietaryPreference option : diet) {
+                    options.add(id, option.name());
+                }
+            }
+        }
+    }
+
+    private Set<DietaryPreference> randomPreferences(double probability) {
+        Set<DietaryPreference> preferences = new LinkedHashSet<>();
+        if (random.nextDouble() < probability) {
+            int count = 1 + random.nextInt(2);
+            for (int i = 0; i < count; i++) {
+                preferences.add(DietaryPreference.values()[random.nextInt(DietaryPreference.values().length)]);
+            }
+        }
+        return preferences;
+    }
+
+    private Set<String> randomSubset(List<String> words, double probability, int max) {
+        Set<String> subset = new LinkedHashSet<>();
+        if (random.nextDouble() < probability) {
+            int count = 1 + random.nextInt(max);
+            for (int i = 0; i < count; i++) {
+                subset.add(Vocabulary.pick(random, words));
+            }
+        }
+        return subset;
+    }
+
+    private PrivacyLevel randomPrivacy() {
+        int roll = random.nextInt(20);
+        return roll < 16 ? PrivacyLevel.PUBLIC : roll < 19 ? PrivacyLevel.FRIENDS : PrivacyLevel.PRIVATE;
+    }
+
+    // Later ids are newer, as with an auto-increment key, with jitter so timestamps interleave
+    private Timestamp timestampFor(long id, int total) {
+        long minutes = (long) ((double) id / total * SPAN_MINUTES) + random.nextInt(60);
+        return Timestamp.valueOf(EPOCH.plusMinutes(minutes));
+    }
+
+    private Timestamp randomTimestamp() {
+        return Timestamp.valueOf(EPOCH.plusMinutes(random.nextInt(SPAN_MINUTES)));
+    }
+
+    private String sentence(int words) {
+        List<String> parts = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            parts.add(Vocabulary.pick(random, Vocabulary.INGREDIENTS));
+        }
+        return String.join(" ", parts);
+    }
+
+    public record CatalogSize(int users, int recipes, int restaurants) {
+    }
+
+    /**
+     * A prepared statement flushed every {@value #BATCH_SIZE} rows and on close. A child
+     * batch flushes its parent first, so foreign keys always point at written rows.
+     */
+    private static final class Batch implements AutoCloseable {
+
+        private final PreparedStatement statement;
+        private final Batch parent;
+        private int pending;
+
+        Batch(Connection connection, String sql) throws SQLException {
+            this.statement = connection.prepareStatement(sql);
+            this.parent = null;
+        }
+
+        Batch(Batch parent, String sql) throws SQLException {
+            this.statement = parent.statement.getConnection().prepareStatement(sql);
+            this.parent = parent;
+        }
+
+        void add(Object... values) throws SQLException {
+            for (int i = 0; i < values.length; i++) {
+                statement.setObject(i + 1, values[i]);
+            }
+            statement.addBatch();
+            if (++pending == BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        void flush() throws SQLException {
+            if (parent != null) {
+                parent.flush();
+            }
+            if (pending > 0) {
+                statement.executeBatch();
+                pending = 0;
+            }
+        }
+
+        // Resources close in reverse order, children before their parent
+        @Override
+        public void close() throws SQLException {
+            try {
+                flush();
+            } finally {
+                statement.close();
+            }
+        }
+    }
+}
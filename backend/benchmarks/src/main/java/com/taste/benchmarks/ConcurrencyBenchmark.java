@@ -0,0 +1,123 @@
+package com.taste.benchmarks;
+
+import com.taste.config.ConcurrencyLimitedDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of {@code requests} concurrent simulated requests, each holding a pooled
+ * connection for a query plus {@code dbMillis}, and blocking {@code ioMillis} as a call to
+ * another service or writing a response would. With {@code holdDuringIo} the connection is
+ * still held through that wait, as it is for work inside a transaction or with
+ * open-in-view; without it the wait comes after the connection is returned.
+ * {@code platform} runs them on 200 threads, Tomcat's default; {@code virtual} on a virtual
+ * thread each, which needs Java 21 ({@code -p executor=platform} on older JVMs). Scores are
+ * per burst.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrencyBenchmark {
+
+    private static final int POOL_SIZE = 10;
+
+    @Param({"platform", "virtual"})
+    public String executor;
+
+    @Param({"true", "false"})
+    public boolean limiter;
+
+    @Param({"2000"})
+    public int requests;
+
+    @Param({"2"})
+    public int dbMillis;
+
+    @Param({"20"})
+    public int ioMillis;
+
+    @Param({"false", "true"})
+    public boolean holdDuringIo;
+
+    private HikariDataSource pool;
+    private DataSource dataSource;
+    private ExecutorService executorService;
+
+    @Setup
+    public void setUp() throws Exception {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl("jdbc:h2:mem:concurrency;DB_CLOSE_DELAY=-1");
+        config.setUsername("sa");
+        config.setMaximumPoolSize(POOL_SIZE);
+        config.setConnectionTimeout(Duration.ofMinutes(1).toMillis());
+        pool = new HikariDataSource(config);
+        dataSource = limiter
+                ? new ConcurrencyLimitedDataSource(pool, "benchmark", POOL_SIZE, Duration.ofMinutes(1), new SimpleMeterRegistry())
+                : pool;
+        executorService = executor.equals("virtual") ? virtualThreadPerTask() : Executors.newFixedThreadPool(200);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executorService.shutdownNow();
+        pool.close();
+    }
+
+    @Benchmark
+    public long burst() throws Exception {
+        List<Future<Long>> results = new ArrayList<>(requests);
+        for (int i = 0; i < requests; i++) {
+            results.add(executorService.submit(this::request));
+        }
+        long sum = 0;
+        for (Future<Long> result : results) {
+            sum += result.get();
+        }
+        return sum;
+    }
+
+    private long request() throws SQLException, InterruptedException {
+        long value;
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT 1")) {
+            resultSet.next();
+            value = resultSet.getLong(1);
+            Thread.sleep(dbMillis);
+            if (holdDuringIo) {
+                Thread.sleep(ioMillis);
+            }
+        }
+        if (!holdDuringIo) {
+            Thread.sleep(ioMillis);
+        }
+        return value;
+    }
+
+    // By reflection, so the module still builds for Java 17
+    private static ExecutorService virtualThreadPerTask() throws ReflectiveOperationException {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads need Java 21; run with -p executor=platform", e);
+        }
+    }
+}
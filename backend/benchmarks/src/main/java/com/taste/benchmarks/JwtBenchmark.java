@@ -0,0 +1,70 @@
+package com.taste.benchmarks;
+
+import com.taste.security.JwtUtils;
+import com.taste.security.UserPrincipal;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private AnnotationConfigApplicationContext context;
+    private JwtUtils jwtUtils;
+    private Authentication authentication;
+    private String validToken;
+    private String tamperedToken;
+
+    @Setup
+    public void setUp() {
+        // A bare context, so @Value injection and @PostConstruct run as they do in the app
+        context = new AnnotationConfigApplicationContext();
+        context.getEnvironment().getPropertySources().addFirst(new MapPropertySource("benchmark", Map.of(
+                "app.jwt.secret", "benchmark-secret-benchmark-secret-benchmark-secret",
+                "app.jwt.expiration", "604800000")));
+        context.registerBean(MeterRegistry.class, SimpleMeterRegistry::new);
+        context.register(JwtUtils.class);
+        context.refresh();
+        jwtUtils = context.getBean(JwtUtils.class);
+
+        UserPrincipal principal = new UserPrincipal(1L, "benchmark_user", "bench@example.com", "x");
+        authentication = new UsernamePasswordAuthenticationToken(principal, null, List.of());
+        validToken = jwtUtils.generateJwtToken(authentication);
+        char last = validToken.charAt(validToken.length() - 1);
+        tamperedToken = validToken.substring(0, validToken.length() - 1) + (last == 'A' ? 'B' : 'A');
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String generate() {
+        return jwtUtils.generateJwtToken(authentication);
+    }
+
+    @Benchmark
+    public Optional<String> validateValid() {
+        return jwtUtils.validateAndGetUserName(validToken);
+    }
+
+    @Benchmark
+    public Optional<String> validateTampered() {
+        return jwtUtils.validateAndGetUserName(tamperedToken);
+    }
+}
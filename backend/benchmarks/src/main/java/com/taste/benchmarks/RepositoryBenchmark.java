@@ -0,0 +1,119 @@
+package com.taste.benchmarks;
+
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.model.DietaryPreference;
+import com.taste.model.Recipe;
+import com.taste.model.Restaurant;
+import com.taste.model.User;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.repository.UserRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+/**
+ * The main recipe and restaurant read queries against a seeded catalog. Entity lookups pick
+ * a random id per invocation, so the numbers reflect a cold-ish spread of rows rather than
+ * one cached row.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryBenchmark {
+
+    private static final PageRequest PAGE = PageRequest.ofSize(20);
+
+    private RecipeRepository recipeRepository;
+    private RestaurantRepository restaurantRepository;
+    private UserRepository userRepository;
+    private int recipes;
+    private int restaurants;
+    private int users;
+    private LocalDateTime middleCreatedAt;
+    private List<Long> popularAuthorIds;
+
+    @Setup
+    public void setUp(SeededCatalog catalog) {
+        recipeRepository = catalog.bean(RecipeRepository.class);
+        restaurantRepository = catalog.bean(RestaurantRepository.class);
+        userRepository = catalog.bean(UserRepository.class);
+        recipes = catalog.size.recipes();
+        restaurants = catalog.size.restaurants();
+        users = catalog.size.users();
+        middleCreatedAt = recipeRepository.findById((long) recipes / 2).orElseThrow().getCreatedAt();
+        popularAuthorIds = LongStream.rangeClosed(1, 50).boxed().toList();
+    }
+
+    @Benchmark
+    public List<RecipeSummary> recipeFeedFirstPage() {
+        return recipeRepository.findPublicRecipeSummaries(PAGE);
+    }
+
+    @Benchmark
+    public List<RecipeSummary> recipeFeedDeepPage() {
+        return recipeRepository.findPublicRecipeSummariesBefore(middleCreatedAt, Long.MAX_VALUE, PAGE);
+    }
+
+    @Benchmark
+    public List<RecipeSummary> followedRecipeFeed() {
+        return recipeRepository.findFollowedRecipeSummariesBefore(popularAuthorIds, popularAuthorIds,
+                LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE, PAGE);
+    }
+
+    @Benchmark
+    public Optional<Recipe> recipeDetail() {
+        return recipeRepository.findDetailById(randomId(recipes));
+    }
+
+    @Benchmark
+    public Optional<Recipe> recipeByShareToken() {
+        return recipeRepository.findByShareToken("r" + Long.toHexString(randomId(recipes) * 2654435761L));
+    }
+
+    @Benchmark
+    public List<Recipe> recipeListByIds() {
+        long start = randomId(Math.max(1, recipes - 50));
+        return recipeRepository.findListByIdIn(LongStream.range(start, start + 50).boxed().toList());
+    }
+
+    @Benchmark
+    public List<Recipe> recipesByAuthor() {
+        User author = userRepository.getReferenceById(randomId(users));
+        return recipeRepository.findByAuthor(author);
+    }
+
+    @Benchmark
+    public List<Recipe> recipesByDietaryPreference() {
+        return recipeRepository.findByDietaryPreference(DietaryPreference.VEGAN);
+    }
+
+    @Benchmark
+    public List<RestaurantSummary> restaurantFeedFirstPage() {
+        return restaurantRepository.findPublicRestaurantSummaries(PAGE);
+    }
+
+    @Benchmark
+    public Optional<Restaurant> restaurantDetail() {
+        return restaurantRepository.findDetailById(randomId(restaurants));
+    }
+
+    @Benchmark
+    public List<Restaurant> restaurantsByDietaryOption() {
+        return restaurantRepository.findByDietaryOption(DietaryPreference.VEGAN);
+    }
+
+    private static long randomId(int max) {
+        return ThreadLocalRandom.current().nextLong(1, max + 1L);
+    }
+}
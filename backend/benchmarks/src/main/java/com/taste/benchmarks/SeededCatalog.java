@@ -0,0 +1,57 @@
+package com.taste.benchmarks;
+
+import com.taste.TasteApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+
+/**
+ * The application context against an in-memory H2 database (MySQL mode) seeded by
+ * {@link CatalogDataGenerator}. {@code rows} is the recipe count; pass e.g.
+ * {@code -p rows=10000,100000,1000000} to sweep catalog sizes.
+ */
+@State(Scope.Benchmark)
+public class SeededCatalog {
+
+    @Param({"10000"})
+    public int rows;
+
+    public CatalogDataGenerator.CatalogSize size;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() throws Exception {
+        context = new SpringApplicationBuilder(TasteApplication.class)
+                // As arguments, so they take precedence over application.yml
+                .run(
+                        // The security configuration needs a servlet context, so bind an ephemeral port
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--app.dedupe.cluster-cron=-",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.taste=WARN");
+        size = new CatalogDataGenerator(42L).generate(context.getBean(DataSource.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    public <T> T bean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
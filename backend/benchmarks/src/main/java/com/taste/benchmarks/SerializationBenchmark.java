@@ -0,0 +1,168 @@
+package com.taste.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taste.dto.CursorPage;
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.dto.TimelineItem;
+import com.taste.dto.json.ReadModelModule;
+import com.taste.model.DietaryPreference;
+import com.taste.model.MenuItem;
+import com.taste.model.PriceRange;
+import com.taste.model.Recipe;
+import com.taste.model.RecipeIngredient;
+import com.taste.model.Restaurant;
+import com.taste.model.User;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Response serialization of fully initialized entity graphs, and of a full feed page, with
+ * the mapper configured as Spring Boot configures it for MVC. The {@code readModel}
+ * variants add {@link ReadModelModule}, as the application does.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"10", "40"})
+    public int collectionSize;
+
+    private ObjectMapper objectMapper;
+    private ObjectMapper readModelMapper;
+    private Recipe recipe;
+    private Restaurant restaurant;
+    private CursorPage<RecipeSummary> summaryPage;
+    private CursorPage<TimelineItem> timelinePage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+        readModelMapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(new ReadModelModule())
+                .build();
+        Random random = new Random(42);
+        User author = new User("benchmark_user", "bench@example.com", "x");
+        author.setId(1L);
+        author.getDietaryPreferences().add(DietaryPreference.VEGETARIAN);
+
+        recipe = new Recipe("Creamy Mushroom Risotto", sentence(random, 30), author);
+        recipe.setId(1L);
+        recipe.setInstructions(sentence(random, 200));
+        recipe.setServings(4);
+        recipe.setPrepTimeMinutes(15);
+        recipe.setCookTimeMinutes(35);
+        recipe.setDifficulty(3);
+        recipe.setImageUrl("/uploads/recipes/1.jpg");
+        recipe.setShareToken("r1");
+        recipe.setCreatedAt(LocalDateTime.now());
+        for (int i = 0; i < collectionSize; i++) {
+            RecipeIngredient ingredient = new RecipeIngredient(Vocabulary.pick(random, Vocabulary.INGREDIENTS),
+                    BigDecimal.valueOf(1 + random.nextInt(500), 1), Vocabulary.pick(random, Vocabulary.UNITS));
+            ingredient.setId((long) i + 1);
+            recipe.addIngredient(ingredient);
+            recipe.getTags().add(Vocabulary.TAGS.get(i % Vocabulary.TAGS.size()));
+        }
+        recipe.getCategories().add("Dinner");
+        recipe.getDietaryPreferences().add(DietaryPreference.VEGETARIAN);
+        recipe.getAllergens().add("milk");
+
+        restaurant = new Restaurant("Golden Olive Trattoria", "12 Main Street", author);
+        restaurant.setId(1L);
+        restaurant.setImageUrl("/uploads/restaurants/1.jpg");
+        restaurant.setPriceRange(PriceRange.MODERATE);
+        restaurant.setRating(new BigDecimal("4.5"));
+        restaurant.setLatitude(40.7128);
+        restaurant.setLongitude(-74.0060);
+        restaurant.setShareToken("s1");
+        restaurant.setCreatedAt(LocalDateTime.now());
+        for (int i = 0; i < collectionSize; i++) {
+            MenuItem item = new MenuItem(Vocabulary.pick(random, Vocabulary.DISHES), sentence(random, 8),
+                    BigDecimal.valueOf(500 + random.nextInt(4000), 2));
+            item.setId((long) i + 1);
+            item.setCategory(Vocabulary.pick(random, Vocabulary.CATEGORIES));
+            restaurant.addMenuItem(item);
+        }
+        restaurant.getCuisines().add("Italian");
+        restaurant.getDietaryOptions().add(DietaryPreference.VEGETARIAN);
+
+        // A full page at FeedService.MAX_PAGE_SIZE
+        List<RecipeSummary> recipes = new ArrayList<>();
+        List<TimelineItem> timeline = new ArrayList<>();
+        for (long id = 1; id <= 100; id++) {
+            RecipeSummary recipeSummary = new RecipeSummary(id, "Recipe " + id, mediaUrl(random), 3, 15, 35, 1L,
+                    "benchmark_user", LocalDateTime.now());
+            recipes.add(recipeSummary);
+            timeline.add(id % 2 == 0
+                    ? TimelineItem.of(recipeSummary)
+                    : TimelineItem.of(new RestaurantSummary(id, "Restaurant " + id, "12 Main Street",
+                            mediaUrl(random), new BigDecimal("4.5"), PriceRange.MODERATE, 1L,
+                            "benchmark_user", LocalDateTime.now())));
+        }
+        summaryPage = new CursorPage<>(recipes, "cursor");
+        timelinePage = new CursorPage<>(timeline, "cursor");
+    }
+
+    @Benchmark
+    public byte[] recipeGraph() throws Exception {
+        return objectMapper.writeValueAsBytes(recipe);
+    }
+
+    @Benchmark
+    public byte[] restaurantGraph() throws Exception {
+        return objectMapper.writeValueAsBytes(restaurant);
+    }
+
+    // Pages are written to a stream, as MVC writes them to the response, so the scores
+    // leave out growing a byte array
+    @Benchmark
+    public void recipeSummaryPage() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), summaryPage);
+    }
+
+    @Benchmark
+    public void recipeSummaryPageReadModel() throws Exception {
+        readModelMapper.writeValue(OutputStream.nullOutputStream(), summaryPage);
+    }
+
+    @Benchmark
+    public void timelinePage() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), timelinePage);
+    }
+
+    @Benchmark
+    public void timelinePageReadModel() throws Exception {
+        readModelMapper.writeValue(OutputStream.nullOutputStream(), timelinePage);
+    }
+
+    // An uploaded original, so cards link its resized variant
+    private static String mediaUrl(Random random) {
+        String hash = String.format("%064x", new BigInteger(256, random));
+        return "/media/" + hash.substring(0, 2) + "/" + hash + ".jpg";
+    }
+
+    private static String sentence(Random random, int words) {
+        List<String> parts = new ArrayList<>(words);
+        for (int i = 0; i < words; i++) {
+            parts.add(Vocabulary.pick(random, Vocabulary.INGREDIENTS));
+        }
+        return String.join(" ", parts);
+    }
+}
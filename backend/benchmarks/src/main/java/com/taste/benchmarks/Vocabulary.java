@@ -0,0 +1,69 @@
+package com.taste.benchmarks;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Word lists that give generated recipes and restaurants realistic lengths and a realistic
+ * spread of shared terms.
+ */
+final class Vocabulary {
+
+    static final List<String> ADJECTIVES = List.of(
+            "Classic", "Spicy", "Creamy", "Smoky", "Crispy", "Rustic", "Quick", "Hearty", "Zesty", "Golden",
+            "Roasted", "Grilled", "Slow-Cooked", "Summer", "Winter", "Garlic", "Herbed", "Lemon", "Sweet", "Tangy");
+
+    static final List<String> DISHES = List.of(
+            "Chicken Curry", "Tomato Soup", "Beef Stew", "Pad Thai", "Risotto", "Lasagna", "Tacos", "Ramen",
+            "Falafel Wrap", "Shakshuka", "Paella", "Caesar Salad", "Banana Bread", "Pancakes", "Chili",
+            "Mushroom Pie", "Fish Cakes", "Dumplings", "Pesto Pasta", "Lentil Dal", "Burrito Bowl", "Gnocchi");
+
+    static final List<String> INGREDIENTS = List.of(
+            "onion", "garlic", "olive oil", "salt", "black pepper", "butter", "flour", "sugar", "egg", "milk",
+            "tomato", "chicken breast", "ground beef", "rice", "pasta", "potato", "carrot", "celery", "lemon",
+            "parsley", "basil", "cumin", "paprika", "chili flakes", "ginger", "soy sauce", "coconut milk",
+            "chickpeas", "lentils", "spinach", "mushroom", "bell pepper", "cheddar", "parmesan", "cream",
+            "honey", "vinegar", "cilantro", "lime", "avocado", "tofu", "shrimp", "salmon", "peanut butter",
+            "sesame oil", "oregano", "thyme", "rosemary", "bay leaf", "stock", "yogurt", "corn", "beans");
+
+    static final List<String> UNITS = List.of("g", "kg", "ml", "l", "cup", "tbsp", "tsp", "piece", "pinch");
+
+    static final List<String> TAGS = List.of(
+            "weeknight", "comfort-food", "meal-prep", "one-pot", "budget", "family", "date-night", "brunch",
+            "spicy", "healthy", "party", "holiday", "kid-friendly", "quick", "make-ahead");
+
+    static final List<String> CATEGORIES = List.of(
+            "Breakfast", "Lunch", "Dinner", "Dessert", "Snack", "Soup", "Salad", "Side", "Drink", "Baking");
+
+    static final List<String> CUISINES = List.of(
+            "Italian", "Japanese", "Mexican", "Indian", "Thai", "French", "Chinese", "Greek", "Lebanese",
+            "Korean", "Vietnamese", "Spanish", "American", "Ethiopian", "Turkish");
+
+    static final List<String> ALLERGENS = List.of(
+            "peanuts", "tree nuts", "milk", "eggs", "fish", "shellfish", "soy", "wheat", "gluten", "sesame",
+            "mustard", "celery", "kiwi");
+
+    static final List<String> RESTAURANT_WORDS = List.of(
+            "Golden", "Dragon", "Olive", "Garden", "Corner", "Blue", "House", "Kitchen", "Bistro", "Grill",
+            "Taverna", "Trattoria", "Noodle", "Spice", "Harbor", "Oak", "Little", "Brothers", "Market", "Table");
+
+    static final List<String> STREETS = List.of(
+            "Main Street", "High Street", "Park Avenue", "Elm Road", "Market Square", "Station Road",
+            "Church Lane", "Mill Street", "River Drive", "King Street");
+
+    // Restaurants cluster around a few cities rather than spreading uniformly
+    static final double[][] CITIES = {
+            {40.7128, -74.0060}, {51.5074, -0.1278}, {48.8566, 2.3522}, {52.5200, 13.4050},
+            {35.6762, 139.6503}, {34.0522, -118.2437}, {41.9028, 12.4964}, {-33.8688, 151.2093}};
+
+    private Vocabulary() {}
+
+    static String pick(Random random, List<String> words) {
+        return words.get(random.nextInt(words.size()));
+    }
+
+    /** Skewed towards the front of the range, as activity and popularity are in practice. */
+    static int skewed(Random random, int bound) {
+        return (int) (bound * Math.pow(random.nextDouble(), 3));
+    }
+}
@@ -0,0 +1,117 @@
+package com.taste.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admits at most {@code permits} open connections at a time; further callers wait in FIFO
+ * order on a semaphore, up to {@code timeout}. Set to the pool size, this moves the queue of
+ * threads wanting a connection out of the pool: a semaphore wait is a cheap park for a
+ * virtual thread, and requests beyond the pool no longer contend on its internals or time
+ * out there. A permit is held from {@link #getConnection()} until the connection is closed.
+ */
+public class ConcurrencyLimitedDataSource extends DelegatingDataSource {
+
+    private final Semaphore permits;
+    private final long timeoutNanos;
+    private final Timer acquireTimer;
+    private final Counter timeouts;
+
+    public ConcurrencyLimitedDataSource(DataSource target, String pool, int permits, Duration timeout,
+                                        MeterRegistry meterRegistry) {
+        super(target);
+        this.permits = new Semaphore(permits, true);
+        this.timeoutNanos = timeout.toNanos();
+        this.acquireTimer = Timer.builder("taste.db.limiter.acquire")
+                .description("Time spent waiting for a database permit")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        this.timeouts = Counter.builder("taste.db.limiter.timeouts")
+                .description("Connection requests that gave up waiting for a permit")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("taste.db.limiter.waiting", this.permits, Semaphore::getQueueLength)
+                .description("Threads waiting for a database permit")
+                .tag("pool", pool)
+                .register(meterRegistry);
+        Gauge.builder("taste.db.limiter.available", this.permits, Semaphore::availablePermits)
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        acquire();
+        return release(() -> obtainTargetDataSource().getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        acquire();
+        return release(() -> obtainTargetDataSource().getConnection(username, password));
+    }
+
+    private void acquire() throws SQLException {
+        long started = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted while waiting for a database permit", e);
+        }
+        acquireTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            timeouts.increment();
+            throw new SQLTransientConnectionException("No database permit available within "
+                    + Duration.ofNanos(timeoutNanos).toMillis() + "ms");
+        }
+    }
+
+    // Wraps the connection so that closing it returns the permit, exactly once
+    private Connection release(ConnectionSource source) throws SQLException {
+        Connection target;
+        try {
+            target = source.get();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            target.close();
+                        } finally {
+                            permits.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get() throws SQLException;
+    }
+}
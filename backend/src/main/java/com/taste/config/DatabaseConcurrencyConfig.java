@@ -0,0 +1,47 @@
+package com.taste.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Puts a {@link ConcurrencyLimitedDataSource} in front of each connection pool, with as
+ * many permits as the pool has connections. Meant for virtual threads, where the number of
+ * request threads is no longer bounded by Tomcat's pool and thousands may ask for a
+ * connection at once. With replicas configured, {@link ReplicaRoutingConfig} limits each
+ * of its pools the same way.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.concurrency-limit.enabled", havingValue = "true")
+public class DatabaseConcurrencyConfig {
+
+    // Static, so that registering it does not instantiate this configuration early
+    @Bean
+    public static BeanPostProcessor concurrencyLimitedDataSourcePostProcessor(Environment environment,
+                                                                              ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof HikariDataSource pool)) {
+                    return bean;
+                }
+                return limit(pool, Objects.requireNonNullElse(pool.getPoolName(), beanName), environment,
+                        meterRegistry.getObject());
+            }
+        };
+    }
+
+    static DataSource limit(HikariDataSource pool, String name, Environment environment, MeterRegistry meterRegistry) {
+        Duration timeout = environment.getProperty("app.db.concurrency-limit.timeout", Duration.class, Duration.ofSeconds(30));
+        return new ConcurrencyLimitedDataSource(pool, name, pool.getMaximumPoolSize(), timeout, meterRegistry);
+    }
+}
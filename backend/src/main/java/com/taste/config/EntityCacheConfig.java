@@ -0,0 +1,75 @@
+package com.taste.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.Properties;
+import java.util.UUID;
+
+/**
+ * Hibernate's second-level cache, held in local Caffeine caches behind JCache. Catalog
+ * entities and their collections are cached read-write, so a write through Hibernate
+ * replaces or evicts the entry as it commits; the TTL bounds how long a row changed
+ * outside Hibernate can be served stale. Hit and miss counts per region are exported as
+ * {@code hibernate.second.level.cache.requests} and {@code hibernate.cache.query.requests}.
+ */
+@Configuration
+public class EntityCacheConfig {
+
+    public static final String RECIPES = "recipes";
+    public static final String RECIPE_INGREDIENTS = "recipe-ingredients";
+    public static final String RESTAURANTS = "restaurants";
+    public static final String MENU_ITEMS = "menu-items";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(@Value("${app.entity-cache.max-entries:50000}") long maxEntries,
+                                           @Value("${app.entity-cache.ttl:10m}") Duration ttl,
+                                           @Value("${app.entity-cache.query.max-entries:10000}") long maxQueryEntries) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // A manager of its own rather than the provider's shared default, so it closes with this context
+        CacheManager cacheManager = provider.getCacheManager(URI.create("taste-entity-cache:" + UUID.randomUUID()),
+                getClass().getClassLoader(), new Properties());
+        for (String region : new String[] {RECIPES, RECIPE_INGREDIENTS, RESTAURANTS, MENU_ITEMS}) {
+            cacheManager.createCache(region, bounded(maxEntries, ttl));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded(maxQueryEntries, ttl));
+        // Must outlive every cached query result, or a stale result could pass as fresh
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheCustomizer(CacheManager entityCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put("hibernate.javax.cache.cache_manager", entityCacheManager);
+            // Every region is created above; a misnamed one should fail at startup, not go uncached
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+            // Saving a MenuItem or RecipeIngredient evicts its parent's cached collection, which
+            // is the inverse side and would otherwise keep the old list
+            properties.put(AvailableSettings.AUTO_EVICT_COLLECTION_CACHE, true);
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxEntries, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxEntries));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        return configuration;
+    }
+}
@@ -0,0 +1,15 @@
+package com.taste.config;
+
+import com.taste.dto.json.ReadModelModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+// Spring Boot registers every Module bean with the MVC ObjectMapper
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public ReadModelModule readModelModule() {
+        return new ReadModelModule();
+    }
+}
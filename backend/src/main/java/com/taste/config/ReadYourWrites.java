@@ -0,0 +1,65 @@
+package com.taste.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * Keeps reads of recently written state off the replicas. Callers mark a key when a write
+ * to it commits; for {@code app.db.replicas.read-your-writes} afterwards, reads for that key
+ * run in a transaction of their own on the primary. The window is a fixed time rather than
+ * the measured lag, since {@code Seconds_Behind_Source} can read 0 while a replica is still
+ * behind. Reads of other keys, and all reads without replicas, run as they are.
+ *
+ * <p>Meant for loads that fill long-lived caches, where one stale read would otherwise be
+ * served until the next change. Inside a read-only transaction the primary read takes a
+ * connection of its own; routed connections are only taken once a statement runs, so a
+ * caller that has not queried yet holds none.
+ */
+@Component
+public class ReadYourWrites {
+
+    private final boolean replicasEnabled;
+    private final Cache<Object, Boolean> written;
+    private final TransactionTemplate primary;
+
+    public ReadYourWrites(PlatformTransactionManager transactionManager,
+                          @Value("${app.db.replicas.enabled:false}") boolean replicasEnabled,
+                          @Value("${app.db.replicas.read-your-writes:30s}") Duration window) {
+        this.replicasEnabled = replicasEnabled;
+        this.written = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(100_000)
+                .build();
+        // Not read-only, so the router sends it to the primary
+        this.primary = new TransactionTemplate(transactionManager);
+        this.primary.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** Call once the write to {@code key} has committed, before dropping any cached copy. */
+    public void written(Object key) {
+        if (replicasEnabled) {
+            written.put(key, Boolean.TRUE);
+        }
+    }
+
+    public <T> T read(Object key, Supplier<T> reads) {
+        if (!replicasEnabled || written.getIfPresent(key) == null || onPrimary()) {
+            return reads.get();
+        }
+        return primary.execute(status -> reads.get());
+    }
+
+    private static boolean onPrimary() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
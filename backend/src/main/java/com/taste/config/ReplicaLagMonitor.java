@@ -0,0 +1,66 @@
+package com.taste.config;
+
+import com.taste.config.ReplicaRoutingDataSource.Replica;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Measures each replica's lag with {@code lagQuery}, by default MySQL's
+ * {@code SHOW REPLICA STATUS}, reading seconds behind the primary from {@code lagColumn}. A
+ * replica that returns no status row, a null lag (replication stopped) or an error is
+ * marked unknown and gets no reads until a later check succeeds.
+ */
+public class ReplicaLagMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final List<Replica> replicas;
+    private final String lagQuery;
+    private final String lagColumn;
+
+    public ReplicaLagMonitor(List<Replica> replicas, String lagQuery, String lagColumn) {
+        this.replicas = replicas;
+        this.lagQuery = lagQuery;
+        this.lagColumn = lagColumn;
+    }
+
+    @Scheduled(fixedDelayString = "${app.db.replicas.lag-check-interval:PT5S}")
+    public void check() {
+        for (Replica replica : replicas) {
+            double lag = measure(replica);
+            if (Double.isNaN(lag) != Double.isNaN(replica.lagSeconds())) {
+                if (Double.isNaN(lag)) {
+                    logger.warn("Replica {} lag unknown, reads go elsewhere until it recovers", replica.name());
+                } else {
+                    logger.info("Replica {} lag {}s", replica.name(), (long) lag);
+                }
+            }
+            replica.setLagSeconds(lag);
+        }
+    }
+
+    private double measure(Replica replica) {
+        try (Connection connection = replica.dataSource().getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    return Double.NaN;
+                }
+                long lag = resultSet.getLong(lagColumn);
+                return resultSet.wasNull() ? Double.NaN : lag;
+            }
+        } catch (SQLException e) {
+            logger.debug("Lag check failed for replica {}", replica.name(), e);
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.taste.config;
+
+import com.taste.config.ReplicaRoutingDataSource.Replica;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the auto-configured data source with a primary pool plus one pool per read
+ * replica, routed by {@link ReplicaRoutingDataSource}. Every pool takes the
+ * {@code spring.datasource.hikari} settings and reports {@code hikaricp.*} metrics under its
+ * own pool name; replica pools are sized separately and open their connections read-only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.db.replicas.enabled", havingValue = "true")
+public class ReplicaRoutingConfig {
+
+    private static final String PRIMARY = "primary";
+
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    public ReplicaRoutingConfig(Environment environment, MeterRegistry meterRegistry) {
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties,
+                                                             @Value("${app.db.replicas.urls}") List<String> urls,
+                                                             @Value("${app.db.replicas.username:${spring.datasource.username:}}") String username,
+                                                             @Value("${app.db.replicas.password:${spring.datasource.password:}}") String password,
+                                                             @Value("${app.db.replicas.pool-size:10}") int poolSize,
+                                                             @Value("${app.db.replicas.max-lag:2s}") Duration maxLag) {
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("app.db.replicas.enabled is set but app.db.replicas.urls is empty");
+        }
+        HikariDataSource primary = pool(properties.initializeDataSourceBuilder().type(HikariDataSource.class).build(), PRIMARY);
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : urls) {
+            String name = "replica-" + (replicas.size() + 1);
+            HikariDataSource replica = pool(DataSourceBuilder.create().type(HikariDataSource.class)
+                    .url(url.trim()).username(username).password(password).build(), name);
+            replica.setMaximumPoolSize(poolSize);
+            replica.setMinimumIdle(poolSize);
+            replica.setReadOnly(true);
+            replicas.add(new Replica(name, limit(replica, name)));
+        }
+        return new ReplicaRoutingDataSource(PRIMARY, limit(primary, PRIMARY), replicas, maxLag, meterRegistry);
+    }
+
+    // Connections are taken only once a statement runs, by which time the transaction's
+    // read-only flag is known to the router
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource replicaRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               @Value("${app.db.replicas.lag-query:SHOW REPLICA STATUS}") String lagQuery,
+                                               @Value("${app.db.replicas.lag-column:Seconds_Behind_Source}") String lagColumn) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource.getReplicas(), lagQuery, lagColumn);
+    }
+
+    // The pools are not beans of their own, so nothing else closes them
+    @PreDestroy
+    public void close() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private HikariDataSource pool(HikariDataSource pool, String name) {
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        pools.add(pool);
+        return pool;
+    }
+
+    private DataSource limit(HikariDataSource pool, String name) {
+        if (!environment.getProperty("app.db.concurrency-limit.enabled", Boolean.class, false)) {
+            return pool;
+        }
+        return DatabaseConcurrencyConfig.limit(pool, name, environment, meterRegistry);
+    }
+}
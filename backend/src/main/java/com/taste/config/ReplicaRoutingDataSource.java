@@ -0,0 +1,107 @@
+package com.taste.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends connections for read-only transactions to a replica, round robin, and everything
+ * else to the primary. A replica takes reads only while its last measured lag is within
+ * {@code maxLag}; until it has been measured, or when none qualifies, reads fall back to
+ * the primary. The read-only flag is only known once a transaction has begun, so this must
+ * sit behind a {@code LazyConnectionDataSourceProxy}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final String primaryName;
+    private final List<Replica> replicas;
+    private final double maxLagSeconds;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Map<String, Counter> reads = new HashMap<>();
+    private final Counter writes;
+
+    public ReplicaRoutingDataSource(String primaryName, DataSource primary, List<Replica> replicas, Duration maxLag,
+                                    MeterRegistry meterRegistry) {
+        this.primaryName = primaryName;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(primaryName, primary);
+        reads.put(primaryName, routed(meterRegistry, primaryName, "read"));
+        for (Replica replica : replicas) {
+            targets.put(replica.name(), replica.dataSource());
+            reads.put(replica.name(), routed(meterRegistry, replica.name(), "read"));
+            Gauge.builder("taste.db.replica.lag", replica, Replica::lagSeconds)
+                    .description("Replication lag as last measured; NaN when unknown or not replicating")
+                    .baseUnit("seconds")
+                    .tag("pool", replica.name())
+                    .register(meterRegistry);
+        }
+        writes = routed(meterRegistry, primaryName, "write");
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return primaryName;
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.lagSeconds() <= maxLagSeconds) {
+                reads.get(replica.name()).increment();
+                return replica.name();
+            }
+        }
+        reads.get(primaryName).increment();
+        return primaryName;
+    }
+
+    private static Counter routed(MeterRegistry meterRegistry, String pool, String access) {
+        return Counter.builder("taste.db.routed.connections")
+                .description("Connections handed out, by target pool and transaction type")
+                .tag("pool", pool)
+                .tag("access", access)
+                .register(meterRegistry);
+    }
+
+    /**
+     * One replica's pool and its lag as last measured by {@link ReplicaLagMonitor}.
+     */
+    public static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        // NaN compares false with everything, so an unmeasured replica never qualifies
+        private volatile double lagSeconds = Double.NaN;
+
+        public Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String name() { return name; }
+
+        public DataSource dataSource() { return dataSource; }
+
+        public double lagSeconds() { return lagSeconds; }
+
+        void setLagSeconds(double lagSeconds) { this.lagSeconds = lagSeconds; }
+    }
+}
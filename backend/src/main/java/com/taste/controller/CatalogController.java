@@ -0,0 +1,62 @@
+package com.taste.controller;
+
+import com.taste.dto.ImportProgress;
+import com.taste.security.UserPrincipal;
+import com.taste.service.catalog.CatalogExportService;
+import com.taste.service.catalog.CatalogImportService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+@RestController
+@RequestMapping("/api/catalog")
+public class CatalogController {
+
+    private final CatalogImportService importService;
+    private final CatalogExportService exportService;
+
+    public CatalogController(CatalogImportService importService, CatalogExportService exportService) {
+        this.importService = importService;
+        this.exportService = exportService;
+    }
+
+    // The file is the raw request body; the import runs after the upload has been accepted
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<ImportProgress> importCatalog(@AuthenticationPrincipal UserPrincipal principal,
+                                                        HttpServletRequest request) throws IOException {
+        try (InputStream body = request.getInputStream()) {
+            ImportProgress progress = importService.submit(principal.getId(), body, request.getContentLengthLong());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/catalog/import/" + progress.id()))
+                    .body(progress);
+        }
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<ImportProgress> getImportProgress(@AuthenticationPrincipal UserPrincipal principal,
+                                                            @PathVariable String jobId) {
+        return ResponseEntity.of(importService.progress(principal.getId(), jobId));
+    }
+
+    // Written straight to the response as rows are read
+    @GetMapping("/export")
+    public void exportCatalog(@AuthenticationPrincipal UserPrincipal principal, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename("catalog.json").build().toString());
+        exportService.export(principal.getId(), response.getOutputStream());
+    }
+}
@@ -0,0 +1,91 @@
+package com.taste.controller;
+
+import com.taste.model.PrivacyLevel;
+import com.taste.repository.ContentVersion;
+import com.taste.security.UserPrincipal;
+import com.taste.service.ETags;
+import com.taste.service.detail.ContentDetailService;
+import com.taste.service.privacy.VisibilityEvaluator;
+import com.taste.service.share.ShareTarget;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+/**
+ * Recipe and restaurant details, by id and by share token. Responses carry an ETag for the
+ * item's version, and a matching If-None-Match is answered with 304 before the item is
+ * loaded. Caches may store them but must revalidate each use; PUBLIC items and share links
+ * may be stored by shared caches such as a CDN, everything else only by the browser.
+ */
+@RestController
+public class ContentDetailController {
+
+    private final ContentDetailService contentDetailService;
+    private final VisibilityEvaluator visibilityEvaluator;
+
+    public ContentDetailController(ContentDetailService contentDetailService, VisibilityEvaluator visibilityEvaluator) {
+        this.contentDetailService = contentDetailService;
+        this.visibilityEvaluator = visibilityEvaluator;
+    }
+
+    @GetMapping("/api/recipes/{id}")
+    public ResponseEntity<byte[]> getRecipe(@AuthenticationPrincipal UserPrincipal principal,
+                                            @PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return byId(ShareTarget.RECIPE, principal, id, ifNoneMatch);
+    }
+
+    @GetMapping("/api/restaurants/{id}")
+    public ResponseEntity<byte[]> getRestaurant(@AuthenticationPrincipal UserPrincipal principal,
+                                                @PathVariable Long id,
+                                                @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return byId(ShareTarget.RESTAURANT, principal, id, ifNoneMatch);
+    }
+
+    // Public: holding the share token is what grants access to a shared link
+    @GetMapping("/api/share/{target}/{token}")
+    public ResponseEntity<byte[]> getShared(@PathVariable String target,
+                                            @PathVariable String token,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ShareTarget shareTarget = ShareTarget.fromPath(target);
+        return respond(shareTarget, contentDetailService.versionByShareToken(shareTarget, token), true, ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> byId(ShareTarget target, UserPrincipal principal, Long id, String ifNoneMatch) {
+        Optional<ContentVersion> version = contentDetailService.version(target, id)
+                .filter(v -> visibilityEvaluator.canView(principal.getId(), v.authorId(), v.privacyLevel()));
+        boolean isPublic = version.map(v -> v.privacyLevel() == null || v.privacyLevel() == PrivacyLevel.PUBLIC).orElse(false);
+        return respond(target, version, isPublic, ifNoneMatch);
+    }
+
+    private ResponseEntity<byte[]> respond(ShareTarget target, Optional<ContentVersion> version, boolean shared,
+                                           String ifNoneMatch) {
+        if (version.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        CacheControl cacheControl = shared ? CacheControl.noCache().cachePublic() : CacheControl.noCache().cachePrivate();
+        String etag = ContentDetailService.etag(target, version.get());
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(etag)
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return contentDetailService.json(target, version.get())
+                .map(json -> ResponseEntity.ok()
+                        .eTag(json.etag())
+                        .cacheControl(cacheControl)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body(json.bytes()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
@@ -0,0 +1,45 @@
+package com.taste.controller;
+
+import com.taste.dto.CursorPage;
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.dto.TimelineItem;
+import com.taste.security.UserPrincipal;
+import com.taste.service.feed.FeedService;
+import com.taste.service.timeline.TimelineService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+public class FeedController {
+
+    private final FeedService feedService;
+    private final TimelineService timelineService;
+
+    public FeedController(FeedService feedService, TimelineService timelineService) {
+        this.feedService = feedService;
+        this.timelineService = timelineService;
+    }
+
+    @GetMapping("/api/feed/recipes")
+    public CursorPage<RecipeSummary> getRecipeFeed(@RequestParam(required = false) String cursor,
+                                                   @RequestParam(required = false) Integer limit) {
+        return feedService.getPublicRecipes(cursor, limit);
+    }
+
+    @GetMapping("/api/feed/restaurants")
+    public CursorPage<RestaurantSummary> getRestaurantFeed(@RequestParam(required = false) String cursor,
+                                                           @RequestParam(required = false) Integer limit) {
+        return feedService.getPublicRestaurants(cursor, limit);
+    }
+
+    // Content from the people the viewer follows
+    @GetMapping("/api/timeline")
+    public CursorPage<TimelineItem> getTimeline(@AuthenticationPrincipal UserPrincipal principal,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return timelineService.getTimeline(principal.getId(), cursor, limit);
+    }
+}
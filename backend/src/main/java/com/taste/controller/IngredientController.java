@@ -0,0 +1,48 @@
+package com.taste.controller;
+
+import com.taste.dto.CookableRecipe;
+import com.taste.dto.IngredientMatch;
+import com.taste.security.UserPrincipal;
+import com.taste.service.ingredient.CookableRecipeService;
+import com.taste.service.ingredient.IngredientDictionary;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/ingredients")
+public class IngredientController {
+
+    private final IngredientDictionary dictionary;
+    private final CookableRecipeService cookableRecipeService;
+
+    public IngredientController(IngredientDictionary dictionary, CookableRecipeService cookableRecipeService) {
+        this.dictionary = dictionary;
+        this.cookableRecipeService = cookableRecipeService;
+    }
+
+    @GetMapping("/resolve")
+    public List<IngredientMatch> resolve(@RequestParam List<String> name) {
+        if (name.size() > CookableRecipeService.MAX_INGREDIENTS) {
+            throw new IllegalArgumentException("At most " + CookableRecipeService.MAX_INGREDIENTS + " names are allowed");
+        }
+        return name.stream()
+                .map(input -> dictionary.resolve(input)
+                        .map(id -> new IngredientMatch(input, id, dictionary.name(id)))
+                        .orElseGet(() -> new IngredientMatch(input, null, null)))
+                .toList();
+    }
+
+    // Ingredients the viewer has on hand
+    @GetMapping("/cookable-recipes")
+    public List<CookableRecipe> getCookableRecipes(@AuthenticationPrincipal UserPrincipal principal,
+                                                   @RequestParam List<String> have,
+                                                   @RequestParam(required = false) Integer maxMissing,
+                                                   @RequestParam(defaultValue = "" + CookableRecipeService.DEFAULT_LIMIT) int limit) {
+        return cookableRecipeService.cookable(principal.getId(), have, maxMissing, limit);
+    }
+}
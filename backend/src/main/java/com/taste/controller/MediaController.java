@@ -0,0 +1,163 @@
+package com.taste.controller;
+
+import com.taste.service.media.MappedMediaCache;
+import com.taste.service.media.MediaStorage;
+import com.taste.service.media.MediaVariants;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Serves uploaded media outside the message-converter stack. Where the connector supports
+ * it, every body is handed to Tomcat's sendfile and never enters the JVM. Otherwise small,
+ * hot files are written from mapped views in {@link MappedMediaCache}, which saves the file
+ * open and read per request, and anything else is copied with {@link FileChannel#transferTo}.
+ * Both of those write through the response stream, so the bytes pass through its heap
+ * buffer. Supports single byte ranges and conditional requests; the ETag is the
+ * content-addressed file name.
+ */
+// Public: media URLs are unguessable content hashes
+@RestController
+@RequestMapping("/media")
+public class MediaController {
+
+    // A URL names exactly one sequence of bytes, so it can be cached forever
+    private static final String IMMUTABLE = CacheControl.maxAge(Duration.ofDays(365)).cachePublic().immutable().getHeaderValue();
+
+    // Request attributes of Tomcat's sendfile support (org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaStorage mediaStorage;
+    private final MappedMediaCache mappedCache;
+
+    public MediaController(MediaStorage mediaStorage, MappedMediaCache mappedCache) {
+        this.mediaStorage = mediaStorage;
+        this.mappedCache = mappedCache;
+    }
+
+    @GetMapping("/{shard}/{fileName}")
+    public void getMedia(@PathVariable String shard, @PathVariable String fileName,
+                         HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Optional<Path> found = mediaStorage.find(shard, fileName);
+        if (found.isEmpty()) {
+            // A variant that is still being generated: send the original, but not for keeps
+            Optional<String> original = mediaStorage.fallbackForVariant(fileName);
+            if (original.isPresent()) {
+                response.setStatus(HttpServletResponse.SC_FOUND);
+                response.setHeader(HttpHeaders.LOCATION, original.get());
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noCache().getHeaderValue());
+            } else {
+                // Not sendError: the /error dispatch it triggers is not public
+                response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            }
+            return;
+        }
+
+        Path file = found.get();
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = '"' + fileName.substring(0, fileName.lastIndexOf('.')) + '"';
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, IMMUTABLE);
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // Evaluates If-None-Match, then If-Modified-Since, sets ETag and Last-Modified, and answers 304
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return;
+        }
+
+        long start = 0;
+        long end = length;
+        HttpRange range = requestedRange(request, etag, lastModified);
+        if (range != null) {
+            start = range.getRangeStart(length);
+            end = range.getRangeEnd(length) + 1;
+            if (start >= length || end <= start) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, CacheControl.noStore().getHeaderValue());
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + length);
+        }
+        response.setContentType(MediaVariants.parse(fileName).format().getContentType());
+        response.setContentLengthLong(end - start);
+        if (HttpMethod.HEAD.matches(request.getMethod()) || end == start) {
+            return;
+        }
+        writeBody(request, response, file, length, start, end);
+    }
+
+    /**
+     * The single range to serve, or null for the whole file. Malformed and multi-range headers
+     * are ignored, as is a Range whose If-Range no longer matches.
+     */
+    private static HttpRange requestedRange(HttpServletRequest request, String etag, long lastModified) {
+        String header = request.getHeader(HttpHeaders.RANGE);
+        if (header == null) {
+            return null;
+        }
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        try {
+            // An If-Range is either our ETag or an HTTP date; anything else voids the Range
+            if (ifRange != null && !ifRange.equals(etag)
+                    && lastModified / 1000 > request.getDateHeader(HttpHeaders.IF_RANGE) / 1000) {
+                return null;
+            }
+            List<HttpRange> ranges = HttpRange.parseRanges(header);
+            return ranges.size() == 1 ? ranges.get(0) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void writeBody(HttpServletRequest request, HttpServletResponse response,
+                           Path file, long length, long start, long end) throws IOException {
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            // Tomcat writes the file to the socket itself once this handler returns
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end);
+            return;
+        }
+        WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+        ByteBuffer mapped = mappedCache.get(file, length);
+        if (mapped != null) {
+            ByteBuffer body = mapped.slice((int) start, (int) (end - start));
+            while (body.hasRemaining()) {
+                out.write(body);
+            }
+            return;
+        }
+        // The target is a stream rather than a socket channel, so this copies through the heap too
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long position = start;
+            while (position < end) {
+                position += channel.transferTo(position, end - position, out);
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.taste.controller;
+
+import com.taste.dto.UploadedMedia;
+import com.taste.service.media.MediaStorage;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+
+@RestController
+@RequestMapping("/api/media")
+public class MediaUploadController {
+
+    private final MediaStorage mediaStorage;
+
+    public MediaUploadController(MediaStorage mediaStorage) {
+        this.mediaStorage = mediaStorage;
+    }
+
+    // Preferred: the image is the raw request body, streamed to disk as it arrives
+    @PostMapping(consumes = "image/*")
+    public ResponseEntity<UploadedMedia> upload(HttpServletRequest request) throws IOException {
+        try (ReadableByteChannel body = Channels.newChannel(request.getInputStream())) {
+            return created(mediaStorage.store(body, request.getContentLengthLong()));
+        }
+    }
+
+    // Form uploads; the container has already spooled the part to a temporary file
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<UploadedMedia> uploadForm(@RequestParam("file") MultipartFile file) throws IOException {
+        try (ReadableByteChannel body = Channels.newChannel(file.getInputStream())) {
+            return created(mediaStorage.store(body, file.getSize()));
+        }
+    }
+
+    private static ResponseEntity<UploadedMedia> created(UploadedMedia media) {
+        return ResponseEntity.created(URI.create(media.url())).body(media);
+    }
+}
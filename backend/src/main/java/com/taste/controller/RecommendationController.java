@@ -0,0 +1,36 @@
+package com.taste.controller;
+
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.security.UserPrincipal;
+import com.taste.service.recommendation.RecommendationService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/recommendations")
+public class RecommendationController {
+
+    private final RecommendationService recommendationService;
+
+    public RecommendationController(RecommendationService recommendationService) {
+        this.recommendationService = recommendationService;
+    }
+
+    @GetMapping("/recipes")
+    public List<RecipeSummary> getRecipeRecommendations(@AuthenticationPrincipal UserPrincipal principal,
+                                                        @RequestParam(defaultValue = "" + RecommendationService.DEFAULT_LIMIT) int limit) {
+        return recommendationService.recommendRecipes(principal.getId(), limit);
+    }
+
+    @GetMapping("/restaurants")
+    public List<RestaurantSummary> getRestaurantRecommendations(@AuthenticationPrincipal UserPrincipal principal,
+                                                                @RequestParam(defaultValue = "" + RecommendationService.DEFAULT_LIMIT) int limit) {
+        return recommendationService.recommendRestaurants(principal.getId(), limit);
+    }
+}
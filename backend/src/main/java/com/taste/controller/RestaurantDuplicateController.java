@@ -0,0 +1,45 @@
+package com.taste.controller;
+
+import com.taste.dto.RestaurantDuplicate;
+import com.taste.security.UserPrincipal;
+import com.taste.service.dedupe.DuplicateDetectionService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/restaurants")
+public class RestaurantDuplicateController {
+
+    private final DuplicateDetectionService duplicateDetectionService;
+
+    public RestaurantDuplicateController(DuplicateDetectionService duplicateDetectionService) {
+        this.duplicateDetectionService = duplicateDetectionService;
+    }
+
+    // Checked by the create form before a new restaurant is submitted
+    @GetMapping("/duplicates")
+    public List<RestaurantDuplicate> findDuplicates(@AuthenticationPrincipal UserPrincipal principal,
+                                                    @RequestParam String name,
+                                                    @RequestParam(required = false) String address,
+                                                    @RequestParam(required = false) Double lat,
+                                                    @RequestParam(required = false) Double lon,
+                                                    @RequestParam(defaultValue = "" + DuplicateDetectionService.DEFAULT_LIMIT) int limit) {
+        return duplicateDetectionService.findDuplicates(principal.getId(), name, address, lat, lon, limit);
+    }
+
+    @GetMapping("/{id}/duplicates")
+    public ResponseEntity<List<RestaurantDuplicate>> findDuplicatesOf(@AuthenticationPrincipal UserPrincipal principal,
+                                                                      @PathVariable Long id,
+                                                                      @RequestParam(defaultValue = "" + DuplicateDetectionService.DEFAULT_LIMIT) int limit) {
+        return duplicateDetectionService.findDuplicatesOf(principal.getId(), id, limit)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
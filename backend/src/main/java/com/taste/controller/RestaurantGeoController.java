@@ -0,0 +1,56 @@
+package com.taste.controller;
+
+import com.taste.dto.NearbyRestaurant;
+import com.taste.dto.RestaurantMarker;
+import com.taste.model.DietaryPreference;
+import com.taste.model.PriceRange;
+import com.taste.security.UserPrincipal;
+import com.taste.service.geo.RestaurantGeoService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/restaurants")
+public class RestaurantGeoController {
+
+    private final RestaurantGeoService geoService;
+
+    public RestaurantGeoController(RestaurantGeoService geoService) {
+        this.geoService = geoService;
+    }
+
+    // Map viewport
+    @GetMapping("/within")
+    public List<RestaurantMarker> getWithinBox(@AuthenticationPrincipal UserPrincipal principal,
+                                               @RequestParam double minLat, @RequestParam double minLon,
+                                               @RequestParam double maxLat, @RequestParam double maxLon,
+                                               @RequestParam(required = false) List<PriceRange> priceRange,
+                                               @RequestParam(required = false) List<DietaryPreference> dietary,
+                                               @RequestParam(defaultValue = "" + RestaurantGeoService.DEFAULT_LIMIT) int limit) {
+        return geoService.withinBox(principal.getId(), minLat, minLon, maxLat, maxLon, priceRange, dietary, limit);
+    }
+
+    @GetMapping("/nearby")
+    public List<NearbyRestaurant> getNearby(@AuthenticationPrincipal UserPrincipal principal,
+                                            @RequestParam double lat, @RequestParam double lon,
+                                            @RequestParam double radiusKm,
+                                            @RequestParam(required = false) List<PriceRange> priceRange,
+                                            @RequestParam(required = false) List<DietaryPreference> dietary,
+                                            @RequestParam(defaultValue = "" + RestaurantGeoService.DEFAULT_LIMIT) int limit) {
+        return geoService.withinRadius(principal.getId(), lat, lon, radiusKm, priceRange, dietary, limit);
+    }
+
+    @GetMapping("/nearest")
+    public List<NearbyRestaurant> getNearest(@AuthenticationPrincipal UserPrincipal principal,
+                                             @RequestParam double lat, @RequestParam double lon,
+                                             @RequestParam(defaultValue = "" + RestaurantGeoService.DEFAULT_K) int k,
+                                             @RequestParam(required = false) List<PriceRange> priceRange,
+                                             @RequestParam(required = false) List<DietaryPreference> dietary) {
+        return geoService.nearest(principal.getId(), lat, lon, k, priceRange, dietary);
+    }
+}
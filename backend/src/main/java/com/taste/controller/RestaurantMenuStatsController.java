@@ -0,0 +1,44 @@
+package com.taste.controller;
+
+import com.taste.dto.MenuStats;
+import com.taste.dto.RestaurantMenuCard;
+import com.taste.model.DietaryPreference;
+import com.taste.security.UserPrincipal;
+import com.taste.service.menu.MenuSort;
+import com.taste.service.menu.MenuStatsService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/restaurants")
+public class RestaurantMenuStatsController {
+
+    private final MenuStatsService menuStatsService;
+
+    public RestaurantMenuStatsController(MenuStatsService menuStatsService) {
+        this.menuStatsService = menuStatsService;
+    }
+
+    @GetMapping("/{id}/menu-stats")
+    public ResponseEntity<MenuStats> getMenuStats(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id) {
+        return ResponseEntity.of(menuStatsService.getMenuStats(principal.getId(), id));
+    }
+
+    // e.g. ?dietary=GLUTEN_FREE&under=15&minDishes=5: five gluten-free dishes below $15
+    @GetMapping("/by-menu")
+    public List<RestaurantMenuCard> searchByMenu(@AuthenticationPrincipal UserPrincipal principal,
+                                                 @RequestParam(required = false) DietaryPreference dietary,
+                                                 @RequestParam(required = false) Integer under,
+                                                 @RequestParam(defaultValue = "1") int minDishes,
+                                                 @RequestParam(defaultValue = "RATING") MenuSort sort,
+                                                 @RequestParam(defaultValue = "" + MenuStatsService.DEFAULT_LIMIT) int limit) {
+        return menuStatsService.search(principal.getId(), dietary, under, minDishes, sort, limit);
+    }
+}
@@ -0,0 +1,59 @@
+package com.taste.controller;
+
+import com.taste.service.share.QrCodeService;
+import com.taste.service.share.QrFormat;
+import com.taste.service.share.ShareTarget;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+// Public: holding the share token is what grants access to a shared link
+@RestController
+@RequestMapping("/api/share")
+public class ShareQrController {
+
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofDays(1)).cachePublic();
+
+    private final QrCodeService qrCodeService;
+
+    public ShareQrController(QrCodeService qrCodeService) {
+        this.qrCodeService = qrCodeService;
+    }
+
+    @GetMapping("/{target}/{token}/qr")
+    public CompletableFuture<ResponseEntity<byte[]>> getQrCode(@PathVariable String target,
+                                                               @PathVariable String token,
+                                                               @RequestParam(defaultValue = "png") String format,
+                                                               @RequestParam(defaultValue = "" + QrCodeService.DEFAULT_SIZE) int size,
+                                                               @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        ShareTarget shareTarget = ShareTarget.fromPath(target);
+        QrFormat qrFormat = QrFormat.parse(format);
+        if (!qrCodeService.isShared(shareTarget, token)) {
+            return CompletableFuture.completedFuture(ResponseEntity.notFound().build());
+        }
+        return qrCodeService.getQrCode(shareTarget, token, qrFormat, size).thenApply(image -> {
+            if (image.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(image.etag())
+                        .cacheControl(CACHE_CONTROL)
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(image.etag())
+                    .cacheControl(CACHE_CONTROL)
+                    .contentType(MediaType.parseMediaType(image.format().getContentType()))
+                    .body(image.bytes());
+        });
+    }
+}
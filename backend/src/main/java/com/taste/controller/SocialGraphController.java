@@ -0,0 +1,69 @@
+package com.taste.controller;
+
+import com.taste.dto.CursorPage;
+import com.taste.dto.FollowRelationship;
+import com.taste.dto.UserSummary;
+import com.taste.security.UserPrincipal;
+import com.taste.service.FollowService;
+import com.taste.service.social.SocialGraphService;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+public class SocialGraphController {
+
+    private final FollowService followService;
+    private final SocialGraphService socialGraphService;
+
+    public SocialGraphController(FollowService followService, SocialGraphService socialGraphService) {
+        this.followService = followService;
+        this.socialGraphService = socialGraphService;
+    }
+
+    @PostMapping("/{id}/follow")
+    public FollowRelationship follow(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id) {
+        followService.follow(principal.getId(), id);
+        return socialGraphService.relationship(principal.getId(), id);
+    }
+
+    @DeleteMapping("/{id}/follow")
+    public FollowRelationship unfollow(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id) {
+        followService.unfollow(principal.getId(), id);
+        return socialGraphService.relationship(principal.getId(), id);
+    }
+
+    @GetMapping("/{id}/relationship")
+    public FollowRelationship getRelationship(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id) {
+        return socialGraphService.relationship(principal.getId(), id);
+    }
+
+    @GetMapping("/{id}/followers")
+    public CursorPage<UserSummary> getFollowers(@PathVariable Long id,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return socialGraphService.followers(id, cursor, limit);
+    }
+
+    @GetMapping("/{id}/following")
+    public CursorPage<UserSummary> getFollowing(@PathVariable Long id,
+                                                @RequestParam(required = false) String cursor,
+                                                @RequestParam(required = false) Integer limit) {
+        return socialGraphService.following(id, cursor, limit);
+    }
+
+    // Users both the viewer and this user follow
+    @GetMapping("/{id}/common-following")
+    public List<UserSummary> getCommonFollowing(@AuthenticationPrincipal UserPrincipal principal, @PathVariable Long id,
+                                                @RequestParam(required = false) Integer limit) {
+        return socialGraphService.commonFollowing(principal.getId(), id, limit);
+    }
+}
@@ -0,0 +1,37 @@
+package com.taste.controller;
+
+import com.taste.dto.Suggestion;
+import com.taste.model.SuggestionType;
+import com.taste.service.typeahead.TypeaheadService;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/suggestions")
+public class TypeaheadController {
+
+    // Lets the browser answer a retyped prefix (e.g. after a backspace) itself
+    private static final CacheControl CACHE_CONTROL = CacheControl.maxAge(Duration.ofSeconds(30)).cachePrivate();
+
+    private final TypeaheadService typeaheadService;
+
+    public TypeaheadController(TypeaheadService typeaheadService) {
+        this.typeaheadService = typeaheadService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<Suggestion>> getSuggestions(@RequestParam String q,
+                                                           @RequestParam(required = false) List<SuggestionType> type,
+                                                           @RequestParam(defaultValue = "" + TypeaheadService.DEFAULT_LIMIT) int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CACHE_CONTROL)
+                .body(typeaheadService.suggest(q, type, limit));
+    }
+}
@@ -0,0 +1,10 @@
+package com.taste.dto;
+
+import java.math.BigDecimal;
+
+public record CatalogIngredient(
+        String name,
+        BigDecimal quantity,
+        String unit,
+        String notes) {
+}
@@ -0,0 +1,18 @@
+package com.taste.dto;
+
+import com.taste.model.DietaryPreference;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+public record CatalogMenuItem(
+        String name,
+        String description,
+        BigDecimal price,
+        BigDecimal rating,
+        String notes,
+        String category,
+        String imageUrl,
+        Set<DietaryPreference> dietaryPreferences,
+        Set<String> allergens) {
+}
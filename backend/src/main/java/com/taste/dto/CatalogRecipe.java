@@ -0,0 +1,30 @@
+package com.taste.dto;
+
+import com.taste.model.DietaryPreference;
+import com.taste.model.PrivacyLevel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A recipe as it appears in a catalog export or import file. Ids are not carried over;
+ * a missing {@code createdAt} means now.
+ */
+public record CatalogRecipe(
+        String title,
+        String description,
+        String instructions,
+        Integer servings,
+        Integer prepTimeMinutes,
+        Integer cookTimeMinutes,
+        Integer difficulty,
+        String imageUrl,
+        PrivacyLevel privacyLevel,
+        Set<String> categories,
+        Set<String> tags,
+        Set<DietaryPreference> dietaryPreferences,
+        Set<String> allergens,
+        List<CatalogIngredient> ingredients,
+        LocalDateTime createdAt) {
+}
@@ -0,0 +1,33 @@
+package com.taste.dto;
+
+import com.taste.model.DietaryPreference;
+import com.taste.model.PriceRange;
+import com.taste.model.PrivacyLevel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A restaurant as it appears in a catalog export or import file. See {@link CatalogRecipe}.
+ */
+public record CatalogRestaurant(
+        String name,
+        String description,
+        String address,
+        String phone,
+        String website,
+        String imageUrl,
+        BigDecimal rating,
+        String notes,
+        PriceRange priceRange,
+        PrivacyLevel privacyLevel,
+        Set<String> cuisines,
+        Set<String> tags,
+        Set<DietaryPreference> dietaryOptions,
+        Double latitude,
+        Double longitude,
+        List<CatalogMenuItem> menuItems,
+        LocalDateTime createdAt) {
+}
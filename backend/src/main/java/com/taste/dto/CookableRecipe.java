@@ -0,0 +1,17 @@
+package com.taste.dto;
+
+import java.util.List;
+
+/**
+ * A recipe ranked by how much of it the viewer's ingredients cover. Pantry staples are left
+ * out of {@code required}; {@code unrecognizedIngredients} counts lines the ingredient
+ * dictionary could not resolve, which count as missing.
+ */
+public record CookableRecipe(
+        RecipeSummary recipe,
+        double coverage,
+        int matched,
+        int required,
+        List<String> missingIngredients,
+        int unrecognizedIngredients) {
+}
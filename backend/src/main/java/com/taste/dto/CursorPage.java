@@ -0,0 +1,13 @@
+package com.taste.dto;
+
+import java.util.List;
+
+/**
+ * One page of a keyset-paginated feed. {@code nextCursor} is null on the last page.
+ */
+public record CursorPage<T>(List<T> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,14 @@
+package com.taste.dto;
+
+/**
+ * How the viewer and another user are connected, with that user's follow counts.
+ * {@code mutual} is both of the first two.
+ */
+public record FollowRelationship(
+        Long userId,
+        boolean following,
+        boolean followedBy,
+        boolean mutual,
+        int followerCount,
+        int followingCount) {
+}
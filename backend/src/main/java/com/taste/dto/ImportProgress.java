@@ -0,0 +1,23 @@
+package com.taste.dto;
+
+import com.taste.model.ImportStatus;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Where a catalog import stands. {@code bytesRead} of {@code totalBytes} have been parsed;
+ * {@code errors} explains up to the first few skipped items, or why the import failed.
+ */
+public record ImportProgress(
+        String id,
+        ImportStatus status,
+        long bytesRead,
+        long totalBytes,
+        int recipesImported,
+        int restaurantsImported,
+        int skipped,
+        List<String> errors,
+        Instant startedAt,
+        Instant finishedAt) {
+}
@@ -0,0 +1,5 @@
+package com.taste.dto;
+
+/** How the ingredient dictionary reads a name; {@code ingredientId} is null when unrecognized. */
+public record IngredientMatch(String input, Long ingredientId, String canonicalName) {
+}
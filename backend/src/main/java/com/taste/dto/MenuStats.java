@@ -0,0 +1,32 @@
+package com.taste.dto;
+
+import com.taste.model.DietaryPreference;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A restaurant's menu at a glance. Prices and ratings are over the dishes that have one;
+ * {@code itemsUnder} maps each price band to the dishes priced below it, and {@code dietary}
+ * lists the preferences at least one dish carries with their share of the whole menu.
+ */
+public record MenuStats(
+        Long restaurantId,
+        int itemCount,
+        int pricedItemCount,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        BigDecimal avgPrice,
+        int ratedItemCount,
+        BigDecimal avgRating,
+        TopItem topItem,
+        Map<Integer, Integer> itemsUnder,
+        List<DietaryCoverage> dietary) {
+
+    public record TopItem(Long id, String name, BigDecimal rating) {
+    }
+
+    public record DietaryCoverage(DietaryPreference preference, int itemCount, double share) {
+    }
+}
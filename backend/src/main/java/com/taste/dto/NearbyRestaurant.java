@@ -0,0 +1,4 @@
+package com.taste.dto;
+
+public record NearbyRestaurant(RestaurantMarker restaurant, double distanceKm) {
+}
@@ -0,0 +1,33 @@
+package com.taste.dto;
+
+import com.taste.model.DietaryPreference;
+import com.taste.model.PrivacyLevel;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A recipe as shown on its own page or through a share link. The author appears only as a
+ * public summary, so the response is the same for every viewer allowed to see it.
+ */
+public record RecipeDetail(
+        Long id,
+        String title,
+        String description,
+        String instructions,
+        Integer servings,
+        Integer prepTimeMinutes,
+        Integer cookTimeMinutes,
+        Integer difficulty,
+        String imageUrl,
+        PrivacyLevel privacyLevel,
+        Set<String> categories,
+        Set<String> tags,
+        Set<DietaryPreference> dietaryPreferences,
+        Set<String> allergens,
+        List<CatalogIngredient> ingredients,
+        UserSummary author,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
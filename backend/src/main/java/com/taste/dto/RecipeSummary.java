@@ -0,0 +1,28 @@
+package com.taste.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.taste.service.media.MediaVariants;
+
+import java.time.LocalDateTime;
+
+/**
+ * Card-sized view of a recipe for feeds and lists. Built directly by JPQL constructor
+ * expressions, so no entity or element collection is loaded.
+ */
+public record RecipeSummary(
+        Long id,
+        String title,
+        String imageUrl,
+        Integer difficulty,
+        Integer prepTimeMinutes,
+        Integer cookTimeMinutes,
+        Long authorId,
+        String authorUsername,
+        LocalDateTime createdAt) {
+
+    // Cards show the resized variant; imageUrl stays the original for detail views
+    @JsonProperty
+    public String thumbnailUrl() {
+        return MediaVariants.cardUrl(imageUrl);
+    }
+}
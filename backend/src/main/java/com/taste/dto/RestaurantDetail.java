@@ -0,0 +1,36 @@
+package com.taste.dto;
+
+import com.taste.model.DietaryPreference;
+import com.taste.model.PriceRange;
+import com.taste.model.PrivacyLevel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A restaurant as shown on its own page or through a share link; see {@link RecipeDetail}.
+ */
+public record RestaurantDetail(
+        Long id,
+        String name,
+        String description,
+        String address,
+        String phone,
+        String website,
+        String imageUrl,
+        BigDecimal rating,
+        String notes,
+        PriceRange priceRange,
+        PrivacyLevel privacyLevel,
+        Set<String> cuisines,
+        Set<String> tags,
+        Set<DietaryPreference> dietaryOptions,
+        Double latitude,
+        Double longitude,
+        List<CatalogMenuItem> menuItems,
+        UserSummary author,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,4 @@
+package com.taste.dto;
+
+public record RestaurantDuplicate(Long id, String name, String address, double score) {
+}
@@ -0,0 +1,18 @@
+package com.taste.dto;
+
+import com.taste.model.PriceRange;
+
+import java.math.BigDecimal;
+
+/**
+ * A restaurant as a point on the map, served straight from the spatial index.
+ */
+public record RestaurantMarker(
+        Long id,
+        String name,
+        String address,
+        double latitude,
+        double longitude,
+        PriceRange priceRange,
+        BigDecimal rating) {
+}
@@ -0,0 +1,35 @@
+package com.taste.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.taste.model.PriceRange;
+import com.taste.service.media.MediaVariants;
+
+import java.math.BigDecimal;
+
+/**
+ * A restaurant card with its menu aggregates, for menu-based search. {@code matchingItems}
+ * is the number of dishes that met the search's dietary and price filters. Built by JPQL
+ * constructor expressions from {@code restaurant_menu_stats}; no menu item is read.
+ */
+public record RestaurantMenuCard(
+        Long id,
+        String name,
+        String address,
+        String imageUrl,
+        PriceRange priceRange,
+        Long authorId,
+        String authorUsername,
+        int itemCount,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        BigDecimal avgPrice,
+        BigDecimal avgRating,
+        String topItemName,
+        BigDecimal topItemRating,
+        int matchingItems) {
+
+    @JsonProperty
+    public String thumbnailUrl() {
+        return MediaVariants.cardUrl(imageUrl);
+    }
+}
@@ -0,0 +1,30 @@
+package com.taste.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.taste.model.PriceRange;
+import com.taste.service.media.MediaVariants;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Card-sized view of a restaurant for feeds and lists. Built directly by JPQL constructor
+ * expressions, so no entity or element collection is loaded.
+ */
+public record RestaurantSummary(
+        Long id,
+        String name,
+        String address,
+        String imageUrl,
+        BigDecimal rating,
+        PriceRange priceRange,
+        Long authorId,
+        String authorUsername,
+        LocalDateTime createdAt) {
+
+    // Cards show the resized variant; imageUrl stays the original for detail views
+    @JsonProperty
+    public String thumbnailUrl() {
+        return MediaVariants.cardUrl(imageUrl);
+    }
+}
@@ -0,0 +1,15 @@
+package com.taste.dto;
+
+import com.taste.model.SuggestionType;
+
+/**
+ * One typeahead completion. {@code id} and {@code detail} (the display name) are only set
+ * for users; {@code popularity} is followers for users and uses for terms.
+ */
+public record Suggestion(
+        SuggestionType type,
+        String text,
+        String detail,
+        Long id,
+        long popularity) {
+}
@@ -0,0 +1,28 @@
+package com.taste.dto;
+
+import com.taste.model.TimelineContentType;
+
+import java.time.LocalDateTime;
+
+/**
+ * One card in a friend timeline. Exactly one of {@code recipe} / {@code restaurant} is set,
+ * matching {@code type}.
+ */
+public record TimelineItem(TimelineContentType type, RecipeSummary recipe, RestaurantSummary restaurant) {
+
+    public static TimelineItem of(RecipeSummary recipe) {
+        return new TimelineItem(TimelineContentType.RECIPE, recipe, null);
+    }
+
+    public static TimelineItem of(RestaurantSummary restaurant) {
+        return new TimelineItem(TimelineContentType.RESTAURANT, null, restaurant);
+    }
+
+    public LocalDateTime createdAt() {
+        return recipe != null ? recipe.createdAt() : restaurant.createdAt();
+    }
+
+    public long sortKey() {
+        return type.sortKey(recipe != null ? recipe.id() : restaurant.id());
+    }
+}
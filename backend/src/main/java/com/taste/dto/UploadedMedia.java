@@ -0,0 +1,16 @@
+package com.taste.dto;
+
+/**
+ * Result of an image upload. {@code url} is what to store in an entity's image field;
+ * {@code duplicate} is set when identical bytes had already been uploaded.
+ */
+public record UploadedMedia(
+        String url,
+        String cardUrl,
+        String contentHash,
+        String contentType,
+        long size,
+        Integer width,
+        Integer height,
+        boolean duplicate) {
+}
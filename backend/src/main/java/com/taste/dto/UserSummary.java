@@ -0,0 +1,12 @@
+package com.taste.dto;
+
+/**
+ * List-sized view of a user, built by JPQL constructor expressions.
+ */
+public record UserSummary(
+        Long id,
+        String username,
+        String firstName,
+        String lastName,
+        String profileImageUrl) {
+}
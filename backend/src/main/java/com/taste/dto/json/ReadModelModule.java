@@ -0,0 +1,301 @@
+package com.taste.dto.json;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ResolvableSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.dto.TimelineItem;
+import com.taste.dto.UserSummary;
+import com.taste.model.PriceRange;
+import com.taste.model.TimelineContentType;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Hand-written serializers for the list and feed read models. Field names are encoded once
+ * and enum serializers are resolved once per mapper, so writing a page is straight calls on
+ * the generator with no bean introspection or per-value serializer lookups. Timestamps in
+ * the default ISO shape are written digit by digit rather than through
+ * {@code DateTimeFormatter}, which allocated most of a page's garbage. The output is byte for
+ * byte what Jackson writes for these records by default; keep the field order in step with
+ * the record components.
+ */
+public class ReadModelModule extends SimpleModule {
+
+    private static final SerializableString ID = name("id");
+    private static final SerializableString TITLE = name("title");
+    private static final SerializableString NAME = name("name");
+    private static final SerializableString ADDRESS = name("address");
+    private static final SerializableString IMAGE_URL = name("imageUrl");
+    private static final SerializableString THUMBNAIL_URL = name("thumbnailUrl");
+    private static final SerializableString DIFFICULTY = name("difficulty");
+    private static final SerializableString PREP_TIME_MINUTES = name("prepTimeMinutes");
+    private static final SerializableString COOK_TIME_MINUTES = name("cookTimeMinutes");
+    private static final SerializableString RATING = name("rating");
+    private static final SerializableString PRICE_RANGE = name("priceRange");
+    private static final SerializableString AUTHOR_ID = name("authorId");
+    private static final SerializableString AUTHOR_USERNAME = name("authorUsername");
+    private static final SerializableString CREATED_AT = name("createdAt");
+    private static final SerializableString USERNAME = name("username");
+    private static final SerializableString FIRST_NAME = name("firstName");
+    private static final SerializableString LAST_NAME = name("lastName");
+    private static final SerializableString PROFILE_IMAGE_URL = name("profileImageUrl");
+    private static final SerializableString TYPE = name("type");
+    private static final SerializableString RECIPE = name("recipe");
+    private static final SerializableString RESTAURANT = name("restaurant");
+
+    public ReadModelModule() {
+        super("ReadModelModule");
+        addSerializer(RecipeSummary.class, new RecipeSummarySerializer());
+        addSerializer(RestaurantSummary.class, new RestaurantSummarySerializer());
+        addSerializer(UserSummary.class, new UserSummarySerializer());
+        addSerializer(TimelineItem.class, new TimelineItemSerializer());
+    }
+
+    static class RecipeSummarySerializer extends StdSerializer<RecipeSummary> implements ResolvableSerializer {
+
+        private final DateTimeWriter dates = new DateTimeWriter();
+
+        RecipeSummarySerializer() {
+            super(RecipeSummary.class);
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            dates.resolve(provider);
+        }
+
+        @Override
+        public void serialize(RecipeSummary recipe, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(recipe);
+            gen.writeFieldName(ID);
+            writeNumber(gen, recipe.id());
+            gen.writeFieldName(TITLE);
+            gen.writeString(recipe.title());
+            gen.writeFieldName(IMAGE_URL);
+            gen.writeString(recipe.imageUrl());
+            gen.writeFieldName(DIFFICULTY);
+            writeNumber(gen, recipe.difficulty());
+            gen.writeFieldName(PREP_TIME_MINUTES);
+            writeNumber(gen, recipe.prepTimeMinutes());
+            gen.writeFieldName(COOK_TIME_MINUTES);
+            writeNumber(gen, recipe.cookTimeMinutes());
+            gen.writeFieldName(AUTHOR_ID);
+            writeNumber(gen, recipe.authorId());
+            gen.writeFieldName(AUTHOR_USERNAME);
+            gen.writeString(recipe.authorUsername());
+            gen.writeFieldName(CREATED_AT);
+            dates.write(gen, provider, recipe.createdAt());
+            gen.writeFieldName(THUMBNAIL_URL);
+            gen.writeString(recipe.thumbnailUrl());
+            gen.writeEndObject();
+        }
+    }
+
+    static class RestaurantSummarySerializer extends StdSerializer<RestaurantSummary> implements ResolvableSerializer {
+
+        private final DateTimeWriter dates = new DateTimeWriter();
+        private JsonSerializer<Object> priceRanges;
+
+        RestaurantSummarySerializer() {
+            super(RestaurantSummary.class);
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            dates.resolve(provider);
+            priceRanges = provider.findValueSerializer(PriceRange.class);
+        }
+
+        @Override
+        public void serialize(RestaurantSummary restaurant, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(restaurant);
+            gen.writeFieldName(ID);
+            writeNumber(gen, restaurant.id());
+            gen.writeFieldName(NAME);
+            gen.writeString(restaurant.name());
+            gen.writeFieldName(ADDRESS);
+            gen.writeString(restaurant.address());
+            gen.writeFieldName(IMAGE_URL);
+            gen.writeString(restaurant.imageUrl());
+            gen.writeFieldName(RATING);
+            writeNumber(gen, restaurant.rating());
+            gen.writeFieldName(PRICE_RANGE);
+            writeValue(gen, provider, priceRanges, restaurant.priceRange());
+            gen.writeFieldName(AUTHOR_ID);
+            writeNumber(gen, restaurant.authorId());
+            gen.writeFieldName(AUTHOR_USERNAME);
+            gen.writeString(restaurant.authorUsername());
+            gen.writeFieldName(CREATED_AT);
+            dates.write(gen, provider, restaurant.createdAt());
+            gen.writeFieldName(THUMBNAIL_URL);
+            gen.writeString(restaurant.thumbnailUrl());
+            gen.writeEndObject();
+        }
+    }
+
+    static class UserSummarySerializer extends StdSerializer<UserSummary> {
+
+        UserSummarySerializer() {
+            super(UserSummary.class);
+        }
+
+        @Override
+        public void serialize(UserSummary user, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(user);
+            gen.writeFieldName(ID);
+            writeNumber(gen, user.id());
+            gen.writeFieldName(USERNAME);
+            gen.writeString(user.username());
+            gen.writeFieldName(FIRST_NAME);
+            gen.writeString(user.firstName());
+            gen.writeFieldName(LAST_NAME);
+            gen.writeString(user.lastName());
+            gen.writeFieldName(PROFILE_IMAGE_URL);
+            gen.writeString(user.profileImageUrl());
+            gen.writeEndObject();
+        }
+    }
+
+    static class TimelineItemSerializer extends StdSerializer<TimelineItem> implements ResolvableSerializer {
+
+        private JsonSerializer<Object> types;
+        private JsonSerializer<Object> recipes;
+        private JsonSerializer<Object> restaurants;
+
+        TimelineItemSerializer() {
+            super(TimelineItem.class);
+        }
+
+        @Override
+        public void resolve(SerializerProvider provider) throws JsonMappingException {
+            types = provider.findValueSerializer(TimelineContentType.class);
+            recipes = provider.findValueSerializer(RecipeSummary.class);
+            restaurants = provider.findValueSerializer(RestaurantSummary.class);
+        }
+
+        @Override
+        public void serialize(TimelineItem item, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            gen.writeStartObject(item);
+            gen.writeFieldName(TYPE);
+            writeValue(gen, provider, types, item.type());
+            gen.writeFieldName(RECIPE);
+            writeValue(gen, provider, recipes, item.recipe());
+            gen.writeFieldName(RESTAURANT);
+            writeValue(gen, provider, restaurants, item.restaurant());
+            gen.writeEndObject();
+        }
+    }
+
+    // LocalDateTimeSerializer.INSTANCE writes ISO_LOCAL_DATE_TIME unless timestamps are
+    // enabled; anything else (a custom format, out-of-range years) goes through the serializer
+    static class DateTimeWriter {
+
+        private JsonSerializer<Object> serializer;
+        private boolean defaultShape;
+
+        void resolve(SerializerProvider provider) throws JsonMappingException {
+            serializer = provider.findValueSerializer(LocalDateTime.class);
+            defaultShape = (Object) serializer == LocalDateTimeSerializer.INSTANCE;
+        }
+
+        void write(JsonGenerator gen, SerializerProvider provider, LocalDateTime time) throws IOException {
+            if (time == null) {
+                gen.writeNull();
+            } else if (defaultShape && time.getYear() >= 0 && time.getYear() <= 9999
+                    && !provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)) {
+                char[] chars = new char[29];
+                int length = iso(time, chars);
+                gen.writeString(chars, 0, length);
+            } else {
+                serializer.serialize(time, gen, provider);
+            }
+        }
+
+        // yyyy-MM-ddTHH:mm:ss, then the nanoseconds without trailing zeros, if any
+        static int iso(LocalDateTime time, char[] chars) {
+            pad(chars, 0, time.getYear(), 4);
+            chars[4] = '-';
+            pad(chars, 5, time.getMonthValue(), 2);
+            chars[7] = '-';
+            pad(chars, 8, time.getDayOfMonth(), 2);
+            chars[10] = 'T';
+            pad(chars, 11, time.getHour(), 2);
+            chars[13] = ':';
+            pad(chars, 14, time.getMinute(), 2);
+            chars[16] = ':';
+            pad(chars, 17, time.getSecond(), 2);
+            int nano = time.getNano();
+            if (nano == 0) {
+                return 19;
+            }
+            chars[19] = '.';
+            int digits = 9;
+            while (nano % 10 == 0) {
+                nano /= 10;
+                digits--;
+            }
+            pad(chars, 20, nano, digits);
+            return 20 + digits;
+        }
+
+        private static void pad(char[] chars, int offset, int value, int width) {
+            for (int i = offset + width - 1; i >= offset; i--) {
+                chars[i] = (char) ('0' + value % 10);
+                value /= 10;
+            }
+        }
+    }
+
+    private static SerializableString name(String name) {
+        SerializedString encoded = new SerializedString(name);
+        // Encode eagerly rather than on first write
+        encoded.asQuotedUTF8();
+        encoded.asQuotedChars();
+        return encoded;
+    }
+
+    private static void writeNumber(JsonGenerator gen, Long value) throws IOException {
+        if (value != null) {
+            gen.writeNumber(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, Integer value) throws IOException {
+        if (value != null) {
+            gen.writeNumber(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writeNumber(JsonGenerator gen, BigDecimal value) throws IOException {
+        if (value != null) {
+            gen.writeNumber(value);
+        } else {
+            gen.writeNull();
+        }
+    }
+
+    private static void writeValue(JsonGenerator gen, SerializerProvider provider, JsonSerializer<Object> serializer,
+                                   Object value) throws IOException {
+        if (value != null) {
+            serializer.serialize(value, gen, provider);
+        } else {
+            gen.writeNull();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package com.taste.event;
+
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    DELETED
+}
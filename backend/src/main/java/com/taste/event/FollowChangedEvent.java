@@ -0,0 +1,8 @@
+package com.taste.event;
+
+/**
+ * Published when {@code followerId} starts ({@code following == true}) or stops following
+ * {@code followedId}.
+ */
+public record FollowChangedEvent(Long followerId, Long followedId, boolean following) {
+}
@@ -0,0 +1,9 @@
+package com.taste.event;
+
+/**
+ * Published when a menu item is written, from inside the writing transaction, once for each
+ * restaurant whose menu it changed: an item moved between restaurants, or detached by
+ * {@code Restaurant.removeMenuItem}, also names the restaurant it was loaded with.
+ */
+public record MenuItemChangedEvent(Long menuItemId, Long restaurantId, ChangeType changeType) {
+}
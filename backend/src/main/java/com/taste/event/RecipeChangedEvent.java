@@ -0,0 +1,9 @@
+package com.taste.event;
+
+/**
+ * Published after a recipe (or one of its ingredients) is written, once per recipe and
+ * transaction. Listeners that keep derived, in-memory structures in sync should use
+ * {@code @TransactionalEventListener} so they only observe committed data.
+ */
+public record RecipeChangedEvent(Long recipeId, Long authorId, ChangeType changeType) {
+}
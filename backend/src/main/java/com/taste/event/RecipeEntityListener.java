@@ -0,0 +1,98 @@
+package com.taste.event;
+
+import com.taste.model.Recipe;
+import com.taste.model.RecipeIngredient;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JPA lifecycle hook for {@link Recipe} and {@link RecipeIngredient}. Hibernate resolves
+ * it through Spring's bean container, so it can publish application events.
+ *
+ * <p>Inside a transaction the changes are collected per recipe and published once each,
+ * after Hibernate's final flush, so saving a recipe with twenty ingredients reindexes it
+ * once rather than twenty-one times.
+ */
+@Component
+public class RecipeEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+    // Looked up on first use: the entity manager factory is still being built when this is created
+    private final ObjectProvider<EntityManager> entityManager;
+
+    public RecipeEntityListener(ApplicationEventPublisher eventPublisher, ObjectProvider<EntityManager> entityManager) {
+        this.eventPublisher = eventPublisher;
+        this.entityManager = entityManager;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        publish(entity, ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publish(entity, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, ChangeType.DELETED);
+    }
+
+    private void publish(Object entity, ChangeType changeType) {
+        if (entity instanceof Recipe recipe) {
+            collect(new RecipeChangedEvent(recipe.getId(), authorId(recipe), changeType));
+        } else if (entity instanceof RecipeIngredient ingredient && ingredient.getRecipe() != null) {
+            // An ingredient write changes the recipe's searchable content, not its existence
+            Recipe recipe = ingredient.getRecipe();
+            collect(new RecipeChangedEvent(recipe.getId(), authorId(recipe), ChangeType.UPDATED));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void collect(RecipeChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+        Map<Long, RecipeChangedEvent> changed = (Map<Long, RecipeChangedEvent>) TransactionSynchronizationManager.getResource(this);
+        if (changed == null) {
+            Map<Long, RecipeChangedEvent> events = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, events);
+            ActionQueue actionQueue = entityManager.getObject().unwrap(SessionImplementor.class).getActionQueue();
+            // Still inside the transaction, so transactional listeners see these after the commit
+            actionQueue.registerProcess((BeforeTransactionCompletionProcess) session ->
+                    events.values().forEach(eventPublisher::publishEvent));
+            actionQueue.registerProcess((AfterTransactionCompletionProcess) (success, session) ->
+                    TransactionSynchronizationManager.unbindResourceIfPossible(this));
+            changed = events;
+        }
+        changed.merge(event.recipeId(), event, RecipeEntityListener::combine);
+    }
+
+    // A deletion outweighs everything, and a recipe created in this transaction stays created
+    private static RecipeChangedEvent combine(RecipeChangedEvent earlier, RecipeChangedEvent later) {
+        if (earlier.changeType() == ChangeType.DELETED || later.changeType() == ChangeType.DELETED) {
+            return earlier.changeType() == ChangeType.DELETED ? earlier : later;
+        }
+        return earlier.changeType() == ChangeType.CREATED ? earlier : later;
+    }
+
+    private static Long authorId(Recipe recipe) {
+        return recipe.getAuthor() != null ? recipe.getAuthor().getId() : null;
+    }
+}
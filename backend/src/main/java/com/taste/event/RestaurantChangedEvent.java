@@ -0,0 +1,7 @@
+package com.taste.event;
+
+/**
+ * Published after a restaurant is written. See {@link RecipeChangedEvent}.
+ */
+public record RestaurantChangedEvent(Long restaurantId, Long authorId, ChangeType changeType) {
+}
@@ -0,0 +1,55 @@
+package com.taste.event;
+
+import com.taste.model.MenuItem;
+import com.taste.model.Restaurant;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle hook for {@link Restaurant} and {@link MenuItem}, resolved through Spring's
+ * bean container.
+ */
+@Component
+public class RestaurantEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RestaurantEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(Object entity) {
+        publish(entity, ChangeType.CREATED);
+    }
+
+    @PostUpdate
+    public void onUpdate(Object entity) {
+        publish(entity, ChangeType.UPDATED);
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        publish(entity, ChangeType.DELETED);
+    }
+
+    private void publish(Object entity, ChangeType changeType) {
+        if (entity instanceof Restaurant restaurant) {
+            Long authorId = restaurant.getAuthor() != null ? restaurant.getAuthor().getId() : null;
+            eventPublisher.publishEvent(new RestaurantChangedEvent(restaurant.getId(), authorId, changeType));
+        } else if (entity instanceof MenuItem item) {
+            Long restaurantId = item.getRestaurant() != null ? item.getRestaurant().getId() : null;
+            if (restaurantId != null) {
+                eventPublisher.publishEvent(new MenuItemChangedEvent(item.getId(), restaurantId, changeType));
+            }
+            // Removed from, or moved off, the menu it was loaded with
+            Long loadedRestaurantId = item.getLoadedRestaurantId();
+            if (loadedRestaurantId != null && !loadedRestaurantId.equals(restaurantId)) {
+                eventPublisher.publishEvent(new MenuItemChangedEvent(item.getId(), loadedRestaurantId, changeType));
+            }
+        }
+    }
+}
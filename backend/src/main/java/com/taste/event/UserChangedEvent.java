@@ -0,0 +1,7 @@
+package com.taste.event;
+
+/**
+ * Published after a user row is written, e.g. a profile edit or password change.
+ */
+public record UserChangedEvent(Long userId, ChangeType changeType) {
+}
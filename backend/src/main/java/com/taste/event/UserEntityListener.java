@@ -0,0 +1,36 @@
+package com.taste.event;
+
+import com.taste.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA lifecycle hook for {@link User}, resolved through Spring's bean container.
+ */
+@Component
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public UserEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), ChangeType.CREATED));
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getId(), ChangeType.DELETED));
+    }
+}
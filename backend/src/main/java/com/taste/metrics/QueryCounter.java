@@ -0,0 +1,48 @@
+package com.taste.metrics;
+
+import org.hibernate.Interceptor;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.hibernate.type.Type;
+
+/**
+ * Counts the SQL statements Hibernate prepares and the entities it loads on the current
+ * thread, between {@link #start()} and {@link #stop()}. Installed session-factory wide by
+ * {@link MetricsConfig}; outside a counted scope it does nothing.
+ */
+public class QueryCounter implements StatementInspector, Interceptor {
+
+    private static final ThreadLocal<Counts> current = new ThreadLocal<>();
+
+    static Counts start() {
+        Counts counts = new Counts();
+        current.set(counts);
+        return counts;
+    }
+
+    static void stop() {
+        current.remove();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.statements++;
+        }
+        return sql;
+    }
+
+    @Override
+    public boolean onLoad(Object entity, Object id, Object[] state, String[] propertyNames, Type[] types) {
+        Counts counts = current.get();
+        if (counts != null) {
+            counts.entityLoads++;
+        }
+        return false;
+    }
+
+    static final class Counts {
+        int statements;
+        int entityLoads;
+    }
+}
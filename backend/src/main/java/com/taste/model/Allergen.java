@@ -0,0 +1,94 @@
+package com.taste.model;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Normalized allergen dictionary. Free-text allergen names on recipes, menu items and users
+ * are mapped onto these values (including common aliases) so they can be stored and
+ * compared as a bitmask. Names that match nothing set {@link #OTHER_BIT} and keep their
+ * original text for an exact comparison.
+ */
+public enum Allergen {
+    PEANUT("peanut", "peanuts", "groundnut", "groundnuts"),
+    TREE_NUT("tree nut", "tree nuts", "nuts", "nut", "almond", "almonds", "cashew", "cashews",
+            "walnut", "walnuts", "hazelnut", "hazelnuts", "pecan", "pecans", "pistachio", "pistachios"),
+    MILK("milk", "dairy", "lactose", "cheese", "butter", "cream"),
+    EGG("egg", "eggs"),
+    FISH("fish"),
+    SHELLFISH("shellfish", "crustacean", "crustaceans", "shrimp", "prawn", "prawns", "crab", "lobster"),
+    MOLLUSC("mollusc", "molluscs", "mollusk", "mollusks", "clam", "clams", "mussel", "mussels",
+            "oyster", "oysters", "squid", "octopus"),
+    SOY("soy", "soya", "soybean", "soybeans"),
+    WHEAT("wheat"),
+    GLUTEN("gluten"),
+    SESAME("sesame", "sesame seeds"),
+    MUSTARD("mustard"),
+    CELERY("celery"),
+    LUPIN("lupin", "lupine"),
+    SULFITE("sulfite", "sulfites", "sulphite", "sulphites"),
+    CORN("corn", "maize");
+
+    // Set when an item lists an allergen outside this dictionary
+    public static final long OTHER_BIT = 1L << 63;
+
+    private static final Map<String, Allergen> BY_ALIAS = new HashMap<>();
+
+    static {
+        for (Allergen allergen : values()) {
+            for (String alias : allergen.aliases) {
+                BY_ALIAS.put(alias, allergen);
+            }
+        }
+    }
+
+    private final String[] aliases;
+
+    Allergen(String... aliases) {
+        this.aliases = aliases;
+    }
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public static String normalize(String name) {
+        return name == null ? "" : name.trim().toLowerCase(Locale.ROOT).replaceAll("\\s+", " ");
+    }
+
+    public static Optional<Allergen> fromName(String name) {
+        return Optional.ofNullable(BY_ALIAS.get(normalize(name)));
+    }
+
+    public static long toMask(Collection<String> names) {
+        long mask = 0;
+        if (names != null) {
+            for (String name : names) {
+                if (!normalize(name).isEmpty()) {
+                    mask |= fromName(name).map(Allergen::bit).orElse(OTHER_BIT);
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Normalized names from {@code names} that are not in the dictionary.
+     */
+    public static Set<String> unknownNames(Collection<String> names) {
+        Set<String> unknown = new TreeSet<>();
+        if (names != null) {
+            for (String name : names) {
+                if (fromName(name).isEmpty() && !normalize(name).isEmpty()) {
+                    unknown.add(normalize(name));
+                }
+            }
+        }
+        return unknown;
+    }
+}
@@ -1,5 +1,9 @@
 package com.taste.model;
 
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum DietaryPreference {
     VEGETARIAN,
     VEGAN,
@@ -15,5 +19,32 @@ public enum DietaryPreference {
     ORGANIC,
     RAW_FOOD,
     MEDITERRANEAN,
-    DIABETIC_FRIENDLY
-}
\ No newline at end of file
+    DIABETIC_FRIENDLY;
+
+    private static final DietaryPreference[] VALUES = values();
+
+    // Bit positions follow declaration order: only append new values
+    public short bit() {
+        return (short) (1 << ordinal());
+    }
+
+    public static short toMask(Collection<DietaryPreference> preferences) {
+        int mask = 0;
+        if (preferences != null) {
+            for (DietaryPreference preference : preferences) {
+                mask |= preference.bit();
+            }
+        }
+        return (short) mask;
+    }
+
+    public static Set<DietaryPreference> fromMask(short mask) {
+        Set<DietaryPreference> preferences = EnumSet.noneOf(DietaryPreference.class);
+        for (DietaryPreference preference : VALUES) {
+            if ((mask & preference.bit()) != 0) {
+                preferences.add(preference);
+            }
+        }
+        return preferences;
+    }
+}
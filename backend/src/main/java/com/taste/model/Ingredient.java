@@ -0,0 +1,57 @@
+package com.taste.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import org.hibernate.annotations.BatchSize;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Canonical dictionary entry that free-text recipe ingredient names resolve to, together
+ * with its synonyms ("green onion" for "scallion").
+ */
+@Entity
+@Table(name = "ingredients")
+public class Ingredient {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotBlank
+    @Size(max = 100)
+    @Column(nullable = false, unique = true, length = 100)
+    private String name;
+
+    // Staples such as salt and water; recipes may assume them, so they never count as missing
+    @Column(nullable = false, columnDefinition = "boolean default false")
+    private boolean pantry;
+
+    @ElementCollection
+    @BatchSize(size = 50)
+    @CollectionTable(name = "ingredient_aliases", joinColumns = @JoinColumn(name = "ingredient_id"))
+    @Column(name = "alias", length = 100)
+    private Set<String> aliases = new HashSet<>();
+
+    // Constructors
+    public Ingredient() {}
+
+    public Ingredient(String name, boolean pantry) {
+        this.name = name;
+        this.pantry = pantry;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+
+    public boolean isPantry() { return pantry; }
+    public void setPantry(boolean pantry) { this.pantry = pantry; }
+
+    public Set<String> getAliases() { return aliases; }
+    public void setAliases(Set<String> aliases) { this.aliases = aliases; }
+}
@@ -1,6 +1,13 @@
 package com.taste.model;
 
+import com.taste.config.EntityCacheConfig;
+import com.taste.event.RestaurantEntityListener;
 import jakarta.persistence.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
@@ -8,11 +15,15 @@ import jakarta.validation.constraints.Max;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
 @Table(name = "menu_items")
+@EntityListeners(RestaurantEntityListener.class)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.MENU_ITEMS)
 public class MenuItem {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -40,22 +51,54 @@ public class MenuItem {
     private String imageUrl;
 
     // Dietary information
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.MENU_ITEMS)
+    @BatchSize(size = 50)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "menu_item_dietary_preferences", joinColumns = @JoinColumn(name = "menu_item_id"))
     @Column(name = "preference")
     private Set<DietaryPreference> dietaryPreferences = new HashSet<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.MENU_ITEMS)
+    @BatchSize(size = 50)
     @CollectionTable(name = "menu_item_allergens", joinColumns = @JoinColumn(name = "menu_item_id"))
     @Column(name = "allergen")
     private Set<String> allergens = new HashSet<>();
 
+    // Bitmask mirrors of the preference and allergen sets, for bitwise filtering in SQL
+    // and in PreferenceBitmapIndex. Recomputed on every write by syncMasks().
+    @Column(name = "dietary_mask")
+    @JsonIgnore
+    private Short dietaryMask;
+
+    @Column(name = "allergen_mask")
+    @JsonIgnore
+    private Long allergenMask;
+
+    // Versioning makes Hibernate treat a change to an element collection as an update of
+    // this entity, so write callbacks (mask sync, change events) also fire for those edits
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
+    // See RecipeIngredient
+    @UpdateTimestamp
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "restaurant_id")
     @JsonIgnore
     private Restaurant restaurant;
 
+    // The restaurant the row was loaded with; removeMenuItem clears the association before
+    // the delete, and change events still need to name the menu the item left
+    @Column(name = "restaurant_id", insertable = false, updatable = false)
+    @JsonIgnore
+    private Long loadedRestaurantId;
+
     // Constructors
     public MenuItem() {}
 
@@ -98,4 +141,27 @@ public class MenuItem {
 
     public Restaurant getRestaurant() { return restaurant; }
     public void setRestaurant(Restaurant restaurant) { this.restaurant = restaurant; }
+
+    public Long getLoadedRestaurantId() { return loadedRestaurantId; }
+
+    public Short getDietaryMask() { return dietaryMask; }
+    public Long getAllergenMask() { return allergenMask; }
+
+    public Long getVersion() { return version; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
+    // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void syncMasks() {
+        // An uninitialized collection has not changed since it was loaded, and touching it
+        // here would load it in the middle of a flush
+        if (Hibernate.isInitialized(dietaryPreferences)) {
+            dietaryMask = DietaryPreference.toMask(dietaryPreferences);
+        }
+        if (Hibernate.isInitialized(allergens)) {
+            allergenMask = Allergen.toMask(allergens);
+        }
+    }
 }
\ No newline at end of file
@@ -2,6 +2,6 @@ package com.taste.model;
 
 public enum PrivacyLevel {
     PUBLIC,     // Anyone can see
-    FRIENDS,    // Only followers can see
+    FRIENDS,    // Only the user and users they follow who follow them back can see
     PRIVATE     // Only the user can see
 }
\ No newline at end of file
@@ -1,6 +1,13 @@
 package com.taste.model;
 
+import com.taste.config.EntityCacheConfig;
+import com.taste.event.RecipeEntityListener;
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
@@ -15,8 +22,25 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
-@Table(name = "recipes")
+@Table(name = "recipes", indexes = {
+    @Index(name = "idx_recipes_privacy_created", columnList = "privacy_level, created_at, id"),
+    @Index(name = "idx_recipes_author_created", columnList = "author_id, created_at, id"),
+    @Index(name = "idx_recipes_share_token", columnList = "share_token")
+})
+@EntityListeners(RecipeEntityListener.class)
+@NamedEntityGraph(name = Recipe.LIST_GRAPH, attributeNodes = @NamedAttributeNode("author"))
+@NamedEntityGraph(name = Recipe.DETAIL_GRAPH, attributeNodes = {
+    @NamedAttributeNode("author"),
+    @NamedAttributeNode("ingredients")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RECIPES)
 public class Recipe {
+    // Element collections are lazy and batch-fetched, so neither graph joins them:
+    // fetch-joining several sets at once would multiply rows
+    public static final String LIST_GRAPH = "Recipe.list";
+    public static final String DETAIL_GRAPH = "Recipe.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -49,31 +73,51 @@ public class Recipe {
     private PrivacyLevel privacyLevel = PrivacyLevel.PUBLIC;
 
     // Categories and tags
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RECIPES)
+    @BatchSize(size = 50)
     @CollectionTable(name = "recipe_categories", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "category")
     private Set<String> categories = new HashSet<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RECIPES)
+    @BatchSize(size = 50)
     @CollectionTable(name = "recipe_tags", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "tag")
     private Set<String> tags = new HashSet<>();
 
     // Dietary information
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RECIPES)
+    @BatchSize(size = 50)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "recipe_dietary_preferences", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "preference")
     private Set<DietaryPreference> dietaryPreferences = new HashSet<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RECIPES)
+    @BatchSize(size = 50)
     @CollectionTable(name = "recipe_allergens", joinColumns = @JoinColumn(name = "recipe_id"))
     @Column(name = "allergen")
     private Set<String> allergens = new HashSet<>();
 
+    // Bitmask mirrors of the preference and allergen sets, for bitwise filtering in SQL
+    // and in PreferenceBitmapIndex. Recomputed on every write by syncMasks().
+    @Column(name = "dietary_mask")
+    @JsonIgnore
+    private Short dietaryMask;
+
+    @Column(name = "allergen_mask")
+    @JsonIgnore
+    private Long allergenMask;
+
     // Ingredients
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RECIPES)
     @OrderBy("displayOrder ASC")
+    @BatchSize(size = 50)
     private List<RecipeIngredient> ingredients = new ArrayList<>();
 
     // Relationships
@@ -84,6 +128,13 @@ public class Recipe {
     // Sharing
     private String shareToken; // For public sharing via links
 
+    // Versioning makes Hibernate treat a change to an element collection as an update of
+    // this entity, so write callbacks (mask sync, change events) also fire for those edits
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -157,7 +208,25 @@ public class Recipe {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Short getDietaryMask() { return dietaryMask; }
+    public Long getAllergenMask() { return allergenMask; }
+
+    public Long getVersion() { return version; }
+
     // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void syncMasks() {
+        // An uninitialized collection has not changed since it was loaded, and touching it
+        // here would load it in the middle of a flush
+        if (Hibernate.isInitialized(dietaryPreferences)) {
+            dietaryMask = DietaryPreference.toMask(dietaryPreferences);
+        }
+        if (Hibernate.isInitialized(allergens)) {
+            allergenMask = Allergen.toMask(allergens);
+        }
+    }
+
     public Integer getTotalTimeMinutes() {
         int total = 0;
         if (prepTimeMinutes != null) total += prepTimeMinutes;
@@ -1,14 +1,26 @@
 package com.taste.model;
 
+import com.taste.config.EntityCacheConfig;
+import com.taste.event.RecipeEntityListener;
+import com.taste.service.ingredient.IngredientLinker;
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UpdateTimestamp;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Positive;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "recipe_ingredients")
+@Table(name = "recipe_ingredients", indexes = {
+    @Index(name = "idx_recipe_ingredients_ingredient", columnList = "ingredient_id")
+})
+@EntityListeners({IngredientLinker.class, RecipeEntityListener.class})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RECIPE_INGREDIENTS)
 public class RecipeIngredient {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -33,6 +45,21 @@ public class RecipeIngredient {
     @JsonIgnore
     private Recipe recipe;
 
+    // Canonical dictionary entry the name resolves to, kept in step with the name by
+    // IngredientLinker; null when the dictionary does not recognise it
+    @Column(name = "ingredient_id")
+    private Long ingredientId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "ingredient_id", insertable = false, updatable = false)
+    @JsonIgnore
+    private Ingredient ingredient;
+
+    // Editing an ingredient leaves the recipe's own row alone, so detail ETags read this too
+    @UpdateTimestamp
+    @JsonIgnore
+    private LocalDateTime updatedAt;
+
     // Constructors
     public RecipeIngredient() {}
 
@@ -64,6 +91,11 @@ public class RecipeIngredient {
     public Recipe getRecipe() { return recipe; }
     public void setRecipe(Recipe recipe) { this.recipe = recipe; }
 
+    public Long getIngredientId() { return ingredientId; }
+    public void setIngredientId(Long ingredientId) { this.ingredientId = ingredientId; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+
     // Helper methods
     public String getDisplayText() {
         StringBuilder sb = new StringBuilder();
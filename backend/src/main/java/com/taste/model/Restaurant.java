@@ -1,6 +1,13 @@
 package com.taste.model;
 
+import com.taste.config.EntityCacheConfig;
+import com.taste.event.RestaurantEntityListener;
 import jakarta.persistence.*;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import jakarta.validation.constraints.Min;
@@ -16,8 +23,24 @@ import java.util.ArrayList;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "restaurants")
+@Table(name = "restaurants", indexes = {
+    @Index(name = "idx_restaurants_privacy_created", columnList = "privacy_level, created_at, id"),
+    @Index(name = "idx_restaurants_author_created", columnList = "author_id, created_at, id"),
+    @Index(name = "idx_restaurants_share_token", columnList = "share_token")
+})
+@EntityListeners(RestaurantEntityListener.class)
+@NamedEntityGraph(name = Restaurant.LIST_GRAPH, attributeNodes = @NamedAttributeNode("author"))
+@NamedEntityGraph(name = Restaurant.DETAIL_GRAPH, attributeNodes = {
+    @NamedAttributeNode("author"),
+    @NamedAttributeNode("menuItems")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RESTAURANTS)
 public class Restaurant {
+    // See Recipe: element collections are batch-fetched rather than joined
+    public static final String LIST_GRAPH = "Restaurant.list";
+    public static final String DETAIL_GRAPH = "Restaurant.detail";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -54,25 +77,39 @@ public class Restaurant {
     private PrivacyLevel privacyLevel = PrivacyLevel.PUBLIC;
 
     // Categories and cuisine types
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RESTAURANTS)
+    @BatchSize(size = 50)
     @CollectionTable(name = "restaurant_cuisines", joinColumns = @JoinColumn(name = "restaurant_id"))
     @Column(name = "cuisine")
     private Set<String> cuisines = new HashSet<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RESTAURANTS)
+    @BatchSize(size = 50)
     @CollectionTable(name = "restaurant_tags", joinColumns = @JoinColumn(name = "restaurant_id"))
     @Column(name = "tag")
     private Set<String> tags = new HashSet<>();
 
     // Dietary information
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RESTAURANTS)
+    @BatchSize(size = 50)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "restaurant_dietary_options", joinColumns = @JoinColumn(name = "restaurant_id"))
     @Column(name = "option")
     private Set<DietaryPreference> dietaryOptions = new HashSet<>();
 
+    // Bitmask mirror of dietaryOptions, for bitwise filtering in SQL
+    // and in PreferenceBitmapIndex. Recomputed on every write by syncMasks().
+    @Column(name = "dietary_mask")
+    @JsonIgnore
+    private Short dietaryMask;
+
     // Menu items
     @OneToMany(mappedBy = "restaurant", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheConfig.RESTAURANTS)
+    @BatchSize(size = 50)
     private List<MenuItem> menuItems = new ArrayList<>();
 
     // Relationships
@@ -87,6 +124,13 @@ public class Restaurant {
     // Sharing
     private String shareToken; // For public sharing via links
 
+    // Versioning makes Hibernate treat a change to an element collection as an update of
+    // this entity, so write callbacks (mask sync, change events) also fire for those edits
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -166,7 +210,21 @@ public class Restaurant {
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Short getDietaryMask() { return dietaryMask; }
+
+    public Long getVersion() { return version; }
+
     // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void syncMasks() {
+        // An uninitialized collection has not changed since it was loaded, and touching it
+        // here would load it in the middle of a flush
+        if (Hibernate.isInitialized(dietaryOptions)) {
+            dietaryMask = DietaryPreference.toMask(dietaryOptions);
+        }
+    }
+
     public void addMenuItem(MenuItem menuItem) {
         menuItems.add(menuItem);
         menuItem.setRestaurant(this);
@@ -0,0 +1,88 @@
+package com.taste.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+/**
+ * How many of a restaurant's dishes carry one dietary preference, overall and below each
+ * price band of {@link RestaurantMenuStats}. Only preferences with at least one dish have a
+ * row. Maintained alongside it by {@code MenuStatsWriter}.
+ */
+@Entity
+@Immutable
+@IdClass(RestaurantDietaryStats.Key.class)
+@Table(name = "restaurant_menu_dietary_stats", indexes = {
+    @Index(name = "idx_menu_dietary_preference", columnList = "preference, item_count"),
+    @Index(name = "idx_menu_dietary_under_10", columnList = "preference, items_under_10"),
+    @Index(name = "idx_menu_dietary_under_15", columnList = "preference, items_under_15"),
+    @Index(name = "idx_menu_dietary_under_20", columnList = "preference, items_under_20"),
+    @Index(name = "idx_menu_dietary_under_30", columnList = "preference, items_under_30")
+})
+public class RestaurantDietaryStats {
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "preference", length = 30)
+    private DietaryPreference preference;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(name = "items_under_10", nullable = false)
+    private int itemsUnder10;
+
+    @Column(name = "items_under_15", nullable = false)
+    private int itemsUnder15;
+
+    @Column(name = "items_under_20", nullable = false)
+    private int itemsUnder20;
+
+    @Column(name = "items_under_30", nullable = false)
+    private int itemsUnder30;
+
+    // Constructors
+    protected RestaurantDietaryStats() {}
+
+    // Getters
+    public Long getRestaurantId() { return restaurantId; }
+
+    public DietaryPreference getPreference() { return preference; }
+
+    public int getItemCount() { return itemCount; }
+
+    public int getItemsUnder10() { return itemsUnder10; }
+
+    public int getItemsUnder15() { return itemsUnder15; }
+
+    public int getItemsUnder20() { return itemsUnder20; }
+
+    public int getItemsUnder30() { return itemsUnder30; }
+
+    public static class Key implements Serializable {
+        private Long restaurantId;
+        private DietaryPreference preference;
+
+        public Key() {}
+
+        public Key(Long restaurantId, DietaryPreference preference) {
+            this.restaurantId = restaurantId;
+            this.preference = preference;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof Key key && Objects.equals(restaurantId, key.restaurantId) && preference == key.preference;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(restaurantId, preference);
+        }
+    }
+}
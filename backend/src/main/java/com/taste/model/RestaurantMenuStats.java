@@ -0,0 +1,106 @@
+package com.taste.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregates over one restaurant's menu, rewritten by {@code MenuStatsWriter} whenever a
+ * menu item is added, edited or removed, so cards and menu filters never read menu items.
+ * Prices and ratings ignore items that have none; {@code itemsUnderN} count dishes priced
+ * below N, and each is indexed for the dish-count filter of its band. The top-rated dish
+ * is the highest rated, lowest id first.
+ */
+@Entity
+@Immutable
+@Table(name = "restaurant_menu_stats", indexes = {
+    @Index(name = "idx_menu_stats_avg_price", columnList = "avg_price"),
+    @Index(name = "idx_menu_stats_avg_rating", columnList = "avg_rating"),
+    @Index(name = "idx_menu_stats_item_count", columnList = "item_count"),
+    @Index(name = "idx_menu_stats_under_10", columnList = "items_under_10"),
+    @Index(name = "idx_menu_stats_under_15", columnList = "items_under_15"),
+    @Index(name = "idx_menu_stats_under_20", columnList = "items_under_20"),
+    @Index(name = "idx_menu_stats_under_30", columnList = "items_under_30")
+})
+public class RestaurantMenuStats {
+    @Id
+    @Column(name = "restaurant_id")
+    private Long restaurantId;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(name = "priced_item_count", nullable = false)
+    private int pricedItemCount;
+
+    @Column(name = "min_price", precision = 10, scale = 2)
+    private BigDecimal minPrice;
+
+    @Column(name = "max_price", precision = 10, scale = 2)
+    private BigDecimal maxPrice;
+
+    @Column(name = "avg_price", precision = 10, scale = 2)
+    private BigDecimal avgPrice;
+
+    @Column(name = "rated_item_count", nullable = false)
+    private int ratedItemCount;
+
+    @Column(name = "avg_rating", precision = 3, scale = 2)
+    private BigDecimal avgRating;
+
+    @Column(name = "items_under_10", nullable = false)
+    private int itemsUnder10;
+
+    @Column(name = "items_under_15", nullable = false)
+    private int itemsUnder15;
+
+    @Column(name = "items_under_20", nullable = false)
+    private int itemsUnder20;
+
+    @Column(name = "items_under_30", nullable = false)
+    private int itemsUnder30;
+
+    @Column(name = "top_item_id")
+    private Long topItemId;
+
+    @Column(name = "top_item_name")
+    private String topItemName;
+
+    @Column(name = "top_item_rating", precision = 2, scale = 1)
+    private BigDecimal topItemRating;
+
+    // Constructors
+    protected RestaurantMenuStats() {}
+
+    // Getters
+    public Long getRestaurantId() { return restaurantId; }
+
+    public int getItemCount() { return itemCount; }
+
+    public int getPricedItemCount() { return pricedItemCount; }
+
+    public BigDecimal getMinPrice() { return minPrice; }
+
+    public BigDecimal getMaxPrice() { return maxPrice; }
+
+    public BigDecimal getAvgPrice() { return avgPrice; }
+
+    public int getRatedItemCount() { return ratedItemCount; }
+
+    public BigDecimal getAvgRating() { return avgRating; }
+
+    public int getItemsUnder10() { return itemsUnder10; }
+
+    public int getItemsUnder15() { return itemsUnder15; }
+
+    public int getItemsUnder20() { return itemsUnder20; }
+
+    public int getItemsUnder30() { return itemsUnder30; }
+
+    public Long getTopItemId() { return topItemId; }
+
+    public String getTopItemName() { return topItemName; }
+
+    public BigDecimal getTopItemRating() { return topItemRating; }
+}
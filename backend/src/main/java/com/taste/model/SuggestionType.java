@@ -0,0 +1,8 @@
+package com.taste.model;
+
+public enum SuggestionType {
+    USER,
+    CUISINE,
+    TAG,
+    CATEGORY
+}
@@ -0,0 +1,11 @@
+package com.taste.model;
+
+public enum TimelineContentType {
+    RECIPE,
+    RESTAURANT;
+
+    // Orders recipes and restaurants created in the same instant deterministically
+    public long sortKey(long contentId) {
+        return contentId * 2 + ordinal();
+    }
+}
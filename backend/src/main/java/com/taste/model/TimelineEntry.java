@@ -0,0 +1,65 @@
+package com.taste.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A precomputed row in a user's friend timeline, written when followed content is created.
+ */
+@Entity
+@Table(name = "timeline_entries", indexes = {
+    @Index(name = "idx_timeline_owner_created", columnList = "owner_id, created_at, sort_key"),
+    @Index(name = "idx_timeline_owner_author", columnList = "owner_id, author_id")
+}, uniqueConstraints = {
+    @UniqueConstraint(name = "uk_timeline_content_owner", columnNames = {"content_type", "content_id", "owner_id"})
+})
+public class TimelineEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "owner_id", nullable = false)
+    private Long ownerId; // The follower whose timeline this row belongs to
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "content_type", nullable = false, length = 20)
+    private TimelineContentType contentType;
+
+    @Column(name = "content_id", nullable = false)
+    private Long contentId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt; // Copied from the content so pages need no join
+
+    @Column(name = "sort_key", nullable = false)
+    private Long sortKey;
+
+    // Constructors
+    public TimelineEntry() {}
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getOwnerId() { return ownerId; }
+    public void setOwnerId(Long ownerId) { this.ownerId = ownerId; }
+
+    public TimelineContentType getContentType() { return contentType; }
+    public void setContentType(TimelineContentType contentType) { this.contentType = contentType; }
+
+    public Long getContentId() { return contentId; }
+    public void setContentId(Long contentId) { this.contentId = contentId; }
+
+    public Long getAuthorId() { return authorId; }
+    public void setAuthorId(Long authorId) { this.authorId = authorId; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+    public Long getSortKey() { return sortKey; }
+    public void setSortKey(Long sortKey) { this.sortKey = sortKey; }
+}
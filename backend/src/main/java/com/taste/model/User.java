@@ -1,6 +1,9 @@
 package com.taste.model;
 
+import com.taste.event.UserEntityListener;
 import jakarta.persistence.*;
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -17,6 +20,7 @@ import java.util.Set;
     @UniqueConstraint(columnNames = "username"),
     @UniqueConstraint(columnNames = "email")
 })
+@EntityListeners(UserEntityListener.class)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -51,17 +55,29 @@ public class User {
     private PrivacyLevel privacyLevel = PrivacyLevel.PUBLIC;
 
     // Dietary preferences
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = 50)
     @Enumerated(EnumType.STRING)
     @CollectionTable(name = "user_dietary_preferences", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "preference")
     private Set<DietaryPreference> dietaryPreferences = new HashSet<>();
 
-    @ElementCollection(fetch = FetchType.EAGER)
+    @ElementCollection
+    @BatchSize(size = 50)
     @CollectionTable(name = "user_allergies", joinColumns = @JoinColumn(name = "user_id"))
     @Column(name = "allergy")
     private Set<String> allergies = new HashSet<>();
 
+    // Bitmask mirrors of the preference and allergen sets, for bitwise filtering in SQL
+    // and in PreferenceBitmapIndex. Recomputed on every write by syncMasks().
+    @Column(name = "dietary_mask")
+    @JsonIgnore
+    private Short dietaryMask;
+
+    @Column(name = "allergen_mask")
+    @JsonIgnore
+    private Long allergenMask;
+
     // Relationships
     @OneToMany(mappedBy = "author", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonIgnore
@@ -82,6 +98,23 @@ public class User {
     @JsonIgnore
     private Set<User> followers = new HashSet<>();
 
+    // Maintained by FollowService with atomic increments, never written from the entity,
+    // so a stale copy being saved cannot overwrite them
+    @Column(name = "follower_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int followerCount;
+
+    @Column(name = "following_count", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "integer default 0")
+    private int followingCount;
+
+    // Versioning makes Hibernate treat a change to an element collection as an update of
+    // this entity, so write callbacks (mask sync, change events) also fire for those edits
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    @JsonIgnore
+    private Long version;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -143,13 +176,35 @@ public class User {
     public Set<User> getFollowers() { return followers; }
     public void setFollowers(Set<User> followers) { this.followers = followers; }
 
+    public int getFollowerCount() { return followerCount; }
+
+    public int getFollowingCount() { return followingCount; }
+
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
 
     public LocalDateTime getUpdatedAt() { return updatedAt; }
     public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
 
+    public Short getDietaryMask() { return dietaryMask; }
+    public Long getAllergenMask() { return allergenMask; }
+
+    public Long getVersion() { return version; }
+
     // Helper methods
+    @PrePersist
+    @PreUpdate
+    public void syncMasks() {
+        // An uninitialized collection has not changed since it was loaded, and touching it
+        // here would load it in the middle of a flush
+        if (Hibernate.isInitialized(dietaryPreferences)) {
+            dietaryMask = DietaryPreference.toMask(dietaryPreferences);
+        }
+        if (Hibernate.isInitialized(allergies)) {
+            allergenMask = Allergen.toMask(allergies);
+        }
+    }
+
     public void follow(User user) {
         this.following.add(user);
         user.followers.add(this);
@@ -0,0 +1,20 @@
+package com.taste.repository;
+
+import com.taste.model.PrivacyLevel;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a recipe or restaurant that recommendation scoring needs, read without
+ * loading the entity. Recipes have no rating, restaurants no allergen mask.
+ */
+public record CatalogFeatureRow(
+        Long id,
+        Long authorId,
+        PrivacyLevel privacyLevel,
+        Short dietaryMask,
+        Long allergenMask,
+        BigDecimal rating,
+        LocalDateTime createdAt) {
+}
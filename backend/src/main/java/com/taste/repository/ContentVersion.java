@@ -0,0 +1,20 @@
+package com.taste.repository;
+
+import com.taste.model.PrivacyLevel;
+
+import java.time.LocalDateTime;
+
+/**
+ * What a recipe or restaurant detail response depends on, read without loading the
+ * entity: who may see it, and when it, its author and its children were last updated.
+ * The child count catches removals, which leave no timestamp behind.
+ */
+public record ContentVersion(
+        Long id,
+        Long authorId,
+        PrivacyLevel privacyLevel,
+        LocalDateTime updatedAt,
+        LocalDateTime authorUpdatedAt,
+        LocalDateTime childrenUpdatedAt,
+        Long childCount) {
+}
@@ -0,0 +1,4 @@
+package com.taste.repository;
+
+public record FollowCounts(int followers, int following) {
+}
@@ -0,0 +1,5 @@
+package com.taste.repository;
+
+/** A recipe's ingredient line reduced to its canonical ingredient; {@code ingredientId} may be null. */
+public record IngredientLinkRow(Long recipeId, Long ingredientId) {
+}
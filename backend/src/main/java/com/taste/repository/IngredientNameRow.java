@@ -0,0 +1,4 @@
+package com.taste.repository;
+
+public record IngredientNameRow(Long id, String name) {
+}
@@ -0,0 +1,15 @@
+package com.taste.repository;
+
+import com.taste.model.Ingredient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface IngredientRepository extends JpaRepository<Ingredient, Long> {
+
+    @Query("SELECT DISTINCT i FROM Ingredient i LEFT JOIN FETCH i.aliases")
+    List<Ingredient> findAllWithAliases();
+}
@@ -0,0 +1,17 @@
+package com.taste.repository;
+
+import com.taste.model.MenuItem;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MenuItemRepository extends JpaRepository<MenuItem, Long> {
+    
+    @Query("SELECT m.id FROM MenuItem m WHERE m.id > :afterId AND (m.dietaryMask IS NULL OR m.allergenMask IS NULL) ORDER BY m.id")
+    List<Long> findIdsWithoutMasksAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
@@ -0,0 +1,8 @@
+package com.taste.repository;
+
+/**
+ * Id plus preference bitmasks of a recipe, restaurant or menu item, read without loading
+ * the entity.
+ */
+public record PreferenceMaskRow(Long id, Short dietaryMask, Long allergenMask) {
+}
@@ -0,0 +1,28 @@
+package com.taste.repository;
+
+import com.taste.model.RecipeIngredient;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecipeIngredientRepository extends JpaRepository<RecipeIngredient, Long> {
+
+    // Ingredient index maintenance
+    @Query("SELECT new com.taste.repository.IngredientLinkRow(i.recipe.id, i.ingredientId) FROM RecipeIngredient i WHERE i.recipe.id IN :recipeIds")
+    List<IngredientLinkRow> findLinksByRecipeIdIn(@Param("recipeIds") Collection<Long> recipeIds);
+
+    // Linking backfill
+    @Query("SELECT new com.taste.repository.IngredientNameRow(i.id, i.name) FROM RecipeIngredient i WHERE i.ingredientId IS NULL AND i.id > :afterId ORDER BY i.id")
+    List<IngredientNameRow> findUnlinkedAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE RecipeIngredient i SET i.ingredientId = :ingredientId WHERE i.id IN :ids")
+    int linkIngredient(@Param("ingredientId") Long ingredientId, @Param("ids") Collection<Long> ids);
+}
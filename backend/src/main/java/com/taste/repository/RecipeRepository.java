@@ -1,14 +1,23 @@
 package com.taste.repository;
 
+import com.taste.dto.RecipeSummary;
+import com.taste.model.Allergen;
 import com.taste.model.Recipe;
 import com.taste.model.User;
 import com.taste.model.DietaryPreference;
 import com.taste.model.PrivacyLevel;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -16,15 +25,40 @@ import java.util.Set;
 @Repository
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     
+    @EntityGraph(Recipe.LIST_GRAPH)
     List<Recipe> findByAuthor(User author);
     
+    @EntityGraph(Recipe.LIST_GRAPH)
     List<Recipe> findByAuthorAndPrivacyLevel(User author, PrivacyLevel privacyLevel);
     
-    Optional<Recipe> findByShareToken(String shareToken);
+    @EntityGraph(Recipe.LIST_GRAPH)
+    List<Recipe> findListByIdIn(Collection<Long> ids);
     
+    @EntityGraph(Recipe.DETAIL_GRAPH)
+    Optional<Recipe> findDetailById(Long id);
+    
+    // Shared links are read far more often than the tables they read are written, which is
+    // what invalidates cached results
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT r.id FROM Recipe r WHERE r.shareToken = :shareToken")
+    Optional<Long> findIdByShareToken(@Param("shareToken") String shareToken);
+
+    // Decides visibility and revalidates a cached detail response without loading the recipe
+    @Query("SELECT new com.taste.repository.ContentVersion(r.id, a.id, r.privacyLevel, r.updatedAt, a.updatedAt, (SELECT MAX(c.updatedAt) FROM RecipeIngredient c WHERE c.recipe = r), (SELECT COUNT(c) FROM RecipeIngredient c WHERE c.recipe = r)) FROM Recipe r LEFT JOIN r.author a WHERE r.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
+
+    // Cached as well: any write to recipes, users or ingredients drops the result, so a shared
+    // link never revalidates against an outdated version
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.taste.repository.ContentVersion(r.id, a.id, r.privacyLevel, r.updatedAt, a.updatedAt, (SELECT MAX(c.updatedAt) FROM RecipeIngredient c WHERE c.recipe = r), (SELECT COUNT(c) FROM RecipeIngredient c WHERE c.recipe = r)) FROM Recipe r LEFT JOIN r.author a WHERE r.shareToken = :shareToken")
+    Optional<ContentVersion> findVersionByShareToken(@Param("shareToken") String shareToken);
+    
+    // Prefer RecipeSearchService: these LIKE scans cannot use an index
+    @Deprecated
     @Query("SELECT r FROM Recipe r WHERE r.title LIKE %:query% OR r.description LIKE %:query%")
     List<Recipe> searchRecipes(@Param("query") String query);
     
+    @Deprecated
     @Query("SELECT r FROM Recipe r WHERE r.privacyLevel = 'PUBLIC' AND (r.title LIKE %:query% OR r.description LIKE %:query%)")
     List<Recipe> searchPublicRecipes(@Param("query") String query);
     
@@ -34,21 +68,106 @@ public interface RecipeRepository extends JpaRepository<Recipe, Long> {
     @Query("SELECT r FROM Recipe r WHERE :tag MEMBER OF r.tags")
     List<Recipe> findByTag(@Param("tag") String tag);
     
-    @Query("SELECT r FROM Recipe r WHERE :preference MEMBER OF r.dietaryPreferences")
-    List<Recipe> findByDietaryPreference(@Param("preference") DietaryPreference preference);
+    // Preference and allergy filters test the bitmask columns maintained by Recipe.syncMasks()
+    @Query("SELECT r FROM Recipe r WHERE bitand(r.dietaryMask, cast(:bit as Short)) <> 0")
+    List<Recipe> findByDietaryMaskContaining(@Param("bit") short bit);
     
-    @Query("SELECT r FROM Recipe r WHERE r.dietaryPreferences IS EMPTY OR r.dietaryPreferences MEMBER OF :preferences")
-    List<Recipe> findByDietaryPreferences(@Param("preferences") Set<DietaryPreference> preferences);
+    default List<Recipe> findByDietaryPreference(DietaryPreference preference) {
+        return findByDietaryMaskContaining(preference.bit());
+    }
     
-    @Query("SELECT r FROM Recipe r WHERE r.allergens IS EMPTY OR SIZE(r.allergens) = 0")
+    @Query("SELECT r FROM Recipe r WHERE r.dietaryMask = 0 OR bitand(r.dietaryMask, cast(:mask as Short)) <> 0")
+    List<Recipe> findByDietaryMaskUntaggedOrOverlapping(@Param("mask") short mask);
+    
+    default List<Recipe> findByDietaryPreferences(Set<DietaryPreference> preferences) {
+        return findByDietaryMaskUntaggedOrOverlapping(DietaryPreference.toMask(preferences));
+    }
+    
+    @Query("SELECT r FROM Recipe r WHERE r.allergenMask = 0")
     List<Recipe> findRecipesWithoutAllergens();
     
-    @Query("SELECT r FROM Recipe r WHERE r.allergens IS EMPTY OR NOT EXISTS (SELECT a FROM r.allergens a WHERE a IN :allergens)")
-    List<Recipe> findRecipesSafeForAllergies(@Param("allergens") Set<String> allergens);
+    @Query("SELECT r FROM Recipe r WHERE bitand(r.allergenMask, cast(:mask as Long)) = 0")
+    List<Recipe> findByAllergenMaskDisjoint(@Param("mask") long mask);
+    
+    // Only rows flagged with an out-of-dictionary allergen need the per-name check
+    @Query("SELECT r FROM Recipe r WHERE bitand(r.allergenMask, cast(:mask as Long)) = 0 AND (bitand(r.allergenMask, cast(:otherBit as Long)) = 0 " +
+            "OR NOT EXISTS (SELECT a FROM r.allergens a WHERE lower(a) IN :otherNames))")
+    List<Recipe> findByAllergenMaskDisjointExcludingNames(@Param("mask") long mask, @Param("otherBit") long otherBit,
+                                                          @Param("otherNames") Set<String> otherNames);
     
+    default List<Recipe> findRecipesSafeForAllergies(Set<String> allergens) {
+        long mask = Allergen.toMask(allergens) & ~Allergen.OTHER_BIT;
+        Set<String> otherNames = Allergen.unknownNames(allergens);
+        return otherNames.isEmpty()
+                ? findByAllergenMaskDisjoint(mask)
+                : findByAllergenMaskDisjointExcludingNames(mask, Allergen.OTHER_BIT, otherNames);
+    }
+    
+    // Prefer findPublicRecipeSummaries: this loads every public recipe as an entity
+    @Deprecated
     @Query("SELECT r FROM Recipe r WHERE r.privacyLevel = 'PUBLIC' ORDER BY r.createdAt DESC")
     List<Recipe> findPublicRecipesOrderByCreatedDesc();
     
+    // Keyset-paginated public feed, backed by idx_recipes_privacy_created
+    @Query("SELECT new com.taste.dto.RecipeSummary(r.id, r.title, r.imageUrl, r.difficulty, r.prepTimeMinutes, r.cookTimeMinutes, a.id, a.username, r.createdAt) FROM Recipe r LEFT JOIN r.author a WHERE r.privacyLevel = 'PUBLIC' ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeSummary> findPublicRecipeSummaries(Pageable pageable);
+    
+    @Query("SELECT new com.taste.dto.RecipeSummary(r.id, r.title, r.imageUrl, r.difficulty, r.prepTimeMinutes, r.cookTimeMinutes, a.id, a.username, r.createdAt) FROM Recipe r LEFT JOIN r.author a WHERE r.privacyLevel = 'PUBLIC' AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeSummary> findPublicRecipeSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Prefer TimelineService: this loads the whole following set and every matching recipe
+    @Deprecated
     @Query("SELECT r FROM Recipe r WHERE r.author IN :followedUsers AND r.privacyLevel IN ('PUBLIC', 'FRIENDS') ORDER BY r.createdAt DESC")
     List<Recipe> findRecipesByFollowedUsers(@Param("followedUsers") List<User> followedUsers);
-}
\ No newline at end of file
+    
+    @Query("SELECT new com.taste.dto.RecipeSummary(r.id, r.title, r.imageUrl, r.difficulty, r.prepTimeMinutes, r.cookTimeMinutes, a.id, a.username, r.createdAt) FROM Recipe r LEFT JOIN r.author a WHERE r.id IN :ids")
+    List<RecipeSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Visibility pushed down: FRIENDS rows only by the given authors, as resolved by VisibilityEvaluator
+    @Query("SELECT new com.taste.dto.RecipeSummary(r.id, r.title, r.imageUrl, r.difficulty, r.prepTimeMinutes, r.cookTimeMinutes, a.id, a.username, r.createdAt) FROM Recipe r LEFT JOIN r.author a WHERE r.id IN :ids AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RecipeSummary> findVisibleSummariesByIdIn(@Param("ids") Collection<Long> ids, @Param("viewerId") Long viewerId, @Param("friendIds") Collection<Long> friendIds);
+    
+    // Timeline pull path for authors too widely followed to fan out on write
+    @Query("SELECT new com.taste.dto.RecipeSummary(r.id, r.title, r.imageUrl, r.difficulty, r.prepTimeMinutes, r.cookTimeMinutes, a.id, a.username, r.createdAt) FROM Recipe r LEFT JOIN r.author a WHERE a.id IN :authorIds AND (r.privacyLevel = 'PUBLIC' OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds)) AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id * 2 < :sortKey)) ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeSummary> findFollowedRecipeSummariesBefore(@Param("authorIds") Collection<Long> authorIds, @Param("friendIds") Collection<Long> friendIds, @Param("createdAt") LocalDateTime createdAt, @Param("sortKey") Long sortKey, Pageable pageable);
+    
+    // Search index maintenance
+    @Query("SELECT r.id FROM Recipe r WHERE r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @EntityGraph(attributePaths = "ingredients")
+    Optional<Recipe> findWithIngredientsById(Long id);
+    
+    @EntityGraph(attributePaths = "ingredients")
+    List<Recipe> findWithIngredientsByIdIn(Collection<Long> ids);
+    
+    @Query("SELECT r.id FROM Recipe r WHERE r.id > :afterId AND (r.dietaryMask IS NULL OR r.allergenMask IS NULL) ORDER BY r.id")
+    List<Long> findIdsWithoutMasksAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Preference bitmap index maintenance
+    @Query("SELECT new com.taste.repository.PreferenceMaskRow(r.id, r.dietaryMask, r.allergenMask) FROM Recipe r WHERE r.id > :afterId ORDER BY r.id")
+    List<PreferenceMaskRow> findMaskRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.repository.PreferenceMaskRow(r.id, r.dietaryMask, r.allergenMask) FROM Recipe r WHERE r.id = :id")
+    Optional<PreferenceMaskRow> findMaskRowById(@Param("id") Long id);
+    
+    @Query("SELECT r.id, a FROM Recipe r JOIN r.allergens a WHERE bitand(r.allergenMask, cast(:otherBit as Long)) <> 0")
+    List<Object[]> findAllergenNamesFlagged(@Param("otherBit") long otherBit);
+    
+    @Query("SELECT a FROM Recipe r JOIN r.allergens a WHERE r.id = :id")
+    List<String> findAllergenNamesById(@Param("id") Long id);
+    
+    // Recommendation catalog maintenance
+    @Query("SELECT new com.taste.repository.CatalogFeatureRow(r.id, r.author.id, r.privacyLevel, r.dietaryMask, r.allergenMask, cast(null as BigDecimal), r.createdAt) FROM Recipe r WHERE r.id > :afterId ORDER BY r.id")
+    List<CatalogFeatureRow> findFeatureRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.repository.CatalogFeatureRow(r.id, r.author.id, r.privacyLevel, r.dietaryMask, r.allergenMask, cast(null as BigDecimal), r.createdAt) FROM Recipe r WHERE r.id = :id")
+    Optional<CatalogFeatureRow> findFeatureRowById(@Param("id") Long id);
+
+    // Typeahead term counts: only public recipes contribute
+    @Query("SELECT new com.taste.repository.TermRow(r.id, t) FROM Recipe r JOIN r.tags t WHERE r.id IN :ids AND r.privacyLevel = 'PUBLIC'")
+    List<TermRow> findPublicTagRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.taste.repository.TermRow(r.id, c) FROM Recipe r JOIN r.categories c WHERE r.id IN :ids AND r.privacyLevel = 'PUBLIC'")
+    List<TermRow> findPublicCategoryRowsByIdIn(@Param("ids") Collection<Long> ids);
+}
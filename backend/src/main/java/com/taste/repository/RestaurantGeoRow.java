@@ -0,0 +1,22 @@
+package com.taste.repository;
+
+import com.taste.model.PriceRange;
+import com.taste.model.PrivacyLevel;
+
+import java.math.BigDecimal;
+
+/**
+ * A located restaurant as held by the in-memory spatial index.
+ */
+public record RestaurantGeoRow(
+        Long id,
+        String name,
+        String address,
+        Double latitude,
+        Double longitude,
+        PriceRange priceRange,
+        BigDecimal rating,
+        Short dietaryMask,
+        PrivacyLevel privacyLevel,
+        Long authorId) {
+}
@@ -0,0 +1,16 @@
+package com.taste.repository;
+
+import com.taste.model.PrivacyLevel;
+
+/**
+ * The columns that identify a restaurant for duplicate detection.
+ */
+public record RestaurantIdentityRow(
+        Long id,
+        String name,
+        String address,
+        Double latitude,
+        Double longitude,
+        PrivacyLevel privacyLevel,
+        Long authorId) {
+}
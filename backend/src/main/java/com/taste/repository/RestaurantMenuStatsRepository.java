@@ -0,0 +1,136 @@
+package com.taste.repository;
+
+import com.taste.dto.RestaurantMenuCard;
+import com.taste.model.DietaryPreference;
+import com.taste.model.RestaurantDietaryStats;
+import com.taste.model.RestaurantMenuStats;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads the menu aggregates. {@code band} is one of the price bands of
+ * {@link RestaurantMenuStats}, or anything else for no price limit; sorting comes from the
+ * pageable's Sort on the stats properties.
+ *
+ * <p>Each band has its own query against its own column: a band chosen inside the query
+ * hides the column from the planner, so the count filter could not use its index. The
+ * visibility check and the sort still apply to whatever rows the count range yields.
+ */
+@Repository
+public interface RestaurantMenuStatsRepository extends JpaRepository<RestaurantMenuStats, Long> {
+
+    default List<RestaurantMenuCard> findVisibleCards(int band, int minDishes, Long viewerId,
+                                                      Collection<Long> friendIds, Pageable pageable) {
+        return switch (band) {
+            case 10 -> findVisibleCardsUnder10(minDishes, viewerId, friendIds, pageable);
+            case 15 -> findVisibleCardsUnder15(minDishes, viewerId, friendIds, pageable);
+            case 20 -> findVisibleCardsUnder20(minDishes, viewerId, friendIds, pageable);
+            case 30 -> findVisibleCardsUnder30(minDishes, viewerId, friendIds, pageable);
+            default -> findVisibleCardsAnyPrice(minDishes, viewerId, friendIds, pageable);
+        };
+    }
+
+    default List<RestaurantMenuCard> findVisibleCardsWithDietary(DietaryPreference preference, int band, int minDishes,
+                                                                 Long viewerId, Collection<Long> friendIds,
+                                                                 Pageable pageable) {
+        return switch (band) {
+            case 10 -> findVisibleCardsWithDietaryUnder10(preference, minDishes, viewerId, friendIds, pageable);
+            case 15 -> findVisibleCardsWithDietaryUnder15(preference, minDishes, viewerId, friendIds, pageable);
+            case 20 -> findVisibleCardsWithDietaryUnder20(preference, minDishes, viewerId, friendIds, pageable);
+            case 30 -> findVisibleCardsWithDietaryUnder30(preference, minDishes, viewerId, friendIds, pageable);
+            default -> findVisibleCardsWithDietaryAnyPrice(preference, minDishes, viewerId, friendIds, pageable);
+        };
+    }
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, s.itemsUnder10) "
+            + "FROM RestaurantMenuStats s JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE s.itemsUnder10 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsUnder10(@Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                     @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, s.itemsUnder15) "
+            + "FROM RestaurantMenuStats s JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE s.itemsUnder15 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsUnder15(@Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                     @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, s.itemsUnder20) "
+            + "FROM RestaurantMenuStats s JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE s.itemsUnder20 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsUnder20(@Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                     @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, s.itemsUnder30) "
+            + "FROM RestaurantMenuStats s JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE s.itemsUnder30 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsUnder30(@Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                     @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, s.itemCount) "
+            + "FROM RestaurantMenuStats s JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE s.itemCount >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsAnyPrice(@Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                      @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, d.itemsUnder10) "
+            + "FROM RestaurantMenuStats s JOIN RestaurantDietaryStats d ON d.restaurantId = s.restaurantId AND d.preference = :preference "
+            + "JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE d.itemsUnder10 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsWithDietaryUnder10(@Param("preference") DietaryPreference preference,
+                                                                @Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                                @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, d.itemsUnder15) "
+            + "FROM RestaurantMenuStats s JOIN RestaurantDietaryStats d ON d.restaurantId = s.restaurantId AND d.preference = :preference "
+            + "JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE d.itemsUnder15 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsWithDietaryUnder15(@Param("preference") DietaryPreference preference,
+                                                                @Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                                @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, d.itemsUnder20) "
+            + "FROM RestaurantMenuStats s JOIN RestaurantDietaryStats d ON d.restaurantId = s.restaurantId AND d.preference = :preference "
+            + "JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE d.itemsUnder20 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsWithDietaryUnder20(@Param("preference") DietaryPreference preference,
+                                                                @Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                                @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, d.itemsUnder30) "
+            + "FROM RestaurantMenuStats s JOIN RestaurantDietaryStats d ON d.restaurantId = s.restaurantId AND d.preference = :preference "
+            + "JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE d.itemsUnder30 >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsWithDietaryUnder30(@Param("preference") DietaryPreference preference,
+                                                                @Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                                @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT new com.taste.dto.RestaurantMenuCard(r.id, r.name, r.address, r.imageUrl, r.priceRange, a.id, a.username, s.itemCount, s.minPrice, s.maxPrice, s.avgPrice, s.avgRating, s.topItemName, s.topItemRating, d.itemCount) "
+            + "FROM RestaurantMenuStats s JOIN RestaurantDietaryStats d ON d.restaurantId = s.restaurantId AND d.preference = :preference "
+            + "JOIN Restaurant r ON r.id = s.restaurantId LEFT JOIN r.author a "
+            + "WHERE d.itemCount >= :minDishes "
+            + "AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantMenuCard> findVisibleCardsWithDietaryAnyPrice(@Param("preference") DietaryPreference preference,
+                                                                 @Param("minDishes") int minDishes, @Param("viewerId") Long viewerId,
+                                                                 @Param("friendIds") Collection<Long> friendIds, Pageable pageable);
+
+    @Query("SELECT d FROM RestaurantDietaryStats d WHERE d.restaurantId = :restaurantId ORDER BY d.itemCount DESC, d.preference")
+    List<RestaurantDietaryStats> findDietaryStats(@Param("restaurantId") Long restaurantId);
+
+    @Query("SELECT r.id FROM Restaurant r WHERE r.id > :afterId AND NOT EXISTS (SELECT 1 FROM RestaurantMenuStats s WHERE s.restaurantId = r.id) ORDER BY r.id")
+    List<Long> findRestaurantIdsWithoutStatsAfter(@Param("afterId") Long afterId, Pageable pageable);
+}
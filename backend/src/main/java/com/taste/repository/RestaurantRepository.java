@@ -1,15 +1,23 @@
 package com.taste.repository;
 
+import com.taste.dto.RestaurantSummary;
 import com.taste.model.Restaurant;
 import com.taste.model.User;
 import com.taste.model.DietaryPreference;
 import com.taste.model.PrivacyLevel;
 import com.taste.model.PriceRange;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -17,11 +25,30 @@ import java.util.Set;
 @Repository
 public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     
+    @EntityGraph(Restaurant.LIST_GRAPH)
     List<Restaurant> findByAuthor(User author);
     
+    @EntityGraph(Restaurant.LIST_GRAPH)
     List<Restaurant> findByAuthorAndPrivacyLevel(User author, PrivacyLevel privacyLevel);
     
-    Optional<Restaurant> findByShareToken(String shareToken);
+    @EntityGraph(Restaurant.LIST_GRAPH)
+    List<Restaurant> findListByIdIn(Collection<Long> ids);
+    
+    @EntityGraph(Restaurant.DETAIL_GRAPH)
+    Optional<Restaurant> findDetailById(Long id);
+    
+    // See RecipeRepository
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT r.id FROM Restaurant r WHERE r.shareToken = :shareToken")
+    Optional<Long> findIdByShareToken(@Param("shareToken") String shareToken);
+
+    // See RecipeRepository
+    @Query("SELECT new com.taste.repository.ContentVersion(r.id, a.id, r.privacyLevel, r.updatedAt, a.updatedAt, (SELECT MAX(c.updatedAt) FROM MenuItem c WHERE c.restaurant = r), (SELECT COUNT(c) FROM MenuItem c WHERE c.restaurant = r)) FROM Restaurant r LEFT JOIN r.author a WHERE r.id = :id")
+    Optional<ContentVersion> findVersionById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.taste.repository.ContentVersion(r.id, a.id, r.privacyLevel, r.updatedAt, a.updatedAt, (SELECT MAX(c.updatedAt) FROM MenuItem c WHERE c.restaurant = r), (SELECT COUNT(c) FROM MenuItem c WHERE c.restaurant = r)) FROM Restaurant r LEFT JOIN r.author a WHERE r.shareToken = :shareToken")
+    Optional<ContentVersion> findVersionByShareToken(@Param("shareToken") String shareToken);
     
     @Query("SELECT r FROM Restaurant r WHERE r.name LIKE %:query% OR r.description LIKE %:query% OR r.address LIKE %:query%")
     List<Restaurant> searchRestaurants(@Param("query") String query);
@@ -37,22 +64,95 @@ public interface RestaurantRepository extends JpaRepository<Restaurant, Long> {
     
     List<Restaurant> findByPriceRange(PriceRange priceRange);
     
-    @Query("SELECT r FROM Restaurant r WHERE :option MEMBER OF r.dietaryOptions")
-    List<Restaurant> findByDietaryOption(@Param("option") DietaryPreference option);
+    // Dietary filters test the bitmask column maintained by Restaurant.syncMasks()
+    @Query("SELECT r FROM Restaurant r WHERE bitand(r.dietaryMask, cast(:bit as Short)) <> 0")
+    List<Restaurant> findByDietaryMaskContaining(@Param("bit") short bit);
+    
+    default List<Restaurant> findByDietaryOption(DietaryPreference option) {
+        return findByDietaryMaskContaining(option.bit());
+    }
+    
+    @Query("SELECT r FROM Restaurant r WHERE r.dietaryMask = 0 OR bitand(r.dietaryMask, cast(:mask as Short)) <> 0")
+    List<Restaurant> findByDietaryMaskUntaggedOrOverlapping(@Param("mask") short mask);
     
-    @Query("SELECT r FROM Restaurant r WHERE r.dietaryOptions IS EMPTY OR r.dietaryOptions MEMBER OF :options")
-    List<Restaurant> findByDietaryOptions(@Param("options") Set<DietaryPreference> options);
+    default List<Restaurant> findByDietaryOptions(Set<DietaryPreference> options) {
+        return findByDietaryMaskUntaggedOrOverlapping(DietaryPreference.toMask(options));
+    }
     
     @Query("SELECT r FROM Restaurant r WHERE r.address LIKE %:location%")
     List<Restaurant> findByLocation(@Param("location") String location);
     
+    // Prefer findPublicRestaurantSummaries: this loads every public restaurant as an entity
+    @Deprecated
     @Query("SELECT r FROM Restaurant r WHERE r.privacyLevel = 'PUBLIC' ORDER BY r.createdAt DESC")
     List<Restaurant> findPublicRestaurantsOrderByCreatedDesc();
     
+    // Keyset-paginated public feed, backed by idx_restaurants_privacy_created
+    @Query("SELECT new com.taste.dto.RestaurantSummary(r.id, r.name, r.address, r.imageUrl, r.rating, r.priceRange, a.id, a.username, r.createdAt) FROM Restaurant r LEFT JOIN r.author a WHERE r.privacyLevel = 'PUBLIC' ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantSummary> findPublicRestaurantSummaries(Pageable pageable);
+    
+    @Query("SELECT new com.taste.dto.RestaurantSummary(r.id, r.name, r.address, r.imageUrl, r.rating, r.priceRange, a.id, a.username, r.createdAt) FROM Restaurant r LEFT JOIN r.author a WHERE r.privacyLevel = 'PUBLIC' AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantSummary> findPublicRestaurantSummariesBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Pageable pageable);
+    
+    // Prefer TimelineService: this loads the whole following set and every matching restaurant
+    @Deprecated
     @Query("SELECT r FROM Restaurant r WHERE r.author IN :followedUsers AND r.privacyLevel IN ('PUBLIC', 'FRIENDS') ORDER BY r.createdAt DESC")
     List<Restaurant> findRestaurantsByFollowedUsers(@Param("followedUsers") List<User> followedUsers);
     
-    // Find potential duplicates by name and address similarity
+    @Query("SELECT new com.taste.dto.RestaurantSummary(r.id, r.name, r.address, r.imageUrl, r.rating, r.priceRange, a.id, a.username, r.createdAt) FROM Restaurant r LEFT JOIN r.author a WHERE r.id IN :ids")
+    List<RestaurantSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    // Visibility pushed down: FRIENDS rows only by the given authors, as resolved by VisibilityEvaluator
+    @Query("SELECT new com.taste.dto.RestaurantSummary(r.id, r.name, r.address, r.imageUrl, r.rating, r.priceRange, a.id, a.username, r.createdAt) FROM Restaurant r LEFT JOIN r.author a WHERE r.id IN :ids AND (r.privacyLevel = 'PUBLIC' OR a.id = :viewerId OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds))")
+    List<RestaurantSummary> findVisibleSummariesByIdIn(@Param("ids") Collection<Long> ids, @Param("viewerId") Long viewerId, @Param("friendIds") Collection<Long> friendIds);
+    
+    // Timeline pull path for authors too widely followed to fan out on write
+    @Query("SELECT new com.taste.dto.RestaurantSummary(r.id, r.name, r.address, r.imageUrl, r.rating, r.priceRange, a.id, a.username, r.createdAt) FROM Restaurant r LEFT JOIN r.author a WHERE a.id IN :authorIds AND (r.privacyLevel = 'PUBLIC' OR (r.privacyLevel = 'FRIENDS' AND a.id IN :friendIds)) AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id * 2 + 1 < :sortKey)) ORDER BY r.createdAt DESC, r.id DESC")
+    List<RestaurantSummary> findFollowedRestaurantSummariesBefore(@Param("authorIds") Collection<Long> authorIds, @Param("friendIds") Collection<Long> friendIds, @Param("createdAt") LocalDateTime createdAt, @Param("sortKey") Long sortKey, Pageable pageable);
+    
+    // Substring match with a full scan per call; prefer DuplicateDetectionService
+    @Deprecated
     @Query("SELECT r FROM Restaurant r WHERE r.name LIKE %:name% AND r.address LIKE %:address% AND r.id != :excludeId")
     List<Restaurant> findPotentialDuplicates(@Param("name") String name, @Param("address") String address, @Param("excludeId") Long excludeId);
-}
\ No newline at end of file
+    
+    @Query("SELECT r.id FROM Restaurant r WHERE r.id > :afterId AND r.dietaryMask IS NULL ORDER BY r.id")
+    List<Long> findIdsWithoutMasksAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    // Preference bitmap index maintenance
+    @Query("SELECT new com.taste.repository.PreferenceMaskRow(r.id, r.dietaryMask, 0L) FROM Restaurant r WHERE r.id > :afterId ORDER BY r.id")
+    List<PreferenceMaskRow> findMaskRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.repository.PreferenceMaskRow(r.id, r.dietaryMask, 0L) FROM Restaurant r WHERE r.id = :id")
+    Optional<PreferenceMaskRow> findMaskRowById(@Param("id") Long id);
+    
+    // Recommendation catalog maintenance
+    @Query("SELECT new com.taste.repository.CatalogFeatureRow(r.id, r.author.id, r.privacyLevel, r.dietaryMask, 0L, r.rating, r.createdAt) FROM Restaurant r WHERE r.id > :afterId ORDER BY r.id")
+    List<CatalogFeatureRow> findFeatureRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.repository.CatalogFeatureRow(r.id, r.author.id, r.privacyLevel, r.dietaryMask, 0L, r.rating, r.createdAt) FROM Restaurant r WHERE r.id = :id")
+    Optional<CatalogFeatureRow> findFeatureRowById(@Param("id") Long id);
+    
+    // Spatial index maintenance; rows without coordinates are not indexed
+    @Query("SELECT new com.taste.repository.RestaurantGeoRow(r.id, r.name, r.address, r.latitude, r.longitude, r.priceRange, r.rating, r.dietaryMask, r.privacyLevel, r.author.id) FROM Restaurant r WHERE r.id > :afterId AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL ORDER BY r.id")
+    List<RestaurantGeoRow> findGeoRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.repository.RestaurantGeoRow(r.id, r.name, r.address, r.latitude, r.longitude, r.priceRange, r.rating, r.dietaryMask, r.privacyLevel, r.author.id) FROM Restaurant r WHERE r.id = :id AND r.latitude IS NOT NULL AND r.longitude IS NOT NULL")
+    Optional<RestaurantGeoRow> findGeoRowById(@Param("id") Long id);
+    
+    // Duplicate detection index maintenance
+    @Query("SELECT new com.taste.repository.RestaurantIdentityRow(r.id, r.name, r.address, r.latitude, r.longitude, r.privacyLevel, r.author.id) FROM Restaurant r WHERE r.id > :afterId ORDER BY r.id")
+    List<RestaurantIdentityRow> findIdentityRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.repository.RestaurantIdentityRow(r.id, r.name, r.address, r.latitude, r.longitude, r.privacyLevel, r.author.id) FROM Restaurant r WHERE r.id = :id")
+    Optional<RestaurantIdentityRow> findIdentityRowById(@Param("id") Long id);
+
+    @Query("SELECT r.id FROM Restaurant r WHERE r.id > :afterId ORDER BY r.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Typeahead term counts: only public restaurants contribute
+    @Query("SELECT new com.taste.repository.TermRow(r.id, t) FROM Restaurant r JOIN r.tags t WHERE r.id IN :ids AND r.privacyLevel = 'PUBLIC'")
+    List<TermRow> findPublicTagRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.taste.repository.TermRow(r.id, c) FROM Restaurant r JOIN r.cuisines c WHERE r.id IN :ids AND r.privacyLevel = 'PUBLIC'")
+    List<TermRow> findPublicCuisineRowsByIdIn(@Param("ids") Collection<Long> ids);
+}
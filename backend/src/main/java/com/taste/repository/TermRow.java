@@ -0,0 +1,5 @@
+package com.taste.repository;
+
+/** One tag, cuisine or category of a recipe or restaurant. */
+public record TermRow(Long itemId, String term) {
+}
@@ -0,0 +1,79 @@
+package com.taste.repository;
+
+import com.taste.model.TimelineContentType;
+import com.taste.model.TimelineEntry;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+    
+    @Query("SELECT e FROM TimelineEntry e WHERE e.ownerId = :ownerId AND (e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.sortKey < :sortKey)) ORDER BY e.createdAt DESC, e.sortKey DESC")
+    List<TimelineEntry> findPageBefore(@Param("ownerId") Long ownerId, @Param("createdAt") LocalDateTime createdAt, @Param("sortKey") Long sortKey, Pageable pageable);
+    
+    // Push one piece of content to every follower of its author in a single statement
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = "INSERT INTO timeline_entries (owner_id, content_type, content_id, author_id, created_at, sort_key) " +
+            "SELECT f.follower_id, :contentType, :contentId, :authorId, :createdAt, :sortKey FROM user_follows f WHERE f.followed_id = :authorId", nativeQuery = true)
+    int fanOut(@Param("contentType") String contentType, @Param("contentId") Long contentId, @Param("authorId") Long authorId,
+               @Param("createdAt") LocalDateTime createdAt, @Param("sortKey") Long sortKey);
+    
+    // Copy an author's most recent visible recipes into a new follower's timeline
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = "INSERT INTO timeline_entries (owner_id, content_type, content_id, author_id, created_at, sort_key) " +
+            "SELECT :ownerId, 'RECIPE', r.id, r.author_id, r.created_at, r.id * 2 FROM recipes r " +
+            "WHERE r.author_id = :authorId AND r.privacy_level IN ('PUBLIC', 'FRIENDS') ORDER BY r.created_at DESC LIMIT :limit", nativeQuery = true)
+    int backfillRecipes(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId, @Param("limit") int limit);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = "INSERT INTO timeline_entries (owner_id, content_type, content_id, author_id, created_at, sort_key) " +
+            "SELECT :ownerId, 'RESTAURANT', r.id, r.author_id, r.created_at, r.id * 2 + 1 FROM restaurants r " +
+            "WHERE r.author_id = :authorId AND r.privacy_level IN ('PUBLIC', 'FRIENDS') ORDER BY r.created_at DESC LIMIT :limit", nativeQuery = true)
+    int backfillRestaurants(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId, @Param("limit") int limit);
+    
+    // Copy an author's most recent visible recipes into every follower's timeline that lacks them
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = "INSERT INTO timeline_entries (owner_id, content_type, content_id, author_id, created_at, sort_key) " +
+            "SELECT f.follower_id, 'RECIPE', r.id, r.author_id, r.created_at, r.id * 2 FROM " +
+            "(SELECT id, author_id, created_at FROM recipes WHERE author_id = :authorId AND privacy_level IN ('PUBLIC', 'FRIENDS') ORDER BY created_at DESC LIMIT :limit) r " +
+            "JOIN user_follows f ON f.followed_id = r.author_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM timeline_entries e WHERE e.content_type = 'RECIPE' AND e.content_id = r.id AND e.owner_id = f.follower_id)", nativeQuery = true)
+    int backfillFollowerRecipes(@Param("authorId") Long authorId, @Param("limit") int limit);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "timeline_entries"))
+    @Query(value = "INSERT INTO timeline_entries (owner_id, content_type, content_id, author_id, created_at, sort_key) " +
+            "SELECT f.follower_id, 'RESTAURANT', r.id, r.author_id, r.created_at, r.id * 2 + 1 FROM " +
+            "(SELECT id, author_id, created_at FROM restaurants WHERE author_id = :authorId AND privacy_level IN ('PUBLIC', 'FRIENDS') ORDER BY created_at DESC LIMIT :limit) r " +
+            "JOIN user_follows f ON f.followed_id = r.author_id " +
+            "WHERE NOT EXISTS (SELECT 1 FROM timeline_entries e WHERE e.content_type = 'RESTAURANT' AND e.content_id = r.id AND e.owner_id = f.follower_id)", nativeQuery = true)
+    int backfillFollowerRestaurants(@Param("authorId") Long authorId, @Param("limit") int limit);
+    
+    boolean existsByContentTypeAndContentId(TimelineContentType contentType, Long contentId);
+    
+    @Modifying
+    @Query("DELETE FROM TimelineEntry e WHERE e.contentType = :contentType AND e.contentId = :contentId")
+    int deleteByContent(@Param("contentType") TimelineContentType contentType, @Param("contentId") Long contentId);
+    
+    @Modifying
+    @Query("DELETE FROM TimelineEntry e WHERE e.ownerId = :ownerId AND e.authorId = :authorId")
+    int deleteByOwnerAndAuthor(@Param("ownerId") Long ownerId, @Param("authorId") Long authorId);
+    
+    // Authors whose follower count makes pushing on write too expensive
+    @Query(value = "SELECT f.followed_id FROM user_follows f GROUP BY f.followed_id HAVING COUNT(*) > :threshold", nativeQuery = true)
+    List<Long> findHighFanoutAuthorIds(@Param("threshold") long threshold);
+}
@@ -1,23 +1,38 @@
 package com.taste.repository;
 
+import com.taste.dto.UserSummary;
 import com.taste.model.User;
+import com.taste.security.UserPrincipal;
 import com.taste.model.DietaryPreference;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.Optional;
 import java.util.List;
 import java.util.Set;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    /** Query space of the follow counter columns, which nothing cached reads. */
+    String FOLLOW_COUNTS_SPACE = "user_follow_counts";
     
     Optional<User> findByUsername(String username);
     
     Optional<User> findByEmail(String email);
     
+    // Authentication only needs credentials, not the user's preference collections
+    @Query("SELECT new com.taste.security.UserPrincipal(u.id, u.username, u.email, u.password) FROM User u WHERE u.username = :username")
+    Optional<UserPrincipal> findPrincipalByUsername(@Param("username") String username);
+    
     Boolean existsByUsername(String username);
     
     Boolean existsByEmail(String email);
@@ -25,15 +40,104 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query("SELECT u FROM User u WHERE u.username LIKE %:query% OR u.firstName LIKE %:query% OR u.lastName LIKE %:query%")
     List<User> searchUsers(@Param("query") String query);
     
-    @Query("SELECT u FROM User u WHERE :preference MEMBER OF u.dietaryPreferences")
-    List<User> findByDietaryPreference(@Param("preference") DietaryPreference preference);
+    @Query("SELECT u FROM User u WHERE bitand(u.dietaryMask, cast(:bit as Short)) <> 0")
+    List<User> findByDietaryMaskContaining(@Param("bit") short bit);
+    
+    default List<User> findByDietaryPreference(DietaryPreference preference) {
+        return findByDietaryMaskContaining(preference.bit());
+    }
     
-    @Query("SELECT u FROM User u WHERE u.dietaryPreferences IN :preferences")
-    List<User> findByDietaryPreferences(@Param("preferences") Set<DietaryPreference> preferences);
+    @Query("SELECT u FROM User u WHERE bitand(u.dietaryMask, cast(:mask as Short)) <> 0")
+    List<User> findByDietaryMaskOverlapping(@Param("mask") short mask);
+    
+    default List<User> findByDietaryPreferences(Set<DietaryPreference> preferences) {
+        return findByDietaryMaskOverlapping(DietaryPreference.toMask(preferences));
+    }
     
     @Query("SELECT u FROM User u JOIN u.followers f WHERE f.id = :userId")
     List<User> findFollowersByUserId(@Param("userId") Long userId);
     
     @Query("SELECT u FROM User u JOIN u.following f WHERE f.id = :userId")
     List<User> findFollowingByUserId(@Param("userId") Long userId);
-}
\ No newline at end of file
+    
+    // Taken before a follow edge is written: inserting the edge takes shared locks on both
+    // users rows and the counters then need exclusive ones, so two follows of one account
+    // would each wait on the other. Ascending id order makes follow-backs queue as well.
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "SELECT id FROM users WHERE id IN (:userIds) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockUsers(@Param("userIds") Collection<Long> userIds);
+    
+    // Follow edges are written directly so neither side's follower set has to be loaded. An
+    // edge that already exists is skipped, and the row count tells whether one was added
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_follows"))
+    @Query(value = "INSERT IGNORE INTO user_follows (follower_id, followed_id) VALUES (:followerId, :followedId)", nativeQuery = true)
+    int insertFollow(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "user_follows"))
+    @Query(value = "DELETE FROM user_follows WHERE follower_id = :followerId AND followed_id = :followedId", nativeQuery = true)
+    int deleteFollow(@Param("followerId") Long followerId, @Param("followedId") Long followedId);
+    
+    @Query(value = "SELECT COUNT(*) FROM user_follows WHERE followed_id = :userId", nativeQuery = true)
+    long countFollowers(@Param("userId") Long userId);
+    
+    // Counter columns, kept in step with user_follows by FollowService
+    @Query("SELECT new com.taste.repository.FollowCounts(u.followerCount, u.followingCount) FROM User u WHERE u.id = :userId")
+    Optional<FollowCounts> findFollowCounts(@Param("userId") Long userId);
+    
+    // No cached entity or query result reads the counters, so these name a space of their
+    // own; naming users would drop every cached result that joins an author on each follow
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = FOLLOW_COUNTS_SPACE))
+    @Query(value = "UPDATE users SET follower_count = follower_count + :delta WHERE id = :userId", nativeQuery = true)
+    int adjustFollowerCount(@Param("userId") Long userId, @Param("delta") int delta);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = FOLLOW_COUNTS_SPACE))
+    @Query(value = "UPDATE users SET following_count = following_count + :delta WHERE id = :userId", nativeQuery = true)
+    int adjustFollowingCount(@Param("userId") Long userId, @Param("delta") int delta);
+    
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "users"))
+    @Query(value = "UPDATE users u SET follower_count = (SELECT COUNT(*) FROM user_follows f WHERE f.followed_id = u.id), following_count = (SELECT COUNT(*) FROM user_follows f WHERE f.follower_id = u.id) WHERE u.id > :afterId AND u.id <= :upToId", nativeQuery = true)
+    int recountFollows(@Param("afterId") Long afterId, @Param("upToId") Long upToId);
+    
+    @Query("SELECT MAX(u.id) FROM User u")
+    Optional<Long> findMaxId();
+    
+    // Keyset-paginated adjacency, ordered by user id
+    @Query("SELECT new com.taste.dto.UserSummary(u.id, u.username, u.firstName, u.lastName, u.profileImageUrl) FROM User u JOIN u.following f WHERE f.id = :userId AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findFollowerSummariesAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.dto.UserSummary(u.id, u.username, u.firstName, u.lastName, u.profileImageUrl) FROM User u JOIN u.followers f WHERE f.id = :userId AND u.id > :afterId ORDER BY u.id")
+    List<UserSummary> findFollowingSummariesAfter(@Param("userId") Long userId, @Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.dto.UserSummary(u.id, u.username, u.firstName, u.lastName, u.profileImageUrl) FROM User u WHERE u.id IN :ids")
+    List<UserSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+    
+    @Query("SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId")
+    List<Long> findFollowingIds(@Param("userId") Long userId);
+    
+    // Friends, in the FRIENDS privacy sense: users following this user back
+    @Query(value = "SELECT f.followed_id FROM user_follows f JOIN user_follows b ON b.follower_id = f.followed_id AND b.followed_id = f.follower_id WHERE f.follower_id = :userId", nativeQuery = true)
+    List<Long> findMutualFollowIds(@Param("userId") Long userId);
+    
+    @Query("SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId AND f.id IN :candidateIds")
+    List<Long> findFollowedIdsAmong(@Param("userId") Long userId, @Param("candidateIds") Collection<Long> candidateIds);
+    
+    @Query("SELECT u.id FROM User u WHERE u.id > :afterId AND (u.dietaryMask IS NULL OR u.allergenMask IS NULL) ORDER BY u.id")
+    List<Long> findIdsWithoutMasksAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("SELECT new com.taste.repository.PreferenceMaskRow(u.id, u.dietaryMask, u.allergenMask) FROM User u WHERE u.id = :id")
+    Optional<PreferenceMaskRow> findMaskRowById(@Param("id") Long id);
+    
+    @Query("SELECT a FROM User u JOIN u.allergies a WHERE u.id = :id")
+    List<String> findAllergyNamesById(@Param("id") Long id);
+
+    @Query("SELECT new com.taste.repository.UserTypeaheadRow(u.id, u.username, u.firstName, u.lastName, u.privacyLevel, u.followerCount) FROM User u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserTypeaheadRow> findTypeaheadRowsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT new com.taste.repository.UserTypeaheadRow(u.id, u.username, u.firstName, u.lastName, u.privacyLevel, u.followerCount) FROM User u WHERE u.id = :id")
+    Optional<UserTypeaheadRow> findTypeaheadRowById(@Param("id") Long id);
+}
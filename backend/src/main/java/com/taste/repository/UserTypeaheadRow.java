@@ -0,0 +1,13 @@
+package com.taste.repository;
+
+import com.taste.model.PrivacyLevel;
+
+/** The columns of a user that username suggestions are built from. */
+public record UserTypeaheadRow(
+        Long id,
+        String username,
+        String firstName,
+        String lastName,
+        PrivacyLevel privacyLevel,
+        int followerCount) {
+}
@@ -2,63 +2,131 @@ package com.taste.security;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtUtils {
-    
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtils.class);
+
     @Value("${app.jwt.secret}")
     private String jwtSecret;
 
     @Value("${app.jwt.expiration}")
     private int jwtExpirationMs;
 
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+    // Derived once: both are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser jwtParser;
+
+    private final Timer validTimer;
+    private final Timer invalidTimer;
+    private final Counter malformed;
+    private final Counter expired;
+    private final Counter unsupported;
+    private final Counter empty;
+    private final Counter badSignature;
+
+    public JwtUtils(MeterRegistry meterRegistry) {
+        validTimer = validationTimer(meterRegistry, "valid");
+        invalidTimer = validationTimer(meterRegistry, "invalid");
+        malformed = failureCounter(meterRegistry, "malformed");
+        expired = failureCounter(meterRegistry, "expired");
+        unsupported = failureCounter(meterRegistry, "unsupported");
+        empty = failureCounter(meterRegistry, "empty");
+        badSignature = failureCounter(meterRegistry, "signature");
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        jwtParser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
     }
 
     public String generateJwtToken(Authentication authentication) {
         UserPrincipal userPrincipal = (UserPrincipal) authentication.getPrincipal();
 
+        Date now = new Date();
         return Jwts.builder()
                 .subject((userPrincipal.getUsername()))
-                .issuedAt(new Date())
-                .expiration(new Date((new Date()).getTime() + jwtExpirationMs))
-                .signWith(getSigningKey())
+                .issuedAt(now)
+                .expiration(new Date(now.getTime() + jwtExpirationMs))
+                .signWith(signingKey)
                 .compact();
     }
 
     public String getUserNameFromJwtToken(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
+        return jwtParser.parseSignedClaims(token)
                 .getPayload()
                 .getSubject();
     }
 
     public boolean validateJwtToken(String authToken) {
+        return validateAndGetUserName(authToken).isPresent();
+    }
+
+    /**
+     * Verifies the token and returns its subject from the same parse. Prefer this over calling
+     * {@link #validateJwtToken} followed by {@link #getUserNameFromJwtToken}.
+     */
+    public Optional<String> validateAndGetUserName(String authToken) {
+        long started = System.nanoTime();
+        Counter failure;
         try {
-            Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(authToken);
-            return true;
+            String subject = jwtParser.parseSignedClaims(authToken).getPayload().getSubject();
+            validTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return Optional.ofNullable(subject);
         } catch (MalformedJwtException e) {
-            System.err.println("Invalid JWT token: " + e.getMessage());
+            logger.debug("Invalid JWT token: {}", e.getMessage());
+            failure = malformed;
         } catch (ExpiredJwtException e) {
-            System.err.println("JWT token is expired: " + e.getMessage());
+            logger.debug("JWT token is expired: {}", e.getMessage());
+            failure = expired;
         } catch (UnsupportedJwtException e) {
-            System.err.println("JWT token is unsupported: " + e.getMessage());
+            logger.debug("JWT token is unsupported: {}", e.getMessage());
+            failure = unsupported;
         } catch (IllegalArgumentException e) {
-            System.err.println("JWT claims string is empty: " + e.getMessage());
+            logger.debug("JWT claims string is empty: {}", e.getMessage());
+            failure = empty;
+        } catch (JwtException e) {
+            logger.debug("JWT signature is invalid: {}", e.getMessage());
+            failure = badSignature;
         }
 
-        return false;
+        invalidTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        failure.increment();
+        return Optional.empty();
+    }
+
+    private static Timer validationTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("taste.jwt.validation")
+                .description("Time to verify a bearer token")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // Registered up front so every cause is exported, at zero until it first happens
+    private static Counter failureCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("taste.jwt.failures")
+                .description("Bearer tokens rejected, by cause")
+                .tag("cause", cause)
+                .register(meterRegistry);
     }
-}
\ No newline at end of file
+}
@@ -1,13 +1,11 @@
 package com.taste.security;
 
-import com.taste.model.User;
 import com.taste.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserDetailsServiceImpl implements UserDetailsService {
@@ -15,12 +13,13 @@ public class UserDetailsServiceImpl implements UserDetailsService {
     @Autowired
     UserRepository userRepository;
 
+    @Autowired
+    UserPrincipalCache principalCache;
+
+    // Not transactional: a cache hit must not borrow a connection from the pool
     @Override
-    @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
+        return principalCache.get(username, userRepository::findPrincipalByUsername)
                 .orElseThrow(() -> new UsernameNotFoundException("User Not Found: " + username));
-
-        return UserPrincipal.create(user);
     }
-}
\ No newline at end of file
+}
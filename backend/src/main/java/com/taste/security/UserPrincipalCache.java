@@ -0,0 +1,82 @@
+package com.taste.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.taste.event.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded, TTL-evicted cache of resolved principals keyed by username, so that an
+ * authenticated request does not need a database round trip. Entries for a user are
+ * dropped as soon as a change to that user commits; a change is keyed by id, which a
+ * secondary index maps to the cached username.
+ */
+@Component
+public class UserPrincipalCache {
+
+    private final Cache<String, UserPrincipal> cache;
+    private final Map<Long, String> usernameById = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+
+    public UserPrincipalCache(@Value("${app.jwt.principal-cache.max-size:10000}") long maxSize,
+                              @Value("${app.jwt.principal-cache.ttl:5m}") Duration ttl) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .evictionListener((String username, UserPrincipal principal, RemovalCause cause) -> {
+                    if (username != null && principal != null) {
+                        usernameById.remove(principal.getId(), username);
+                    }
+                })
+                .build();
+    }
+
+    public Optional<UserPrincipal> get(String username, Function<String, Optional<UserPrincipal>> loader) {
+        UserPrincipal cached = cache.getIfPresent(username);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        long seen = changes.get();
+        Optional<UserPrincipal> loaded = loader.apply(username);
+        loaded.ifPresent(principal -> {
+            // Indexed before it is cached, so a change committing from here on finds it; one
+            // that committed since the load may have missed it, and drops it below
+            usernameById.put(principal.getId(), username);
+            cache.put(username, principal);
+            if (changes.get() != seen) {
+                cache.invalidate(username);
+            }
+        });
+        return loaded;
+    }
+
+    public void invalidate(Long userId) {
+        changes.incrementAndGet();
+        // Keyed by username, which may itself have changed, so resolve the cached one by id
+        String username = userId == null ? null : usernameById.remove(userId);
+        if (username != null) {
+            cache.invalidate(username);
+        }
+    }
+
+    public void invalidateAll() {
+        changes.incrementAndGet();
+        cache.invalidateAll();
+        usernameById.clear();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        invalidate(event.userId());
+    }
+}
@@ -0,0 +1,51 @@
+package com.taste.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Cache misses loaded on the calling thread, outside the cache's own locking.
+ *
+ * <p>A synchronous Caffeine cache runs its loader inside {@code ConcurrentHashMap.compute},
+ * which holds a monitor on the hash bin. A loader that queries the database then pins a
+ * virtual thread to its carrier for the length of the query, and blocks other keys in the
+ * same bin. Here only an empty future is published under that lock; the loader runs
+ * afterwards, and concurrent callers for the same key wait on the future instead of
+ * loading again. Invalidating a key mid-load drops the future, so the result of a load
+ * that raced a change is returned to its caller but never cached.
+ */
+public final class CacheLoading {
+
+    private CacheLoading() {
+    }
+
+    public static <K, V> V get(AsyncCache<K, V> cache, K key, Function<? super K, ? extends V> loader) {
+        CompletableFuture<V> existing = cache.getIfPresent(key);
+        if (existing == null) {
+            CompletableFuture<V> loading = new CompletableFuture<>();
+            existing = cache.asMap().putIfAbsent(key, loading);
+            if (existing == null) {
+                try {
+                    V value = loader.apply(key);
+                    loading.complete(value);
+                    return value;
+                } catch (RuntimeException | Error e) {
+                    // A failed future is removed by the cache, so the next call loads again
+                    loading.completeExceptionally(e);
+                    throw e;
+                }
+            }
+        }
+        try {
+            return existing.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.taste.service;
+
+/**
+ * Matching of entity tags against {@code If-None-Match}.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    /** If-None-Match uses the weak comparison, so a W/ prefix on the client's copy is ignored. */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag) || tag.equals("W/" + etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.taste.service;
+
+import com.taste.event.FollowChangedEvent;
+import com.taste.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+@Service
+public class FollowService {
+
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public FollowService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
+        this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Transactional
+    public boolean follow(Long followerId, Long followedId) {
+        if (followerId.equals(followedId)) {
+            throw new IllegalArgumentException("Users cannot follow themselves");
+        }
+        if (!userRepository.lockUsers(List.of(followerId, followedId)).contains(followedId)) {
+            throw new IllegalArgumentException("User not found: " + followedId);
+        }
+        // A check before inserting would let two concurrent requests both insert and count
+        if (userRepository.insertFollow(followerId, followedId) == 0) {
+            return false;
+        }
+        userRepository.adjustFollowingCount(followerId, 1);
+        userRepository.adjustFollowerCount(followedId, 1);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followedId, true));
+        return true;
+    }
+
+    @Transactional
+    public boolean unfollow(Long followerId, Long followedId) {
+        // The counters are updated in the same order as a concurrent follow-back would
+        userRepository.lockUsers(List.of(followerId, followedId));
+        if (userRepository.deleteFollow(followerId, followedId) == 0) {
+            return false;
+        }
+        userRepository.adjustFollowingCount(followerId, -1);
+        userRepository.adjustFollowerCount(followedId, -1);
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, followedId, false));
+        return true;
+    }
+}
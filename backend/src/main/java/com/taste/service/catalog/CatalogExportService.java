@@ -0,0 +1,187 @@
+package com.taste.service.catalog;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taste.dto.CatalogIngredient;
+import com.taste.dto.CatalogMenuItem;
+import com.taste.dto.CatalogRecipe;
+import com.taste.dto.CatalogRestaurant;
+import com.taste.model.DietaryPreference;
+import com.taste.model.PriceRange;
+import com.taste.model.PrivacyLevel;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a user's recipes and restaurants in the format {@link CatalogImporter} reads.
+ * Rows are read in keyset batches with their child tables fetched per batch, and written
+ * as they are read, so an export of any size needs a bounded amount of memory.
+ */
+@Service
+public class CatalogExportService {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String RECIPES = "SELECT id, title, description, instructions, servings, prep_time_minutes, cook_time_minutes, difficulty, image_url, privacy_level, created_at FROM recipes WHERE author_id = :authorId AND id > :afterId ORDER BY id LIMIT " + BATCH_SIZE;
+    private static final String RESTAURANTS = "SELECT id, name, description, address, phone, website, image_url, rating, notes, price_range, privacy_level, latitude, longitude, created_at FROM restaurants WHERE author_id = :authorId AND id > :afterId ORDER BY id LIMIT " + BATCH_SIZE;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    public CatalogExportService(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public void export(Long authorId, OutputStream out) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("version", CatalogImporter.FORMAT_VERSION);
+            generator.writeArrayFieldStart("recipes");
+            long afterId = 0;
+            List<Row<CatalogRecipe>> recipes;
+            while (!(recipes = recipes(authorId, afterId)).isEmpty()) {
+                for (Row<CatalogRecipe> recipe : recipes) {
+                    generator.writeObject(recipe.value());
+                }
+                afterId = recipes.get(recipes.size() - 1).id();
+            }
+            generator.writeEndArray();
+            generator.writeArrayFieldStart("restaurants");
+            afterId = 0;
+            List<Row<CatalogRestaurant>> restaurants;
+            while (!(restaurants = restaurants(authorId, afterId)).isEmpty()) {
+                for (Row<CatalogRestaurant> restaurant : restaurants) {
+                    generator.writeObject(restaurant.value());
+                }
+                afterId = restaurants.get(restaurants.size() - 1).id();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+    }
+
+    private List<Row<CatalogRecipe>> recipes(Long authorId, long afterId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(RECIPES, Map.of("authorId", authorId, "afterId", afterId));
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+        Map<Long, Set<String>> categories = values("SELECT recipe_id, category FROM recipe_categories WHERE recipe_id IN (:ids)", ids);
+        Map<Long, Set<String>> tags = values("SELECT recipe_id, tag FROM recipe_tags WHERE recipe_id IN (:ids)", ids);
+        Map<Long, Set<String>> preferences = values("SELECT recipe_id, preference FROM recipe_dietary_preferences WHERE recipe_id IN (:ids)", ids);
+        Map<Long, Set<String>> allergens = values("SELECT recipe_id, allergen FROM recipe_allergens WHERE recipe_id IN (:ids)", ids);
+        Map<Long, List<CatalogIngredient>> ingredients = new HashMap<>();
+        jdbcTemplate.query("SELECT recipe_id, name, quantity, unit, notes FROM recipe_ingredients WHERE recipe_id IN (:ids) ORDER BY recipe_id, display_order, id",
+                Map.of("ids", ids), (ResultSet rs) -> {
+                    ingredients.computeIfAbsent(rs.getLong(1), id -> new ArrayList<>()).add(new CatalogIngredient(
+                            rs.getString(2), rs.getBigDecimal(3), rs.getString(4), rs.getString(5)));
+                });
+
+        List<Row<CatalogRecipe>> recipes = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            recipes.add(new Row<>(id, new CatalogRecipe((String) row.get("title"), (String) row.get("description"),
+                    (String) row.get("instructions"), integer(row.get("servings")), integer(row.get("prep_time_minutes")),
+                    integer(row.get("cook_time_minutes")), integer(row.get("difficulty")), (String) row.get("image_url"),
+                    privacy(row.get("privacy_level")), categories.get(id), tags.get(id),
+                    preferences(preferences.get(id)), allergens.get(id), ingredients.get(id),
+                    ((Timestamp) row.get("created_at")).toLocalDateTime())));
+        }
+        return recipes;
+    }
+
+    private List<Row<CatalogRestaurant>> restaurants(Long authorId, long afterId) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(RESTAURANTS, Map.of("authorId", authorId, "afterId", afterId));
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = rows.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+        Map<Long, Set<String>> cuisines = values("SELECT restaurant_id, cuisine FROM restaurant_cuisines WHERE restaurant_id IN (:ids)", ids);
+        Map<Long, Set<String>> tags = values("SELECT restaurant_id, tag FROM restaurant_tags WHERE restaurant_id IN (:ids)", ids);
+        Map<Long, Set<String>> options = values("SELECT restaurant_id, option FROM restaurant_dietary_options WHERE restaurant_id IN (:ids)", ids);
+        Map<Long, List<CatalogMenuItem>> menuItems = menuItems(ids);
+
+        List<Row<CatalogRestaurant>> restaurants = new ArrayList<>(rows.size());
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            restaurants.add(new Row<>(id, new CatalogRestaurant((String) row.get("name"), (String) row.get("description"),
+                    (String) row.get("address"), (String) row.get("phone"), (String) row.get("website"),
+                    (String) row.get("image_url"), (BigDecimal) row.get("rating"), (String) row.get("notes"),
+                    row.get("price_range") != null ? PriceRange.valueOf((String) row.get("price_range")) : null,
+                    privacy(row.get("privacy_level")), cuisines.get(id), tags.get(id), preferences(options.get(id)),
+                    decimal(row.get("latitude")), decimal(row.get("longitude")), menuItems.get(id),
+                    ((Timestamp) row.get("created_at")).toLocalDateTime())));
+        }
+        return restaurants;
+    }
+
+    private Map<Long, List<CatalogMenuItem>> menuItems(List<Long> restaurantIds) {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, restaurant_id, name, description, price, rating, notes, category, image_url FROM menu_items WHERE restaurant_id IN (:ids) ORDER BY restaurant_id, id",
+                Map.of("ids", restaurantIds));
+        Map<Long, List<CatalogMenuItem>> menuItems = new HashMap<>();
+        if (rows.isEmpty()) {
+            return menuItems;
+        }
+        List<Long> ids = rows.stream().map(row -> ((Number) row.get("id")).longValue()).toList();
+        Map<Long, Set<String>> preferences = values("SELECT menu_item_id, preference FROM menu_item_dietary_preferences WHERE menu_item_id IN (:ids)", ids);
+        Map<Long, Set<String>> allergens = values("SELECT menu_item_id, allergen FROM menu_item_allergens WHERE menu_item_id IN (:ids)", ids);
+        for (Map<String, Object> row : rows) {
+            Long id = ((Number) row.get("id")).longValue();
+            menuItems.computeIfAbsent(((Number) row.get("restaurant_id")).longValue(), restaurantId -> new ArrayList<>())
+                    .add(new CatalogMenuItem((String) row.get("name"), (String) row.get("description"),
+                            (BigDecimal) row.get("price"), (BigDecimal) row.get("rating"),
+                            (String) row.get("notes"), (String) row.get("category"), (String) row.get("image_url"),
+                            preferences(preferences.get(id)), allergens.get(id)));
+        }
+        return menuItems;
+    }
+
+    // Two-column (owner id, value) rows grouped by owner
+    private Map<Long, Set<String>> values(String sql, List<Long> ids) {
+        Map<Long, Set<String>> values = new HashMap<>();
+        jdbcTemplate.query(sql, Map.of("ids", ids), (ResultSet rs) -> {
+            values.computeIfAbsent(rs.getLong(1), id -> new LinkedHashSet<>()).add(rs.getString(2));
+        });
+        return values;
+    }
+
+    private static Set<DietaryPreference> preferences(Set<String> names) {
+        if (names == null) {
+            return null;
+        }
+        Set<DietaryPreference> preferences = new LinkedHashSet<>();
+        for (String name : names) {
+            preferences.add(DietaryPreference.valueOf(name));
+        }
+        return preferences;
+    }
+
+    private static PrivacyLevel privacy(Object value) {
+        return value != null ? PrivacyLevel.valueOf((String) value) : null;
+    }
+
+    private static Integer integer(Object value) {
+        return value != null ? ((Number) value).intValue() : null;
+    }
+
+    private static Double decimal(Object value) {
+        return value != null ? ((Number) value).doubleValue() : null;
+    }
+
+    private record Row<T>(long id, T value) {
+    }
+}
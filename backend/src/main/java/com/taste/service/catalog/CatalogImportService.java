@@ -0,0 +1,168 @@
+package com.taste.service.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.taste.dto.ImportProgress;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Accepts catalog uploads and imports them in the background. The body is spooled to a
+ * temporary file first, so the request returns as soon as the upload is complete and the
+ * import never holds a request thread; progress is polled by job id.
+ */
+@Service
+public class CatalogImportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogImportService.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Finished jobs stay visible this long, so a client can read the final counts
+    private static final Duration RETENTION = Duration.ofHours(1);
+
+    private final CatalogImporter importer;
+    private final Path tempDir;
+    private final long maxBytes;
+    private final ThreadPoolExecutor pool;
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<Long, ImportJob> activeByUser = new ConcurrentHashMap<>();
+
+    public CatalogImportService(CatalogImporter importer,
+                                @Value("${app.upload.dir:uploads/}") Path uploadDir,
+                                @Value("${app.catalog.import.max-size:256MB}") DataSize maxSize,
+                                @Value("${app.catalog.import.threads:1}") int threads,
+                                @Value("${app.catalog.import.queue-capacity:8}") int queueCapacity) {
+        this.importer = importer;
+        this.tempDir = uploadDir.resolve("tmp").toAbsolutePath().normalize();
+        this.maxBytes = maxSize.toBytes();
+        try {
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create " + tempDir, e);
+        }
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "catalog-import-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Spools {@code body} and queues its import for {@code userId}, who may have one import
+     * in progress at a time. {@code declaredLength} is the Content-Length, or -1.
+     */
+    public ImportProgress submit(Long userId, InputStream body, long declaredLength) throws IOException {
+        if (declaredLength > maxBytes) {
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+        pruneFinished();
+        // Checked before spooling to refuse early, and claimed after it, when the job exists
+        if (activeByUser.containsKey(userId)) {
+            throw alreadyImporting();
+        }
+        Path file = Files.createTempFile(tempDir, "catalog-", ".json");
+        try {
+            ImportJob job = new ImportJob(userId, spool(body, file));
+            if (activeByUser.putIfAbsent(userId, job) != null) {
+                throw alreadyImporting();
+            }
+            jobs.put(job.id, job);
+            try {
+                pool.execute(() -> run(job, file));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                activeByUser.remove(userId, job);
+                throw e;
+            }
+            return job.progress();
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /** Jobs are only visible to the user who submitted them. */
+    public Optional<ImportProgress> progress(Long userId, String jobId) {
+        ImportJob job = jobs.get(jobId);
+        return job != null && job.userId.equals(userId) ? Optional.of(job.progress()) : Optional.empty();
+    }
+
+    private long spool(InputStream body, Path file) throws IOException {
+        long size = 0;
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (OutputStream out = Files.newOutputStream(file)) {
+            int n;
+            while ((n = body.read(buffer)) >= 0) {
+                size += n;
+                if (size > maxBytes) {
+                    throw new MaxUploadSizeExceededException(maxBytes);
+                }
+                out.write(buffer, 0, n);
+            }
+        }
+        return size;
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.start();
+        try {
+            importer.run(job, file);
+            job.complete();
+        } catch (JsonProcessingException e) {
+            job.fail("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IllegalArgumentException e) {
+            job.fail(e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Catalog import {} failed", job.id, e);
+            job.fail("Import failed");
+        } finally {
+            activeByUser.remove(job.userId, job);
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                logger.debug("Could not delete {}", file, e);
+            }
+        }
+        ImportProgress progress = job.progress();
+        logger.info("Catalog import {} {}: {} recipes, {} restaurants, {} skipped", job.id, progress.status(),
+                progress.recipesImported(), progress.restaurantsImported(), progress.skipped());
+    }
+
+    private static ResponseStatusException alreadyImporting() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "An import is already in progress");
+    }
+
+    private void pruneFinished() {
+        Instant cutoff = Instant.now().minus(RETENTION);
+        jobs.values().removeIf(job -> job.finishedAt() != null && job.finishedAt().isBefore(cutoff));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
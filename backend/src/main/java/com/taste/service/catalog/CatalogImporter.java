@@ -0,0 +1,198 @@
+package com.taste.service.catalog;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.taste.dto.CatalogIngredient;
+import com.taste.dto.CatalogMenuItem;
+import com.taste.dto.CatalogRecipe;
+import com.taste.dto.CatalogRestaurant;
+import com.taste.event.ChangeType;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.event.RestaurantChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Reads a catalog file with Jackson's streaming parser, one recipe or restaurant at a time,
+ * so memory use does not grow with the file. Valid items are written in batches, each in
+ * its own transaction; invalid ones are skipped and reported. The file has the shape
+ * {@link CatalogExportService} writes:
+ * <pre>{"version": 1, "recipes": [...], "restaurants": [...]}</pre>
+ */
+@Component
+public class CatalogImporter {
+
+    static final int FORMAT_VERSION = 1;
+
+    private final ObjectMapper objectMapper;
+    private final CatalogWriter writer;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transaction;
+    private final int batchSize;
+
+    public CatalogImporter(ObjectMapper objectMapper, CatalogWriter writer, ApplicationEventPublisher eventPublisher,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.catalog.import.batch-size:200}") int batchSize) {
+        this.objectMapper = objectMapper;
+        this.writer = writer;
+        this.eventPublisher = eventPublisher;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    void run(ImportJob job, Path file) throws IOException {
+        try (JsonParser parser = objectMapper.createParser(file.toFile())) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Expected a JSON object at the top level");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "version" -> {
+                        if (parser.getValueAsInt() != FORMAT_VERSION) {
+                            throw new IllegalArgumentException("Unsupported catalog version " + parser.getText());
+                        }
+                    }
+                    case "recipes" -> readItems(job, parser, "recipes", CatalogRecipe.class,
+                            CatalogImporter::validate, batch -> writeRecipes(job, batch, parser));
+                    case "restaurants" -> readItems(job, parser, "restaurants", CatalogRestaurant.class,
+                            CatalogImporter::validate, batch -> writeRestaurants(job, batch, parser));
+                    default -> parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    // Each item is read as a tree first, so one that does not bind leaves the parser
+    // positioned at the next item instead of somewhere inside this one
+    private <T> void readItems(ImportJob job, JsonParser parser, String field, Class<T> type, Validator<T> validator,
+                               Consumer<List<T>> sink) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("Expected \"" + field + "\" to be an array");
+        }
+        List<T> batch = new ArrayList<>(batchSize);
+        int index = 0;
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            JsonNode node = parser.readValueAsTree();
+            String position = field + "[" + index++ + "]: ";
+            T item;
+            try {
+                item = node.isObject() ? objectMapper.treeToValue(node, type) : null;
+            } catch (JsonProcessingException e) {
+                job.skip(position + e.getOriginalMessage());
+                continue;
+            }
+            String problem = item == null ? "not an object" : validator.problem(item);
+            if (problem != null) {
+                job.skip(position + problem);
+                continue;
+            }
+            batch.add(item);
+            if (batch.size() == batchSize) {
+                sink.accept(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+        if (!batch.isEmpty()) {
+            sink.accept(batch);
+        }
+    }
+
+    private void writeRecipes(ImportJob job, List<CatalogRecipe> batch, JsonParser parser) {
+        transaction.executeWithoutResult(status -> {
+            for (Long id : writer.insertRecipes(job.userId, batch)) {
+                // Delivered after commit, like the events of entities saved through JPA
+                eventPublisher.publishEvent(new RecipeChangedEvent(id, job.userId, ChangeType.CREATED));
+            }
+        });
+        job.recipesImported(batch.size(), parser.currentLocation().getByteOffset());
+    }
+
+    private void writeRestaurants(ImportJob job, List<CatalogRestaurant> batch, JsonParser parser) {
+        transaction.executeWithoutResult(status -> {
+            for (Long id : writer.insertRestaurants(job.userId, batch)) {
+                eventPublisher.publishEvent(new RestaurantChangedEvent(id, job.userId, ChangeType.CREATED));
+            }
+        });
+        job.restaurantsImported(batch.size(), parser.currentLocation().getByteOffset());
+    }
+
+    static String validate(CatalogRecipe recipe) {
+        if (isBlank(recipe.title()) || recipe.title().trim().length() > 200) {
+            return "title is required and must be at most 200 characters";
+        }
+        if (!atLeastOne(recipe.servings()) || !atLeastOne(recipe.prepTimeMinutes()) || !atLeastOne(recipe.cookTimeMinutes())) {
+            return "servings and times must be at least 1";
+        }
+        if (recipe.difficulty() != null && (recipe.difficulty() < 1 || recipe.difficulty() > 5)) {
+            return "difficulty must be between 1 and 5";
+        }
+        if (recipe.ingredients() != null) {
+            for (CatalogIngredient ingredient : recipe.ingredients()) {
+                if (ingredient == null || isBlank(ingredient.name())) {
+                    return "every ingredient needs a name";
+                }
+                if (ingredient.quantity() != null && ingredient.quantity().signum() <= 0) {
+                    return "ingredient quantities must be positive";
+                }
+            }
+        }
+        return null;
+    }
+
+    static String validate(CatalogRestaurant restaurant) {
+        if (isBlank(restaurant.name()) || restaurant.name().trim().length() > 200) {
+            return "name is required and must be at most 200 characters";
+        }
+        if (!isRating(restaurant.rating())) {
+            return "rating must be between 1 and 5";
+        }
+        if ((restaurant.latitude() == null) != (restaurant.longitude() == null)
+                || (restaurant.latitude() != null && (Math.abs(restaurant.latitude()) > 90 || Math.abs(restaurant.longitude()) > 180))) {
+            return "latitude and longitude must be given together and be valid coordinates";
+        }
+        if (restaurant.menuItems() != null) {
+            for (CatalogMenuItem item : restaurant.menuItems()) {
+                if (item == null || isBlank(item.name()) || item.name().trim().length() > 200) {
+                    return "every menu item needs a name of at most 200 characters";
+                }
+                if (!isRating(item.rating())) {
+                    return "menu item ratings must be between 1 and 5";
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static boolean atLeastOne(Integer value) {
+        return value == null || value >= 1;
+    }
+
+    private static boolean isRating(BigDecimal rating) {
+        return rating == null || (rating.compareTo(BigDecimal.ONE) >= 0 && rating.compareTo(BigDecimal.valueOf(5)) <= 0);
+    }
+
+    @FunctionalInterface
+    private interface Validator<T> {
+        /** Why the item cannot be imported, or null if it can. */
+        String problem(T item);
+    }
+}
@@ -0,0 +1,211 @@
+package com.taste.service.catalog;
+
+import com.taste.dto.CatalogIngredient;
+import com.taste.dto.CatalogMenuItem;
+import com.taste.dto.CatalogRecipe;
+import com.taste.dto.CatalogRestaurant;
+import com.taste.model.Allergen;
+import com.taste.model.DietaryPreference;
+import com.taste.model.PrivacyLevel;
+import com.taste.service.ingredient.IngredientDictionary;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlTypeValue;
+import org.springframework.jdbc.core.StatementCreatorUtils;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Writes imported recipes and restaurants with batched JDBC rather than one entity at a
+ * time: identity ids stop Hibernate from batching inserts, so a recipe with twenty
+ * ingredients would otherwise cost dozens of round trips. Parents are inserted in one batch
+ * that returns their generated keys, then each child table in one batch.
+ *
+ * <p>Bypasses the entity callbacks, so it fills in what they would: preference and
+ * allergen masks and canonical ingredient links. Must run inside a transaction. Only new
+ * rows are written, so nothing held in the second-level cache goes stale.
+ */
+@Component
+public class CatalogWriter {
+
+    private static final String INSERT_RECIPE = "INSERT INTO recipes (title, description, instructions, servings, prep_time_minutes, cook_time_minutes, difficulty, image_url, privacy_level, dietary_mask, allergen_mask, author_id, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final String INSERT_INGREDIENT = "INSERT INTO recipe_ingredients (name, quantity, unit, notes, display_order, recipe_id, ingredient_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_RESTAURANT = "INSERT INTO restaurants (name, description, address, phone, website, image_url, rating, notes, price_range, privacy_level, dietary_mask, author_id, latitude, longitude, version, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?, ?)";
+    private static final String INSERT_MENU_ITEM = "INSERT INTO menu_items (name, description, price, rating, notes, category, image_url, dietary_mask, allergen_mask, version, restaurant_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IngredientDictionary dictionary;
+
+    public CatalogWriter(JdbcTemplate jdbcTemplate, IngredientDictionary dictionary) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dictionary = dictionary;
+    }
+
+    /** Returns the new ids, in the order of {@code recipes}. */
+    public List<Long> insertRecipes(Long authorId, List<CatalogRecipe> recipes) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = insertReturningIds(INSERT_RECIPE, recipes, recipe -> new Object[] {
+                recipe.title().trim(), recipe.description(), recipe.instructions(), recipe.servings(),
+                recipe.prepTimeMinutes(), recipe.cookTimeMinutes(), recipe.difficulty(), recipe.imageUrl(),
+                privacy(recipe.privacyLevel()), DietaryPreference.toMask(orEmpty(recipe.dietaryPreferences())),
+                Allergen.toMask(orEmpty(recipe.allergens())), authorId, created(recipe.createdAt(), now), now});
+
+        List<Object[]> ingredients = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        List<Object[]> tags = new ArrayList<>();
+        List<Object[]> preferences = new ArrayList<>();
+        List<Object[]> allergens = new ArrayList<>();
+        for (int i = 0; i < recipes.size(); i++) {
+            CatalogRecipe recipe = recipes.get(i);
+            Long id = ids.get(i);
+            int order = 0;
+            for (CatalogIngredient ingredient : orEmpty(recipe.ingredients())) {
+                ingredients.add(new Object[] {ingredient.name().trim(), ingredient.quantity(), ingredient.unit(),
+                        ingredient.notes(), order++, id, dictionary.resolve(ingredient.name()).orElse(null)});
+            }
+            addAll(categories, id, recipe.categories(), Function.identity());
+            addAll(tags, id, recipe.tags(), Function.identity());
+            addAll(preferences, id, recipe.dietaryPreferences(), DietaryPreference::name);
+            addAll(allergens, id, recipe.allergens(), Function.identity());
+        }
+        batch(INSERT_INGREDIENT, ingredients);
+        batch("INSERT INTO recipe_categories (recipe_id, category) VALUES (?, ?)", categories);
+        batch("INSERT INTO recipe_tags (recipe_id, tag) VALUES (?, ?)", tags);
+        batch("INSERT INTO recipe_dietary_preferences (recipe_id, preference) VALUES (?, ?)", preferences);
+        batch("INSERT INTO recipe_allergens (recipe_id, allergen) VALUES (?, ?)", allergens);
+        return ids;
+    }
+
+    /** Returns the new ids, in the order of {@code restaurants}. */
+    public List<Long> insertRestaurants(Long authorId, List<CatalogRestaurant> restaurants) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Long> ids = insertReturningIds(INSERT_RESTAURANT, restaurants, restaurant -> new Object[] {
+                restaurant.name().trim(), restaurant.description(), restaurant.address(), restaurant.phone(),
+                restaurant.website(), restaurant.imageUrl(), restaurant.rating(), restaurant.notes(),
+                restaurant.priceRange() != null ? restaurant.priceRange().name() : null, privacy(restaurant.privacyLevel()),
+                DietaryPreference.toMask(orEmpty(restaurant.dietaryOptions())), authorId, restaurant.latitude(),
+                restaurant.longitude(), created(restaurant.createdAt(), now), now});
+
+        List<Object[]> cuisines = new ArrayList<>();
+        List<Object[]> tags = new ArrayList<>();
+        List<Object[]> options = new ArrayList<>();
+        List<CatalogMenuItem> menuItems = new ArrayList<>();
+        List<Long> menuItemRestaurants = new ArrayList<>();
+        for (int i = 0; i < restaurants.size(); i++) {
+            CatalogRestaurant restaurant = restaurants.get(i);
+            Long id = ids.get(i);
+            addAll(cuisines, id, restaurant.cuisines(), Function.identity());
+            addAll(tags, id, restaurant.tags(), Function.identity());
+            addAll(options, id, restaurant.dietaryOptions(), DietaryPreference::name);
+            for (CatalogMenuItem item : orEmpty(restaurant.menuItems())) {
+                menuItems.add(item);
+                menuItemRestaurants.add(id);
+            }
+        }
+        batch("INSERT INTO restaurant_cuisines (restaurant_id, cuisine) VALUES (?, ?)", cuisines);
+        batch("INSERT INTO restaurant_tags (restaurant_id, tag) VALUES (?, ?)", tags);
+        batch("INSERT INTO restaurant_dietary_options (restaurant_id, option) VALUES (?, ?)", options);
+        insertMenuItems(menuItems, menuItemRestaurants);
+        return ids;
+    }
+
+    private void insertMenuItems(List<CatalogMenuItem> items, List<Long> restaurantIds) {
+        if (items.isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            CatalogMenuItem item = items.get(i);
+            rows.add(new Object[] {item.name().trim(), item.description(), item.price(), item.rating(), item.notes(),
+                    item.category(), item.imageUrl(), DietaryPreference.toMask(orEmpty(item.dietaryPreferences())),
+                    Allergen.toMask(orEmpty(item.allergens())), restaurantIds.get(i)});
+        }
+        List<Long> ids = insertReturningIds(INSERT_MENU_ITEM, rows, Function.identity());
+
+        List<Object[]> preferences = new ArrayList<>();
+        List<Object[]> allergens = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            addAll(preferences, ids.get(i), items.get(i).dietaryPreferences(), DietaryPreference::name);
+            addAll(allergens, ids.get(i), items.get(i).allergens(), Function.identity());
+        }
+        batch("INSERT INTO menu_item_dietary_preferences (menu_item_id, preference) VALUES (?, ?)", preferences);
+        batch("INSERT INTO menu_item_allergens (menu_item_id, allergen) VALUES (?, ?)", allergens);
+    }
+
+    private <T> List<Long> insertReturningIds(String sql, List<T> items, Function<T, Object[]> columns) {
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Object[] values = columns.apply(items.get(i));
+                        for (int column = 0; column < values.length; column++) {
+                            StatementCreatorUtils.setParameterValue(statement, column + 1, SqlTypeValue.TYPE_UNKNOWN, values[column]);
+                        }
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return items.size();
+                    }
+                }, keys);
+        List<Map<String, Object>> keyList = keys.getKeyList();
+        if (keyList.size() != items.size()) {
+            throw new IllegalStateException("Expected " + items.size() + " generated keys, got " + keyList.size());
+        }
+        List<Long> ids = new ArrayList<>(keyList.size());
+        for (Map<String, Object> key : keyList) {
+            ids.add(((Number) key.values().iterator().next()).longValue());
+        }
+        return ids;
+    }
+
+    private void batch(String sql, List<Object[]> rows) {
+        if (!rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, rows);
+        }
+    }
+
+    private static <T> void addAll(List<Object[]> rows, Long ownerId, Collection<T> values, Function<? super T, ?> column) {
+        for (T value : orEmpty(values)) {
+            rows.add(new Object[] {ownerId, column.apply(value)});
+        }
+    }
+
+    private static String privacy(PrivacyLevel level) {
+        return (level != null ? level : PrivacyLevel.PUBLIC).name();
+    }
+
+    // Feeds and timelines are ordered by creation time, so a future date would pin the item to
+    // the top of them; an import keeps its history but cannot get ahead of the present
+    private static Timestamp created(LocalDateTime createdAt, Timestamp now) {
+        if (createdAt == null) {
+            return now;
+        }
+        Timestamp imported = Timestamp.valueOf(createdAt);
+        return imported.after(now) ? now : imported;
+    }
+
+    private static <T> Collection<T> orEmpty(Collection<T> values) {
+        return values != null ? values : Set.of();
+    }
+
+    private static <T> List<T> orEmpty(List<T> values) {
+        return values != null ? values : List.of();
+    }
+}
@@ -0,0 +1,106 @@
+package com.taste.service.catalog;
+
+import com.taste.dto.ImportProgress;
+import com.taste.model.ImportStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Progress of one catalog import, written by the importing thread and read by status polls.
+ */
+final class ImportJob {
+
+    // Enough to show what is wrong with a file without echoing all of it back
+    static final int MAX_ERRORS = 20;
+
+    final String id = UUID.randomUUID().toString();
+    final Long userId;
+    final long totalBytes;
+    private final Lock errorsLock = new ReentrantLock();
+    private final List<String> errors = new ArrayList<>();
+    private final Instant startedAt = Instant.now();
+    private volatile ImportStatus status = ImportStatus.QUEUED;
+    private volatile long bytesRead;
+    private volatile int recipesImported;
+    private volatile int restaurantsImported;
+    private volatile int skipped;
+    private volatile Instant finishedAt;
+
+    ImportJob(Long userId, long totalBytes) {
+        this.userId = userId;
+        this.totalBytes = totalBytes;
+    }
+
+    Instant finishedAt() {
+        return finishedAt;
+    }
+
+    void start() {
+        status = ImportStatus.RUNNING;
+    }
+
+    // Counters only ever advance from the importing thread, so plain volatile writes suffice
+    void recipesImported(int count, long position) {
+        recipesImported += count;
+        bytesRead = position;
+    }
+
+    void restaurantsImported(int count, long position) {
+        restaurantsImported += count;
+        bytesRead = position;
+    }
+
+    void skip(String reason) {
+        skipped++;
+        addError(reason);
+    }
+
+    void complete() {
+        bytesRead = totalBytes;
+        finish(ImportStatus.COMPLETED);
+    }
+
+    void fail(String reason) {
+        // Always kept, even when skipped items have used up the error list
+        errorsLock.lock();
+        try {
+            errors.add(reason);
+        } finally {
+            errorsLock.unlock();
+        }
+        finish(ImportStatus.FAILED);
+    }
+
+    ImportProgress progress() {
+        List<String> errorsCopy;
+        errorsLock.lock();
+        try {
+            errorsCopy = List.copyOf(errors);
+        } finally {
+            errorsLock.unlock();
+        }
+        return new ImportProgress(id, status, bytesRead, totalBytes, recipesImported, restaurantsImported, skipped,
+                errorsCopy, startedAt, finishedAt);
+    }
+
+    private void addError(String reason) {
+        errorsLock.lock();
+        try {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(reason);
+            }
+        } finally {
+            errorsLock.unlock();
+        }
+    }
+
+    private void finish(ImportStatus finalStatus) {
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+}
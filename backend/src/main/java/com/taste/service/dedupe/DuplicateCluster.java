@@ -0,0 +1,9 @@
+package com.taste.service.dedupe;
+
+import java.util.List;
+
+/**
+ * Restaurants the batch job judged to be one place, lowest id (the earliest entry) first.
+ */
+public record DuplicateCluster(List<Long> restaurantIds) {
+}
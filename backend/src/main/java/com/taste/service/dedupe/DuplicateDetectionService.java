@@ -0,0 +1,194 @@
+package com.taste.service.dedupe;
+
+import com.taste.dto.RestaurantDuplicate;
+import com.taste.model.PrivacyLevel;
+import com.taste.service.privacy.ViewerScope;
+import com.taste.service.privacy.VisibilityEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Finds restaurants that are probably the same place. The inline check scores a new or
+ * edited restaurant against at most {@value #MAX_CANDIDATES} blocked candidates, so its cost
+ * does not grow with the catalog. The batch job clusters the whole catalog with union-find
+ * over the same blocks.
+ */
+@Service
+public class DuplicateDetectionService {
+
+    public static final int DEFAULT_LIMIT = 10;
+
+    private static final Logger logger = LoggerFactory.getLogger(DuplicateDetectionService.class);
+    private static final int MAX_CANDIDATES = 500;
+    // Larger blocks (a very common name) are compared within a sliding window only
+    private static final int MAX_PAIRWISE_BLOCK = 500;
+    private static final int BLOCK_WINDOW = 50;
+
+    private final RestaurantDedupeIndex index;
+    private final VisibilityEvaluator visibility;
+    private volatile List<DuplicateCluster> latestClusters = List.of();
+
+    public DuplicateDetectionService(RestaurantDedupeIndex index, VisibilityEvaluator visibility) {
+        this.index = index;
+        this.visibility = visibility;
+    }
+
+    /** Likely duplicates of a restaurant about to be created, among those the viewer can see. */
+    public List<RestaurantDuplicate> findDuplicates(Long viewerId, String name, String address,
+                                                    Double latitude, Double longitude, int limit) {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Name is required");
+        }
+        return findDuplicates(visibility.scopeFor(viewerId),
+                RestaurantFingerprint.of(null, name, address, latitude, longitude, PrivacyLevel.PUBLIC, viewerId), limit);
+    }
+
+    /**
+     * Likely duplicates of an existing restaurant, among those the viewer can see. Empty if
+     * the restaurant does not exist or the viewer cannot see it, so that its name and
+     * address do not leak through its matches.
+     */
+    public Optional<List<RestaurantDuplicate>> findDuplicatesOf(Long viewerId, Long restaurantId, int limit) {
+        RestaurantFingerprint fingerprint = index.get(restaurantId);
+        if (fingerprint == null) {
+            return Optional.empty();
+        }
+        ViewerScope scope = visibility.scopeFor(viewerId);
+        if (!scope.canView(fingerprint.authorId(), fingerprint.privacyLevel())) {
+            return Optional.empty();
+        }
+        return Optional.of(findDuplicates(scope, fingerprint, limit));
+    }
+
+    public List<DuplicateCluster> latestClusters() {
+        return latestClusters;
+    }
+
+    @Scheduled(cron = "${app.dedupe.cluster-cron:-}")
+    public void runClusterJob() {
+        long started = System.currentTimeMillis();
+        List<DuplicateCluster> clusters = clusterAll();
+        latestClusters = clusters;
+        logger.info("Duplicate clustering found {} clusters covering {} restaurants in {} ms",
+                clusters.size(), clusters.stream().mapToInt(cluster -> cluster.restaurantIds().size()).sum(),
+                System.currentTimeMillis() - started);
+    }
+
+    public List<DuplicateCluster> clusterAll() {
+        List<RestaurantFingerprint> fingerprints = new ArrayList<>(index.all());
+        Map<Long, Integer> positions = new HashMap<>(fingerprints.size() * 2);
+        for (int i = 0; i < fingerprints.size(); i++) {
+            positions.put(fingerprints.get(i).id(), i);
+        }
+        int[] parents = new int[fingerprints.size()];
+        for (int i = 0; i < parents.length; i++) {
+            parents[i] = i;
+        }
+
+        for (Set<Long> block : index.exactBlocks()) {
+            Integer first = null;
+            for (Long id : block) {
+                Integer position = positions.get(id);
+                if (position == null) {
+                    continue;
+                }
+                if (first == null) {
+                    first = position;
+                } else {
+                    union(parents, first, position);
+                }
+            }
+        }
+        for (Set<Long> block : index.bandBlocks()) {
+            compareBlock(fingerprints, positions, parents, block);
+        }
+        for (RestaurantFingerprint fingerprint : fingerprints) {
+            List<Long> neighbours = new ArrayList<>(index.neighbours(fingerprint));
+            neighbours.add(fingerprint.id());
+            compareBlock(fingerprints, positions, parents, neighbours);
+        }
+
+        Map<Integer, List<Long>> groups = new HashMap<>();
+        for (int i = 0; i < fingerprints.size(); i++) {
+            groups.computeIfAbsent(find(parents, i), root -> new ArrayList<>()).add(fingerprints.get(i).id());
+        }
+        return groups.values().stream()
+                .filter(ids -> ids.size() > 1)
+                .map(ids -> new DuplicateCluster(ids.stream().sorted().toList()))
+                .sorted(Comparator.comparingInt((DuplicateCluster cluster) -> cluster.restaurantIds().size()).reversed())
+                .toList();
+    }
+
+    private List<RestaurantDuplicate> findDuplicates(ViewerScope scope, RestaurantFingerprint fingerprint, int limit) {
+        List<RestaurantDuplicate> matches = new ArrayList<>();
+        for (Long id : index.candidates(fingerprint, MAX_CANDIDATES)) {
+            RestaurantFingerprint candidate = index.get(id);
+            if (candidate == null || !scope.canView(candidate.authorId(), candidate.privacyLevel())) {
+                continue;
+            }
+            double score = DuplicateScorer.score(fingerprint, candidate);
+            if (score >= DuplicateScorer.THRESHOLD) {
+                matches.add(new RestaurantDuplicate(candidate.id(), candidate.name(), candidate.address(), score));
+            }
+        }
+        matches.sort(Comparator.comparingDouble(RestaurantDuplicate::score).reversed()
+                .thenComparing(RestaurantDuplicate::id));
+        return matches.subList(0, Math.min(matches.size(), limit <= 0 ? DEFAULT_LIMIT : limit));
+    }
+
+    private static void compareBlock(List<RestaurantFingerprint> fingerprints, Map<Long, Integer> positions,
+                                     int[] parents, Iterable<Long> block) {
+        List<Integer> members = new ArrayList<>();
+        for (Long id : block) {
+            Integer position = positions.get(id);
+            if (position != null) {
+                members.add(position);
+            }
+        }
+        int window = members.size();
+        if (members.size() > MAX_PAIRWISE_BLOCK) {
+            // Neighbouring latitudes first, so the window mostly pairs restaurants that are close by
+            members.sort(Comparator.comparingDouble(position -> {
+                Double latitude = fingerprints.get(position).latitude();
+                return latitude != null ? latitude : Double.MAX_VALUE;
+            }));
+            window = BLOCK_WINDOW;
+        }
+        for (int i = 0; i < members.size(); i++) {
+            for (int j = i + 1; j < members.size() && j <= i + window; j++) {
+                int a = members.get(i);
+                int b = members.get(j);
+                if (find(parents, a) != find(parents, b)
+                        && DuplicateScorer.score(fingerprints.get(a), fingerprints.get(b)) >= DuplicateScorer.THRESHOLD) {
+                    union(parents, a, b);
+                }
+            }
+        }
+    }
+
+    private static int find(int[] parents, int i) {
+        while (parents[i] != i) {
+            parents[i] = parents[parents[i]];
+            i = parents[i];
+        }
+        return i;
+    }
+
+    private static void union(int[] parents, int a, int b) {
+        int rootA = find(parents, a);
+        int rootB = find(parents, b);
+        if (rootA != rootB) {
+            parents[Math.max(rootA, rootB)] = Math.min(rootA, rootB);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.taste.service.dedupe;
+
+import com.taste.service.geo.GeoHash;
+
+import java.util.Set;
+
+/**
+ * Similarity of two restaurants in [0, 1], from name trigram overlap, address token overlap
+ * and distance. Signals missing on either side drop out of the weighting. Known addresses
+ * that disagree (including on the house number), or coordinates too far apart, rule a pair
+ * out regardless of the name, so branches of a chain are not merged.
+ */
+final class DuplicateScorer {
+
+    static final double THRESHOLD = 0.75;
+
+    private static final double NAME_WEIGHT = 0.6;
+    private static final double ADDRESS_WEIGHT = 0.25;
+    private static final double GEO_WEIGHT = 0.25;
+    private static final double NEAR_KM = 0.5;
+    private static final double FAR_KM = 1.0;
+    private static final double SAME_SPOT_KM = 0.15;
+    private static final double MIN_ADDRESS_SIMILARITY = 0.4;
+
+    private DuplicateScorer() {}
+
+    static double score(RestaurantFingerprint a, RestaurantFingerprint b) {
+        Double distance = a.isLocated() && b.isLocated()
+                ? GeoHash.distanceKm(a.latitude(), a.longitude(), b.latitude(), b.longitude())
+                : null;
+        if (distance != null && distance > FAR_KM) {
+            return 0;
+        }
+        Double address = a.addressTokens().isEmpty() || b.addressTokens().isEmpty()
+                ? null
+                : jaccard(a.addressTokens(), b.addressTokens());
+        boolean addressesDisagree = address != null
+                && (address < MIN_ADDRESS_SIMILARITY || numbersConflict(a.addressTokens(), b.addressTokens()));
+        if (addressesDisagree && (distance == null || distance > SAME_SPOT_KM)) {
+            return 0;
+        }
+
+        double score = NAME_WEIGHT * jaccard(a.nameShingles(), b.nameShingles());
+        double weight = NAME_WEIGHT;
+        if (address != null) {
+            score += ADDRESS_WEIGHT * address;
+            weight += ADDRESS_WEIGHT;
+        }
+        if (distance != null) {
+            score += GEO_WEIGHT * Math.max(0, 1 - distance / NEAR_KM);
+            weight += GEO_WEIGHT;
+        }
+        return score / weight;
+    }
+
+    // Both addresses carry numbers but share none, e.g. different house numbers on one street
+    static boolean numbersConflict(Set<String> a, Set<String> b) {
+        boolean aHasNumber = false;
+        boolean bHasNumber = false;
+        for (String token : a) {
+            if (isNumber(token)) {
+                aHasNumber = true;
+                if (b.contains(token)) {
+                    return false;
+                }
+            }
+        }
+        for (String token : b) {
+            bHasNumber |= isNumber(token);
+        }
+        return aHasNumber && bHasNumber;
+    }
+
+    private static boolean isNumber(String token) {
+        return !token.isEmpty() && Character.isDigit(token.charAt(0));
+    }
+
+    // Both arrays sorted and distinct
+    static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int i = 0, j = 0, shared = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        int shared = 0;
+        for (String token : a) {
+            if (b.contains(token)) {
+                shared++;
+            }
+        }
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+}
@@ -0,0 +1,179 @@
+package com.taste.service.dedupe;
+
+import com.taste.event.ChangeType;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.repository.RestaurantIdentityRow;
+import com.taste.repository.RestaurantRepository;
+import com.taste.service.geo.RestaurantGeoIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Blocking index for duplicate detection: restaurants grouped by exact normalized
+ * name+address and by MinHash LSH band of the name, with nearby restaurants taken from
+ * {@link RestaurantGeoIndex}. Only restaurants sharing a block are ever scored against each
+ * other. Loaded at startup and kept current from committed change events.
+ */
+@Component
+public class RestaurantDedupeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantDedupeIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final double NEIGHBOUR_RADIUS_KM = 0.15;
+    private static final int MAX_NEIGHBOURS = 20;
+
+    private final RestaurantRepository restaurantRepository;
+    private final RestaurantGeoIndex geoIndex;
+    private final Map<Long, RestaurantFingerprint> fingerprints = new ConcurrentHashMap<>();
+    private final Map<String, Set<Long>> exactBlocks = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> bandBlocks = new ConcurrentHashMap<>();
+    // Serializes writers; readers go through the concurrent maps without it
+    private final Lock writeLock = new ReentrantLock();
+
+    public RestaurantDedupeIndex(RestaurantRepository restaurantRepository, RestaurantGeoIndex geoIndex) {
+        this.restaurantRepository = restaurantRepository;
+        this.geoIndex = geoIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        fingerprints.clear();
+        exactBlocks.clear();
+        bandBlocks.clear();
+        long afterId = 0;
+        List<RestaurantIdentityRow> rows;
+        while (!(rows = restaurantRepository.findIdentityRowsAfter(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE))).isEmpty()) {
+            for (RestaurantIdentityRow row : rows) {
+                put(RestaurantFingerprint.of(row));
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+        logger.info("Loaded duplicate detection index with {} restaurants in {} name blocks",
+                fingerprints.size(), bandBlocks.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED) {
+            remove(event.restaurantId());
+            return;
+        }
+        restaurantRepository.findIdentityRowById(event.restaurantId())
+                .ifPresentOrElse(row -> put(RestaurantFingerprint.of(row)), () -> remove(event.restaurantId()));
+    }
+
+    public RestaurantFingerprint get(Long id) {
+        return fingerprints.get(id);
+    }
+
+    public Collection<RestaurantFingerprint> all() {
+        return fingerprints.values();
+    }
+
+    public Collection<Set<Long>> exactBlocks() {
+        return exactBlocks.values();
+    }
+
+    public Collection<Set<Long>> bandBlocks() {
+        return bandBlocks.values();
+    }
+
+    /**
+     * Ids sharing a block with {@code fingerprint}, strongest evidence first (exact key,
+     * then proximity, then name bands), at most {@code limit} of them.
+     */
+    public Set<Long> candidates(RestaurantFingerprint fingerprint, int limit) {
+        Long self = fingerprint.id();
+        Set<Long> candidates = new LinkedHashSet<>();
+        String exactKey = fingerprint.exactKey();
+        if (exactKey != null) {
+            addUpTo(candidates, exactBlocks.getOrDefault(exactKey, Set.of()), self, limit);
+        }
+        addUpTo(candidates, neighbours(fingerprint), self, limit);
+        for (long bandKey : fingerprint.bandKeys()) {
+            addUpTo(candidates, bandBlocks.getOrDefault(bandKey, Set.of()), self, limit);
+        }
+        return candidates;
+    }
+
+    public List<Long> neighbours(RestaurantFingerprint fingerprint) {
+        if (!fingerprint.isLocated()) {
+            return List.of();
+        }
+        return geoIndex.withinRadius(fingerprint.latitude(), fingerprint.longitude(), NEIGHBOUR_RADIUS_KM,
+                        entry -> true, MAX_NEIGHBOURS)
+                .stream()
+                .map(hit -> hit.entry().id())
+                .toList();
+    }
+
+    private void put(RestaurantFingerprint fingerprint) {
+        writeLock.lock();
+        try {
+            removeInternal(fingerprint.id());
+            fingerprints.put(fingerprint.id(), fingerprint);
+            if (fingerprint.exactKey() != null) {
+                exactBlocks.computeIfAbsent(fingerprint.exactKey(), key -> ConcurrentHashMap.newKeySet()).add(fingerprint.id());
+            }
+            for (long bandKey : fingerprint.bandKeys()) {
+                bandBlocks.computeIfAbsent(bandKey, key -> ConcurrentHashMap.newKeySet()).add(fingerprint.id());
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void remove(Long id) {
+        writeLock.lock();
+        try {
+            removeInternal(id);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void removeInternal(Long id) {
+        RestaurantFingerprint previous = fingerprints.remove(id);
+        if (previous == null) {
+            return;
+        }
+        if (previous.exactKey() != null) {
+            removeFromBlock(exactBlocks, previous.exactKey(), id);
+        }
+        for (long bandKey : previous.bandKeys()) {
+            removeFromBlock(bandBlocks, bandKey, id);
+        }
+    }
+
+    private static <K> void removeFromBlock(Map<K, Set<Long>> blocks, K key, Long id) {
+        blocks.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static void addUpTo(Set<Long> target, Collection<Long> ids, Long exclude, int limit) {
+        for (Long id : ids) {
+            if (target.size() >= limit) {
+                return;
+            }
+            if (!id.equals(exclude)) {
+                target.add(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.taste.service.dedupe;
+
+import com.taste.model.PrivacyLevel;
+import com.taste.repository.RestaurantIdentityRow;
+
+import java.util.Set;
+
+/**
+ * Everything duplicate detection compares, derived once per restaurant. {@code id} is null
+ * for a restaurant that has not been saved yet.
+ */
+public record RestaurantFingerprint(
+        Long id,
+        String name,
+        String address,
+        String nameKey,
+        String addressKey,
+        int[] nameShingles,
+        Set<String> addressTokens,
+        long[] bandKeys,
+        Double latitude,
+        Double longitude,
+        PrivacyLevel privacyLevel,
+        Long authorId) {
+
+    public static RestaurantFingerprint of(RestaurantIdentityRow row) {
+        return of(row.id(), row.name(), row.address(), row.latitude(), row.longitude(), row.privacyLevel(), row.authorId());
+    }
+
+    public static RestaurantFingerprint of(Long id, String name, String address, Double latitude, Double longitude,
+                                           PrivacyLevel privacyLevel, Long authorId) {
+        String nameKey = RestaurantKeys.nameKey(name);
+        int[] shingles = RestaurantKeys.shingles(nameKey);
+        Set<String> addressTokens = RestaurantKeys.addressTokens(address);
+        return new RestaurantFingerprint(id, name, address, nameKey, String.join(" ", addressTokens), shingles,
+                addressTokens, MinHasher.bandKeys(shingles), latitude, longitude,
+                privacyLevel != null ? privacyLevel : PrivacyLevel.PUBLIC, authorId);
+    }
+
+    /**
+     * Normalized name and address together; equal keys are duplicates outright. Null without
+     * an address, since a bare name says nothing about which branch is meant.
+     */
+    public String exactKey() {
+        return nameKey.isEmpty() || addressKey.isEmpty() ? null : nameKey + '|' + addressKey;
+    }
+
+    public boolean isLocated() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.taste.service.dedupe;
+
+import com.taste.service.search.TextAnalyzer;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normalized comparison keys for restaurant names and addresses, so "Joe's Ristorante" and
+ * "JOES restaurant" or "12 Main Street" and "12 main st." compare equal.
+ */
+final class RestaurantKeys {
+
+    private static final Pattern APOSTROPHES = Pattern.compile("['’`]");
+    private static final int SHINGLE_SIZE = 3;
+
+    private static final Set<String> GENERIC_NAME_WORDS = Set.of(
+            "restaurant", "restaurante", "ristorante", "restaurace", "restoran");
+
+    private static final Map<String, String> ADDRESS_ABBREVIATIONS = Map.ofEntries(
+            Map.entry("street", "st"), Map.entry("avenue", "ave"), Map.entry("av", "ave"),
+            Map.entry("road", "rd"), Map.entry("boulevard", "blvd"), Map.entry("drive", "dr"),
+            Map.entry("lane", "ln"), Map.entry("place", "pl"), Map.entry("square", "sq"),
+            Map.entry("court", "ct"), Map.entry("highway", "hwy"), Map.entry("suite", "ste"),
+            Map.entry("north", "n"), Map.entry("south", "s"), Map.entry("east", "e"), Map.entry("west", "w"),
+            Map.entry("strasse", "str"), Map.entry("straße", "str"));
+
+    private RestaurantKeys() {}
+
+    static String nameKey(String name) {
+        List<String> tokens = TextAnalyzer.tokenize(stripApostrophes(name));
+        List<String> specific = tokens.stream().filter(token -> !GENERIC_NAME_WORDS.contains(token)).toList();
+        return String.join(" ", specific.isEmpty() ? tokens : specific);
+    }
+
+    static Set<String> addressTokens(String address) {
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : TextAnalyzer.tokenize(stripApostrophes(address))) {
+            tokens.add(ADDRESS_ABBREVIATIONS.getOrDefault(token, token));
+        }
+        return tokens;
+    }
+
+    /** Sorted, distinct hashes of the key's character trigrams, padded at both ends. */
+    static int[] shingles(String key) {
+        if (key.isEmpty()) {
+            return new int[0];
+        }
+        String padded = " " + key + " ";
+        if (padded.length() <= SHINGLE_SIZE) {
+            return new int[]{padded.hashCode()};
+        }
+        int[] hashes = new int[padded.length() - SHINGLE_SIZE + 1];
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = padded.substring(i, i + SHINGLE_SIZE).hashCode();
+        }
+        return Arrays.stream(hashes).sorted().distinct().toArray();
+    }
+
+    private static String stripApostrophes(String text) {
+        return text == null ? null : APOSTROPHES.matcher(text).replaceAll("");
+    }
+}
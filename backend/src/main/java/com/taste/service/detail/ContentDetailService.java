@@ -0,0 +1,184 @@
+package com.taste.service.detail;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taste.dto.CatalogIngredient;
+import com.taste.dto.CatalogMenuItem;
+import com.taste.dto.RecipeDetail;
+import com.taste.dto.RestaurantDetail;
+import com.taste.dto.UserSummary;
+import com.taste.model.MenuItem;
+import com.taste.model.Recipe;
+import com.taste.model.RecipeIngredient;
+import com.taste.model.Restaurant;
+import com.taste.model.User;
+import com.taste.repository.ContentVersion;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.service.share.ShareTarget;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.unit.DataSize;
+
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Stream;
+
+/**
+ * Recipe and restaurant detail responses, cached as JSON bytes per version. A version is
+ * identified by the {@code updatedAt} of the item, its author and its newest ingredient or
+ * menu item, plus the number of those, all read by one indexed lookup; a request that
+ * revalidates an ETag, or whose body is cached, never loads the entity graph or runs Jackson.
+ */
+@Service
+public class ContentDetailService {
+
+    // Part of every ETag; bump when the JSON shape changes so clients do not keep old bodies
+    private static final int REPRESENTATION = 1;
+
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Cache<Key, DetailJson> cache;
+
+    public ContentDetailService(RecipeRepository recipeRepository,
+                                RestaurantRepository restaurantRepository,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${app.detail-cache.max-size:32MB}") DataSize cacheSize) {
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(cacheSize.toBytes())
+                .weigher((Key key, DetailJson json) -> json.bytes().length)
+                .build();
+    }
+
+    public Optional<ContentVersion> version(ShareTarget target, Long id) {
+        return switch (target) {
+            case RECIPE -> recipeRepository.findVersionById(id);
+            case RESTAURANT -> restaurantRepository.findVersionById(id);
+        };
+    }
+
+    public Optional<ContentVersion> versionByShareToken(ShareTarget target, String token) {
+        return switch (target) {
+            case RECIPE -> recipeRepository.findVersionByShareToken(token);
+            case RESTAURANT -> restaurantRepository.findVersionByShareToken(token);
+        };
+    }
+
+    public static String etag(ShareTarget target, ContentVersion version) {
+        return etag(target, version.id(), version.updatedAt(), version.authorUpdatedAt(),
+                version.childrenUpdatedAt(), version.childCount());
+    }
+
+    /**
+     * The response body for the given version, empty if the item has since been deleted.
+     * The returned ETag is that of what was actually serialized, which is newer than
+     * {@code version} if the item changed in between.
+     */
+    public Optional<DetailJson> json(ShareTarget target, ContentVersion version) {
+        Key key = new Key(target, version.id());
+        DetailJson cached = cache.getIfPresent(key);
+        if (cached != null && cached.etag().equals(etag(target, version))) {
+            return Optional.of(cached);
+        }
+        Optional<DetailJson> loaded = readOnlyTransaction.execute(status -> switch (target) {
+            case RECIPE -> recipeRepository.findDetailById(version.id()).map(this::serialize);
+            case RESTAURANT -> restaurantRepository.findDetailById(version.id()).map(this::serialize);
+        });
+        loaded.ifPresent(json -> cache.put(key, json));
+        return loaded;
+    }
+
+    private DetailJson serialize(Recipe recipe) {
+        RecipeDetail detail = new RecipeDetail(recipe.getId(), recipe.getTitle(), recipe.getDescription(),
+                recipe.getInstructions(), recipe.getServings(), recipe.getPrepTimeMinutes(), recipe.getCookTimeMinutes(),
+                recipe.getDifficulty(), recipe.getImageUrl(), recipe.getPrivacyLevel(), sorted(recipe.getCategories()),
+                sorted(recipe.getTags()), sorted(recipe.getDietaryPreferences()), sorted(recipe.getAllergens()),
+                recipe.getIngredients().stream()
+                        .map(ingredient -> new CatalogIngredient(ingredient.getName(), ingredient.getQuantity(),
+                                ingredient.getUnit(), ingredient.getNotes()))
+                        .toList(),
+                summary(recipe.getAuthor()), recipe.getCreatedAt(), recipe.getUpdatedAt());
+        return new DetailJson(etag(ShareTarget.RECIPE, recipe.getId(), recipe.getUpdatedAt(), updatedAt(recipe.getAuthor()),
+                newest(recipe.getIngredients().stream().map(RecipeIngredient::getUpdatedAt)),
+                (long) recipe.getIngredients().size()), write(detail));
+    }
+
+    private DetailJson serialize(Restaurant restaurant) {
+        RestaurantDetail detail = new RestaurantDetail(restaurant.getId(), restaurant.getName(),
+                restaurant.getDescription(), restaurant.getAddress(), restaurant.getPhone(), restaurant.getWebsite(),
+                restaurant.getImageUrl(), restaurant.getRating(), restaurant.getNotes(), restaurant.getPriceRange(),
+                restaurant.getPrivacyLevel(), sorted(restaurant.getCuisines()), sorted(restaurant.getTags()),
+                sorted(restaurant.getDietaryOptions()), restaurant.getLatitude(), restaurant.getLongitude(),
+                restaurant.getMenuItems().stream()
+                        .map(item -> new CatalogMenuItem(item.getName(), item.getDescription(), item.getPrice(),
+                                item.getRating(), item.getNotes(), item.getCategory(), item.getImageUrl(),
+                                sorted(item.getDietaryPreferences()), sorted(item.getAllergens())))
+                        .toList(),
+                summary(restaurant.getAuthor()), restaurant.getCreatedAt(), restaurant.getUpdatedAt());
+        return new DetailJson(etag(ShareTarget.RESTAURANT, restaurant.getId(), restaurant.getUpdatedAt(),
+                updatedAt(restaurant.getAuthor()), newest(restaurant.getMenuItems().stream().map(MenuItem::getUpdatedAt)),
+                (long) restaurant.getMenuItems().size()), write(detail));
+    }
+
+    private byte[] write(Object detail) {
+        try {
+            return objectMapper.writeValueAsBytes(detail);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // A strong ETag promises identical bytes, so sets are written in a stable order
+    private static <T extends Comparable<? super T>> Set<T> sorted(Set<T> values) {
+        return values != null ? new TreeSet<>(values) : null;
+    }
+
+    private static UserSummary summary(User author) {
+        return author == null ? null : new UserSummary(author.getId(), author.getUsername(), author.getFirstName(),
+                author.getLastName(), author.getProfileImageUrl());
+    }
+
+    private static LocalDateTime updatedAt(User author) {
+        return author != null ? author.getUpdatedAt() : null;
+    }
+
+    // Mirrors the MAX() in the version queries, which skips nulls
+    private static LocalDateTime newest(Stream<LocalDateTime> times) {
+        return times.filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null);
+    }
+
+    private static String etag(ShareTarget target, Long id, LocalDateTime updatedAt, LocalDateTime authorUpdatedAt,
+                               LocalDateTime childrenUpdatedAt, Long childCount) {
+        return '"' + target.getPath() + '-' + id + '-' + REPRESENTATION + '-' + stamp(updatedAt) + '-'
+                + stamp(authorUpdatedAt) + '-' + stamp(childrenUpdatedAt) + '-' + childCount + '"';
+    }
+
+    private static String stamp(LocalDateTime time) {
+        if (time == null) {
+            return "0";
+        }
+        long micros = time.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + time.getNano() / 1_000;
+        return Long.toString(micros, 36);
+    }
+
+    private record Key(ShareTarget target, Long id) {
+    }
+}
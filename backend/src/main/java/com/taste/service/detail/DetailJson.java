@@ -0,0 +1,7 @@
+package com.taste.service.detail;
+
+/**
+ * A serialized detail response and the ETag of the version it was serialized from.
+ */
+public record DetailJson(String etag, byte[] bytes) {
+}
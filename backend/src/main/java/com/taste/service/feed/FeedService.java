@@ -0,0 +1,76 @@
+package com.taste.service.feed;
+
+import com.taste.dto.CursorPage;
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Public home feeds, newest first, paginated by keyset on {@code (createdAt, id)} so that
+ * each page costs the same regardless of how deep the client has scrolled.
+ */
+@Service
+@Transactional(readOnly = true)
+public class FeedService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+
+    public FeedService(RecipeRepository recipeRepository, RestaurantRepository restaurantRepository) {
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    public CursorPage<RecipeSummary> getPublicRecipes(String cursor, Integer limit) {
+        int size = pageSize(limit);
+        // Fetch one extra row to learn whether another page exists without a COUNT query
+        Pageable window = PageRequest.ofSize(size + 1);
+        List<RecipeSummary> rows = cursor == null || cursor.isBlank()
+                ? recipeRepository.findPublicRecipeSummaries(window)
+                : findRecipesBefore(FeedCursor.decode(cursor), window);
+        return toPage(rows, size, summary -> new FeedCursor(summary.createdAt(), summary.id()));
+    }
+
+    public CursorPage<RestaurantSummary> getPublicRestaurants(String cursor, Integer limit) {
+        int size = pageSize(limit);
+        Pageable window = PageRequest.ofSize(size + 1);
+        List<RestaurantSummary> rows = cursor == null || cursor.isBlank()
+                ? restaurantRepository.findPublicRestaurantSummaries(window)
+                : findRestaurantsBefore(FeedCursor.decode(cursor), window);
+        return toPage(rows, size, summary -> new FeedCursor(summary.createdAt(), summary.id()));
+    }
+
+    private List<RecipeSummary> findRecipesBefore(FeedCursor cursor, Pageable window) {
+        return recipeRepository.findPublicRecipeSummariesBefore(cursor.createdAt(), cursor.id(), window);
+    }
+
+    private List<RestaurantSummary> findRestaurantsBefore(FeedCursor cursor, Pageable window) {
+        return restaurantRepository.findPublicRestaurantSummariesBefore(cursor.createdAt(), cursor.id(), window);
+    }
+
+    static int pageSize(Integer limit) {
+        if (limit == null || limit <= 0) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    static <T> CursorPage<T> toPage(List<T> rows, int size, Function<T, FeedCursor> cursorOf) {
+        if (rows.size() <= size) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> items = rows.subList(0, size);
+        return new CursorPage<>(items, cursorOf.apply(items.get(size - 1)).encode());
+    }
+}
@@ -0,0 +1,48 @@
+package com.taste.service.geo;
+
+import com.taste.dto.RestaurantMarker;
+import com.taste.model.PriceRange;
+import com.taste.model.PrivacyLevel;
+import com.taste.repository.RestaurantGeoRow;
+
+import java.util.Comparator;
+
+/**
+ * One indexed restaurant, ordered by geohash and then id.
+ */
+public record GeoEntry(
+        long geohash,
+        long id,
+        RestaurantMarker marker,
+        short dietaryMask,
+        PrivacyLevel privacyLevel,
+        long authorId) {
+
+    static final Comparator<GeoEntry> ORDER = Comparator.comparingLong(GeoEntry::geohash).thenComparingLong(GeoEntry::id);
+
+    static GeoEntry of(RestaurantGeoRow row) {
+        RestaurantMarker marker = new RestaurantMarker(row.id(), row.name(), row.address(),
+                row.latitude(), row.longitude(), row.priceRange(), row.rating());
+        return new GeoEntry(GeoHash.encode(row.latitude(), row.longitude()), row.id(), marker,
+                row.dietaryMask() != null ? row.dietaryMask() : 0,
+                row.privacyLevel() != null ? row.privacyLevel() : PrivacyLevel.PUBLIC,
+                row.authorId() != null ? row.authorId() : 0L);
+    }
+
+    /** Sorts before every real entry with the same or a larger geohash. */
+    static GeoEntry probe(long geohash) {
+        return new GeoEntry(geohash, Long.MIN_VALUE, null, (short) 0, null, 0L);
+    }
+
+    public double latitude() {
+        return marker.latitude();
+    }
+
+    public double longitude() {
+        return marker.longitude();
+    }
+
+    public PriceRange priceRange() {
+        return marker.priceRange();
+    }
+}
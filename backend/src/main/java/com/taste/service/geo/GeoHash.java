@@ -0,0 +1,95 @@
+package com.taste.service.geo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Z-order (geohash) keys over latitude/longitude. A key interleaves {@value #BITS_PER_AXIS}
+ * bits of longitude and latitude, so every grid cell at a coarser precision is one
+ * contiguous key range and a bounding box is covered by a few range scans.
+ */
+public final class GeoHash {
+
+    static final int BITS_PER_AXIS = 26;
+    static final double EARTH_RADIUS_KM = 6371.0088;
+
+    private GeoHash() {
+    }
+
+    static long encode(double latitude, double longitude) {
+        return interleave(latitudeCell(latitude), longitudeCell(longitude));
+    }
+
+    /**
+     * Key ranges, as {@code [start, end)} pairs, whose union covers the box. The precision is
+     * the finest at which the box spans at most {@code maxCells} cells; adjacent ranges are
+     * merged. The box must not cross the antimeridian.
+     */
+    static List<long[]> cover(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude, int maxCells) {
+        long latLow = latitudeCell(minLatitude);
+        long latHigh = latitudeCell(maxLatitude);
+        long lonLow = longitudeCell(minLongitude);
+        long lonHigh = longitudeCell(maxLongitude);
+
+        int shift = 0;
+        while (shift < BITS_PER_AXIS
+                && ((latHigh >> shift) - (latLow >> shift) + 1) * ((lonHigh >> shift) - (lonLow >> shift) + 1) > maxCells) {
+            shift++;
+        }
+
+        List<long[]> ranges = new ArrayList<>();
+        for (long lat = latLow >> shift; lat <= latHigh >> shift; lat++) {
+            for (long lon = lonLow >> shift; lon <= lonHigh >> shift; lon++) {
+                long start = interleave(lat, lon) << (2 * shift);
+                ranges.add(new long[]{start, start + (1L << (2 * shift))});
+            }
+        }
+        ranges.sort((a, b) -> Long.compare(a[0], b[0]));
+
+        List<long[]> merged = new ArrayList<>(ranges.size());
+        for (long[] range : ranges) {
+            long[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && last[1] == range[0]) {
+                last[1] = range[1];
+            } else {
+                merged.add(range);
+            }
+        }
+        return merged;
+    }
+
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLon = Math.toRadians(lon2 - lon1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLon / 2) * Math.sin(dLon / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static long latitudeCell(double latitude) {
+        return cell((latitude + 90) / 180);
+    }
+
+    private static long longitudeCell(double longitude) {
+        return cell((longitude + 180) / 360);
+    }
+
+    private static long cell(double fraction) {
+        long cells = 1L << BITS_PER_AXIS;
+        return Math.min(Math.max((long) (fraction * cells), 0), cells - 1);
+    }
+
+    private static long interleave(long latitudeCell, long longitudeCell) {
+        return (spread(longitudeCell) << 1) | spread(latitudeCell);
+    }
+
+    // Moves bit i of x to bit 2i
+    private static long spread(long x) {
+        x = (x | (x << 16)) & 0x0000FFFF0000FFFFL;
+        x = (x | (x << 8)) & 0x00FF00FF00FF00FFL;
+        x = (x | (x << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        x = (x | (x << 2)) & 0x3333333333333333L;
+        x = (x | (x << 1)) & 0x5555555555555555L;
+        return x;
+    }
+}
@@ -0,0 +1,4 @@
+package com.taste.service.geo;
+
+public record GeoHit(GeoEntry entry, double distanceKm) {
+}
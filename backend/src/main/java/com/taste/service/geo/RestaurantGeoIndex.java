@@ -0,0 +1,227 @@
+package com.taste.service.geo;
+
+import com.taste.event.ChangeType;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.repository.RestaurantGeoRow;
+import com.taste.repository.RestaurantRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-memory spatial index of located restaurants, kept in geohash order so bounding-box,
+ * radius and nearest-neighbour queries scan only the cells they touch. Loaded at startup and
+ * kept current from committed change events; writers take a lock, readers do not.
+ */
+@Component
+public class RestaurantGeoIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(RestaurantGeoIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int MAX_COVER_CELLS = 16;
+    private static final double KM_PER_DEGREE_LATITUDE = 111.32;
+    private static final double INITIAL_NEAREST_RADIUS_KM = 1.0;
+
+    private final RestaurantRepository restaurantRepository;
+    private final NavigableSet<GeoEntry> entries = new ConcurrentSkipListSet<>(GeoEntry.ORDER);
+    private final Map<Long, GeoEntry> entriesById = new ConcurrentHashMap<>();
+    private final Lock writeLock = new ReentrantLock();
+
+    public RestaurantGeoIndex(RestaurantRepository restaurantRepository) {
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        writeLock.lock();
+        try {
+            entries.clear();
+            entriesById.clear();
+        } finally {
+            writeLock.unlock();
+        }
+        long afterId = 0;
+        while (true) {
+            List<RestaurantGeoRow> rows;
+            // Read and applied under the lock, so a change committing meanwhile is applied
+            // after the batch that may have read the row before it
+            writeLock.lock();
+            try {
+                rows = restaurantRepository.findGeoRowsAfter(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE));
+                for (RestaurantGeoRow row : rows) {
+                    put(GeoEntry.of(row));
+                }
+            } finally {
+                writeLock.unlock();
+            }
+            if (rows.isEmpty()) {
+                break;
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+        logger.info("Loaded spatial index with {} restaurants", entriesById.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        // Two changes to one restaurant could otherwise apply their reads in the wrong order
+        writeLock.lock();
+        try {
+            if (event.changeType() == ChangeType.DELETED) {
+                remove(event.restaurantId());
+                return;
+            }
+            restaurantRepository.findGeoRowById(event.restaurantId())
+                    .ifPresentOrElse(row -> put(GeoEntry.of(row)), () -> remove(event.restaurantId()));
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    /**
+     * The {@code limit} matching entries inside the box nearest its centre, nearest first, so
+     * a truncated result thins out towards the edges rather than stopping partway along the
+     * geohash curve. A box whose {@code minLongitude} is greater than its
+     * {@code maxLongitude} crosses the antimeridian.
+     */
+    public List<GeoEntry> withinBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                                    Predicate<GeoEntry> filter, int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        double centreLatitude = (minLatitude + maxLatitude) / 2;
+        double centreLongitude = minLongitude > maxLongitude
+                ? wrap((minLongitude + maxLongitude + 360) / 2)
+                : (minLongitude + maxLongitude) / 2;
+        PriorityQueue<GeoHit> nearest = new PriorityQueue<>(Comparator.comparingDouble(GeoHit::distanceKm).reversed());
+        forEachInBox(minLatitude, minLongitude, maxLatitude, maxLongitude, entry -> {
+            double distanceKm = GeoHash.distanceKm(centreLatitude, centreLongitude, entry.latitude(), entry.longitude());
+            // Checked before the filter, which is the costlier test
+            if (nearest.size() >= limit && distanceKm >= nearest.peek().distanceKm()) {
+                return;
+            }
+            if (filter.test(entry)) {
+                nearest.add(new GeoHit(entry, distanceKm));
+                if (nearest.size() > limit) {
+                    nearest.poll();
+                }
+            }
+        });
+        return nearest.stream()
+                .sorted(Comparator.comparingDouble(GeoHit::distanceKm))
+                .map(GeoHit::entry)
+                .toList();
+    }
+
+    /** Matching entries within {@code radiusKm} of the point, nearest first. */
+    public List<GeoHit> withinRadius(double latitude, double longitude, double radiusKm, Predicate<GeoEntry> filter, int limit) {
+        double latDelta = radiusKm / KM_PER_DEGREE_LATITUDE;
+        double minLatitude = Math.max(-90, latitude - latDelta);
+        double maxLatitude = Math.min(90, latitude + latDelta);
+        double cosLatitude = Math.cos(Math.toRadians(Math.max(Math.abs(minLatitude), Math.abs(maxLatitude))));
+        double lonDelta = cosLatitude > 0 ? radiusKm / (KM_PER_DEGREE_LATITUDE * cosLatitude) : 360;
+
+        List<GeoHit> hits = new ArrayList<>();
+        Consumer<GeoEntry> collect = entry -> {
+            double distanceKm = GeoHash.distanceKm(latitude, longitude, entry.latitude(), entry.longitude());
+            if (distanceKm <= radiusKm && filter.test(entry)) {
+                hits.add(new GeoHit(entry, distanceKm));
+            }
+        };
+        if (lonDelta >= 180) {
+            forEachInBox(minLatitude, -180, maxLatitude, 180, collect);
+        } else {
+            forEachInBox(minLatitude, wrap(longitude - lonDelta), maxLatitude, wrap(longitude + lonDelta), collect);
+        }
+
+        return hits.stream()
+                .sorted(Comparator.comparingDouble(GeoHit::distanceKm))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * The {@code k} matching entries nearest the point, searching no further than
+     * {@code maxRadiusKm}. The search radius grows geometrically until it holds k hits.
+     */
+    public List<GeoHit> nearest(double latitude, double longitude, int k, double maxRadiusKm, Predicate<GeoEntry> filter) {
+        double radius = Math.min(INITIAL_NEAREST_RADIUS_KM, maxRadiusKm);
+        while (true) {
+            List<GeoHit> hits = withinRadius(latitude, longitude, radius, filter, k);
+            if (hits.size() >= k || radius >= maxRadiusKm) {
+                return hits;
+            }
+            radius = Math.min(radius * 4, maxRadiusKm);
+        }
+    }
+
+    private void forEachInBox(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                              Consumer<GeoEntry> action) {
+        if (minLongitude > maxLongitude) {
+            scan(minLatitude, minLongitude, maxLatitude, 180, action);
+            scan(minLatitude, -180, maxLatitude, maxLongitude, action);
+        } else {
+            scan(minLatitude, minLongitude, maxLatitude, maxLongitude, action);
+        }
+    }
+
+    private void scan(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                      Consumer<GeoEntry> action) {
+        for (long[] range : GeoHash.cover(minLatitude, minLongitude, maxLatitude, maxLongitude, MAX_COVER_CELLS)) {
+            for (GeoEntry entry : entries.subSet(GeoEntry.probe(range[0]), GeoEntry.probe(range[1]))) {
+                // Cells overhang the box, so each candidate is checked exactly
+                if (entry.latitude() >= minLatitude && entry.latitude() <= maxLatitude
+                        && entry.longitude() >= minLongitude && entry.longitude() <= maxLongitude) {
+                    action.accept(entry);
+                }
+            }
+        }
+    }
+
+    // The sorted set is changed inside compute, so the map and the set never disagree about
+    // which entry is current. The old entry goes first: an unmoved one compares equal to it.
+    private void put(GeoEntry entry) {
+        entriesById.compute(entry.id(), (id, previous) -> {
+            if (previous != null) {
+                entries.remove(previous);
+            }
+            entries.add(entry);
+            return entry;
+        });
+    }
+
+    private void remove(long id) {
+        entriesById.computeIfPresent(id, (key, previous) -> {
+            entries.remove(previous);
+            return null;
+        });
+    }
+
+    private static double wrap(double longitude) {
+        if (longitude < -180) {
+            return longitude + 360;
+        }
+        return longitude > 180 ? longitude - 360 : longitude;
+    }
+}
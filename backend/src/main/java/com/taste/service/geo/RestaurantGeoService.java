@@ -0,0 +1,109 @@
+package com.taste.service.geo;
+
+import com.taste.dto.NearbyRestaurant;
+import com.taste.dto.RestaurantMarker;
+import com.taste.model.DietaryPreference;
+import com.taste.model.PriceRange;
+import com.taste.service.privacy.ViewerScope;
+import com.taste.service.privacy.VisibilityEvaluator;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Location queries over restaurants the viewer may see, optionally narrowed to price ranges
+ * and to restaurants offering any of the given dietary options. Served from
+ * {@link RestaurantGeoIndex} without touching the database, apart from a cached lookup of
+ * the viewer's friends.
+ */
+@Service
+public class RestaurantGeoService {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+    public static final int DEFAULT_K = 10;
+    public static final int MAX_K = 100;
+    public static final double MAX_RADIUS_KM = 500;
+
+    private final RestaurantGeoIndex index;
+    private final VisibilityEvaluator visibility;
+
+    public RestaurantGeoService(RestaurantGeoIndex index, VisibilityEvaluator visibility) {
+        this.index = index;
+        this.visibility = visibility;
+    }
+
+    public List<RestaurantMarker> withinBox(Long viewerId, double minLatitude, double minLongitude,
+                                            double maxLatitude, double maxLongitude,
+                                            Collection<PriceRange> priceRanges, Collection<DietaryPreference> dietaryOptions,
+                                            int limit) {
+        checkLatitude(minLatitude);
+        checkLatitude(maxLatitude);
+        checkLongitude(minLongitude);
+        checkLongitude(maxLongitude);
+        if (minLatitude > maxLatitude) {
+            throw new IllegalArgumentException("minLat must not exceed maxLat");
+        }
+        return index.withinBox(minLatitude, minLongitude, maxLatitude, maxLongitude,
+                        filter(viewerId, priceRanges, dietaryOptions), clamp(limit, DEFAULT_LIMIT, MAX_LIMIT))
+                .stream()
+                .map(GeoEntry::marker)
+                .toList();
+    }
+
+    public List<NearbyRestaurant> withinRadius(Long viewerId, double latitude, double longitude, double radiusKm,
+                                               Collection<PriceRange> priceRanges, Collection<DietaryPreference> dietaryOptions,
+                                               int limit) {
+        checkLatitude(latitude);
+        checkLongitude(longitude);
+        if (!(radiusKm > 0 && radiusKm <= MAX_RADIUS_KM)) {
+            throw new IllegalArgumentException("radiusKm must be in (0, " + MAX_RADIUS_KM + "]");
+        }
+        return toNearby(index.withinRadius(latitude, longitude, radiusKm,
+                filter(viewerId, priceRanges, dietaryOptions), clamp(limit, DEFAULT_LIMIT, MAX_LIMIT)));
+    }
+
+    public List<NearbyRestaurant> nearest(Long viewerId, double latitude, double longitude, int k,
+                                          Collection<PriceRange> priceRanges, Collection<DietaryPreference> dietaryOptions) {
+        checkLatitude(latitude);
+        checkLongitude(longitude);
+        return toNearby(index.nearest(latitude, longitude, clamp(k, DEFAULT_K, MAX_K), MAX_RADIUS_KM,
+                filter(viewerId, priceRanges, dietaryOptions)));
+    }
+
+    private Predicate<GeoEntry> filter(Long viewerId, Collection<PriceRange> priceRanges,
+                                       Collection<DietaryPreference> dietaryOptions) {
+        Set<PriceRange> prices = priceRanges == null || priceRanges.isEmpty() ? null : EnumSet.copyOf(priceRanges);
+        short dietaryMask = dietaryOptions == null ? 0 : DietaryPreference.toMask(dietaryOptions);
+        ViewerScope scope = visibility.scopeFor(viewerId);
+        return entry -> (prices == null || prices.contains(entry.priceRange()))
+                && (dietaryMask == 0 || (entry.dietaryMask() & dietaryMask) != 0)
+                && scope.canView(entry.authorId(), entry.privacyLevel());
+    }
+
+    private static List<NearbyRestaurant> toNearby(List<GeoHit> hits) {
+        return hits.stream()
+                .map(hit -> new NearbyRestaurant(hit.entry().marker(), hit.distanceKm()))
+                .toList();
+    }
+
+    private static int clamp(int value, int defaultValue, int max) {
+        return value <= 0 ? defaultValue : Math.min(value, max);
+    }
+
+    private static void checkLatitude(double latitude) {
+        if (!(latitude >= -90 && latitude <= 90)) {
+            throw new IllegalArgumentException("Latitude must be between -90 and 90");
+        }
+    }
+
+    private static void checkLongitude(double longitude) {
+        if (!(longitude >= -180 && longitude <= 180)) {
+            throw new IllegalArgumentException("Longitude must be between -180 and 180");
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.taste.service.ingredient;
+
+import com.taste.dto.CookableRecipe;
+import com.taste.dto.RecipeSummary;
+import com.taste.repository.RecipeRepository;
+import com.taste.service.privacy.ViewerScope;
+import com.taste.service.privacy.VisibilityEvaluator;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * "What can I cook": recipes the viewer may see that use the ingredients they have, ranked
+ * by the share of each recipe's non-pantry ingredients those cover. Candidates and scores
+ * come from {@link IngredientRecipeIndex}; only the returned page is read from the database.
+ */
+@Service
+public class CookableRecipeService {
+
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_INGREDIENTS = 100;
+
+    private static final Comparator<Scored> RANKING = Comparator
+            .comparingDouble(Scored::coverage)
+            .thenComparing(Comparator.comparingInt(Scored::missing).reversed())
+            .thenComparingInt(Scored::matched)
+            .thenComparingLong(scored -> scored.recipe().recipeId());
+
+    private final IngredientDictionary dictionary;
+    private final IngredientRecipeIndex index;
+    private final RecipeRepository recipeRepository;
+    private final VisibilityEvaluator visibility;
+
+    public CookableRecipeService(IngredientDictionary dictionary, IngredientRecipeIndex index,
+                                 RecipeRepository recipeRepository, VisibilityEvaluator visibility) {
+        this.dictionary = dictionary;
+        this.index = index;
+        this.recipeRepository = recipeRepository;
+        this.visibility = visibility;
+    }
+
+    public List<CookableRecipe> cookable(Long viewerId, Collection<String> have, Integer maxMissing, int limit) {
+        if (have == null || have.isEmpty()) {
+            throw new IllegalArgumentException("At least one ingredient is required");
+        }
+        if (have.size() > MAX_INGREDIENTS) {
+            throw new IllegalArgumentException("At most " + MAX_INGREDIENTS + " ingredients are allowed");
+        }
+        if (maxMissing != null && maxMissing < 0) {
+            throw new IllegalArgumentException("maxMissing must not be negative");
+        }
+        Set<Long> available = new HashSet<>();
+        for (String name : have) {
+            dictionary.resolve(name).ifPresent(available::add);
+        }
+        if (available.isEmpty()) {
+            return List.of();
+        }
+
+        int size = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        ViewerScope scope = visibility.scopeFor(viewerId);
+        PriorityQueue<Scored> top = new PriorityQueue<>(size + 1, RANKING);
+        for (IndexedRecipe recipe : index.recipesUsingAny(available)) {
+            Scored scored = score(recipe, available);
+            if (scored == null || (maxMissing != null && scored.missing() > maxMissing) || !scope.canView(recipe.authorId(), recipe.privacyLevel())) {
+                continue;
+            }
+            top.add(scored);
+            if (top.size() > size) {
+                top.poll();
+            }
+        }
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING.reversed());
+        return hydrate(ranked, available);
+    }
+
+    // Null when only pantry staples matched, which would make every recipe a candidate
+    private Scored score(IndexedRecipe recipe, Set<Long> available) {
+        int required = recipe.unlinkedCount();
+        int matched = 0;
+        for (long ingredientId : recipe.ingredientIds()) {
+            if (dictionary.isPantry(ingredientId)) {
+                continue;
+            }
+            required++;
+            if (available.contains(ingredientId)) {
+                matched++;
+            }
+        }
+        return matched == 0 ? null : new Scored(recipe, (double) matched / required, matched, required);
+    }
+
+    private List<CookableRecipe> hydrate(List<Scored> ranked, Set<Long> available) {
+        Map<Long, RecipeSummary> summaries = recipeRepository.findSummariesByIdIn(
+                        ranked.stream().map(scored -> scored.recipe().recipeId()).toList()).stream()
+                .collect(Collectors.toMap(RecipeSummary::id, Function.identity()));
+        List<CookableRecipe> results = new ArrayList<>(ranked.size());
+        for (Scored scored : ranked) {
+            RecipeSummary summary = summaries.get(scored.recipe().recipeId());
+            if (summary == null) {
+                continue; // deleted since the index was read
+            }
+            List<String> missing = new ArrayList<>();
+            for (long ingredientId : scored.recipe().ingredientIds()) {
+                if (!available.contains(ingredientId) && !dictionary.isPantry(ingredientId)) {
+                    missing.add(dictionary.name(ingredientId));
+                }
+            }
+            results.add(new CookableRecipe(summary, scored.coverage(), scored.matched(), scored.required(),
+                    missing, scored.recipe().unlinkedCount()));
+        }
+        return results;
+    }
+
+    private record Scored(IndexedRecipe recipe, double coverage, int matched, int required) {
+        int missing() {
+            return required - matched;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.taste.service.ingredient;
+
+import com.taste.model.PrivacyLevel;
+
+/**
+ * What the ingredient index keeps per recipe: enough to filter by visibility and score
+ * coverage without a query. {@code ingredientIds} is distinct and sorted;
+ * {@code unlinkedCount} counts ingredient lines the dictionary could not resolve.
+ */
+record IndexedRecipe(long recipeId, long authorId, PrivacyLevel privacyLevel, long[] ingredientIds,
+                     int unlinkedCount) {
+}
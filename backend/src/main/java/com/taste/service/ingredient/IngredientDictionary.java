@@ -0,0 +1,67 @@
+package com.taste.service.ingredient;
+
+import com.taste.model.Ingredient;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Resolves free-text ingredient names to canonical ingredient ids through names and
+ * synonyms. Lookups read an immutable snapshot that {@link #replace} swaps wholesale, so
+ * they never lock.
+ *
+ * <p>Deliberately has no dependencies: {@link IngredientLinker} needs it while Hibernate
+ * is still being set up.
+ */
+@Component
+public class IngredientDictionary {
+
+    private volatile Snapshot snapshot = new Snapshot(IngredientTrie.build(Map.of()), Map.of(), Set.of());
+
+    public Optional<Long> resolve(String name) {
+        long id = snapshot.trie().longestMatch(IngredientNames.tokens(name));
+        return id < 0 ? Optional.empty() : Optional.of(id);
+    }
+
+    public String name(long ingredientId) {
+        return snapshot.names().get(ingredientId);
+    }
+
+    public boolean isPantry(long ingredientId) {
+        return snapshot.pantry().contains(ingredientId);
+    }
+
+    public int size() {
+        return snapshot.names().size();
+    }
+
+    public void replace(Collection<Ingredient> ingredients) {
+        // Canonical names go in last, so they win over an alias another entry also claims
+        Map<List<String>, Long> entries = new LinkedHashMap<>();
+        Map<Long, String> names = new HashMap<>();
+        Set<Long> pantry = new HashSet<>();
+        for (Ingredient ingredient : ingredients) {
+            for (String alias : ingredient.getAliases()) {
+                entries.put(IngredientNames.tokens(alias), ingredient.getId());
+            }
+        }
+        for (Ingredient ingredient : ingredients) {
+            entries.put(IngredientNames.tokens(ingredient.getName()), ingredient.getId());
+            names.put(ingredient.getId(), ingredient.getName());
+            if (ingredient.isPantry()) {
+                pantry.add(ingredient.getId());
+            }
+        }
+        snapshot = new Snapshot(IngredientTrie.build(entries), Map.copyOf(names), Set.copyOf(pantry));
+    }
+
+    private record Snapshot(IngredientTrie trie, Map<Long, String> names, Set<Long> pantry) {
+    }
+}
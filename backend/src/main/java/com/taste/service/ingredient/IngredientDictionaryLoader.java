@@ -0,0 +1,135 @@
+package com.taste.service.ingredient;
+
+import com.taste.model.Ingredient;
+import com.taste.repository.IngredientNameRow;
+import com.taste.repository.IngredientRepository;
+import com.taste.repository.RecipeIngredientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the bundled {@code ingredients.txt} seed into the ingredient tables, loads the
+ * dictionary from them and links recipe ingredients saved while a name was unknown.
+ * Seeding only adds, so ingredients and synonyms edited in the database are kept.
+ */
+@Component
+public class IngredientDictionaryLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientDictionaryLoader.class);
+    private static final String SEED = "ingredients.txt";
+    private static final int BATCH_SIZE = 5000;
+
+    private final IngredientRepository ingredientRepository;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final IngredientDictionary dictionary;
+    private final TransactionTemplate transaction;
+
+    public IngredientDictionaryLoader(IngredientRepository ingredientRepository,
+                                      RecipeIngredientRepository recipeIngredientRepository,
+                                      IngredientDictionary dictionary, PlatformTransactionManager transactionManager) {
+        this.ingredientRepository = ingredientRepository;
+        this.recipeIngredientRepository = recipeIngredientRepository;
+        this.dictionary = dictionary;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Runs before IngredientRecipeIndex loads, so the index sees every row that can be linked
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void load() {
+        long started = System.currentTimeMillis();
+        List<Ingredient> ingredients = transaction.execute(status -> seed(readSeed()));
+        dictionary.replace(ingredients);
+        int linked = linkUnlinked();
+        logger.info("Loaded {} ingredients and linked {} recipe ingredients in {} ms",
+                dictionary.size(), linked, System.currentTimeMillis() - started);
+    }
+
+    private List<Ingredient> seed(List<Ingredient> seed) {
+        Map<String, Ingredient> existing = ingredientRepository.findAllWithAliases().stream()
+                .collect(Collectors.toMap(ingredient -> IngredientNames.key(ingredient.getName()),
+                        Function.identity(), (first, second) -> first));
+        List<Ingredient> added = new ArrayList<>();
+        for (Ingredient ingredient : seed) {
+            Ingredient current = existing.get(IngredientNames.key(ingredient.getName()));
+            if (current == null) {
+                added.add(ingredient);
+            } else {
+                current.getAliases().addAll(ingredient.getAliases());
+            }
+        }
+        ingredientRepository.saveAll(added);
+        List<Ingredient> all = new ArrayList<>(existing.values());
+        all.addAll(added);
+        return all;
+    }
+
+    private int linkUnlinked() {
+        int linked = 0;
+        long afterId = 0;
+        while (true) {
+            List<IngredientNameRow> rows = recipeIngredientRepository.findUnlinkedAfter(afterId, PageRequest.ofSize(BATCH_SIZE));
+            if (rows.isEmpty()) {
+                return linked;
+            }
+            Map<Long, List<Long>> rowsByIngredient = new HashMap<>();
+            for (IngredientNameRow row : rows) {
+                dictionary.resolve(row.name()).ifPresent(ingredientId ->
+                        rowsByIngredient.computeIfAbsent(ingredientId, id -> new ArrayList<>()).add(row.id()));
+            }
+            Integer updated = transaction.execute(status -> rowsByIngredient.entrySet().stream()
+                    .mapToInt(entry -> recipeIngredientRepository.linkIngredient(entry.getKey(), entry.getValue()))
+                    .sum());
+            linked += updated;
+            afterId = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    private static List<Ingredient> readSeed() {
+        List<Ingredient> seed = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new ClassPathResource(SEED).getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                boolean pantry = line.startsWith("*");
+                String[] parts = line.substring(pantry ? 1 : 0).split(":", 2);
+                Ingredient ingredient = new Ingredient(parts[0].strip(), pantry);
+                if (parts.length > 1) {
+                    for (String alias : parts[1].split(",")) {
+                        if (!alias.isBlank()) {
+                            ingredient.getAliases().add(alias.strip());
+                        }
+                    }
+                }
+                seed.add(ingredient);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + SEED, e);
+        }
+        return seed;
+    }
+}
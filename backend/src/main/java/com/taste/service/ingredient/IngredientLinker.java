@@ -0,0 +1,27 @@
+package com.taste.service.ingredient;
+
+import com.taste.model.RecipeIngredient;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA write callback that points a {@link RecipeIngredient} at the canonical ingredient
+ * its name resolves to. Rows written before the dictionary knew a name are linked by
+ * {@link IngredientDictionaryLoader} on the next startup.
+ */
+@Component
+public class IngredientLinker {
+
+    private final IngredientDictionary dictionary;
+
+    public IngredientLinker(IngredientDictionary dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void link(RecipeIngredient ingredient) {
+        ingredient.setIngredientId(dictionary.resolve(ingredient.getName()).orElse(null));
+    }
+}
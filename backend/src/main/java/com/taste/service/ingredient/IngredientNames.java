@@ -0,0 +1,50 @@
+package com.taste.service.ingredient;
+
+import com.taste.service.search.TextAnalyzer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reduces ingredient names to the token sequence the dictionary matches on: analyzed the
+ * same way as search text, with simple English plurals folded to the singular so
+ * "tomatoes" and "tomato" meet.
+ */
+final class IngredientNames {
+
+    private IngredientNames() {}
+
+    static List<String> tokens(String name) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : TextAnalyzer.tokenize(name)) {
+            tokens.add(singular(token));
+        }
+        return tokens;
+    }
+
+    static String key(String name) {
+        return String.join(" ", tokens(name));
+    }
+
+    static String singular(String token) {
+        if (token.length() <= 3 || !Character.isLetter(token.charAt(token.length() - 1))) {
+            return token;
+        }
+        if (token.endsWith("ies")) {
+            return token.substring(0, token.length() - 3) + "y";
+        }
+        if (token.endsWith("oes")) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("ves")) {
+            return token.substring(0, token.length() - 3) + "f";
+        }
+        if (token.endsWith("ches") || token.endsWith("shes") || token.endsWith("sses") || token.endsWith("xes")) {
+            return token.substring(0, token.length() - 2);
+        }
+        if (token.endsWith("s") && !token.endsWith("ss") && !token.endsWith("us")) {
+            return token.substring(0, token.length() - 1);
+        }
+        return token;
+    }
+}
@@ -0,0 +1,178 @@
+package com.taste.service.ingredient;
+
+import com.taste.event.ChangeType;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.repository.CatalogFeatureRow;
+import com.taste.repository.IngredientLinkRow;
+import com.taste.repository.RecipeIngredientRepository;
+import com.taste.repository.RecipeRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from canonical ingredient ids to the recipes using them, as 64-bit bitmaps
+ * of recipe ids. Loaded at startup and kept current from committed recipe changes.
+ */
+@Component
+public class IngredientRecipeIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngredientRecipeIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeIngredientRepository recipeIngredientRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Roaring64Bitmap> postings = new HashMap<>();
+    private final Map<Long, IndexedRecipe> recipes = new HashMap<>();
+
+    public IngredientRecipeIndex(RecipeRepository recipeRepository, RecipeIngredientRepository recipeIngredientRepository) {
+        this.recipeRepository = recipeRepository;
+        this.recipeIngredientRepository = recipeIngredientRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void load() {
+        clear();
+        long afterId = 0;
+        List<CatalogFeatureRow> rows;
+        while (!(rows = recipeRepository.findFeatureRowsAfter(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE))).isEmpty()) {
+            putAll(rows);
+            afterId = rows.get(rows.size() - 1).id();
+        }
+        logger.info("Indexed ingredients of {} recipes under {} ingredients", size(), ingredientCount());
+    }
+
+    /** Recipes using at least one of the ingredients. */
+    List<IndexedRecipe> recipesUsingAny(Collection<Long> ingredientIds) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap candidates = new Roaring64Bitmap();
+            for (Long ingredientId : ingredientIds) {
+                Roaring64Bitmap posting = postings.get(ingredientId);
+                if (posting != null) {
+                    candidates.or(posting);
+                }
+            }
+            List<IndexedRecipe> matches = new ArrayList<>((int) candidates.getLongCardinality());
+            candidates.forEach(recipeId -> matches.add(recipes.get(recipeId)));
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return recipes.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.recipeId() == null) {
+            return;
+        }
+        if (event.changeType() == ChangeType.DELETED) {
+            remove(event.recipeId());
+            return;
+        }
+        recipeRepository.findFeatureRowById(event.recipeId())
+                .ifPresentOrElse(row -> putAll(List.of(row)), () -> remove(event.recipeId()));
+    }
+
+    private void putAll(List<CatalogFeatureRow> rows) {
+        Map<Long, List<Long>> links = new HashMap<>();
+        for (IngredientLinkRow link : recipeIngredientRepository.findLinksByRecipeIdIn(
+                rows.stream().map(CatalogFeatureRow::id).toList())) {
+            links.computeIfAbsent(link.recipeId(), id -> new ArrayList<>()).add(link.ingredientId());
+        }
+        List<IndexedRecipe> entries = new ArrayList<>(rows.size());
+        for (CatalogFeatureRow row : rows) {
+            List<Long> ingredientIds = links.getOrDefault(row.id(), List.of());
+            int unlinked = (int) ingredientIds.stream().filter(id -> id == null).count();
+            long[] linked = ingredientIds.stream().filter(id -> id != null).mapToLong(Long::longValue)
+                    .distinct().sorted().toArray();
+            entries.add(new IndexedRecipe(row.id(), row.authorId() != null ? row.authorId() : 0L,
+                    row.privacyLevel(), linked, unlinked));
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (IndexedRecipe entry : entries) {
+                removeLocked(entry.recipeId());
+                if (entry.ingredientIds().length == 0) {
+                    continue;
+                }
+                recipes.put(entry.recipeId(), entry);
+                for (long ingredientId : entry.ingredientIds()) {
+                    postings.computeIfAbsent(ingredientId, id -> new Roaring64Bitmap()).addLong(entry.recipeId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void remove(long recipeId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(recipeId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocked(long recipeId) {
+        IndexedRecipe previous = recipes.remove(recipeId);
+        if (previous == null) {
+            return;
+        }
+        for (long ingredientId : previous.ingredientIds()) {
+            Roaring64Bitmap posting = postings.get(ingredientId);
+            if (posting != null) {
+                posting.removeLong(recipeId);
+                if (posting.isEmpty()) {
+                    postings.remove(ingredientId);
+                }
+            }
+        }
+    }
+
+    private void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            recipes.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int ingredientCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
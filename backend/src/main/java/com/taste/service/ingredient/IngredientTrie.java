@@ -0,0 +1,115 @@
+package com.taste.service.ingredient;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable token-level trie from ingredient names and synonyms to ingredient ids. Tokens
+ * are interned to ints and the nodes flattened into sorted edge arrays, so a lookup is a
+ * hash probe per token plus a binary search per node, with no per-node objects.
+ */
+final class IngredientTrie {
+
+    private static final long NO_VALUE = -1;
+
+    private final Map<String, Integer> tokenIds;
+    // Edges of node n are edgeToken/edgeTarget[firstEdge[n] .. firstEdge[n + 1]), sorted by token
+    private final int[] firstEdge;
+    private final int[] edgeToken;
+    private final int[] edgeTarget;
+    private final long[] values;
+
+    private IngredientTrie(Map<String, Integer> tokenIds, int[] firstEdge, int[] edgeToken, int[] edgeTarget,
+                           long[] values) {
+        this.tokenIds = tokenIds;
+        this.firstEdge = firstEdge;
+        this.edgeToken = edgeToken;
+        this.edgeTarget = edgeTarget;
+        this.values = values;
+    }
+
+    /** Later entries for the same token sequence replace earlier ones. */
+    static IngredientTrie build(Map<List<String>, Long> entries) {
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<TreeMap<Integer, Integer>> children = new ArrayList<>();
+        List<Long> values = new ArrayList<>();
+        children.add(new TreeMap<>());
+        values.add(NO_VALUE);
+        for (Map.Entry<List<String>, Long> entry : entries.entrySet()) {
+            if (entry.getKey().isEmpty()) {
+                continue;
+            }
+            int node = 0;
+            for (String token : entry.getKey()) {
+                int tokenId = tokenIds.computeIfAbsent(token, t -> tokenIds.size());
+                Integer child = children.get(node).get(tokenId);
+                if (child == null) {
+                    child = children.size();
+                    children.get(node).put(tokenId, child);
+                    children.add(new TreeMap<>());
+                    values.add(NO_VALUE);
+                }
+                node = child;
+            }
+            values.set(node, entry.getValue());
+        }
+
+        int nodes = children.size();
+        int[] firstEdge = new int[nodes + 1];
+        int[] edgeToken = new int[nodes - 1];
+        int[] edgeTarget = new int[nodes - 1];
+        long[] nodeValues = new long[nodes];
+        int edge = 0;
+        for (int node = 0; node < nodes; node++) {
+            firstEdge[node] = edge;
+            for (Map.Entry<Integer, Integer> child : children.get(node).entrySet()) {
+                edgeToken[edge] = child.getKey();
+                edgeTarget[edge] = child.getValue();
+                edge++;
+            }
+            nodeValues[node] = values.get(node);
+        }
+        firstEdge[nodes] = edge;
+        return new IngredientTrie(Map.copyOf(tokenIds), firstEdge, edgeToken, edgeTarget, nodeValues);
+    }
+
+    /**
+     * The id of the longest dictionary entry occurring as a contiguous run of the tokens,
+     * the leftmost one on ties; {@code -1} if none does. "Extra virgin olive oil" resolves
+     * through "olive oil" rather than "oil".
+     */
+    long longestMatch(List<String> tokens) {
+        int[] ids = new int[tokens.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = tokenIds.getOrDefault(tokens.get(i), -1);
+        }
+        long best = NO_VALUE;
+        int bestLength = 0;
+        for (int start = 0; start < ids.length && ids.length - start > bestLength; start++) {
+            int node = 0;
+            for (int i = start; i < ids.length; i++) {
+                node = child(node, ids[i]);
+                if (node < 0) {
+                    break;
+                }
+                if (values[node] != NO_VALUE && i - start + 1 > bestLength) {
+                    best = values[node];
+                    bestLength = i - start + 1;
+                }
+            }
+        }
+        return best;
+    }
+
+    private int child(int node, int tokenId) {
+        if (tokenId < 0) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(edgeToken, firstEdge[node], firstEdge[node + 1], tokenId);
+        return index >= 0 ? edgeTarget[index] : -1;
+    }
+}
@@ -0,0 +1,4 @@
+package com.taste.service.media;
+
+record ImageDimensions(int width, int height) {
+}
@@ -0,0 +1,135 @@
+package com.taste.service.media;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+
+/** Header reads, subsampled decoding and downscaling of uploaded images with ImageIO. */
+final class ImageVariants {
+
+    // Roughly 160 MB of ARGB once decoded
+    static final long MAX_PIXELS = 40_000_000L;
+
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private ImageVariants() {}
+
+    /** Null when no ImageIO reader is installed for the format (WebP on a stock JDK). */
+    static ImageDimensions readDimensions(Path file, ImageFormat format) throws IOException {
+        ImageReader reader = reader(format);
+        if (reader == null) {
+            return null;
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            reader.setInput(input, true, true);
+            ImageDimensions dimensions = new ImageDimensions(reader.getWidth(0), reader.getHeight(0));
+            if ((long) dimensions.width() * dimensions.height() > MAX_PIXELS) {
+                throw new IllegalArgumentException("Image dimensions are too large");
+            }
+            return dimensions;
+        } catch (IOException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Image could not be read", e);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Decodes an image, letting the reader skip source pixels while the result stays at least
+     * twice {@code minWidth} wide; a 6000px photo decoded for 1280px variants is a quarter of
+     * the pixels, and the remaining halving steps smooth out the decimation.
+     */
+    static BufferedImage decode(Path file, ImageFormat format, int minWidth) throws IOException {
+        ImageReader reader = reader(format);
+        if (reader == null) {
+            return null;
+        }
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            reader.setInput(input, true, true);
+            int subsampling = Math.max(1, reader.getWidth(0) / Math.max(1, 2 * minWidth));
+            ImageReadParam param = reader.getDefaultReadParam();
+            param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+            return reader.read(0, param);
+        } finally {
+            reader.dispose();
+        }
+    }
+
+    /**
+     * Scales down in halving steps, which keeps bilinear filtering from aliasing. An image
+     * already narrower than {@code width} is only converted, never enlarged.
+     */
+    static BufferedImage scaleToWidth(BufferedImage source, int width, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        BufferedImage current = source;
+        int currentWidth = source.getWidth();
+        int currentHeight = source.getHeight();
+        do {
+            int nextWidth = Math.min(currentWidth, Math.max(width, currentWidth / 2));
+            int nextHeight = Math.max(1, (int) Math.round((double) source.getHeight() * nextWidth / source.getWidth()));
+            BufferedImage next = new BufferedImage(nextWidth, nextHeight, type);
+            Graphics2D graphics = next.createGraphics();
+            try {
+                if (opaque) {
+                    // Transparent pixels would otherwise turn black in an RGB image
+                    graphics.setColor(Color.WHITE);
+                    graphics.fillRect(0, 0, nextWidth, nextHeight);
+                }
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, nextWidth, nextHeight, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = next;
+            currentWidth = nextWidth;
+            currentHeight = nextHeight;
+        } while (currentWidth > width);
+        return current;
+    }
+
+    /** Writes through a temporary file so a half-written variant is never served. */
+    static void write(BufferedImage image, ImageFormat format, Path target) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(format.getContentType());
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        Path temp = Files.createTempFile(target.getParent(), ".variant", ".tmp");
+        try {
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if (format == ImageFormat.JPEG) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(JPEG_QUALITY);
+                }
+                writer.write(null, new IIOImage(image, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static ImageReader reader(ImageFormat format) {
+        Iterator<ImageReader> readers = ImageIO.getImageReadersByMIMEType(format.getContentType());
+        return readers.hasNext() ? readers.next() : null;
+    }
+}
@@ -0,0 +1,54 @@
+package com.taste.service.media;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped views of small media files, typically thumbnails, for serving where the
+ * connector has no sendfile: hot files come from the page cache without an open and read
+ * per request. Writing a view to the response still copies it through the stream's heap
+ * buffer. Safe because media files are content addressed and never rewritten in place.
+ */
+@Component
+public class MappedMediaCache {
+
+    private final long maxFileBytes;
+    private final LoadingCache<Path, ByteBuffer> mapped;
+
+    public MappedMediaCache(@Value("${app.media.mapped-cache.max-size:64MB}") DataSize maxSize,
+                            @Value("${app.media.mapped-cache.max-file-size:64KB}") DataSize maxFileSize) {
+        this.maxFileBytes = maxFileSize.toBytes();
+        this.mapped = Caffeine.newBuilder()
+                .maximumWeight(maxSize.toBytes())
+                .weigher((Path path, ByteBuffer buffer) -> buffer.capacity())
+                .build(MappedMediaCache::map);
+    }
+
+    /** A read-only view of the file, or null if it is too large to be worth keeping mapped. */
+    public ByteBuffer get(Path file, long size) {
+        if (size > maxFileBytes) {
+            return null;
+        }
+        // Each caller gets its own position and limit over the shared mapping
+        return mapped.get(file).asReadOnlyBuffer();
+    }
+
+    private static ByteBuffer map(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
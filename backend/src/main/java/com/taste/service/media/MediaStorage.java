@@ -0,0 +1,157 @@
+package com.taste.service.media;
+
+import com.taste.dto.UploadedMedia;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MaxUploadSizeExceededException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for uploaded images under {@code <app.upload.dir>/media}.
+ * Request bodies are streamed through a direct buffer into a temporary file while being
+ * hashed, so an upload never sits in the heap; identical uploads resolve to the same file.
+ */
+@Service
+public class MediaStorage {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Path mediaDir;
+    private final Path tempDir;
+    private final long maxBytes;
+    private final MediaVariantGenerator variantGenerator;
+
+    public MediaStorage(@Value("${app.upload.dir:uploads/}") Path uploadDir,
+                        @Value("${app.upload.max-size:5242880}") long maxBytes,
+                        MediaVariantGenerator variantGenerator) {
+        this.mediaDir = uploadDir.resolve("media").toAbsolutePath().normalize();
+        this.tempDir = uploadDir.resolve("tmp").toAbsolutePath().normalize();
+        this.maxBytes = maxBytes;
+        this.variantGenerator = variantGenerator;
+        try {
+            Files.createDirectories(mediaDir);
+            Files.createDirectories(tempDir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create upload directories under " + uploadDir, e);
+        }
+    }
+
+    /**
+     * Stores an upload body. {@code declaredLength} (the Content-Length, or -1) lets oversized
+     * uploads be refused before any byte is read; the limit is enforced while streaming too.
+     */
+    public UploadedMedia store(ReadableByteChannel body, long declaredLength) throws IOException {
+        if (declaredLength > maxBytes) {
+            throw new MaxUploadSizeExceededException(maxBytes);
+        }
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+        try {
+            MessageDigest digest = sha256();
+            byte[] head = new byte[ImageFormat.SNIFF_LENGTH];
+            int headLength = 0;
+            long size = 0;
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+                while (body.read(buffer) >= 0) {
+                    buffer.flip();
+                    if (headLength < head.length) {
+                        int n = Math.min(head.length - headLength, buffer.remaining());
+                        buffer.duplicate().get(head, headLength, n);
+                        headLength += n;
+                    }
+                    size += buffer.remaining();
+                    if (size > maxBytes) {
+                        throw new MaxUploadSizeExceededException(maxBytes);
+                    }
+                    digest.update(buffer.duplicate());
+                    while (buffer.hasRemaining()) {
+                        out.write(buffer);
+                    }
+                    buffer.clear();
+                }
+            }
+
+            ImageFormat format = ImageFormat.sniff(head, headLength);
+            if (format == null) {
+                throw new IllegalArgumentException("Only JPEG, PNG, GIF and WebP images can be uploaded");
+            }
+            // Reads only the header, and rejects images whose decoded size would be unreasonable
+            ImageDimensions dimensions = ImageVariants.readDimensions(temp, format);
+
+            String hash = HexFormat.of().formatHex(digest.digest());
+            Path target = mediaDir.resolve(MediaVariants.shard(hash)).resolve(MediaVariants.originalFileName(hash, format));
+            boolean duplicate = Files.exists(target);
+            if (!duplicate) {
+                Files.createDirectories(target.getParent());
+                try {
+                    Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileAlreadyExistsException e) {
+                    duplicate = true;
+                }
+            }
+            // Also for duplicates: generation skips variants that already exist
+            variantGenerator.schedule(target, hash, format);
+
+            String url = MediaVariants.URL_PREFIX + MediaVariants.shard(hash) + "/" + target.getFileName();
+            return new UploadedMedia(url, MediaVariants.cardUrl(url), hash, format.getContentType(), size,
+                    dimensions != null ? dimensions.width() : null,
+                    dimensions != null ? dimensions.height() : null,
+                    duplicate);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /** The stored file for a media URL's last two segments, if it exists and is a name we produce. */
+    public Optional<Path> find(String shard, String fileName) {
+        MediaVariants.MediaFile file = MediaVariants.parse(fileName);
+        if (file == null || !MediaVariants.shard(file.hash()).equals(shard)) {
+            return Optional.empty();
+        }
+        Path path = mediaDir.resolve(shard).resolve(fileName);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    /**
+     * For a variant that has not been generated yet: queues its generation and returns the
+     * original's URL to serve meanwhile. Empty if the name is no variant or the original is gone.
+     */
+    public Optional<String> fallbackForVariant(String fileName) {
+        MediaVariants.MediaFile file = MediaVariants.parse(fileName);
+        if (file == null || !file.isVariant()) {
+            return Optional.empty();
+        }
+        // The variant name does not record the original's format, so each is tried
+        for (ImageFormat format : ImageFormat.values()) {
+            String originalName = MediaVariants.originalFileName(file.hash(), format);
+            Path original = mediaDir.resolve(MediaVariants.shard(file.hash())).resolve(originalName);
+            if (Files.isRegularFile(original)) {
+                variantGenerator.schedule(original, file.hash(), format);
+                return Optional.of(MediaVariants.URL_PREFIX + MediaVariants.shard(file.hash()) + "/" + originalName);
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.taste.service.media;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces the resized variants of an uploaded original on a bounded background pool.
+ * Work that does not fit in the queue is dropped: a missing variant falls back to the
+ * original when requested, and is scheduled again at that point.
+ */
+@Component
+public class MediaVariantGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(MediaVariantGenerator.class);
+
+    private final ThreadPoolExecutor pool;
+    // Originals queued or in progress, so repeated requests for a missing variant queue it once
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public MediaVariantGenerator(@Value("${app.upload.variants.threads:2}") int threads,
+                                 @Value("${app.upload.variants.queue-capacity:256}") int queueCapacity) {
+        AtomicInteger count = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "media-variants-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.NORM_PRIORITY - 1);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public void schedule(Path original, String hash, ImageFormat format) {
+        if (!pending.add(hash)) {
+            return;
+        }
+        try {
+            pool.execute(() -> {
+                try {
+                    generate(original, hash, format);
+                } catch (IOException | RuntimeException e) {
+                    logger.warn("Failed to generate variants of {}", original.getFileName(), e);
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(hash);
+            logger.debug("Variant queue full, skipping {}", original.getFileName());
+        }
+    }
+
+    private void generate(Path original, String hash, ImageFormat format) throws IOException {
+        ImageFormat target = MediaVariants.variantFormat(format);
+        int largestMissing = 0;
+        for (int width : MediaVariants.WIDTHS) {
+            if (!Files.exists(variantPath(original, hash, width, target))) {
+                largestMissing = Math.max(largestMissing, width);
+            }
+        }
+        if (largestMissing == 0) {
+            return;
+        }
+        BufferedImage source = ImageVariants.decode(original, format, largestMissing);
+        if (source == null) {
+            return;
+        }
+        boolean opaque = target == ImageFormat.JPEG || !source.getColorModel().hasAlpha();
+        // Largest first, each scaled from the previous one, so every step is a small reduction
+        BufferedImage previous = source;
+        for (int i = MediaVariants.WIDTHS.length - 1; i >= 0; i--) {
+            int width = MediaVariants.WIDTHS[i];
+            // A width is a maximum: for a small original the variant is a re-encoded copy, so
+            // every derived URL resolves once generation has run
+            BufferedImage scaled = ImageVariants.scaleToWidth(previous, width, opaque);
+            Path path = variantPath(original, hash, width, target);
+            if (!Files.exists(path)) {
+                ImageVariants.write(scaled, target, path);
+            }
+            previous = scaled;
+        }
+    }
+
+    private static Path variantPath(Path original, String hash, int width, ImageFormat format) {
+        return original.resolveSibling(MediaVariants.fileName(hash, width, format));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,116 @@
+package com.taste.service.media;
+
+import javax.imageio.ImageIO;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Naming of uploaded media and its resized variants. Originals are content addressed as
+ * {@code /media/<first two hash chars>/<sha-256>.<ext>}; a variant adds {@code -w<width>}
+ * and uses WebP when an ImageIO WebP writer is installed, otherwise JPEG or PNG. Variant
+ * URLs can be derived from an original's URL alone, so DTOs never need to look them up.
+ */
+public final class MediaVariants {
+
+    public static final String URL_PREFIX = "/media/";
+    public static final int[] WIDTHS = {160, 320, 640, 1280};
+    // Feed and list cards render at up to ~160 CSS pixels; 320 covers 2x screens
+    public static final int CARD_WIDTH = 320;
+
+    static final boolean WEBP_WRITABLE = ImageIO.getImageWritersByMIMEType(ImageFormat.WEBP.getContentType()).hasNext();
+
+    private static final Pattern FILE = Pattern.compile("([0-9a-f]{64})(?:-w(\\d{1,5}))?\\.([a-z]{3,4})");
+    private static final int HASH_LENGTH = 64;
+    private static final ImageFormat[] FORMATS = ImageFormat.values();
+
+    private MediaVariants() {}
+
+    /** The card-sized variant of an uploaded image, or the URL unchanged if it is not one of ours. */
+    public static String cardUrl(String url) {
+        return variantUrl(url, CARD_WIDTH);
+    }
+
+    public static String variantUrl(String url, int width) {
+        if (url == null || !url.startsWith(URL_PREFIX)) {
+            return url;
+        }
+        // Matched by hand rather than through parse(): list cards call this for every item
+        // they serialize. Only an original, <hash>.<ext>, has variants.
+        int hashStart = url.lastIndexOf('/') + 1;
+        int dot = hashStart + HASH_LENGTH;
+        ImageFormat format = dot < url.length() && url.charAt(dot) == '.' && isHash(url, hashStart, dot)
+                ? formatOf(url, dot + 1)
+                : null;
+        if (format == null) {
+            return url;
+        }
+        String extension = variantFormat(format).getExtension();
+        return new StringBuilder(dot + 8 + extension.length())
+                .append(url, 0, dot)
+                .append("-w").append(width)
+                .append('.').append(extension)
+                .toString();
+    }
+
+    private static boolean isHash(String url, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = url.charAt(i);
+            if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static ImageFormat formatOf(String url, int extensionStart) {
+        for (ImageFormat format : FORMATS) {
+            String extension = format.getExtension();
+            if (url.length() - extensionStart == extension.length() && url.startsWith(extension, extensionStart)) {
+                return format;
+            }
+        }
+        return null;
+    }
+
+    static String originalFileName(String hash, ImageFormat format) {
+        return hash + "." + format.getExtension();
+    }
+
+    static String fileName(String hash, int width, ImageFormat format) {
+        return hash + "-w" + width + "." + format.getExtension();
+    }
+
+    static String shard(String hash) {
+        return hash.substring(0, 2);
+    }
+
+    static ImageFormat variantFormat(ImageFormat original) {
+        if (WEBP_WRITABLE) {
+            return ImageFormat.WEBP;
+        }
+        // Only JPEG sources are known to be opaque; anything else may carry transparency
+        return original == ImageFormat.JPEG ? ImageFormat.JPEG : ImageFormat.PNG;
+    }
+
+    /** Parses a file name under the media directory; null if it is not one this class produces. */
+    public static MediaFile parse(String fileName) {
+        Matcher matcher = FILE.matcher(fileName);
+        if (!matcher.matches()) {
+            return null;
+        }
+        ImageFormat format = ImageFormat.fromExtension(matcher.group(3));
+        if (format == null) {
+            return null;
+        }
+        Integer width = matcher.group(2) != null ? Integer.valueOf(matcher.group(2)) : null;
+        return new MediaFile(matcher.group(1), width, format);
+    }
+
+    /** A parsed media file name; {@code width} is null for an original. */
+    public record MediaFile(String hash, Integer width, ImageFormat format) {
+
+        public boolean isVariant() {
+            return width != null;
+        }
+    }
+}
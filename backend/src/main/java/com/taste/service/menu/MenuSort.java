@@ -0,0 +1,25 @@
+package com.taste.service.menu;
+
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.JpaSort;
+
+/**
+ * Orders for menu-based restaurant search; ties go to the newer restaurant. Menus without
+ * prices or ratings sort last. Spring Data drops null handling on string queries, and
+ * MySQL puts nulls first ascending, hence the explicit expression for price.
+ */
+public enum MenuSort {
+    PRICE(JpaSort.unsafe("(CASE WHEN s.avgPrice IS NULL THEN 1 ELSE 0 END)").and(Sort.by("avgPrice"))),
+    RATING(Sort.by(Sort.Order.desc("avgRating"))),
+    DISHES(Sort.by(Sort.Order.desc("itemCount")));
+
+    private final Sort sort;
+
+    MenuSort(Sort sort) {
+        this.sort = sort.and(Sort.by(Sort.Order.desc("restaurantId")));
+    }
+
+    public Sort getSort() {
+        return sort;
+    }
+}
@@ -0,0 +1,53 @@
+package com.taste.service.menu;
+
+import com.taste.repository.RestaurantMenuStatsRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Writes menu aggregates for restaurants that have none, those created before the stats
+ * tables existed. Everything after that is kept current by {@link MenuStatsWriter}.
+ */
+@Component
+public class MenuStatsBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuStatsBackfill.class);
+    private static final int BATCH_SIZE = 500;
+
+    private final RestaurantMenuStatsRepository statsRepository;
+    private final MenuStatsWriter writer;
+    private final TransactionTemplate transaction;
+
+    public MenuStatsBackfill(RestaurantMenuStatsRepository statsRepository, MenuStatsWriter writer,
+                             PlatformTransactionManager transactionManager) {
+        this.statsRepository = statsRepository;
+        this.writer = writer;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        int count = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = statsRepository.findRestaurantIdsWithoutStatsAfter(afterId, PageRequest.ofSize(BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            transaction.executeWithoutResult(status -> writer.refresh(ids));
+            count += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+        if (count > 0) {
+            logger.info("Backfilled menu stats for {} restaurants", count);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.taste.service.menu;
+
+import com.taste.dto.MenuStats;
+import com.taste.dto.RestaurantMenuCard;
+import com.taste.model.DietaryPreference;
+import com.taste.model.RestaurantDietaryStats;
+import com.taste.model.RestaurantMenuStats;
+import com.taste.repository.RestaurantMenuStatsRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.service.privacy.ViewerScope;
+import com.taste.service.privacy.VisibilityEvaluator;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Menu aggregates for restaurant cards and menu-based search, read from the tables
+ * {@link MenuStatsWriter} maintains; menu items themselves are never read here.
+ */
+@Service
+@Transactional(readOnly = true)
+public class MenuStatsService {
+
+    /** The price limits search can filter on, one stats column each. */
+    public static final List<Integer> PRICE_BANDS = List.of(10, 15, 20, 30);
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    private final RestaurantMenuStatsRepository statsRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final VisibilityEvaluator visibility;
+
+    public MenuStatsService(RestaurantMenuStatsRepository statsRepository, RestaurantRepository restaurantRepository,
+                            VisibilityEvaluator visibility) {
+        this.statsRepository = statsRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.visibility = visibility;
+    }
+
+    /** Empty if the restaurant does not exist or the viewer may not see it. */
+    public Optional<MenuStats> getMenuStats(Long viewerId, Long restaurantId) {
+        boolean visible = restaurantRepository.findVersionById(restaurantId)
+                .filter(v -> visibility.canView(viewerId, v.authorId(), v.privacyLevel()))
+                .isPresent();
+        if (!visible) {
+            return Optional.empty();
+        }
+        // A restaurant the backfill has not reached yet reads as an empty menu
+        return Optional.of(statsRepository.findById(restaurantId)
+                .map(stats -> toMenuStats(stats, statsRepository.findDietaryStats(restaurantId)))
+                .orElseGet(() -> new MenuStats(restaurantId, 0, 0, null, null, null, 0, null, null,
+                        itemsUnder(0, 0, 0, 0), List.of())));
+    }
+
+    /**
+     * Restaurants with at least {@code minDishes} dishes that carry {@code dietary}, if given,
+     * and are priced below {@code under}, if given.
+     */
+    public List<RestaurantMenuCard> search(Long viewerId, DietaryPreference dietary, Integer under, int minDishes,
+                                           MenuSort sort, int limit) {
+        if (under != null && !PRICE_BANDS.contains(under)) {
+            throw new IllegalArgumentException("under must be one of " + PRICE_BANDS);
+        }
+        if (minDishes < 1) {
+            throw new IllegalArgumentException("minDishes must be at least 1");
+        }
+        int band = under != null ? under : 0;
+        ViewerScope scope = visibility.scopeFor(viewerId);
+        PageRequest page = PageRequest.of(0, limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT),
+                (sort != null ? sort : MenuSort.RATING).getSort());
+        return dietary == null
+                ? statsRepository.findVisibleCards(band, minDishes, viewerId, scope.friends(), page)
+                : statsRepository.findVisibleCardsWithDietary(dietary, band, minDishes, viewerId, scope.friends(), page);
+    }
+
+    private static MenuStats toMenuStats(RestaurantMenuStats stats, List<RestaurantDietaryStats> dietary) {
+        MenuStats.TopItem topItem = stats.getTopItemId() == null ? null
+                : new MenuStats.TopItem(stats.getTopItemId(), stats.getTopItemName(), stats.getTopItemRating());
+        return new MenuStats(stats.getRestaurantId(), stats.getItemCount(), stats.getPricedItemCount(),
+                stats.getMinPrice(), stats.getMaxPrice(), stats.getAvgPrice(), stats.getRatedItemCount(),
+                stats.getAvgRating(), topItem,
+                itemsUnder(stats.getItemsUnder10(), stats.getItemsUnder15(), stats.getItemsUnder20(), stats.getItemsUnder30()),
+                dietary.stream()
+                        .map(d -> new MenuStats.DietaryCoverage(d.getPreference(), d.getItemCount(),
+                                share(d.getItemCount(), stats.getItemCount())))
+                        .toList());
+    }
+
+    private static Map<Integer, Integer> itemsUnder(int under10, int under15, int under20, int under30) {
+        Map<Integer, Integer> itemsUnder = new LinkedHashMap<>();
+        itemsUnder.put(10, under10);
+        itemsUnder.put(15, under15);
+        itemsUnder.put(20, under20);
+        itemsUnder.put(30, under30);
+        return itemsUnder;
+    }
+
+    private static double share(int count, int total) {
+        return total == 0 ? 0 : Math.round(count * 1000.0 / total) / 1000.0;
+    }
+}
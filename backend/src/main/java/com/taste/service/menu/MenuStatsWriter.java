@@ -0,0 +1,115 @@
+package com.taste.service.menu;
+
+import com.taste.event.MenuItemChangedEvent;
+import com.taste.event.RestaurantChangedEvent;
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.ActionQueue;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps {@code restaurant_menu_stats} and {@code restaurant_menu_dietary_stats} in step with
+ * menu items. A transaction that writes menu items, or restaurants, collects their
+ * restaurant ids; just before it commits, after Hibernate's final flush, the rows of those
+ * restaurants only are rewritten by set-based SQL in the same transaction, so the
+ * aggregates commit or roll back with the change. Under InnoDB the SELECT part of these
+ * statements takes locks and reads the latest committed items, so two transactions editing
+ * one menu cannot leave each other's change out.
+ *
+ * <p>Spring's before-commit callbacks run before that flush and so would miss edits flushed
+ * at commit; Hibernate's completion processes run after it.
+ */
+@Component
+public class MenuStatsWriter {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final String DELETE_DIETARY = "DELETE FROM restaurant_menu_dietary_stats WHERE restaurant_id IN (:ids)";
+    private static final String DELETE_STATS = "DELETE FROM restaurant_menu_stats WHERE restaurant_id IN (:ids)";
+    // Restaurants that no longer exist get no row back
+    private static final String INSERT_STATS = "INSERT INTO restaurant_menu_stats (restaurant_id, item_count, priced_item_count, min_price, max_price, avg_price, rated_item_count, avg_rating, items_under_10, items_under_15, items_under_20, items_under_30, top_item_rating) "
+            + "SELECT r.id, COUNT(m.id), COUNT(m.price), MIN(m.price), MAX(m.price), ROUND(AVG(m.price), 2), COUNT(m.rating), ROUND(AVG(m.rating), 2), "
+            + "SUM(CASE WHEN m.price < 10 THEN 1 ELSE 0 END), SUM(CASE WHEN m.price < 15 THEN 1 ELSE 0 END), SUM(CASE WHEN m.price < 20 THEN 1 ELSE 0 END), SUM(CASE WHEN m.price < 30 THEN 1 ELSE 0 END), MAX(m.rating) "
+            + "FROM restaurants r LEFT JOIN menu_items m ON m.restaurant_id = r.id WHERE r.id IN (:ids) GROUP BY r.id";
+    // The top rating is known from the insert; ties go to the oldest dish
+    private static final String UPDATE_TOP_ITEM = "UPDATE restaurant_menu_stats s SET top_item_id = (SELECT MIN(m.id) FROM menu_items m WHERE m.restaurant_id = s.restaurant_id AND m.rating = s.top_item_rating) "
+            + "WHERE s.restaurant_id IN (:ids) AND s.top_item_rating IS NOT NULL";
+    private static final String UPDATE_TOP_ITEM_NAME = "UPDATE restaurant_menu_stats s SET top_item_name = (SELECT m.name FROM menu_items m WHERE m.id = s.top_item_id) "
+            + "WHERE s.restaurant_id IN (:ids) AND s.top_item_id IS NOT NULL";
+    private static final String INSERT_DIETARY = "INSERT INTO restaurant_menu_dietary_stats (restaurant_id, preference, item_count, items_under_10, items_under_15, items_under_20, items_under_30) "
+            + "SELECT m.restaurant_id, d.preference, COUNT(*), "
+            + "SUM(CASE WHEN m.price < 10 THEN 1 ELSE 0 END), SUM(CASE WHEN m.price < 15 THEN 1 ELSE 0 END), SUM(CASE WHEN m.price < 20 THEN 1 ELSE 0 END), SUM(CASE WHEN m.price < 30 THEN 1 ELSE 0 END) "
+            + "FROM menu_items m JOIN menu_item_dietary_preferences d ON d.menu_item_id = m.id WHERE m.restaurant_id IN (:ids) GROUP BY m.restaurant_id, d.preference";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transaction;
+
+    public MenuStatsWriter(NamedParameterJdbcTemplate jdbcTemplate, EntityManager entityManager,
+                           PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManager = entityManager;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Synchronous on purpose: these arrive during the writing transaction's flush
+    @EventListener
+    public void onMenuItemChanged(MenuItemChangedEvent event) {
+        markDirty(event.restaurantId());
+    }
+
+    @EventListener
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        markDirty(event.restaurantId());
+    }
+
+    /** Rewrites the aggregates of the given restaurants. Must run inside a transaction. */
+    public void refresh(Collection<Long> restaurantIds) {
+        List<Long> ids = new ArrayList<>(restaurantIds);
+        for (int from = 0; from < ids.size(); from += CHUNK_SIZE) {
+            Map<String, Object> params = Map.of("ids", ids.subList(from, Math.min(from + CHUNK_SIZE, ids.size())));
+            jdbcTemplate.update(DELETE_DIETARY, params);
+            jdbcTemplate.update(DELETE_STATS, params);
+            jdbcTemplate.update(INSERT_STATS, params);
+            jdbcTemplate.update(UPDATE_TOP_ITEM, params);
+            jdbcTemplate.update(UPDATE_TOP_ITEM_NAME, params);
+            jdbcTemplate.update(INSERT_DIETARY, params);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void markDirty(Long restaurantId) {
+        if (restaurantId == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            transaction.executeWithoutResult(status -> refresh(List.of(restaurantId)));
+            return;
+        }
+        Set<Long> dirty = (Set<Long>) TransactionSynchronizationManager.getResource(this);
+        if (dirty == null) {
+            Set<Long> ids = new LinkedHashSet<>();
+            TransactionSynchronizationManager.bindResource(this, ids);
+            ActionQueue actionQueue = entityManager.unwrap(SessionImplementor.class).getActionQueue();
+            actionQueue.registerProcess((BeforeTransactionCompletionProcess) session -> refresh(ids));
+            actionQueue.registerProcess((AfterTransactionCompletionProcess) (success, session) ->
+                    TransactionSynchronizationManager.unbindResourceIfPossible(this));
+            dirty = ids;
+        }
+        dirty.add(restaurantId);
+    }
+}
@@ -0,0 +1,177 @@
+package com.taste.service.preference;
+
+import com.taste.model.Allergen;
+import com.taste.model.DietaryPreference;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmap per dietary preference and per allergen over the ids of one entity type.
+ * Filtering a whole catalog is then a handful of bitmap ORs, ANDs and ANDNOTs. The bitmaps
+ * hold 64-bit ids, so they keep working once ids pass {@link Integer#MAX_VALUE}.
+ */
+public class PreferenceBitmap {
+
+    private final Roaring64Bitmap all = new Roaring64Bitmap();
+    private final Roaring64Bitmap untagged = new Roaring64Bitmap();
+    private final Roaring64Bitmap[] dietary = new Roaring64Bitmap[DietaryPreference.values().length];
+    private final Roaring64Bitmap[] allergens = new Roaring64Bitmap[Long.SIZE];
+    // Out-of-dictionary allergen names, only for ids carrying Allergen.OTHER_BIT
+    private final Map<Long, Set<String>> otherAllergens = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public PreferenceBitmap() {
+        for (int i = 0; i < dietary.length; i++) {
+            dietary[i] = new Roaring64Bitmap();
+        }
+        for (int i = 0; i < allergens.length; i++) {
+            allergens[i] = new Roaring64Bitmap();
+        }
+    }
+
+    public void put(long id, short dietaryMask, long allergenMask, Set<String> otherAllergenNames) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            all.addLong(id);
+            if (dietaryMask == 0) {
+                untagged.addLong(id);
+            }
+            for (int bit = 0; bit < dietary.length; bit++) {
+                if ((dietaryMask & (1 << bit)) != 0) {
+                    dietary[bit].addLong(id);
+                }
+            }
+            for (int bit = 0; bit < allergens.length; bit++) {
+                if ((allergenMask & (1L << bit)) != 0) {
+                    allergens[bit].addLong(id);
+                }
+            }
+            if ((allergenMask & Allergen.OTHER_BIT) != 0 && !otherAllergenNames.isEmpty()) {
+                otherAllergens.put(id, Set.copyOf(otherAllergenNames));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            all.clear();
+            untagged.clear();
+            for (Roaring64Bitmap bitmap : dietary) {
+                bitmap.clear();
+            }
+            for (Roaring64Bitmap bitmap : allergens) {
+                bitmap.clear();
+            }
+            otherAllergens.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return (int) all.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ids compatible with a viewer: tagged with at least one of {@code preferenceMask} (or not
+     * tagged at all), and containing none of the viewer's allergens. A zero preference mask
+     * skips the preference test. The result is a private copy the caller may modify.
+     */
+    public Roaring64Bitmap compatibleWith(short preferenceMask, long allergenMask, Set<String> otherAllergenNames) {
+        lock.readLock().lock();
+        try {
+            Roaring64Bitmap result;
+            if (preferenceMask == 0) {
+                result = all.clone();
+            } else {
+                result = untagged.clone();
+                for (int bit = 0; bit < dietary.length; bit++) {
+                    if ((preferenceMask & (1 << bit)) != 0) {
+                        result.or(dietary[bit]);
+                    }
+                }
+            }
+            long knownMask = allergenMask & ~Allergen.OTHER_BIT;
+            for (int bit = 0; bit < allergens.length; bit++) {
+                if ((knownMask & (1L << bit)) != 0) {
+                    result.andNot(allergens[bit]);
+                }
+            }
+            if (otherAllergenNames != null && !otherAllergenNames.isEmpty()) {
+                Roaring64Bitmap flagged = result.clone();
+                flagged.and(allergens[Long.SIZE - 1]);
+                flagged.forEach(key -> {
+                    Set<String> names = otherAllergens.getOrDefault(key, Collections.emptySet());
+                    if (!Collections.disjoint(names, otherAllergenNames)) {
+                        result.removeLong(key);
+                    }
+                });
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Single-id form of the allergen half of {@link #compatibleWith}: true when {@code id}
+     * is indexed and contains none of the given allergens.
+     */
+    public boolean isSafeFor(long id, long allergenMask, Set<String> otherAllergenNames) {
+        lock.readLock().lock();
+        try {
+            if (!all.contains(id)) {
+                return false;
+            }
+            long knownMask = allergenMask & ~Allergen.OTHER_BIT;
+            for (int bit = 0; bit < allergens.length; bit++) {
+                if ((knownMask & (1L << bit)) != 0 && allergens[bit].contains(id)) {
+                    return false;
+                }
+            }
+            return otherAllergenNames == null || otherAllergenNames.isEmpty()
+                    || Collections.disjoint(otherAllergens.getOrDefault(id, Collections.emptySet()), otherAllergenNames);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        if (!all.contains(id)) {
+            return;
+        }
+        all.removeLong(id);
+        untagged.removeLong(id);
+        for (Roaring64Bitmap bitmap : dietary) {
+            bitmap.removeLong(id);
+        }
+        for (Roaring64Bitmap bitmap : allergens) {
+            bitmap.removeLong(id);
+        }
+        otherAllergens.remove(id);
+    }
+}
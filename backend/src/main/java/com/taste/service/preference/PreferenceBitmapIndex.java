@@ -0,0 +1,137 @@
+package com.taste.service.preference;
+
+import com.taste.event.ChangeType;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.model.Allergen;
+import com.taste.model.User;
+import com.taste.repository.PreferenceMaskRow;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * In-memory bitmap index of recipe and restaurant dietary/allergen masks, used to filter the
+ * whole catalog for a viewer without a query. Loaded at startup and kept current from
+ * committed change events.
+ */
+@Component
+public class PreferenceBitmapIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreferenceBitmapIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final PreferenceBitmap recipes = new PreferenceBitmap();
+    private final PreferenceBitmap restaurants = new PreferenceBitmap();
+
+    public PreferenceBitmapIndex(RecipeRepository recipeRepository, RestaurantRepository restaurantRepository) {
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void load() {
+        recipes.clear();
+        restaurants.clear();
+
+        Map<Long, Set<String>> otherNames = new HashMap<>();
+        for (Object[] row : recipeRepository.findAllergenNamesFlagged(Allergen.OTHER_BIT)) {
+            otherNames.computeIfAbsent((Long) row[0], id -> new HashSet<>()).addAll(Allergen.unknownNames(List.of((String) row[1])));
+        }
+        long afterId = 0;
+        List<PreferenceMaskRow> rows;
+        while (!(rows = recipeRepository.findMaskRowsAfter(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE))).isEmpty()) {
+            for (PreferenceMaskRow row : rows) {
+                put(recipes, row, otherNames.getOrDefault(row.id(), Set.of()));
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+
+        afterId = 0;
+        while (!(rows = restaurantRepository.findMaskRowsAfter(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE))).isEmpty()) {
+            for (PreferenceMaskRow row : rows) {
+                put(restaurants, row, Set.of());
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+        logger.info("Loaded preference bitmaps for {} recipes and {} restaurants", recipes.size(), restaurants.size());
+    }
+
+    public Roaring64Bitmap compatibleRecipeIds(User viewer) {
+        long allergenMask = mask(viewer.getAllergenMask());
+        // The allergy names themselves are only needed for out-of-dictionary entries
+        Set<String> otherNames = (allergenMask & Allergen.OTHER_BIT) != 0
+                ? Allergen.unknownNames(viewer.getAllergies())
+                : Set.of();
+        return recipes.compatibleWith(mask(viewer.getDietaryMask()), allergenMask, otherNames);
+    }
+
+    public Roaring64Bitmap compatibleRestaurantIds(User viewer) {
+        // Restaurants carry no allergen data, so only dietary options narrow them
+        return restaurants.compatibleWith(mask(viewer.getDietaryMask()), 0L, Set.of());
+    }
+
+    public PreferenceBitmap recipes() {
+        return recipes;
+    }
+
+    public PreferenceBitmap restaurants() {
+        return restaurants;
+    }
+
+    // Ahead of the recommendation engine, which reads these bitmaps for the same event
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED) {
+            recipes.remove(event.recipeId());
+            return;
+        }
+        recipeRepository.findMaskRowById(event.recipeId()).ifPresentOrElse(row -> {
+            Set<String> otherNames = row.allergenMask() != null && (row.allergenMask() & Allergen.OTHER_BIT) != 0
+                    ? Allergen.unknownNames(recipeRepository.findAllergenNamesById(row.id()))
+                    : Set.of();
+            put(recipes, row, otherNames);
+        }, () -> recipes.remove(event.recipeId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED) {
+            restaurants.remove(event.restaurantId());
+            return;
+        }
+        restaurantRepository.findMaskRowById(event.restaurantId())
+                .ifPresentOrElse(row -> put(restaurants, row, Set.of()), () -> restaurants.remove(event.restaurantId()));
+    }
+
+    private static void put(PreferenceBitmap bitmap, PreferenceMaskRow row, Set<String> otherNames) {
+        bitmap.put(row.id(), mask(row.dietaryMask()), mask(row.allergenMask()), otherNames);
+    }
+
+    private static short mask(Short mask) {
+        return mask != null ? mask : 0;
+    }
+
+    private static long mask(Long mask) {
+        return mask != null ? mask : 0L;
+    }
+}
@@ -0,0 +1,93 @@
+package com.taste.service.preference;
+
+import com.taste.repository.MenuItemRepository;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.repository.UserRepository;
+import org.hibernate.Hibernate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Fills in dietary and allergen bitmasks for rows written before those columns existed.
+ * New and updated rows get their masks from the entities' own write callbacks.
+ */
+@Component
+public class PreferenceMaskBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(PreferenceMaskBackfill.class);
+    private static final int BATCH_SIZE = 200;
+
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final MenuItemRepository menuItemRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+
+    public PreferenceMaskBackfill(RecipeRepository recipeRepository, RestaurantRepository restaurantRepository,
+                                  MenuItemRepository menuItemRepository, UserRepository userRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.menuItemRepository = menuItemRepository;
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Runs before PreferenceBitmapIndex loads, so the index never sees a missing mask
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void backfill() {
+        int recipes = backfill(recipeRepository::findIdsWithoutMasksAfter, recipeRepository::findAllById, recipe -> {
+            Hibernate.initialize(recipe.getDietaryPreferences());
+            Hibernate.initialize(recipe.getAllergens());
+            recipe.syncMasks();
+        });
+        int restaurants = backfill(restaurantRepository::findIdsWithoutMasksAfter, restaurantRepository::findAllById, restaurant -> {
+            Hibernate.initialize(restaurant.getDietaryOptions());
+            restaurant.syncMasks();
+        });
+        int menuItems = backfill(menuItemRepository::findIdsWithoutMasksAfter, menuItemRepository::findAllById, menuItem -> {
+            Hibernate.initialize(menuItem.getDietaryPreferences());
+            Hibernate.initialize(menuItem.getAllergens());
+            menuItem.syncMasks();
+        });
+        int users = backfill(userRepository::findIdsWithoutMasksAfter, userRepository::findAllById, user -> {
+            Hibernate.initialize(user.getDietaryPreferences());
+            Hibernate.initialize(user.getAllergies());
+            user.syncMasks();
+        });
+        if (recipes + restaurants + menuItems + users > 0) {
+            logger.info("Backfilled preference masks for {} recipes, {} restaurants, {} menu items and {} users",
+                    recipes, restaurants, menuItems, users);
+        }
+    }
+
+    private <T> int backfill(BiFunction<Long, PageRequest, List<Long>> findIds,
+                             Function<List<Long>, List<T>> load, Consumer<T> sync) {
+        int count = 0;
+        long afterId = 0;
+        while (true) {
+            List<Long> ids = findIds.apply(afterId, PageRequest.ofSize(BATCH_SIZE));
+            if (ids.isEmpty()) {
+                return count;
+            }
+            // Dirty checking writes the recomputed masks on commit
+            transaction.executeWithoutResult(status -> load.apply(ids).forEach(sync));
+            count += ids.size();
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+}
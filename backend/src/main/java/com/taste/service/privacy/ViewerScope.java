@@ -0,0 +1,73 @@
+package com.taste.service.privacy;
+
+import com.taste.model.PrivacyLevel;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * One viewer's visibility rules, resolved once and then applied to any number of items
+ * without further lookups. Obtain from {@link VisibilityEvaluator#scopeFor}; hold it for
+ * a request or a page, not longer, since friendships change.
+ */
+public final class ViewerScope {
+
+    static final ViewerScope ANONYMOUS = new ViewerScope(null, new long[0]);
+
+    private final Long viewerId;
+    private final long[] friendIds;
+
+    ViewerScope(Long viewerId, long[] friendIds) {
+        this.viewerId = viewerId;
+        this.friendIds = friendIds;
+    }
+
+    public Long viewerId() {
+        return viewerId;
+    }
+
+    public boolean canView(Long authorId, PrivacyLevel privacyLevel) {
+        if (privacyLevel == null || privacyLevel == PrivacyLevel.PUBLIC) {
+            return true;
+        }
+        if (viewerId == null || authorId == null) {
+            return false;
+        }
+        if (authorId.equals(viewerId)) {
+            return true;
+        }
+        return privacyLevel == PrivacyLevel.FRIENDS && isFriend(authorId);
+    }
+
+    public boolean isFriend(long userId) {
+        return Arrays.binarySearch(friendIds, userId) >= 0;
+    }
+
+    /** All users whose FRIENDS content this viewer may see, including the viewer. */
+    public Set<Long> friends() {
+        Set<Long> friends = new HashSet<>();
+        if (viewerId != null) {
+            friends.add(viewerId);
+        }
+        for (long friendId : friendIds) {
+            friends.add(friendId);
+        }
+        return friends;
+    }
+
+    /**
+     * The given authors whose FRIENDS content this viewer may see, including the viewer.
+     * Passed to queries that apply the same rules in SQL.
+     */
+    public Set<Long> friendsAmong(Collection<Long> authorIds) {
+        Set<Long> friends = new HashSet<>();
+        for (Long authorId : authorIds) {
+            if (authorId != null && (authorId.equals(viewerId) || isFriend(authorId))) {
+                friends.add(authorId);
+            }
+        }
+        return friends;
+    }
+}
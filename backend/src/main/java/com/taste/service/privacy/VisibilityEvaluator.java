@@ -0,0 +1,39 @@
+package com.taste.service.privacy;
+
+import com.taste.model.PrivacyLevel;
+import com.taste.service.social.FollowGraph;
+import org.springframework.stereotype.Service;
+
+/**
+ * The one place content visibility is decided. PUBLIC content is visible to everyone,
+ * PRIVATE only to its author, FRIENDS to its author and their friends, users the author
+ * and viewer both follow each other. Friend lists come from {@link FollowGraph}, so
+ * checking a whole page costs at most one query for the viewer, none when cached.
+ *
+ * <p>Queries that page through mixed-visibility content should filter in SQL instead,
+ * passing {@link ViewerScope#friendsAmong} for the page's authors.
+ */
+@Service
+public class VisibilityEvaluator {
+
+    private final FollowGraph followGraph;
+
+    public VisibilityEvaluator(FollowGraph followGraph) {
+        this.followGraph = followGraph;
+    }
+
+    public ViewerScope scopeFor(Long viewerId) {
+        return viewerId == null ? ViewerScope.ANONYMOUS : new ViewerScope(viewerId, followGraph.friends(viewerId));
+    }
+
+    /** For a single item; use {@link #scopeFor} when checking several. */
+    public boolean canView(Long viewerId, Long authorId, PrivacyLevel privacyLevel) {
+        if (privacyLevel == null || privacyLevel == PrivacyLevel.PUBLIC) {
+            return true;
+        }
+        if (viewerId == null || authorId == null) {
+            return false;
+        }
+        return viewerId.equals(authorId) || (privacyLevel == PrivacyLevel.FRIENDS && followGraph.isMutual(viewerId, authorId));
+    }
+}
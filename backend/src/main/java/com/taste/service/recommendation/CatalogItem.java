@@ -0,0 +1,33 @@
+package com.taste.service.recommendation;
+
+import com.taste.model.PrivacyLevel;
+import com.taste.repository.CatalogFeatureRow;
+
+import java.time.ZoneOffset;
+
+/**
+ * Immutable scoring features of one recipe or restaurant. {@code rating} is NaN when the
+ * item has none.
+ */
+public record CatalogItem(
+        long id,
+        long authorId,
+        PrivacyLevel privacyLevel,
+        short dietaryMask,
+        double rating,
+        long createdAtEpochSecond) {
+
+    public static CatalogItem of(CatalogFeatureRow row) {
+        return new CatalogItem(
+                row.id(),
+                row.authorId() != null ? row.authorId() : 0L,
+                row.privacyLevel() != null ? row.privacyLevel() : PrivacyLevel.PUBLIC,
+                row.dietaryMask() != null ? row.dietaryMask() : 0,
+                row.rating() != null ? row.rating().doubleValue() : Double.NaN,
+                row.createdAt() != null ? row.createdAt().toEpochSecond(ZoneOffset.UTC) : 0L);
+    }
+
+    public boolean hasRating() {
+        return !Double.isNaN(rating);
+    }
+}
@@ -0,0 +1,43 @@
+package com.taste.service.recommendation;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Linear blend of dietary overlap, whether the viewer follows the author, the item's rating
+ * and an exponential recency decay.
+ */
+@Component
+public class DefaultRecommendationScorer implements RecommendationScorer {
+
+    private static final double PREFERENCE_MATCH_WEIGHT = 2.0;
+    private static final double UNTAGGED_WEIGHT = 0.5;
+    private static final double FOLLOWED_AUTHOR_WEIGHT = 3.0;
+    private static final double RATING_WEIGHT = 0.5;
+    private static final double RECENCY_WEIGHT = 2.0;
+    private static final double RECENCY_DECAY_SECONDS = 30 * 24 * 3600.0;
+
+    @Override
+    public double score(ViewerProfile viewer, CatalogItem item, long nowEpochSecond) {
+        double score = popularity(item, nowEpochSecond);
+        if (viewer.dietaryMask() != 0) {
+            int matches = Integer.bitCount(viewer.dietaryMask() & item.dietaryMask());
+            score += matches > 0 ? PREFERENCE_MATCH_WEIGHT * matches
+                    : item.dietaryMask() == 0 ? UNTAGGED_WEIGHT : 0;
+        }
+        if (viewer.follows(item.authorId())) {
+            score += FOLLOWED_AUTHOR_WEIGHT;
+        }
+        return score;
+    }
+
+    @Override
+    public double popularity(CatalogItem item, long nowEpochSecond) {
+        double ageSeconds = Math.max(0, nowEpochSecond - item.createdAtEpochSecond());
+        double score = RECENCY_WEIGHT * Math.exp(-ageSeconds / RECENCY_DECAY_SECONDS);
+        if (item.hasRating()) {
+            // Centred on the middle of the 1-5 scale so unrated items are not penalised
+            score += RATING_WEIGHT * (item.rating() - 3.0);
+        }
+        return score;
+    }
+}
@@ -0,0 +1,90 @@
+package com.taste.service.recommendation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded list of ids ordered by descending score. Offering an id already present replaces
+ * its score, which is what lets a single changed item be re-ranked in place.
+ */
+class RankedList {
+
+    // A lock rather than a monitor: one contended by virtual threads pins their carriers
+    private final Lock lock = new ReentrantLock();
+    private final long[] ids;
+    private final double[] scores;
+    private int size;
+
+    RankedList(int capacity) {
+        this.ids = new long[capacity];
+        this.scores = new double[capacity];
+    }
+
+    void offer(long id, double score) {
+        lock.lock();
+        try {
+            removeInternal(id);
+            if (size == ids.length && score <= scores[size - 1]) {
+                return;
+            }
+            int position = size == ids.length ? size - 1 : size;
+            while (position > 0 && scores[position - 1] < score) {
+                ids[position] = ids[position - 1];
+                scores[position] = scores[position - 1];
+                position--;
+            }
+            ids[position] = id;
+            scores[position] = score;
+            if (size < ids.length) {
+                size++;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    List<Long> top(int limit) {
+        lock.lock();
+        try {
+            int count = Math.min(limit, size);
+            List<Long> result = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                result.add(ids[i]);
+            }
+            return result;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void removeInternal(long id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+                System.arraycopy(scores, i + 1, scores, i, size - i - 1);
+                size--;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.taste.service.recommendation;
+
+import com.taste.model.PrivacyLevel;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * In-memory features of every recipe or every restaurant, indexed by id and by author, plus
+ * the current shared pool of popular public items.
+ */
+public class RecommendationCatalog {
+
+    private final Map<Long, CatalogItem> items = new ConcurrentHashMap<>();
+    private final Map<Long, Set<Long>> idsByAuthor = new ConcurrentHashMap<>();
+    private volatile List<CatalogItem> popular = List.of();
+
+    public void put(CatalogItem item) {
+        CatalogItem previous = items.put(item.id(), item);
+        if (previous != null && previous.authorId() != item.authorId()) {
+            removeFromAuthor(previous);
+        }
+        idsByAuthor.computeIfAbsent(item.authorId(), authorId -> ConcurrentHashMap.newKeySet()).add(item.id());
+    }
+
+    public void remove(long id) {
+        CatalogItem previous = items.remove(id);
+        if (previous != null) {
+            removeFromAuthor(previous);
+        }
+    }
+
+    public void clear() {
+        items.clear();
+        idsByAuthor.clear();
+        popular = List.of();
+    }
+
+    public CatalogItem get(long id) {
+        return items.get(id);
+    }
+
+    public Set<Long> idsByAuthor(long authorId) {
+        return idsByAuthor.getOrDefault(authorId, Set.of());
+    }
+
+    public List<CatalogItem> popular() {
+        return popular;
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /** Recomputes the popular pool as the {@code size} highest-ranked public items. */
+    public void refreshPopular(int size, ToDoubleFunction<CatalogItem> popularity) {
+        Comparator<ScoredItem> byScore = Comparator.comparingDouble(ScoredItem::score);
+        PriorityQueue<ScoredItem> heap = new PriorityQueue<>(size + 1, byScore);
+        for (CatalogItem item : items.values()) {
+            if (item.privacyLevel() != PrivacyLevel.PUBLIC) {
+                continue;
+            }
+            heap.add(new ScoredItem(item, popularity.applyAsDouble(item)));
+            if (heap.size() > size) {
+                heap.poll();
+            }
+        }
+        List<ScoredItem> ranked = new ArrayList<>(heap);
+        ranked.sort(byScore.reversed());
+        popular = ranked.stream().map(ScoredItem::item).toList();
+    }
+
+    private void removeFromAuthor(CatalogItem item) {
+        idsByAuthor.computeIfPresent(item.authorId(), (authorId, ids) -> {
+            ids.remove(item.id());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private record ScoredItem(CatalogItem item, double score) {
+    }
+}
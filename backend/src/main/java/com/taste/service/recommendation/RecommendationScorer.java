@@ -0,0 +1,14 @@
+package com.taste.service.recommendation;
+
+/**
+ * Ranks recommendation candidates. Declare a {@code @Primary} bean of this type to replace
+ * {@link DefaultRecommendationScorer}; scores only need to be comparable with each other.
+ */
+public interface RecommendationScorer {
+
+    /** Relevance of {@code item} to {@code viewer}; higher is better. */
+    double score(ViewerProfile viewer, CatalogItem item, long nowEpochSecond);
+
+    /** Viewer-independent appeal, used to choose the shared pool of popular items. */
+    double popularity(CatalogItem item, long nowEpochSecond);
+}
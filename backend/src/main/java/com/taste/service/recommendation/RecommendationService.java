@@ -0,0 +1,332 @@
+package com.taste.service.recommendation;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taste.config.ReadYourWrites;
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.event.ChangeType;
+import com.taste.event.FollowChangedEvent;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.event.UserChangedEvent;
+import com.taste.model.Allergen;
+import com.taste.repository.CatalogFeatureRow;
+import com.taste.repository.PreferenceMaskRow;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.repository.UserRepository;
+import com.taste.service.CacheLoading;
+import com.taste.service.preference.PreferenceBitmap;
+import com.taste.service.preference.PreferenceBitmapIndex;
+import com.taste.service.privacy.VisibilityEvaluator;
+import jakarta.annotation.PreDestroy;
+import org.roaringbitmap.longlong.LongIterator;
+import org.roaringbitmap.longlong.Roaring64Bitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Personalised recipe and restaurant recommendations. Each user's top-K lists are computed
+ * from a candidate pool (content by followed authors, the newest preference-compatible items
+ * and the shared popular pool) and cached; requests only read the cache and hydrate the ids.
+ * Written content is re-ranked into every cached list in the background shortly after it
+ * commits, and lists are recomputed in the background after
+ * {@code app.recommendations.refresh-after}.
+ */
+@Service
+public class RecommendationService {
+
+    public static final int DEFAULT_LIMIT = 20;
+
+    private static final Logger logger = LoggerFactory.getLogger(RecommendationService.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final UserRepository userRepository;
+    private final PreferenceBitmapIndex preferenceIndex;
+    private final VisibilityEvaluator visibility;
+    private final RecommendationScorer scorer;
+    private final ReadYourWrites readYourWrites;
+    private final int topK;
+    private final int candidateLimit;
+    private final int popularSize;
+    private final RecommendationCatalog recipes = new RecommendationCatalog();
+    private final RecommendationCatalog restaurants = new RecommendationCatalog();
+    // Misses load through CacheLoading on the request thread; refreshes run in the background
+    private final AsyncLoadingCache<Long, UserRecommendations> cache;
+    // Changed ids not yet re-ranked into the cached lists. A burst of writes is applied in
+    // one pass over the cache, and an id written repeatedly is ranked once
+    private final Set<Long> pendingRecipes = ConcurrentHashMap.newKeySet();
+    private final Set<Long> pendingRestaurants = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean rerankScheduled = new AtomicBoolean();
+    private final ExecutorService reranker;
+
+    public RecommendationService(RecipeRepository recipeRepository,
+                                 RestaurantRepository restaurantRepository,
+                                 UserRepository userRepository,
+                                 PreferenceBitmapIndex preferenceIndex,
+                                 VisibilityEvaluator visibility,
+                                 RecommendationScorer scorer,
+                                 ReadYourWrites readYourWrites,
+                                 @Value("${app.recommendations.top-k:100}") int topK,
+                                 @Value("${app.recommendations.candidate-limit:500}") int candidateLimit,
+                                 @Value("${app.recommendations.popular-size:200}") int popularSize,
+                                 @Value("${app.recommendations.cache.max-size:10000}") long cacheSize,
+                                 @Value("${app.recommendations.cache.refresh-after:10m}") Duration refreshAfter) {
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.userRepository = userRepository;
+        this.preferenceIndex = preferenceIndex;
+        this.visibility = visibility;
+        this.scorer = scorer;
+        this.readYourWrites = readYourWrites;
+        this.topK = topK;
+        this.candidateLimit = candidateLimit;
+        this.popularSize = popularSize;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterAccess(refreshAfter.multipliedBy(6))
+                .buildAsync(this::compute);
+        this.reranker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "recommendation-rerank");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // After PreferenceBitmapIndex, whose bitmaps the candidate pools are drawn from
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(2)
+    public void load() {
+        recipes.clear();
+        restaurants.clear();
+        load(recipes, recipeRepository::findFeatureRowsAfter);
+        load(restaurants, restaurantRepository::findFeatureRowsAfter);
+        refreshPopular();
+        cache.synchronous().invalidateAll();
+        logger.info("Loaded recommendation catalog with {} recipes and {} restaurants", recipes.size(), restaurants.size());
+    }
+
+    @Scheduled(fixedDelayString = "${app.recommendations.popular-refresh:PT5M}",
+            initialDelayString = "${app.recommendations.popular-refresh:PT5M}")
+    public void refreshPopular() {
+        long now = Instant.now().getEpochSecond();
+        recipes.refreshPopular(popularSize, item -> scorer.popularity(item, now));
+        restaurants.refreshPopular(popularSize, item -> scorer.popularity(item, now));
+    }
+
+    public List<RecipeSummary> recommendRecipes(Long userId, int limit) {
+        List<Long> ids = recommendations(userId).recipes().top(clamp(limit));
+        return hydrate(ids, recipeRepository::findSummariesByIdIn, RecipeSummary::id);
+    }
+
+    public List<RestaurantSummary> recommendRestaurants(Long userId, int limit) {
+        List<Long> ids = recommendations(userId).restaurants().top(clamp(limit));
+        return hydrate(ids, restaurantRepository::findSummariesByIdIn, RestaurantSummary::id);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(1)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        Optional<CatalogItem> item = event.changeType() == ChangeType.DELETED
+                ? Optional.empty()
+                : recipeRepository.findFeatureRowById(event.recipeId()).map(CatalogItem::of);
+        apply(event.recipeId(), item, recipes, pendingRecipes);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(1)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        Optional<CatalogItem> item = event.changeType() == ChangeType.DELETED
+                ? Optional.empty()
+                : restaurantRepository.findFeatureRowById(event.restaurantId()).map(CatalogItem::of);
+        apply(event.restaurantId(), item, restaurants, pendingRestaurants);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        cache.synchronous().invalidate(event.userId());
+    }
+
+    // Either side may have gained or lost a friend, and with it FRIENDS content
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(1)
+    public void onFollowChanged(FollowChangedEvent event) {
+        cache.synchronous().invalidate(event.followerId());
+        cache.synchronous().invalidate(event.followedId());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        reranker.shutdownNow();
+    }
+
+    private UserRecommendations recommendations(Long userId) {
+        return CacheLoading.get(cache, userId, this::compute);
+    }
+
+    // Follows and friends just changed for users in the read-your-writes window
+    private UserRecommendations compute(Long userId) {
+        return readYourWrites.read(userId, () -> rank(userId));
+    }
+
+    private UserRecommendations rank(Long userId) {
+        ViewerProfile viewer = loadViewer(userId);
+        long now = Instant.now().getEpochSecond();
+        return new UserRecommendations(viewer,
+                rank(viewer, recipes, preferenceIndex.recipes(), true, now),
+                rank(viewer, restaurants, preferenceIndex.restaurants(), false, now));
+    }
+
+    private ViewerProfile loadViewer(Long userId) {
+        PreferenceMaskRow masks = userRepository.findMaskRowById(userId)
+                .orElse(new PreferenceMaskRow(userId, (short) 0, 0L));
+        short dietaryMask = masks.dietaryMask() != null ? masks.dietaryMask() : 0;
+        long allergenMask = masks.allergenMask() != null ? masks.allergenMask() : 0L;
+        Set<String> otherAllergens = (allergenMask & Allergen.OTHER_BIT) != 0
+                ? Allergen.unknownNames(userRepository.findAllergyNamesById(userId))
+                : Set.of();
+        return new ViewerProfile(userId, dietaryMask, allergenMask, otherAllergens,
+                Set.copyOf(userRepository.findFollowingIds(userId)), visibility.scopeFor(userId));
+    }
+
+    private RankedList rank(ViewerProfile viewer, RecommendationCatalog catalog, PreferenceBitmap bitmap,
+                            boolean allergenAware, long now) {
+        Set<Long> candidates = new HashSet<>();
+        for (Long authorId : viewer.followingIds()) {
+            candidates.addAll(catalog.idsByAuthor(authorId));
+        }
+        for (CatalogItem item : catalog.popular()) {
+            candidates.add(item.id());
+        }
+        // Ids grow with creation time, so walking the bitmap backwards yields the newest first
+        Roaring64Bitmap compatible = bitmap.compatibleWith(viewer.dietaryMask(),
+                allergenAware ? viewer.allergenMask() : 0L,
+                allergenAware ? viewer.otherAllergens() : Set.of());
+        LongIterator newest = compatible.getReverseLongIterator();
+        int taken = 0;
+        while (newest.hasNext() && taken < candidateLimit) {
+            CatalogItem item = catalog.get(newest.next());
+            if (item != null && viewer.canBeRecommended(item) && candidates.add(item.id())) {
+                taken++;
+            }
+        }
+
+        RankedList ranked = new RankedList(topK);
+        for (Long id : candidates) {
+            CatalogItem item = catalog.get(id);
+            if (item != null && isEligible(viewer, item, bitmap, allergenAware)) {
+                ranked.offer(id, scorer.score(viewer, item, now));
+            }
+        }
+        return ranked;
+    }
+
+    private boolean isEligible(ViewerProfile viewer, CatalogItem item, PreferenceBitmap bitmap, boolean allergenAware) {
+        return viewer.canBeRecommended(item)
+                && (!allergenAware || bitmap.isSafeFor(item.id(), viewer.allergenMask(), viewer.otherAllergens()));
+    }
+
+    // Lists computed from now on see the change; those already cached are re-ranked later
+    private void apply(long id, Optional<CatalogItem> item, RecommendationCatalog catalog, Set<Long> pending) {
+        item.ifPresentOrElse(catalog::put, () -> catalog.remove(id));
+        pending.add(id);
+        if (rerankScheduled.compareAndSet(false, true)) {
+            reranker.execute(this::rerank);
+        }
+    }
+
+    private void rerank() {
+        // Cleared first, so an id added during this pass schedules another one
+        rerankScheduled.set(false);
+        try {
+            rerank(pendingRecipes, recipes, preferenceIndex.recipes(), UserRecommendations::recipes, true);
+            rerank(pendingRestaurants, restaurants, preferenceIndex.restaurants(), UserRecommendations::restaurants, false);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to re-rank cached recommendations", e);
+        }
+    }
+
+    private void rerank(Set<Long> pending, RecommendationCatalog catalog, PreferenceBitmap bitmap,
+                        Function<UserRecommendations, RankedList> list, boolean allergenAware) {
+        List<Long> ids = new ArrayList<>();
+        for (Iterator<Long> it = pending.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        // The catalog holds the latest committed state, so each id is ranked as it is now
+        long now = Instant.now().getEpochSecond();
+        for (UserRecommendations recommendations : cache.synchronous().asMap().values()) {
+            ViewerProfile viewer = recommendations.viewer();
+            RankedList ranked = list.apply(recommendations);
+            for (Long id : ids) {
+                CatalogItem item = catalog.get(id);
+                if (item != null && isEligible(viewer, item, bitmap, allergenAware)) {
+                    ranked.offer(id, scorer.score(viewer, item, now));
+                } else {
+                    ranked.remove(id);
+                }
+            }
+        }
+    }
+
+    private void load(RecommendationCatalog catalog, BiFunction<Long, Pageable, List<CatalogFeatureRow>> nextBatch) {
+        long afterId = 0;
+        List<CatalogFeatureRow> rows;
+        while (!(rows = nextBatch.apply(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE))).isEmpty()) {
+            for (CatalogFeatureRow row : rows) {
+                catalog.put(CatalogItem.of(row));
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+    }
+
+    private int clamp(int limit) {
+        return limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, topK);
+    }
+
+    private static <T> List<T> hydrate(List<Long> ids, Function<Collection<Long>, List<T>> query, Function<T, Long> idOf) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<T> rows = query.apply(ids);
+        Map<Long, T> byId = rows.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,8 @@
+package com.taste.service.recommendation;
+
+/**
+ * A user's precomputed top-K recipes and restaurants, together with the profile they were
+ * scored against so single changed items can be re-ranked without recomputing the pool.
+ */
+record UserRecommendations(ViewerProfile viewer, RankedList recipes, RankedList restaurants) {
+}
@@ -0,0 +1,30 @@
+package com.taste.service.recommendation;
+
+import com.taste.service.privacy.ViewerScope;
+
+import java.util.Set;
+
+/**
+ * What the engine knows about the user it is recommending for, captured when their
+ * candidate pool is computed.
+ */
+public record ViewerProfile(
+        long userId,
+        short dietaryMask,
+        long allergenMask,
+        Set<String> otherAllergens,
+        Set<Long> followingIds,
+        ViewerScope scope) {
+
+    public boolean follows(long authorId) {
+        return followingIds.contains(authorId);
+    }
+
+    /** Visible to this viewer and not their own. */
+    public boolean canBeRecommended(CatalogItem item) {
+        if (item.authorId() == userId) {
+            return false;
+        }
+        return scope.canView(item.authorId(), item.privacyLevel());
+    }
+}
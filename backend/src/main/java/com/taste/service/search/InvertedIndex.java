@@ -0,0 +1,191 @@
+package com.taste.service.search;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongPredicate;
+
+/**
+ * Term → postings index with BM25 ranking. Documents are supplied as pre-weighted term
+ * frequencies, so callers decide how much each field counts. Terms are kept sorted,
+ * which makes prefix expansion a range scan.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final NavigableMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    private final Map<Long, IndexedDocument> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private long totalLength;
+
+    private record IndexedDocument(String[] terms, int length) {}
+
+    public void index(long id, Map<String, Integer> termFrequencies) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+            int length = 0;
+            for (Map.Entry<String, Integer> entry : termFrequencies.entrySet()) {
+                postings.computeIfAbsent(entry.getKey(), term -> new HashMap<>()).put(id, entry.getValue());
+                length += entry.getValue();
+            }
+            documents.put(id, new IndexedDocument(termFrequencies.keySet().toArray(new String[0]), length));
+            totalLength += length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns documents matching every query term, best first. When {@code prefixLast} is set the
+     * final term also matches any indexed term that starts with it, which is what a search box
+     * needs while the user is still typing.
+     */
+    public List<SearchHit> search(List<String> queryTerms, boolean prefixLast, LongPredicate filter) {
+        if (queryTerms.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return List.of();
+            }
+            double averageLength = (double) totalLength / documents.size();
+            Map<Long, Double> scores = null;
+            for (int i = 0; i < queryTerms.size(); i++) {
+                boolean prefix = prefixLast && i == queryTerms.size() - 1;
+                Map<Long, Double> termScores = scoreTerm(queryTerms.get(i), prefix, averageLength, filter);
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    Map<Long, Double> intersection = new HashMap<>();
+                    for (Map.Entry<Long, Double> entry : scores.entrySet()) {
+                        Double termScore = termScores.get(entry.getKey());
+                        if (termScore != null) {
+                            intersection.put(entry.getKey(), entry.getValue() + termScore);
+                        }
+                    }
+                    scores = intersection;
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            List<SearchHit> hits = new ArrayList<>(scores.size());
+            scores.forEach((id, score) -> hits.add(new SearchHit(id, score)));
+            hits.sort(Comparator.comparingDouble(SearchHit::score).reversed()
+                    .thenComparing(Comparator.comparingLong(SearchHit::id).reversed()));
+            return hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreTerm(String term, boolean prefix, double averageLength, LongPredicate filter) {
+        Map<Long, Double> scores = new HashMap<>();
+        Map<String, Map<Long, Integer>> matches;
+        if (prefix) {
+            matches = expandPrefix(term);
+        } else {
+            Map<Long, Integer> exact = postings.get(term);
+            matches = exact != null ? Map.of(term, exact) : Map.of();
+        }
+
+        int documentCount = documents.size();
+        for (Map.Entry<String, Map<Long, Integer>> match : matches.entrySet()) {
+            Map<Long, Integer> postingList = match.getValue();
+            double idf = Math.log(1 + (documentCount - postingList.size() + 0.5) / (postingList.size() + 0.5));
+            // Completions rank slightly below an exact hit on the typed term
+            double boost = match.getKey().equals(term) ? 1.0 : 0.8;
+            for (Map.Entry<Long, Integer> posting : postingList.entrySet()) {
+                long id = posting.getKey();
+                if (filter != null && !filter.test(id)) {
+                    continue;
+                }
+                int tf = posting.getValue();
+                int length = documents.get(id).length();
+                double norm = tf * (K1 + 1) / (tf + K1 * (1 - B + B * length / averageLength));
+                scores.merge(id, boost * idf * norm, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    // The typed term itself plus the completions found in the most documents, so a short
+    // prefix expands to common words rather than to whichever sort first
+    private Map<String, Map<Long, Integer>> expandPrefix(String prefix) {
+        Map<String, Map<Long, Integer>> matches = new HashMap<>();
+        PriorityQueue<Map.Entry<String, Map<Long, Integer>>> mostFrequent = new PriorityQueue<>(
+                Comparator.comparingInt((Map.Entry<String, Map<Long, Integer>> entry) -> entry.getValue().size())
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+        for (Map.Entry<String, Map<Long, Integer>> entry
+                : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).entrySet()) {
+            if (entry.getKey().equals(prefix)) {
+                matches.put(entry.getKey(), entry.getValue());
+                continue;
+            }
+            mostFrequent.add(entry);
+            if (mostFrequent.size() > MAX_PREFIX_EXPANSIONS - matches.size()) {
+                mostFrequent.poll();
+            }
+        }
+        mostFrequent.forEach(entry -> matches.put(entry.getKey(), entry.getValue()));
+        return matches;
+    }
+
+    private void removeInternal(long id) {
+        IndexedDocument existing = documents.remove(id);
+        if (existing == null) {
+            return;
+        }
+        for (String term : existing.terms()) {
+            Map<Long, Integer> postingList = postings.get(term);
+            if (postingList != null) {
+                postingList.remove(id);
+                if (postingList.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+        totalLength -= existing.length();
+    }
+}
@@ -0,0 +1,88 @@
+package com.taste.service.search;
+
+import com.taste.model.PrivacyLevel;
+import com.taste.model.Recipe;
+import com.taste.model.RecipeIngredient;
+import com.taste.service.privacy.ViewerScope;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory full-text index over recipe title, description, tags, categories and
+ * ingredient names. Kept current by {@link RecipeSearchIndexer}.
+ */
+@Component
+public class RecipeSearchIndex {
+
+    // Field weights: a hit in the title matters more than one in the description
+    private static final int TITLE_WEIGHT = 3;
+    private static final int TAG_WEIGHT = 2;
+    private static final int CATEGORY_WEIGHT = 2;
+    private static final int INGREDIENT_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private final InvertedIndex index = new InvertedIndex();
+    // Who may see each indexed recipe, so hits are filtered per viewer without loading them
+    private final Map<Long, Audience> audiences = new ConcurrentHashMap<>();
+
+    private record Audience(Long authorId, PrivacyLevel privacyLevel) {}
+
+    public void index(Recipe recipe) {
+        Map<String, Integer> terms = new HashMap<>();
+        addField(terms, recipe.getTitle(), TITLE_WEIGHT);
+        addField(terms, recipe.getDescription(), DESCRIPTION_WEIGHT);
+        addFields(terms, recipe.getTags(), TAG_WEIGHT);
+        addFields(terms, recipe.getCategories(), CATEGORY_WEIGHT);
+        for (RecipeIngredient ingredient : recipe.getIngredients()) {
+            addField(terms, ingredient.getName(), INGREDIENT_WEIGHT);
+        }
+
+        index.index(recipe.getId(), terms);
+        audiences.put(recipe.getId(), new Audience(
+                recipe.getAuthor() != null ? recipe.getAuthor().getId() : null, recipe.getPrivacyLevel()));
+    }
+
+    public void remove(long recipeId) {
+        index.remove(recipeId);
+        audiences.remove(recipeId);
+    }
+
+    public void clear() {
+        index.clear();
+        audiences.clear();
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    /** Matching recipes the viewer may see, best first. */
+    public List<SearchHit> search(String query, ViewerScope scope) {
+        // A trailing separator means the last word is complete; otherwise treat it as a prefix
+        boolean prefixLast = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+        List<String> terms = TextAnalyzer.tokenizeQuery(query, prefixLast);
+        return index.search(terms, prefixLast, id -> {
+            Audience audience = audiences.get(id);
+            return audience != null && scope.canView(audience.authorId(), audience.privacyLevel());
+        });
+    }
+
+    private static void addFields(Map<String, Integer> terms, Collection<String> values, int weight) {
+        if (values != null) {
+            for (String value : values) {
+                addField(terms, value, weight);
+            }
+        }
+    }
+
+    private static void addField(Map<String, Integer> terms, String text, int weight) {
+        for (String token : TextAnalyzer.tokenize(text)) {
+            terms.merge(token, weight, Integer::sum);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.taste.service.search;
+
+import com.taste.event.ChangeType;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.model.Recipe;
+import com.taste.repository.RecipeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Loads the recipe search index at startup and applies committed recipe changes to it.
+ */
+@Component
+public class RecipeSearchIndexer {
+
+    private static final Logger logger = LoggerFactory.getLogger(RecipeSearchIndexer.class);
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    private final RecipeRepository recipeRepository;
+    private final RecipeSearchIndex searchIndex;
+    private final TransactionTemplate readOnlyTransaction;
+    private final TransactionTemplate primaryTransaction;
+
+    public RecipeSearchIndexer(RecipeRepository recipeRepository, RecipeSearchIndex searchIndex,
+                               PlatformTransactionManager transactionManager) {
+        this.recipeRepository = recipeRepository;
+        this.searchIndex = searchIndex;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        // Not read-only: a replica may not have applied the commit being indexed yet
+        this.primaryTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        searchIndex.clear();
+        long afterId = 0;
+        while (true) {
+            final long cursor = afterId;
+            List<Long> ids = recipeRepository.findIdsAfter(cursor, PageRequest.ofSize(REBUILD_BATCH_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            readOnlyTransaction.executeWithoutResult(status ->
+                    recipeRepository.findWithIngredientsByIdIn(ids).forEach(searchIndex::index));
+            afterId = ids.get(ids.size() - 1);
+        }
+        logger.info("Indexed {} recipes for search in {} ms", searchIndex.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.recipeId() == null) {
+            return;
+        }
+        if (event.changeType() == ChangeType.DELETED) {
+            searchIndex.remove(event.recipeId());
+            return;
+        }
+        // After a commit the writing transaction's connection is still bound, and the reload
+        // reuses it; a new transaction here would hold a second connection until it finished
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            reindex(event.recipeId());
+        } else {
+            primaryTransaction.executeWithoutResult(status -> reindex(event.recipeId()));
+        }
+    }
+
+    // Reload so the index sees committed state, including lazily mapped ingredients
+    private void reindex(Long recipeId) {
+        recipeRepository.findWithIngredientsById(recipeId)
+                .ifPresentOrElse(searchIndex::index, () -> searchIndex.remove(recipeId));
+    }
+}
@@ -0,0 +1,77 @@
+package com.taste.service.search;
+
+import com.taste.model.Recipe;
+import com.taste.repository.RecipeRepository;
+import com.taste.service.privacy.ViewerScope;
+import com.taste.service.privacy.VisibilityEvaluator;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked, paged recipe search backed by {@link RecipeSearchIndex}. Hits are limited to
+ * what the viewer may see before paging, and only the requested page of recipes is loaded
+ * from the database.
+ */
+@Service
+public class RecipeSearchService {
+
+    private final RecipeSearchIndex searchIndex;
+    private final RecipeRepository recipeRepository;
+    private final VisibilityEvaluator visibility;
+
+    public RecipeSearchService(RecipeSearchIndex searchIndex, RecipeRepository recipeRepository,
+                               VisibilityEvaluator visibility) {
+        this.searchIndex = searchIndex;
+        this.recipeRepository = recipeRepository;
+        this.visibility = visibility;
+    }
+
+    public Page<SearchHit> searchHits(Long viewerId, String query, Pageable pageable) {
+        return searchHits(visibility.scopeFor(viewerId), query, pageable);
+    }
+
+    /** Recipes matching the query that the viewer may see; public ones only for a null viewer. */
+    @Transactional(readOnly = true)
+    public Page<Recipe> searchRecipes(Long viewerId, String query, Pageable pageable) {
+        ViewerScope scope = visibility.scopeFor(viewerId);
+        return load(scope, searchHits(scope, query, pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public Page<Recipe> searchPublicRecipes(String query, Pageable pageable) {
+        return searchRecipes(null, query, pageable);
+    }
+
+    private Page<SearchHit> searchHits(ViewerScope scope, String query, Pageable pageable) {
+        if (query == null || query.isBlank()) {
+            return Page.empty(pageable);
+        }
+        List<SearchHit> hits = searchIndex.search(query, scope);
+        int from = (int) Math.min(pageable.getOffset(), hits.size());
+        int to = Math.min(from + pageable.getPageSize(), hits.size());
+        return new PageImpl<>(hits.subList(from, to), pageable, hits.size());
+    }
+
+    private Page<Recipe> load(ViewerScope scope, Page<SearchHit> hits) {
+        Map<Long, Integer> rank = new HashMap<>();
+        for (SearchHit hit : hits.getContent()) {
+            rank.put(hit.id(), rank.size());
+        }
+        List<Recipe> recipes = new ArrayList<>(recipeRepository.findListByIdIn(rank.keySet()));
+        // Checked again on the loaded rows, which a change may have committed to since indexing
+        recipes.removeIf(recipe -> !scope.canView(
+                recipe.getAuthor() != null ? recipe.getAuthor().getId() : null, recipe.getPrivacyLevel()));
+        recipes.sort(Comparator.comparingInt(recipe -> rank.get(recipe.getId())));
+        // A recipe deleted or hidden since the hit was computed simply drops out of the page
+        return new PageImpl<>(recipes, hits.getPageable(), hits.getTotalElements());
+    }
+}
@@ -0,0 +1,4 @@
+package com.taste.service.search;
+
+public record SearchHit(long id, double score) {
+}
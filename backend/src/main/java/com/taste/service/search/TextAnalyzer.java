@@ -0,0 +1,58 @@
+package com.taste.service.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Splits free text into lower-cased, accent-folded terms for the in-memory indexes.
+ */
+public final class TextAnalyzer {
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "by", "for", "from", "in", "is",
+            "of", "on", "or", "the", "to", "with");
+
+    private TextAnalyzer() {}
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return folded.toLowerCase(Locale.ROOT);
+    }
+
+    public static List<String> tokenize(String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * Tokenizes a search-box query. With {@code prefixLast} the final word is still being
+     * typed, so it is kept even when it reads as a stop word: "an" may yet become "anchovy".
+     */
+    public static List<String> tokenizeQuery(String text, boolean prefixLast) {
+        return tokenize(text, prefixLast);
+    }
+
+    private static List<String> tokenize(String text, boolean keepLast) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        String[] words = SEPARATORS.split(normalize(text));
+        for (int i = 0; i < words.length; i++) {
+            String token = words[i];
+            if (!token.isEmpty() && (!STOP_WORDS.contains(token) || keepLast && i == words.length - 1)) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
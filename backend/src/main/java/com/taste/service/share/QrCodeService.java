@@ -0,0 +1,221 @@
+package com.taste.service.share;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.google.zxing.common.BitMatrix;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * QR codes for share links. Each link is encoded once and rasterized per requested size
+ * and format; the images live in a byte-bounded in-memory LRU that spills to a disk tier
+ * on eviction. Encoding and rasterizing run on a small bounded pool, and requests beyond
+ * its queue are rejected rather than queued onto request threads.
+ *
+ * <p>Which content a token shares is cached next to the images, so a cached image is
+ * served without a database round trip. Every committed change to the content drops the
+ * entry, which is how a revoked or replaced token stops resolving. Tokens that share
+ * nothing are not cached, so a newly shared link resolves at once.
+ */
+@Service
+public class QrCodeService {
+
+    public static final int DEFAULT_SIZE = 256;
+
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final String linkBase;
+    private final List<Integer> sizes;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor renderPool;
+    private final QrDiskStore diskStore;
+    private final Cache<String, BitMatrix> matrices;
+    private final AsyncCache<QrKey, QrImage> images;
+    private final Cache<SharedToken, Long> sharedContent;
+    private final Map<SharedContent, String> tokenByContent = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+
+    public QrCodeService(RecipeRepository recipeRepository,
+                         RestaurantRepository restaurantRepository,
+                         @Value("${app.share.link-base:http://localhost:3000/shared}") String linkBase,
+                         @Value("${app.qr.sizes:128,256,512,1024}") List<Integer> sizes,
+                         @Value("${app.qr.cache.max-size:32MB}") DataSize cacheSize,
+                         @Value("${app.qr.disk.dir:cache/qr}") Path diskDir,
+                         @Value("${app.qr.disk.max-size:256MB}") DataSize diskSize,
+                         @Value("${app.qr.render.threads:2}") int threads,
+                         @Value("${app.qr.render.queue-capacity:64}") int queueCapacity) {
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.linkBase = linkBase.endsWith("/") ? linkBase.substring(0, linkBase.length() - 1) : linkBase;
+        this.sizes = List.copyOf(sizes);
+        this.queueCapacity = queueCapacity;
+        this.renderPool = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), renderThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+        this.diskStore = new QrDiskStore(diskDir, diskSize.toBytes());
+        this.matrices = Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.images = Caffeine.newBuilder()
+                .maximumWeight(cacheSize.toBytes())
+                .weigher((QrKey key, QrImage image) -> image.weight())
+                .removalListener((QrKey key, QrImage image, RemovalCause cause) -> {
+                    if (cause.wasEvicted() && key != null && image != null) {
+                        diskStore.write(key, image.bytes());
+                    }
+                })
+                .buildAsync();
+        this.sharedContent = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .evictionListener((SharedToken key, Long contentId, RemovalCause cause) -> {
+                    if (key != null && contentId != null) {
+                        tokenByContent.remove(new SharedContent(key.target(), contentId), key.token());
+                    }
+                })
+                .build();
+    }
+
+    public boolean isShared(ShareTarget target, String token) {
+        checkToken(token);
+        SharedToken key = new SharedToken(target, token);
+        if (sharedContent.getIfPresent(key) != null) {
+            return true;
+        }
+        long seen = changes.get();
+        Optional<Long> contentId = switch (target) {
+            case RECIPE -> recipeRepository.findIdByShareToken(token);
+            case RESTAURANT -> restaurantRepository.findIdByShareToken(token);
+        };
+        if (contentId.isEmpty()) {
+            return false;
+        }
+        // The reverse entry goes in first, so a change committing from here on finds the
+        // token; one that committed since the lookup may have missed it, and drops it below
+        tokenByContent.put(new SharedContent(target, contentId.get()), token);
+        sharedContent.put(key, contentId.get());
+        if (changes.get() != seen) {
+            sharedContent.invalidate(key);
+        }
+        return true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        forget(new SharedContent(ShareTarget.RECIPE, event.recipeId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        forget(new SharedContent(ShareTarget.RESTAURANT, event.restaurantId()));
+    }
+
+    private void forget(SharedContent content) {
+        changes.incrementAndGet();
+        String token = content.id() == null ? null : tokenByContent.remove(content);
+        if (token != null) {
+            sharedContent.invalidate(new SharedToken(content.target(), token));
+        }
+    }
+
+    /**
+     * The QR code for a share link. Completes immediately when the image is in memory;
+     * throws {@link RejectedExecutionException} when it has to be rendered and the render
+     * queue is full.
+     */
+    public CompletableFuture<QrImage> getQrCode(ShareTarget target, String token, QrFormat format, int size) {
+        checkToken(token);
+        if (!sizes.contains(size)) {
+            throw new IllegalArgumentException("QR size must be one of " + sizes);
+        }
+        return images.get(new QrKey(target, token, format, size),
+                (key, executor) -> CompletableFuture.supplyAsync(() -> load(key), renderPool));
+    }
+
+    private QrImage load(QrKey key) {
+        byte[] spilled = diskStore.read(key);
+        if (spilled != null) {
+            return QrImage.of(spilled, key.format());
+        }
+        String link = linkBase + "/" + key.target().getPath() + "/" + key.token();
+        BitMatrix matrix = matrices.getIfPresent(link);
+        if (matrix == null) {
+            matrix = matrices.get(link, QrRenderer::encode);
+            prerenderSiblings(key);
+        }
+        return QrImage.of(QrRenderer.render(matrix, key.format(), key.size()), key.format());
+    }
+
+    // A freshly shared link is usually fetched at several sizes in quick succession, so the
+    // other variants are rendered from the same matrix while the pool has spare capacity
+    private void prerenderSiblings(QrKey rendered) {
+        for (QrFormat format : QrFormat.values()) {
+            for (int size : sizes) {
+                if (renderPool.getQueue().remainingCapacity() <= queueCapacity / 2) {
+                    return;
+                }
+                QrKey sibling = new QrKey(rendered.target(), rendered.token(), format, size);
+                if (!sibling.equals(rendered) && images.getIfPresent(sibling) == null) {
+                    try {
+                        images.get(sibling, (key, executor) -> CompletableFuture.supplyAsync(() -> load(key), renderPool));
+                    } catch (RejectedExecutionException e) {
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void checkToken(String token) {
+        if (token == null || !TOKEN.matcher(token).matches()) {
+            throw new IllegalArgumentException("Malformed share token");
+        }
+    }
+
+    private static ThreadFactory renderThreadFactory() {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "qr-render-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record SharedToken(ShareTarget target, String token) {
+    }
+
+    private record SharedContent(ShareTarget target, Long id) {
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renderPool.shutdownNow();
+    }
+}
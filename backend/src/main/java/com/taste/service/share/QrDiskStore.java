@@ -0,0 +1,118 @@
+package com.taste.service.share;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Second cache tier for QR images evicted from memory. Rendering is deterministic, so
+ * files stay valid across restarts. Reads bump the modification time, and when the
+ * directory outgrows its budget the least recently used files are removed.
+ */
+final class QrDiskStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(QrDiskStore.class);
+
+    private final Path directory;
+    private final long maxBytes;
+    private final AtomicLong usedBytes = new AtomicLong();
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    QrDiskStore(Path directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                usedBytes.set(files.mapToLong(QrDiskStore::sizeOf).sum());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open QR cache directory " + directory, e);
+        }
+    }
+
+    byte[] read(QrKey key) {
+        Path file = directory.resolve(key.fileName());
+        try {
+            byte[] bytes = Files.readAllBytes(file);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return bytes;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Failed to read cached QR image {}", file, e);
+            return null;
+        }
+    }
+
+    void write(QrKey key, byte[] bytes) {
+        Path file = directory.resolve(key.fileName());
+        if (Files.exists(file)) {
+            return;
+        }
+        try {
+            // Written aside and moved into place, so a reader never sees a partial file
+            Path temp = Files.createTempFile(directory, ".qr", ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            if (usedBytes.addAndGet(bytes.length) > maxBytes) {
+                prune();
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to spill QR image {}", file, e);
+        }
+    }
+
+    private void prune() {
+        if (!pruning.compareAndSet(false, true)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> oldestFirst = files
+                    .sorted(Comparator.comparing(QrDiskStore::lastModified))
+                    .toList();
+            long target = maxBytes * 9 / 10;
+            for (Path file : oldestFirst) {
+                if (usedBytes.get() <= target) {
+                    break;
+                }
+                long size = sizeOf(file);
+                if (Files.deleteIfExists(file)) {
+                    usedBytes.addAndGet(-size);
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to prune QR cache directory {}", directory, e);
+        } finally {
+            pruning.set(false);
+        }
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
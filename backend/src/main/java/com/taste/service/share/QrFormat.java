@@ -0,0 +1,29 @@
+package com.taste.service.share;
+
+import java.util.Locale;
+
+public enum QrFormat {
+    PNG("image/png", "png"),
+    SVG("image/svg+xml", "svg");
+
+    private final String contentType;
+    private final String extension;
+
+    QrFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() { return contentType; }
+
+    public String getExtension() { return extension; }
+
+    public static QrFormat parse(String value) {
+        for (QrFormat format : values()) {
+            if (format.extension.equals(value.toLowerCase(Locale.ROOT))) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported QR format: " + value);
+    }
+}
@@ -0,0 +1,36 @@
+package com.taste.service.share;
+
+import com.taste.service.ETags;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * A rendered QR code. The ETag is derived from the bytes themselves, so it is a strong
+ * validator whether the image was just rendered or read back from the disk tier.
+ */
+public record QrImage(byte[] bytes, QrFormat format, String etag) {
+
+    static QrImage of(byte[] bytes, QrFormat format) {
+        return new QrImage(bytes, format, etagOf(bytes));
+    }
+
+    private static String etagOf(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(bytes);
+            return '"' + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + '"';
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public boolean matches(String ifNoneMatch) {
+        return ETags.matches(ifNoneMatch, etag);
+    }
+
+    int weight() {
+        return bytes.length + etag.getBytes(StandardCharsets.US_ASCII).length;
+    }
+}
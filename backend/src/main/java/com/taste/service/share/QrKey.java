@@ -0,0 +1,10 @@
+package com.taste.service.share;
+
+/** One rendered variant of a share token's QR code. */
+record QrKey(ShareTarget target, String token, QrFormat format, int size) {
+
+    /** The disk-tier file name; tokens are validated to a filename-safe alphabet. */
+    String fileName() {
+        return target.getPath() + "-" + token + "-" + size + "." + format.getExtension();
+    }
+}
@@ -0,0 +1,121 @@
+package com.taste.service.share;
+
+import com.google.zxing.BarcodeFormat;
+import com.google.zxing.EncodeHintType;
+import com.google.zxing.WriterException;
+import com.google.zxing.common.BitMatrix;
+import com.google.zxing.qrcode.QRCodeWriter;
+import com.google.zxing.qrcode.decoder.ErrorCorrectionLevel;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.MemoryCacheImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/**
+ * Encodes a link into a module matrix once, then rasterizes that matrix at any size.
+ * Sizes are rounded to whole pixels per module so edges stay sharp for scanners.
+ */
+final class QrRenderer {
+
+    private static final int QUIET_ZONE = 4;
+    private static final Map<EncodeHintType, Object> HINTS = Map.of(
+            EncodeHintType.ERROR_CORRECTION, ErrorCorrectionLevel.M,
+            EncodeHintType.CHARACTER_SET, StandardCharsets.UTF_8.name(),
+            EncodeHintType.MARGIN, 0);
+
+    private QrRenderer() {}
+
+    static BitMatrix encode(String content) {
+        try {
+            // A zero size asks for one pixel per module, which is the matrix itself
+            return new QRCodeWriter().encode(content, BarcodeFormat.QR_CODE, 0, 0, HINTS);
+        } catch (WriterException e) {
+            throw new IllegalArgumentException("Cannot encode QR content", e);
+        }
+    }
+
+    static byte[] render(BitMatrix matrix, QrFormat format, int size) {
+        return format == QrFormat.PNG ? png(matrix, size) : svg(matrix, size);
+    }
+
+    private static byte[] png(BitMatrix matrix, int size) {
+        int modules = matrix.getWidth() + 2 * QUIET_ZONE;
+        int scale = Math.max(1, size / modules);
+        int dimension = Math.max(size, modules);
+        int offset = (dimension - modules * scale) / 2 + QUIET_ZONE * scale;
+
+        // One bit per pixel keeps both the raster and the deflate input small
+        BufferedImage image = new BufferedImage(dimension, dimension, BufferedImage.TYPE_BYTE_BINARY);
+        Graphics2D graphics = image.createGraphics();
+        try {
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, dimension, dimension);
+            graphics.setColor(Color.BLACK);
+            for (int y = 0; y < matrix.getHeight(); y++) {
+                int x = 0;
+                while (x < matrix.getWidth()) {
+                    if (!matrix.get(x, y)) {
+                        x++;
+                        continue;
+                    }
+                    int start = x;
+                    while (x < matrix.getWidth() && matrix.get(x, y)) {
+                        x++;
+                    }
+                    graphics.fillRect(offset + start * scale, offset + y * scale, (x - start) * scale, scale);
+                }
+            }
+        } finally {
+            graphics.dispose();
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream(dimension * dimension / 16);
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("png").next();
+        // ImageIO.write would buffer through a temp file unless the global cache flag is off
+        try (MemoryCacheImageOutputStream stream = new MemoryCacheImageOutputStream(out)) {
+            writer.setOutput(stream);
+            writer.write(image);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] svg(BitMatrix matrix, int size) {
+        int modules = matrix.getWidth() + 2 * QUIET_ZONE;
+        StringBuilder svg = new StringBuilder(256 + matrix.getWidth() * matrix.getHeight());
+        svg.append("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"").append(size)
+                .append("\" height=\"").append(size)
+                .append("\" viewBox=\"0 0 ").append(modules).append(' ').append(modules)
+                .append("\" shape-rendering=\"crispEdges\">")
+                .append("<rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+        // One subpath per horizontal run of dark modules
+        for (int y = 0; y < matrix.getHeight(); y++) {
+            int x = 0;
+            while (x < matrix.getWidth()) {
+                if (!matrix.get(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < matrix.getWidth() && matrix.get(x, y)) {
+                    x++;
+                }
+                svg.append('M').append(start + QUIET_ZONE).append(' ').append(y + QUIET_ZONE)
+                        .append('h').append(x - start).append("v1h-").append(x - start).append('z');
+            }
+        }
+        svg.append("\"/></svg>");
+        return svg.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,24 @@
+package com.taste.service.share;
+
+/** The kinds of content a share token can point at; the path segment is used in links and URLs. */
+public enum ShareTarget {
+    RECIPE("recipes"),
+    RESTAURANT("restaurants");
+
+    private final String path;
+
+    ShareTarget(String path) {
+        this.path = path;
+    }
+
+    public String getPath() { return path; }
+
+    public static ShareTarget fromPath(String path) {
+        for (ShareTarget target : values()) {
+            if (target.path.equals(path)) {
+                return target;
+            }
+        }
+        throw new IllegalArgumentException("Unknown share target: " + path);
+    }
+}
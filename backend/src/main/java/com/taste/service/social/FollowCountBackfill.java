@@ -0,0 +1,44 @@
+package com.taste.service.social;
+
+import com.taste.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Recounts the follower and following counter columns from {@code user_follows} at
+ * startup, which fills them for edges written before they existed and repairs any drift.
+ * Runs in id ranges so no single statement locks the whole users table.
+ */
+@Component
+public class FollowCountBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(FollowCountBackfill.class);
+    private static final long RANGE_SIZE = 5000;
+
+    private final UserRepository userRepository;
+    private final TransactionTemplate transaction;
+
+    public FollowCountBackfill(UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transaction = new TransactionTemplate(transactionManager);
+    }
+
+    // Ahead of TimelineService, which reads follower counts to pick fan-out modes
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    public void recount() {
+        long started = System.currentTimeMillis();
+        long maxId = userRepository.findMaxId().orElse(0L);
+        for (long afterId = 0; afterId < maxId; afterId += RANGE_SIZE) {
+            final long from = afterId;
+            transaction.executeWithoutResult(status -> userRepository.recountFollows(from, from + RANGE_SIZE));
+        }
+        logger.info("Recounted follows for users up to id {} in {} ms", maxId, System.currentTimeMillis() - started);
+    }
+}
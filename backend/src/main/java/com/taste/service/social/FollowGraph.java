@@ -0,0 +1,156 @@
+package com.taste.service.social;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.taste.config.ReadYourWrites;
+import com.taste.event.FollowChangedEvent;
+import com.taste.repository.UserRepository;
+import com.taste.service.CacheLoading;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-memory adjacency for follow checks: each user's followed ids, and separately their
+ * friends (mutual follows), as sorted {@code long[]}s, so membership is a binary search and
+ * common follows a linear merge. Lists load on first use and are bounded by total edge
+ * count. Followed lists are patched in place from committed follow changes; friend lists,
+ * which a change can affect on both sides, are dropped and reloaded. Reloads for the two
+ * users of a change read the primary for a while, so a lagging replica cannot put the old
+ * list back; lists also expire after {@code app.social.adjacency-cache.expire-after} in case
+ * a stale one slips through anyway.
+ */
+@Component
+public class FollowGraph {
+
+    private static final long[] NONE = new long[0];
+
+    private final UserRepository userRepository;
+    private final ReadYourWrites readYourWrites;
+    // Loaded through CacheLoading, so the queries run outside the caches' locks
+    private final AsyncCache<Long, long[]> following;
+    private final AsyncCache<Long, long[]> friends;
+
+    public FollowGraph(UserRepository userRepository, ReadYourWrites readYourWrites,
+                       @Value("${app.social.adjacency-cache.max-edges:4000000}") long maxEdges,
+                       @Value("${app.social.adjacency-cache.expire-after:10m}") Duration expireAfter) {
+        this.userRepository = userRepository;
+        this.readYourWrites = readYourWrites;
+        this.following = Caffeine.newBuilder()
+                .maximumWeight(maxEdges)
+                .weigher((Long userId, long[] ids) -> ids.length + 1)
+                .expireAfterWrite(expireAfter)
+                .buildAsync();
+        this.friends = Caffeine.newBuilder()
+                .maximumWeight(maxEdges)
+                .weigher((Long userId, long[] ids) -> ids.length + 1)
+                .expireAfterWrite(expireAfter)
+                .buildAsync();
+    }
+
+    public boolean follows(Long followerId, Long followedId) {
+        if (followerId == null || followedId == null) {
+            return false;
+        }
+        return Arrays.binarySearch(following(followerId), followedId) >= 0;
+    }
+
+    public boolean isMutual(Long userId, Long otherId) {
+        if (userId == null || otherId == null) {
+            return false;
+        }
+        return Arrays.binarySearch(friends(userId), otherId) >= 0;
+    }
+
+    /** Sorted ids of the users this user follows who follow them back. Shared; do not modify. */
+    public long[] friends(Long userId) {
+        return CacheLoading.get(friends, userId,
+                id -> readYourWrites.read(id, () -> sorted(userRepository.findMutualFollowIds(id))));
+    }
+
+    /** Sorted ids the user follows. The array is shared and must not be modified. */
+    public long[] following(Long userId) {
+        return CacheLoading.get(following, userId,
+                id -> readYourWrites.read(id, () -> sorted(userRepository.findFollowingIds(id))));
+    }
+
+    /** Up to {@code limit} ids, ascending, that both users follow. */
+    public long[] commonFollowing(Long userId, Long otherId, int limit) {
+        long[] left = following(userId);
+        long[] right = following(otherId);
+        long[] common = new long[Math.min(limit, Math.min(left.length, right.length))];
+        int count = 0;
+        for (int i = 0, j = 0; i < left.length && j < right.length && count < common.length; ) {
+            if (left[i] < right[j]) {
+                i++;
+            } else if (left[i] > right[j]) {
+                j++;
+            } else {
+                common[count++] = left[i];
+                i++;
+                j++;
+            }
+        }
+        return count == common.length ? common : Arrays.copyOf(common, count);
+    }
+
+    // Ahead of the listeners that re-check visibility for the same event
+    @TransactionalEventListener(fallbackExecution = true)
+    @Order(0)
+    public void onFollowChanged(FollowChangedEvent event) {
+        // Before the lists are dropped, so no reload in between can read a replica
+        readYourWrites.written(event.followerId());
+        readYourWrites.written(event.followedId());
+        // Cached lists only; the next load of an absent one reads committed state. A list still
+        // loading may predate the change, so it is dropped rather than waited for
+        following.asMap().computeIfPresent(event.followerId(), (userId, ids) -> {
+            if (!ids.isDone() || ids.isCompletedExceptionally()) {
+                return null;
+            }
+            long[] loaded = ids.join();
+            return CompletableFuture.completedFuture(event.following()
+                    ? with(loaded, event.followedId()) : without(loaded, event.followedId()));
+        });
+        friends.synchronous().invalidate(event.followerId());
+        friends.synchronous().invalidate(event.followedId());
+    }
+
+    private static long[] sorted(List<Long> ids) {
+        long[] sorted = ids.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted.length == 0 ? NONE : sorted;
+    }
+
+    private static long[] with(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index >= 0) {
+            return ids;
+        }
+        int insertAt = -index - 1;
+        long[] updated = new long[ids.length + 1];
+        System.arraycopy(ids, 0, updated, 0, insertAt);
+        updated[insertAt] = id;
+        System.arraycopy(ids, insertAt, updated, insertAt + 1, ids.length - insertAt);
+        return updated;
+    }
+
+    private static long[] without(long[] ids, long id) {
+        int index = Arrays.binarySearch(ids, id);
+        if (index < 0) {
+            return ids;
+        }
+        if (ids.length == 1) {
+            return NONE;
+        }
+        long[] updated = new long[ids.length - 1];
+        System.arraycopy(ids, 0, updated, 0, index);
+        System.arraycopy(ids, index + 1, updated, index, ids.length - index - 1);
+        return updated;
+    }
+}
@@ -0,0 +1,106 @@
+package com.taste.service.social;
+
+import com.taste.config.ReadYourWrites;
+import com.taste.dto.CursorPage;
+import com.taste.dto.FollowRelationship;
+import com.taste.dto.UserSummary;
+import com.taste.repository.FollowCounts;
+import com.taste.repository.UserRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Read side of the follow graph: counts from the users table's counter columns, adjacency
+ * lists a page at a time, and relationship checks from {@link FollowGraph}.
+ */
+@Service
+public class SocialGraphService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    private final UserRepository userRepository;
+    private final FollowGraph followGraph;
+    private final ReadYourWrites readYourWrites;
+
+    public SocialGraphService(UserRepository userRepository, FollowGraph followGraph, ReadYourWrites readYourWrites) {
+        this.userRepository = userRepository;
+        this.followGraph = followGraph;
+        this.readYourWrites = readYourWrites;
+    }
+
+    @Transactional(readOnly = true)
+    public FollowRelationship relationship(Long viewerId, Long userId) {
+        // Answered right after a follow or unfollow, which should show in the counts
+        FollowCounts counts = readYourWrites.read(userId, () -> counts(userId));
+        boolean following = followGraph.follows(viewerId, userId);
+        boolean followedBy = followGraph.follows(userId, viewerId);
+        return new FollowRelationship(userId, following, followedBy, following && followedBy,
+                counts.followers(), counts.following());
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> followers(Long userId, String cursor, Integer limit) {
+        counts(userId);
+        Pageable window = window(limit);
+        return page(userRepository.findFollowerSummariesAfter(userId, afterId(cursor), window), window);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<UserSummary> following(Long userId, String cursor, Integer limit) {
+        counts(userId);
+        Pageable window = window(limit);
+        return page(userRepository.findFollowingSummariesAfter(userId, afterId(cursor), window), window);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummary> commonFollowing(Long viewerId, Long userId, Integer limit) {
+        counts(userId);
+        long[] ids = followGraph.commonFollowing(viewerId, userId, size(limit));
+        if (ids.length == 0) {
+            return List.of();
+        }
+        return userRepository.findSummariesByIdIn(Arrays.stream(ids).boxed().toList()).stream()
+                .sorted(Comparator.comparing(UserSummary::id))
+                .toList();
+    }
+
+    private FollowCounts counts(Long userId) {
+        return userRepository.findFollowCounts(userId)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + userId));
+    }
+
+    // One extra row tells whether another page follows
+    private static Pageable window(Integer limit) {
+        return PageRequest.ofSize(size(limit) + 1);
+    }
+
+    private static int size(Integer limit) {
+        return limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static CursorPage<UserSummary> page(List<UserSummary> rows, Pageable window) {
+        if (rows.size() < window.getPageSize()) {
+            return new CursorPage<>(rows, null);
+        }
+        List<UserSummary> items = rows.subList(0, rows.size() - 1);
+        return new CursorPage<>(items, Long.toString(items.get(items.size() - 1).id()));
+    }
+
+    private static long afterId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(cursor);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
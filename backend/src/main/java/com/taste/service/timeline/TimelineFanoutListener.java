@@ -0,0 +1,157 @@
+package com.taste.service.timeline;
+
+import com.taste.event.ChangeType;
+import com.taste.event.FollowChangedEvent;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.model.PrivacyLevel;
+import com.taste.model.TimelineContentType;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.repository.TimelineEntryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes timeline rows after content or follow changes commit. Each fan-out is a single
+ * INSERT ... SELECT over the author's followers, and authors above the fan-out threshold
+ * are skipped entirely, so the cost per write stays bounded.
+ *
+ * <p>The work runs on one background thread, in its own transaction. The committing request
+ * still holds its connection while after-commit listeners run, and taking a second one
+ * there could wait forever once every connection is held that way. One thread also applies
+ * changes to the same content in commit order. The queue is unbounded because a dropped
+ * fan-out would never be retried; each entry is a small event.
+ */
+@Component
+public class TimelineFanoutListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimelineFanoutListener.class);
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final TimelineService timelineService;
+    private final int backfillSize;
+    private final TransactionTemplate transaction;
+    private final ExecutorService worker;
+
+    public TimelineFanoutListener(TimelineEntryRepository timelineEntryRepository,
+                                  RecipeRepository recipeRepository,
+                                  RestaurantRepository restaurantRepository,
+                                  TimelineService timelineService,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${app.timeline.backfill-size:50}") int backfillSize) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.timelineService = timelineService;
+        this.backfillSize = backfillSize;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.worker = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "timeline-fanout");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        submit(event, () -> transaction.executeWithoutResult(status -> syncRecipe(event)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        submit(event, () -> transaction.executeWithoutResult(status -> syncRestaurant(event)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        submit(event, () -> {
+            // Pulled until the backfill has committed, so no reader sees the author on neither path
+            if (Boolean.TRUE.equals(transaction.execute(status -> syncFollow(event)))) {
+                timelineService.resumePush(event.followedId());
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        worker.shutdown();
+        worker.awaitTermination(10, TimeUnit.SECONDS);
+    }
+
+    private void submit(Object event, Runnable work) {
+        worker.execute(() -> {
+            try {
+                work.run();
+            } catch (RuntimeException e) {
+                logger.warn("Timeline update failed for {}", event, e);
+            }
+        });
+    }
+
+    private void syncRecipe(RecipeChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED) {
+            timelineEntryRepository.deleteByContent(TimelineContentType.RECIPE, event.recipeId());
+            return;
+        }
+        recipeRepository.findById(event.recipeId()).ifPresentOrElse(
+                recipe -> sync(TimelineContentType.RECIPE, recipe.getId(), event.authorId(),
+                        recipe.getPrivacyLevel(), recipe.getCreatedAt()),
+                () -> timelineEntryRepository.deleteByContent(TimelineContentType.RECIPE, event.recipeId()));
+    }
+
+    private void syncRestaurant(RestaurantChangedEvent event) {
+        if (event.changeType() == ChangeType.DELETED) {
+            timelineEntryRepository.deleteByContent(TimelineContentType.RESTAURANT, event.restaurantId());
+            return;
+        }
+        restaurantRepository.findById(event.restaurantId()).ifPresentOrElse(
+                restaurant -> sync(TimelineContentType.RESTAURANT, restaurant.getId(), event.authorId(),
+                        restaurant.getPrivacyLevel(), restaurant.getCreatedAt()),
+                () -> timelineEntryRepository.deleteByContent(TimelineContentType.RESTAURANT, event.restaurantId()));
+    }
+
+    // True when the author is to be pushed again once this commits
+    private boolean syncFollow(FollowChangedEvent event) {
+        boolean resumePush = timelineService.refreshFanoutMode(event.followedId());
+        if (!event.following()) {
+            timelineEntryRepository.deleteByOwnerAndAuthor(event.followerId(), event.followedId());
+        } else if (!timelineService.isHighFanoutAuthor(event.followedId())) {
+            timelineEntryRepository.backfillRecipes(event.followerId(), event.followedId(), backfillSize);
+            timelineEntryRepository.backfillRestaurants(event.followerId(), event.followedId(), backfillSize);
+        }
+        if (resumePush) {
+            // What the author wrote while pulled was pushed to nobody
+            timelineEntryRepository.backfillFollowerRecipes(event.followedId(), backfillSize);
+            timelineEntryRepository.backfillFollowerRestaurants(event.followedId(), backfillSize);
+        }
+        return resumePush;
+    }
+
+    // Brings the pushed rows for one piece of content in line with its current visibility
+    private void sync(TimelineContentType type, Long contentId, Long authorId,
+                      PrivacyLevel privacyLevel, LocalDateTime createdAt) {
+        boolean pushed = timelineEntryRepository.existsByContentTypeAndContentId(type, contentId);
+        boolean shouldPush = authorId != null && privacyLevel != PrivacyLevel.PRIVATE
+                && !timelineService.isHighFanoutAuthor(authorId);
+        if (shouldPush && !pushed) {
+            timelineEntryRepository.fanOut(type.name(), contentId, authorId, createdAt, type.sortKey(contentId));
+        } else if (!shouldPush && pushed) {
+            timelineEntryRepository.deleteByContent(type, contentId);
+        }
+    }
+}
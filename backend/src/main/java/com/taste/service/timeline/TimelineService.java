@@ -0,0 +1,214 @@
+package com.taste.service.timeline;
+
+import com.taste.dto.CursorPage;
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.dto.TimelineItem;
+import com.taste.model.TimelineContentType;
+import com.taste.model.TimelineEntry;
+import com.taste.repository.FollowCounts;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.repository.TimelineEntryRepository;
+import com.taste.repository.UserRepository;
+import com.taste.service.feed.FeedCursor;
+import com.taste.service.privacy.ViewerScope;
+import com.taste.service.privacy.VisibilityEvaluator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Friend timelines. Content from ordinary authors is pushed into followers' timelines when it
+ * is written (see {@link TimelineFanoutListener}); content from authors with more than
+ * {@code app.timeline.fanout-threshold} followers is pulled at read time and merged in. An
+ * author is pushed again only once they fall {@code app.timeline.fanout-hysteresis} below
+ * the threshold, so one hovering around it does not switch back and forth.
+ */
+@Service
+public class TimelineService {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    // Bounds the reads for one page when most pushed entries are hidden from the viewer
+    private static final int MAX_PUSHED_BATCHES = 4;
+
+    // Sorts after every real row, so the first page needs no separate query
+    private static final FeedCursor HEAD = new FeedCursor(LocalDateTime.of(9999, 12, 31, 0, 0), Long.MAX_VALUE);
+
+    private static final Comparator<TimelineItem> NEWEST_FIRST = Comparator
+            .comparing(TimelineItem::createdAt)
+            .thenComparingLong(TimelineItem::sortKey)
+            .reversed();
+
+    private final TimelineEntryRepository timelineEntryRepository;
+    private final UserRepository userRepository;
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final VisibilityEvaluator visibility;
+    private final long fanoutThreshold;
+    private final long pushThreshold;
+    private final Set<Long> highFanoutAuthors = ConcurrentHashMap.newKeySet();
+
+    public TimelineService(TimelineEntryRepository timelineEntryRepository,
+                           UserRepository userRepository,
+                           RecipeRepository recipeRepository,
+                           RestaurantRepository restaurantRepository,
+                           VisibilityEvaluator visibility,
+                           @Value("${app.timeline.fanout-threshold:5000}") long fanoutThreshold,
+                           @Value("${app.timeline.fanout-hysteresis:500}") long fanoutHysteresis) {
+        this.timelineEntryRepository = timelineEntryRepository;
+        this.userRepository = userRepository;
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.visibility = visibility;
+        this.fanoutThreshold = fanoutThreshold;
+        this.pushThreshold = fanoutThreshold - fanoutHysteresis;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadHighFanoutAuthors() {
+        highFanoutAuthors.clear();
+        // Authors within the hysteresis band may have been pulled before the restart, and their
+        // content since then is in no timeline; pulling them as well only costs a merge
+        highFanoutAuthors.addAll(timelineEntryRepository.findHighFanoutAuthorIds(pushThreshold));
+    }
+
+    public boolean isHighFanoutAuthor(Long authorId) {
+        return highFanoutAuthors.contains(authorId);
+    }
+
+    /**
+     * Re-evaluates whether an author should be pulled rather than pushed after their
+     * follower count changed. Returns true when a pulled author should be pushed again: what
+     * they wrote while pulled is in no follower's timeline, so they stay pulled until the
+     * caller has backfilled it and calls {@link #resumePush}.
+     */
+    public boolean refreshFanoutMode(Long authorId) {
+        int followers = userRepository.findFollowCounts(authorId).map(FollowCounts::followers).orElse(0);
+        if (followers > fanoutThreshold) {
+            highFanoutAuthors.add(authorId);
+            return false;
+        }
+        return followers <= pushThreshold && highFanoutAuthors.contains(authorId);
+    }
+
+    public void resumePush(Long authorId) {
+        highFanoutAuthors.remove(authorId);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPage<TimelineItem> getTimeline(Long userId, String cursor, Integer limit) {
+        int size = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        FeedCursor position = cursor == null || cursor.isBlank() ? HEAD : FeedCursor.decode(cursor);
+        Pageable window = PageRequest.ofSize(size + 1);
+        ViewerScope scope = visibility.scopeFor(userId);
+
+        // Pushed entries are filtered only once hydrated, so batches are read until enough of
+        // them are visible. If the batches run out first, the page ends at the oldest entry
+        // read: anything past it has not been looked at yet, whichever path it came by.
+        List<TimelineItem> candidates = new ArrayList<>();
+        FeedCursor pushedBefore = position;
+        FeedCursor unreadBefore = null;
+        for (int batch = 0; batch < MAX_PUSHED_BATCHES; batch++) {
+            List<TimelineEntry> entries = timelineEntryRepository.findPageBefore(
+                    userId, pushedBefore.createdAt(), pushedBefore.id(), window);
+            candidates.addAll(hydrate(scope, entries));
+            if (entries.size() < window.getPageSize()) {
+                unreadBefore = null;
+                break;
+            }
+            TimelineEntry oldest = entries.get(entries.size() - 1);
+            pushedBefore = new FeedCursor(oldest.getCreatedAt(), oldest.getSortKey());
+            unreadBefore = pushedBefore;
+            if (candidates.size() > size) {
+                break;
+            }
+        }
+
+        Set<Long> pulledAuthors = highFanoutAuthors.isEmpty()
+                ? Set.of()
+                : new HashSet<>(userRepository.findFollowedIdsAmong(userId, Set.copyOf(highFanoutAuthors)));
+        if (!pulledAuthors.isEmpty()) {
+            // Already filtered for the viewer, so one window each is enough
+            Set<Long> friends = scope.friendsAmong(pulledAuthors);
+            recipeRepository.findFollowedRecipeSummariesBefore(pulledAuthors, friends, position.createdAt(), position.id(), window)
+                    .forEach(summary -> candidates.add(TimelineItem.of(summary)));
+            restaurantRepository.findFollowedRestaurantSummariesBefore(pulledAuthors, friends, position.createdAt(), position.id(), window)
+                    .forEach(summary -> candidates.add(TimelineItem.of(summary)));
+        }
+
+        // An author may have crossed the threshold, so the same content can arrive by both paths
+        Map<Long, TimelineItem> merged = new LinkedHashMap<>();
+        FeedCursor boundary = unreadBefore;
+        candidates.stream()
+                .filter(item -> boundary == null || !isBefore(item, boundary))
+                .sorted(NEWEST_FIRST)
+                .forEach(item -> merged.putIfAbsent(item.sortKey(), item));
+        List<TimelineItem> items = new ArrayList<>(merged.values());
+
+        if (items.size() > size) {
+            items = items.subList(0, size);
+            TimelineItem last = items.get(size - 1);
+            return new CursorPage<>(items, new FeedCursor(last.createdAt(), last.sortKey()).encode());
+        }
+        return new CursorPage<>(items, boundary == null ? null : boundary.encode());
+    }
+
+    private static boolean isBefore(TimelineItem item, FeedCursor position) {
+        int byTime = item.createdAt().compareTo(position.createdAt());
+        return byTime < 0 || byTime == 0 && item.sortKey() < position.id();
+    }
+
+    // Entries are pushed to every follower, so privacy is applied here, when they are read:
+    // content shared with friends only appears for followers the author follows back
+    private List<TimelineItem> hydrate(ViewerScope scope, List<TimelineEntry> entries) {
+        Set<Long> recipeIds = new HashSet<>();
+        Set<Long> restaurantIds = new HashSet<>();
+        Set<Long> authorIds = new HashSet<>();
+        for (TimelineEntry entry : entries) {
+            (entry.getContentType() == TimelineContentType.RECIPE ? recipeIds : restaurantIds).add(entry.getContentId());
+            authorIds.add(entry.getAuthorId());
+        }
+        Set<Long> friends = scope.friendsAmong(authorIds);
+        Map<Long, RecipeSummary> recipes = recipeIds.isEmpty() ? Map.of()
+                : recipeRepository.findVisibleSummariesByIdIn(recipeIds, scope.viewerId(), friends).stream()
+                        .collect(Collectors.toMap(RecipeSummary::id, Function.identity()));
+        Map<Long, RestaurantSummary> restaurants = restaurantIds.isEmpty() ? Map.of()
+                : restaurantRepository.findVisibleSummariesByIdIn(restaurantIds, scope.viewerId(), friends).stream()
+                        .collect(Collectors.toMap(RestaurantSummary::id, Function.identity()));
+
+        List<TimelineItem> items = new ArrayList<>(entries.size());
+        for (TimelineEntry entry : entries) {
+            if (entry.getContentType() == TimelineContentType.RECIPE) {
+                RecipeSummary recipe = recipes.get(entry.getContentId());
+                if (recipe != null) {
+                    items.add(TimelineItem.of(recipe));
+                }
+            } else {
+                RestaurantSummary restaurant = restaurants.get(entry.getContentId());
+                if (restaurant != null) {
+                    items.add(TimelineItem.of(restaurant));
+                }
+            }
+        }
+        return items;
+    }
+}
@@ -0,0 +1,5 @@
+package com.taste.service.typeahead;
+
+/** A value stored in a {@link PrefixIndex}; equal completions reached through different keys are merged. */
+record Completion(String text, String detail, Long id, long weight) {
+}
@@ -0,0 +1,231 @@
+package com.taste.service.typeahead;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * Sorted keys with weighted top-K prefix completion. Keys live in an immutable snapshot of
+ * sorted arrays: a prefix is a contiguous range found by binary search, and a max-weight
+ * segment tree over the range yields its best entries in order without scanning it.
+ *
+ * <p>Updates go to a small sorted overlay that shadows the snapshot and is merged into a new
+ * snapshot once it outgrows a fraction of it, which keeps the amortized cost of a write
+ * constant. Reads never lock; writes must be serialized by the caller.
+ */
+final class PrefixIndex {
+
+    private static final int MIN_PENDING = 1024;
+    private static final int PENDING_FRACTION = 64;
+
+    private static final Pattern MARKS = Pattern.compile("[\\p{M}\\p{Cc}]+");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+    private static final Completion REMOVED = new Completion("", null, null, -1);
+
+    private volatile Snapshot snapshot = Snapshot.build(new String[0], new Completion[0]);
+    private final ConcurrentSkipListMap<String, Completion> pending = new ConcurrentSkipListMap<>();
+    // The skip list counts by walking it, so writers keep count instead
+    private int pendingSize;
+
+    /** Case, accent and whitespace folding applied to keys and to queries alike. */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return SPACES.matcher(folded.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    List<Completion> complete(String prefix, int limit) {
+        String end = prefix + Character.MAX_VALUE;
+        // Read the overlay first: a merge publishes its snapshot before clearing the overlay,
+        // so whatever is missing from the overlay copy is already in the snapshot read after
+        ConcurrentNavigableMap<String, Completion> range = pending.subMap(prefix, end);
+        Set<String> shadowed = new HashSet<>();
+        List<Completion> updated = new ArrayList<>();
+        for (Map.Entry<String, Completion> entry : range.entrySet()) {
+            shadowed.add(entry.getKey());
+            if (entry.getValue() != REMOVED) {
+                updated.add(entry.getValue());
+            }
+        }
+        updated.sort(Comparator.comparingLong(Completion::weight).reversed());
+        Snapshot current = snapshot;
+
+        Set<Completion> results = new LinkedHashSet<>();
+        Snapshot.Ranking ranking = current.rank(current.lowerBound(prefix), current.lowerBound(end));
+        int next = nextUnshadowed(current, ranking, shadowed);
+        int u = 0;
+        while (results.size() < limit && (next >= 0 || u < updated.size())) {
+            if (u < updated.size() && (next < 0 || updated.get(u).weight() > current.values[next].weight())) {
+                results.add(updated.get(u++));
+            } else {
+                results.add(current.values[next]);
+                next = nextUnshadowed(current, ranking, shadowed);
+            }
+        }
+        return new ArrayList<>(results);
+    }
+
+    void put(String key, Completion completion) {
+        stage(key, completion);
+    }
+
+    void remove(String key) {
+        stage(key, REMOVED);
+    }
+
+    /** Replaces all keys at once, e.g. after a bulk load. */
+    void replaceAll(SortedMap<String, Completion> entries) {
+        snapshot = Snapshot.build(entries.keySet().toArray(new String[0]), entries.values().toArray(new Completion[0]));
+        pending.clear();
+        pendingSize = 0;
+    }
+
+    private static int nextUnshadowed(Snapshot snapshot, Snapshot.Ranking ranking, Set<String> shadowed) {
+        int index;
+        do {
+            index = ranking.next();
+        } while (index >= 0 && shadowed.contains(snapshot.keys[index]));
+        return index;
+    }
+
+    private void stage(String key, Completion completion) {
+        if (pending.put(key, completion) == null) {
+            pendingSize++;
+        }
+        Snapshot current = snapshot;
+        if (pendingSize < Math.max(MIN_PENDING, current.keys.length / PENDING_FRACTION)) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(current.keys.length + pendingSize);
+        List<Completion> values = new ArrayList<>(keys.size());
+        int i = 0;
+        for (Map.Entry<String, Completion> entry : pending.entrySet()) {
+            while (i < current.keys.length && current.keys[i].compareTo(entry.getKey()) < 0) {
+                keys.add(current.keys[i]);
+                values.add(current.values[i++]);
+            }
+            if (i < current.keys.length && current.keys[i].equals(entry.getKey())) {
+                i++;
+            }
+            if (entry.getValue() != REMOVED) {
+                keys.add(entry.getKey());
+                values.add(entry.getValue());
+            }
+        }
+        while (i < current.keys.length) {
+            keys.add(current.keys[i]);
+            values.add(current.values[i++]);
+        }
+        snapshot = Snapshot.build(keys.toArray(new String[0]), values.toArray(new Completion[0]));
+        pending.clear();
+        pendingSize = 0;
+    }
+
+    private static final class Snapshot {
+
+        final String[] keys;
+        final Completion[] values;
+        // Implicit binary tree over the key positions: leaves start at `leaves`, and each node
+        // holds the position of the heaviest key below it (ties go to the smaller key), or -1
+        private final int leaves;
+        private final int[] tree;
+
+        private Snapshot(String[] keys, Completion[] values, int leaves, int[] tree) {
+            this.keys = keys;
+            this.values = values;
+            this.leaves = leaves;
+            this.tree = tree;
+        }
+
+        static Snapshot build(String[] keys, Completion[] values) {
+            int leaves = Integer.highestOneBit(Math.max(1, keys.length));
+            if (leaves < keys.length) {
+                leaves <<= 1;
+            }
+            int[] tree = new int[leaves * 2];
+            for (int i = 0; i < leaves; i++) {
+                tree[leaves + i] = i < keys.length ? i : -1;
+            }
+            Snapshot snapshot = new Snapshot(keys, values, leaves, tree);
+            for (int node = leaves - 1; node >= 1; node--) {
+                tree[node] = snapshot.heavier(tree[2 * node], tree[2 * node + 1]);
+            }
+            return snapshot;
+        }
+
+        int lowerBound(String key) {
+            int low = 0;
+            int high = keys.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (keys[mid].compareTo(key) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /** Positions in [from, to) by descending weight, produced lazily. */
+        Ranking rank(int from, int to) {
+            Ranking ranking = new Ranking();
+            for (int low = from + leaves, high = to + leaves; low < high; low >>= 1, high >>= 1) {
+                if ((low & 1) == 1) {
+                    ranking.offer(low++);
+                }
+                if ((high & 1) == 1) {
+                    ranking.offer(--high);
+                }
+            }
+            return ranking;
+        }
+
+        private int heavier(int a, int b) {
+            if (a < 0 || b < 0) {
+                return a < 0 ? b : a;
+            }
+            return values[b].weight() > values[a].weight() ? b : a;
+        }
+
+        final class Ranking {
+
+            private final PriorityQueue<Integer> nodes = new PriorityQueue<>((a, b) -> {
+                int byWeight = Long.compare(values[tree[b]].weight(), values[tree[a]].weight());
+                return byWeight != 0 ? byWeight : Integer.compare(tree[a], tree[b]);
+            });
+
+            void offer(int node) {
+                if (tree[node] >= 0) {
+                    nodes.add(node);
+                }
+            }
+
+            /** The next position, or -1 once the range is exhausted. */
+            int next() {
+                while (!nodes.isEmpty()) {
+                    int node = nodes.poll();
+                    if (node >= leaves) {
+                        return tree[node];
+                    }
+                    offer(2 * node);
+                    offer(2 * node + 1);
+                }
+                return -1;
+            }
+        }
+    }
+}
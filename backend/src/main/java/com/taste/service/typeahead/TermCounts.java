@@ -0,0 +1,99 @@
+package com.taste.service.typeahead;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * How many items use each term of one kind (tags, cuisines or categories), mirrored into a
+ * {@link PrefixIndex} weighted by that count. Remembers each item's terms so a change only
+ * adjusts the difference. Not thread-safe; {@link TypeaheadIndex} serializes writes.
+ */
+final class TermCounts {
+
+    private final PrefixIndex index;
+    private final Map<String, Term> terms = new HashMap<>();
+    private final Map<Long, String[]> items = new HashMap<>();
+    private final Set<String> changed = new HashSet<>();
+
+    TermCounts(PrefixIndex index) {
+        this.index = index;
+    }
+
+    /** Replaces an item's terms; an empty collection removes its contribution. */
+    void set(long itemKey, Collection<String> rawTerms) {
+        Map<String, String> next = new LinkedHashMap<>();
+        for (String raw : rawTerms) {
+            String key = PrefixIndex.normalize(raw);
+            if (!key.isEmpty()) {
+                next.putIfAbsent(key, raw.trim());
+            }
+        }
+        String[] previous = next.isEmpty() ? items.remove(itemKey) : items.put(itemKey, next.keySet().toArray(new String[0]));
+        if (previous != null) {
+            for (String key : previous) {
+                if (next.remove(key) == null) {
+                    Term term = terms.get(key);
+                    if (--term.count == 0) {
+                        terms.remove(key);
+                    }
+                    changed.add(key);
+                }
+            }
+        }
+        for (Map.Entry<String, String> added : next.entrySet()) {
+            // The first spelling seen is the one suggested
+            terms.computeIfAbsent(added.getKey(), key -> new Term(added.getValue())).count++;
+            changed.add(added.getKey());
+        }
+    }
+
+    /** Pushes the counts changed since the last flush to the index. */
+    void flush() {
+        for (String key : changed) {
+            Term term = terms.get(key);
+            if (term == null) {
+                index.remove(key);
+            } else {
+                index.put(key, term.completion());
+            }
+        }
+        changed.clear();
+    }
+
+    /** Rebuilds the index from scratch, after a bulk load. */
+    void publish() {
+        TreeMap<String, Completion> entries = new TreeMap<>();
+        terms.forEach((key, term) -> entries.put(key, term.completion()));
+        index.replaceAll(entries);
+        changed.clear();
+    }
+
+    void clear() {
+        terms.clear();
+        items.clear();
+        changed.clear();
+    }
+
+    int size() {
+        return terms.size();
+    }
+
+    private static final class Term {
+
+        final String label;
+        int count;
+
+        Term(String label) {
+            this.label = label;
+        }
+
+        Completion completion() {
+            return new Completion(label, null, null, count);
+        }
+    }
+}
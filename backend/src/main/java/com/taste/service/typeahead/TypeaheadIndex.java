@@ -0,0 +1,262 @@
+package com.taste.service.typeahead;
+
+import com.taste.dto.Suggestion;
+import com.taste.event.ChangeType;
+import com.taste.event.FollowChangedEvent;
+import com.taste.event.RecipeChangedEvent;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.event.UserChangedEvent;
+import com.taste.model.PrivacyLevel;
+import com.taste.model.SuggestionType;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.RestaurantRepository;
+import com.taste.repository.TermRow;
+import com.taste.repository.UserRepository;
+import com.taste.repository.UserTypeaheadRow;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Prefix indexes behind search-box suggestions: users ranked by followers, and the tags,
+ * cuisines and categories of public recipes and restaurants ranked by how often they are
+ * used. Loaded at startup and kept current from committed changes; suggestions are served
+ * from memory without locking.
+ */
+@Component
+public class TypeaheadIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(TypeaheadIndex.class);
+    private static final int LOAD_BATCH_SIZE = 5000;
+    // Separates a user's name from their id, so several users can share a name
+    private static final char ID_SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+    private final RecipeRepository recipeRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final Map<SuggestionType, PrefixIndex> indexes = new EnumMap<>(SuggestionType.class);
+
+    // Writes are serialized by writeLock, which guards everything below
+    private final Lock writeLock = new ReentrantLock();
+    private final Map<Long, String[]> userKeys = new HashMap<>();
+    private final TermCounts tags;
+    private final TermCounts cuisines;
+    private final TermCounts categories;
+
+    public TypeaheadIndex(UserRepository userRepository, RecipeRepository recipeRepository,
+                          RestaurantRepository restaurantRepository) {
+        this.userRepository = userRepository;
+        this.recipeRepository = recipeRepository;
+        this.restaurantRepository = restaurantRepository;
+        for (SuggestionType type : SuggestionType.values()) {
+            indexes.put(type, new PrefixIndex());
+        }
+        this.tags = new TermCounts(indexes.get(SuggestionType.TAG));
+        this.cuisines = new TermCounts(indexes.get(SuggestionType.CUISINE));
+        this.categories = new TermCounts(indexes.get(SuggestionType.CATEGORY));
+    }
+
+    /** Runs after FollowCountBackfill, so users are ranked by reconciled follower counts. */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void load() {
+        long started = System.currentTimeMillis();
+        writeLock.lock();
+        try {
+            loadUsers();
+            loadTerms();
+        } finally {
+            writeLock.unlock();
+        }
+        logger.info("Loaded typeahead suggestions for {} users, {} tags, {} cuisines and {} categories in {} ms",
+                userKeys.size(), tags.size(), cuisines.size(), categories.size(), System.currentTimeMillis() - started);
+    }
+
+    public List<Suggestion> suggest(SuggestionType type, String prefix, int limit) {
+        String key = PrefixIndex.normalize(prefix);
+        if (key.isEmpty()) {
+            return List.of();
+        }
+        return indexes.get(type).complete(key, limit).stream()
+                .map(completion -> new Suggestion(type, completion.text(), completion.detail(), completion.id(), completion.weight()))
+                .toList();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() != null) {
+            refreshUser(event.userId(), event.changeType());
+        }
+    }
+
+    // A follow changes the followed user's rank
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onFollowChanged(FollowChangedEvent event) {
+        refreshUser(event.followedId(), ChangeType.UPDATED);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRecipeChanged(RecipeChangedEvent event) {
+        if (event.recipeId() == null) {
+            return;
+        }
+        List<Long> ids = List.of(event.recipeId());
+        boolean deleted = event.changeType() == ChangeType.DELETED;
+        List<TermRow> recipeTags = deleted ? List.of() : recipeRepository.findPublicTagRowsByIdIn(ids);
+        List<TermRow> recipeCategories = deleted ? List.of() : recipeRepository.findPublicCategoryRowsByIdIn(ids);
+        writeLock.lock();
+        try {
+            tags.set(recipeKey(event.recipeId()), recipeTags.stream().map(TermRow::term).toList());
+            categories.set(recipeKey(event.recipeId()), recipeCategories.stream().map(TermRow::term).toList());
+            tags.flush();
+            categories.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRestaurantChanged(RestaurantChangedEvent event) {
+        if (event.restaurantId() == null) {
+            return;
+        }
+        List<Long> ids = List.of(event.restaurantId());
+        boolean deleted = event.changeType() == ChangeType.DELETED;
+        List<TermRow> restaurantTags = deleted ? List.of() : restaurantRepository.findPublicTagRowsByIdIn(ids);
+        List<TermRow> restaurantCuisines = deleted ? List.of() : restaurantRepository.findPublicCuisineRowsByIdIn(ids);
+        writeLock.lock();
+        try {
+            tags.set(restaurantKey(event.restaurantId()), restaurantTags.stream().map(TermRow::term).toList());
+            cuisines.set(restaurantKey(event.restaurantId()), restaurantCuisines.stream().map(TermRow::term).toList());
+            tags.flush();
+            cuisines.flush();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    private void loadUsers() {
+        PrefixIndex users = indexes.get(SuggestionType.USER);
+        TreeMap<String, Completion> entries = new TreeMap<>();
+        userKeys.clear();
+        long afterId = 0;
+        List<UserTypeaheadRow> rows;
+        while (!(rows = userRepository.findTypeaheadRowsAfter(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE))).isEmpty()) {
+            for (UserTypeaheadRow row : rows) {
+                Map<String, Completion> keys = userEntries(row);
+                entries.putAll(keys);
+                if (!keys.isEmpty()) {
+                    userKeys.put(row.id(), keys.keySet().toArray(new String[0]));
+                }
+            }
+            afterId = rows.get(rows.size() - 1).id();
+        }
+        users.replaceAll(entries);
+    }
+
+    private void loadTerms() {
+        tags.clear();
+        cuisines.clear();
+        categories.clear();
+        loadTerms(recipeRepository::findIdsAfter, TypeaheadIndex::recipeKey, Map.of(
+                tags, recipeRepository::findPublicTagRowsByIdIn,
+                categories, recipeRepository::findPublicCategoryRowsByIdIn));
+        loadTerms(restaurantRepository::findIdsAfter, TypeaheadIndex::restaurantKey, Map.of(
+                tags, restaurantRepository::findPublicTagRowsByIdIn,
+                cuisines, restaurantRepository::findPublicCuisineRowsByIdIn));
+        tags.publish();
+        cuisines.publish();
+        categories.publish();
+    }
+
+    private void loadTerms(BiFunction<Long, Pageable, List<Long>> idsAfter, LongUnaryOperator itemKey,
+                           Map<TermCounts, Function<Collection<Long>, List<TermRow>>> sources) {
+        long afterId = 0;
+        List<Long> ids;
+        while (!(ids = idsAfter.apply(afterId, PageRequest.ofSize(LOAD_BATCH_SIZE))).isEmpty()) {
+            for (Map.Entry<TermCounts, Function<Collection<Long>, List<TermRow>>> source : sources.entrySet()) {
+                Map<Long, List<String>> terms = new HashMap<>();
+                for (TermRow row : source.getValue().apply(ids)) {
+                    terms.computeIfAbsent(row.itemId(), id -> new ArrayList<>()).add(row.term());
+                }
+                terms.forEach((id, values) -> source.getKey().set(itemKey.applyAsLong(id), values));
+            }
+            afterId = ids.get(ids.size() - 1);
+        }
+    }
+
+    private void refreshUser(Long userId, ChangeType changeType) {
+        Map<String, Completion> entries = changeType == ChangeType.DELETED ? Map.of()
+                : userRepository.findTypeaheadRowById(userId).map(TypeaheadIndex::userEntries).orElse(Map.of());
+        PrefixIndex users = indexes.get(SuggestionType.USER);
+        writeLock.lock();
+        try {
+            String[] previous = entries.isEmpty() ? userKeys.remove(userId)
+                    : userKeys.put(userId, entries.keySet().toArray(new String[0]));
+            if (previous != null) {
+                for (String key : previous) {
+                    if (!entries.containsKey(key)) {
+                        users.remove(key);
+                    }
+                }
+            }
+            entries.forEach(users::put);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // Private profiles are left out; only public ones can be found by their real name
+    private static Map<String, Completion> userEntries(UserTypeaheadRow row) {
+        if (row.privacyLevel() == PrivacyLevel.PRIVATE || row.username() == null) {
+            return Map.of();
+        }
+        boolean named = row.privacyLevel() == null || row.privacyLevel() == PrivacyLevel.PUBLIC;
+        String fullName = named ? String.join(" ", nonNull(row.firstName()), nonNull(row.lastName())).trim() : "";
+        Completion completion = new Completion(row.username(), fullName.isEmpty() ? null : fullName,
+                row.id(), row.followerCount());
+        Map<String, Completion> entries = new LinkedHashMap<>();
+        List<String> names = named ? List.of(row.username(), nonNull(row.firstName()), nonNull(row.lastName()), fullName)
+                : List.of(row.username());
+        for (String name : names) {
+            String key = PrefixIndex.normalize(name);
+            if (!key.isEmpty()) {
+                entries.put(key + ID_SEPARATOR + row.id(), completion);
+            }
+        }
+        return entries;
+    }
+
+    private static String nonNull(String value) {
+        return value != null ? value : "";
+    }
+
+    // Recipes and restaurants share the tag counts, so their ids are kept apart
+    private static long recipeKey(long recipeId) {
+        return recipeId * 2;
+    }
+
+    private static long restaurantKey(long restaurantId) {
+        return restaurantId * 2 + 1;
+    }
+}
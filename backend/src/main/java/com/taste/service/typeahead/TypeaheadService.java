@@ -0,0 +1,46 @@
+package com.taste.service.typeahead;
+
+import com.taste.dto.Suggestion;
+import com.taste.model.SuggestionType;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Search-box suggestions, requested on every keystroke. Each requested type contributes
+ * up to {@code limit} completions, most popular first.
+ */
+@Service
+public class TypeaheadService {
+
+    public static final int DEFAULT_LIMIT = 8;
+    public static final int MAX_LIMIT = 20;
+    public static final int MAX_QUERY_LENGTH = 100;
+
+    private final TypeaheadIndex index;
+
+    public TypeaheadService(TypeaheadIndex index) {
+        this.index = index;
+    }
+
+    public List<Suggestion> suggest(String query, Collection<SuggestionType> types, int limit) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q must be at most " + MAX_QUERY_LENGTH + " characters");
+        }
+        int size = limit <= 0 ? DEFAULT_LIMIT : Math.min(limit, MAX_LIMIT);
+        Set<SuggestionType> requested = types == null || types.isEmpty()
+                ? EnumSet.allOf(SuggestionType.class) : EnumSet.copyOf(types);
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (SuggestionType type : requested) {
+            suggestions.addAll(index.suggest(type, query, size));
+        }
+        return suggestions;
+    }
+}
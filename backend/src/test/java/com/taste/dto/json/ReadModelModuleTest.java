@@ -0,0 +1,121 @@
+package com.taste.dto.json;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.taste.dto.CursorPage;
+import com.taste.dto.RecipeSummary;
+import com.taste.dto.RestaurantSummary;
+import com.taste.dto.TimelineItem;
+import com.taste.dto.UserSummary;
+import com.taste.model.PriceRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The hand-written serializers must write exactly the bytes Jackson writes for the same
+ * records by default, with the mapper configured as Spring Boot configures it.
+ */
+class ReadModelModuleTest {
+
+    private static final String UPLOADED = "/media/ab/" + "0123456789abcdef".repeat(4) + ".jpg";
+    private static final String EXTERNAL = "https://images.example.com/pasta.png";
+
+    private static final LocalDateTime WHOLE_SECONDS = LocalDateTime.of(2024, 1, 2, 3, 4, 0);
+    private static final LocalDateTime MILLIS = LocalDateTime.of(2024, 12, 31, 23, 59, 59, 120_000_000);
+    private static final LocalDateTime MICROS = LocalDateTime.of(2024, 6, 15, 12, 30, 45, 123_456_000);
+    private static final LocalDateTime NANOS = LocalDateTime.of(2024, 6, 15, 12, 30, 45, 123_456_789);
+    private static final LocalDateTime ONE_NANO = LocalDateTime.of(2024, 6, 15, 0, 0, 0, 1);
+    private static final LocalDateTime EARLY_YEAR = LocalDateTime.of(33, 3, 3, 3, 3, 3);
+    private static final LocalDateTime FAR_FUTURE = LocalDateTime.of(12345, 1, 1, 0, 0, 0, 500);
+
+    private final ObjectMapper plain = mapper();
+    private final ObjectMapper handWritten = mapper(new ReadModelModule());
+
+    static Stream<Object> readModels() {
+        return Stream.of(
+                recipe(1L, "Pâté \"en croûte\"\n\t<b>&</b>  ", UPLOADED, NANOS),
+                recipe(2L, "External image", EXTERNAL, MICROS),
+                recipe(3L, "Not an original", "/media/ab/short.jpg", MILLIS),
+                recipe(4L, "Whole seconds", UPLOADED.replace(".jpg", ".png"), WHOLE_SECONDS),
+                recipe(5L, "One nanosecond", UPLOADED.replace(".jpg", ".webp"), ONE_NANO),
+                recipe(6L, "Early year", null, EARLY_YEAR),
+                recipe(7L, "Far future", null, FAR_FUTURE),
+                new RecipeSummary(8L, null, null, null, null, null, null, null, null),
+                restaurant(10L, "Trattoria", UPLOADED, new BigDecimal("4.50"), PriceRange.MODERATE, NANOS),
+                restaurant(11L, "Bistro", EXTERNAL, new BigDecimal("3"), PriceRange.LUXURY, WHOLE_SECONDS),
+                restaurant(12L, "Unrated", null, null, null, ONE_NANO),
+                new RestaurantSummary(13L, null, null, null, null, null, null, null, null),
+                new UserSummary(20L, "alice", "Alice", "Smith", UPLOADED),
+                new UserSummary(21L, "bob", null, null, null),
+                new UserSummary(null, null, null, null, null),
+                TimelineItem.of(recipe(30L, "In a timeline", UPLOADED, MICROS)),
+                TimelineItem.of(restaurant(31L, "In a timeline", EXTERNAL, new BigDecimal("5.0"), PriceRange.BUDGET, NANOS)),
+                new CursorPage<>(List.of(
+                        TimelineItem.of(recipe(40L, "First", UPLOADED, NANOS)),
+                        TimelineItem.of(restaurant(41L, "Second", null, null, PriceRange.EXPENSIVE, MILLIS))), "next"),
+                new CursorPage<>(List.of(recipe(50L, "Only", null, null)), null),
+                List.of(new UserSummary(60L, "carol", "Carol", null, EXTERNAL), new UserSummary(61L, "dave", null, "D", null)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("readModels")
+    void writesTheSameBytesAsJacksonDefaults(Object value) throws Exception {
+        assertThat(new String(handWritten.writeValueAsBytes(value)))
+                .isEqualTo(new String(plain.writeValueAsBytes(value)));
+        assertThat(handWritten.writeValueAsString(value)).isEqualTo(plain.writeValueAsString(value));
+    }
+
+    // Nested serializers are resolved through the outer one when a timeline is the first
+    // thing a mapper writes
+    @Test
+    void timelineWrittenFirstByAFreshMapperMatches() throws Exception {
+        List<TimelineItem> timeline = List.of(TimelineItem.of(recipe(70L, "Fresh", UPLOADED, NANOS)),
+                TimelineItem.of(restaurant(71L, "Fresh", UPLOADED, BigDecimal.ONE, PriceRange.MODERATE, MICROS)));
+
+        assertThat(mapper(new ReadModelModule()).writeValueAsString(timeline)).isEqualTo(plain.writeValueAsString(timeline));
+    }
+
+    @Test
+    void thumbnailUrlIsTheCardVariantOfAnUploadedImage() throws Exception {
+        String json = handWritten.writeValueAsString(recipe(80L, "Thumbnail", UPLOADED, NANOS));
+
+        assertThat(json).contains("\"imageUrl\":\"" + UPLOADED + "\"")
+                .doesNotContain("\"thumbnailUrl\":\"" + UPLOADED + "\"")
+                .contains("\"thumbnailUrl\":\"/media/ab/");
+    }
+
+    @Test
+    void timestampsAsNumbersFallBackToJackson() throws Exception {
+        ObjectMapper numeric = mapper(new ReadModelModule()).enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        ObjectMapper numericPlain = mapper().enable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        RecipeSummary recipe = recipe(90L, "Numeric", UPLOADED, NANOS);
+
+        assertThat(numeric.writeValueAsString(recipe)).isEqualTo(numericPlain.writeValueAsString(recipe));
+    }
+
+    private static RecipeSummary recipe(Long id, String title, String imageUrl, LocalDateTime createdAt) {
+        return new RecipeSummary(id, title, imageUrl, 3, 15, 40, 7L, "author", createdAt);
+    }
+
+    private static RestaurantSummary restaurant(Long id, String name, String imageUrl, BigDecimal rating,
+                                                PriceRange priceRange, LocalDateTime createdAt) {
+        return new RestaurantSummary(id, name, "1 Main Street", imageUrl, rating, priceRange, 7L, "author", createdAt);
+    }
+
+    // Configured as Spring Boot configures the MVC mapper
+    private static ObjectMapper mapper(com.fasterxml.jackson.databind.Module... modules) {
+        return Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .modulesToInstall(modules)
+                .build();
+    }
+}
@@ -0,0 +1,171 @@
+package com.taste.repository;
+
+import com.taste.model.DietaryPreference;
+import com.taste.model.MenuItem;
+import com.taste.model.Recipe;
+import com.taste.model.RecipeIngredient;
+import com.taste.model.Restaurant;
+import com.taste.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Statement counts for loading recipes and restaurants through their list and detail entity
+ * graphs and touching every association a page or a detail view reads. Lazy collections are
+ * batch-fetched, so the counts do not grow with the number of rows.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:fetch-plan;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false",
+        "management.server.port=-1"
+})
+class FetchPlanStatementCountTest {
+
+    private static final int ROWS = 40;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private RestaurantRepository restaurantRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final List<Long> recipeIds = new ArrayList<>();
+    private final List<Long> restaurantIds = new ArrayList<>();
+
+    @BeforeEach
+    void createContent() {
+        recipeRepository.deleteAll();
+        restaurantRepository.deleteAll();
+        userRepository.deleteAll();
+        recipeIds.clear();
+        restaurantIds.clear();
+        List<User> authors = userRepository.saveAll(List.of(
+                new User("alice", "alice@example.com", "secret"),
+                new User("bob", "bob@example.com", "secret"),
+                new User("carol", "carol@example.com", "secret")));
+        for (int i = 0; i < ROWS; i++) {
+            User author = authors.get(i % authors.size());
+
+            Recipe recipe = new Recipe("Recipe " + i, "description", author);
+            recipe.setCategories(Set.of("dinner", "pasta"));
+            recipe.setTags(Set.of("quick"));
+            recipe.setDietaryPreferences(Set.of(DietaryPreference.VEGETARIAN));
+            recipe.setAllergens(Set.of("gluten"));
+            recipe.addIngredient(new RecipeIngredient("flour", BigDecimal.ONE, "kg"));
+            recipe.addIngredient(new RecipeIngredient("egg", BigDecimal.TEN, "pc"));
+            recipeIds.add(recipeRepository.save(recipe).getId());
+
+            Restaurant restaurant = new Restaurant("Restaurant " + i, "1 Main Street", author);
+            restaurant.setCuisines(Set.of("italian"));
+            restaurant.setTags(Set.of("cosy"));
+            restaurant.setDietaryOptions(Set.of(DietaryPreference.VEGAN));
+            for (int j = 0; j < 3; j++) {
+                MenuItem item = new MenuItem("Dish " + j, "description", BigDecimal.valueOf(10 + j));
+                item.setDietaryPreferences(Set.of(DietaryPreference.VEGAN));
+                item.setAllergens(Set.of("nuts"));
+                restaurant.addMenuItem(item);
+            }
+            restaurantIds.add(restaurantRepository.save(restaurant).getId());
+        }
+    }
+
+    @Test
+    void recipeListLoadsAPageInSixStatements() {
+        // The page with its authors, then one batch for each of the four sets and the ingredients
+        long statements = countStatements(() -> recipeRepository.findListByIdIn(recipeIds).forEach(recipe -> {
+            recipe.getAuthor().getUsername();
+            touchRecipe(recipe);
+        }));
+
+        assertThat(statements).isEqualTo(6);
+    }
+
+    @Test
+    void recipeDetailLoadsInFiveStatements() {
+        // The recipe with its author and ingredients, then one for each of the four sets
+        long statements = countStatements(() -> recipeRepository.findDetailById(recipeIds.get(0)).ifPresent(recipe -> {
+            recipe.getAuthor().getUsername();
+            touchRecipe(recipe);
+        }));
+
+        assertThat(statements).isEqualTo(5);
+    }
+
+    @Test
+    void restaurantListLoadsAPageInFourStatements() {
+        // The page with its authors, then one batch for each of the three sets
+        long statements = countStatements(() -> restaurantRepository.findListByIdIn(restaurantIds).forEach(restaurant -> {
+            restaurant.getAuthor().getUsername();
+            touch(restaurant.getCuisines(), restaurant.getTags(), restaurant.getDietaryOptions());
+        }));
+
+        assertThat(statements).isEqualTo(4);
+    }
+
+    @Test
+    void restaurantDetailLoadsInSixStatements() {
+        // The restaurant with its author and menu, one for each of its three sets, and one
+        // batch for each of the two sets of the menu items
+        long statements = countStatements(() -> restaurantRepository.findDetailById(restaurantIds.get(0)).ifPresent(restaurant -> {
+            restaurant.getAuthor().getUsername();
+            touch(restaurant.getCuisines(), restaurant.getTags(), restaurant.getDietaryOptions());
+            restaurant.getMenuItems().forEach(item -> touch(item.getDietaryPreferences(), item.getAllergens()));
+        }));
+
+        assertThat(statements).isEqualTo(6);
+    }
+
+    private static void touchRecipe(Recipe recipe) {
+        touch(recipe.getCategories(), recipe.getTags(), recipe.getDietaryPreferences(), recipe.getAllergens(),
+                recipe.getIngredients());
+    }
+
+    private static void touch(Collection<?>... collections) {
+        for (Collection<?> collection : collections) {
+            collection.size();
+        }
+    }
+
+    // Counted in a fresh read-only transaction with the second-level cache emptied, so every
+    // row comes from the database
+    private long countStatements(Runnable load) {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        transaction.executeWithoutResult(status -> load.run());
+        return statistics.getPrepareStatementCount();
+    }
+}
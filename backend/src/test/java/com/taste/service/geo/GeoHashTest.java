@@ -0,0 +1,76 @@
+package com.taste.service.geo;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoHashTest {
+
+    private static final int MAX_CELLS = 16;
+
+    @ParameterizedTest
+    @CsvSource({
+            "48.80, 2.20, 48.90, 2.45",
+            "-0.001, -0.001, 0.001, 0.001",
+            "-90, -180, 90, 180",
+            "89.5, -10, 90, 10",
+            "-33.95, 151.10, -33.80, 151.30",
+            "10, 179, 11, 180"
+    })
+    void coverHoldsEveryPointOfTheBox(double minLat, double minLon, double maxLat, double maxLon) {
+        List<long[]> cover = GeoHash.cover(minLat, minLon, maxLat, maxLon, MAX_CELLS);
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            double lat = minLat + random.nextDouble() * (maxLat - minLat);
+            double lon = minLon + random.nextDouble() * (maxLon - minLon);
+            assertThat(covers(cover, GeoHash.encode(lat, lon))).as("%s,%s", lat, lon).isTrue();
+        }
+        assertThat(covers(cover, GeoHash.encode(minLat, minLon))).isTrue();
+        assertThat(covers(cover, GeoHash.encode(maxLat, maxLon))).isTrue();
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "48.80, 2.20, 48.90, 2.45",
+            "-90, -180, 90, 180",
+            "-45, -100, 45, 100",
+            "51.50, -0.13, 51.50, -0.13"
+    })
+    void coverIsSortedMergedAndWithinTheCellBudget(double minLat, double minLon, double maxLat, double maxLon) {
+        List<long[]> cover = GeoHash.cover(minLat, minLon, maxLat, maxLon, MAX_CELLS);
+
+        assertThat(cover).isNotEmpty().hasSizeLessThanOrEqualTo(MAX_CELLS);
+        for (int i = 0; i < cover.size(); i++) {
+            assertThat(cover.get(i)[0]).isLessThan(cover.get(i)[1]);
+            if (i > 0) {
+                // Adjacent ranges would have been merged into one
+                assertThat(cover.get(i)[0]).isGreaterThan(cover.get(i - 1)[1]);
+            }
+        }
+    }
+
+    @Test
+    void smallBoxCoverExcludesDistantPoints() {
+        List<long[]> cover = GeoHash.cover(48.80, 2.20, 48.90, 2.45, MAX_CELLS);
+
+        assertThat(covers(cover, GeoHash.encode(-33.87, 151.21))).isFalse();
+        assertThat(covers(cover, GeoHash.encode(40.71, -74.01))).isFalse();
+    }
+
+    @Test
+    void distanceIsTheGreatCircleDistance() {
+        assertThat(GeoHash.distanceKm(48.8566, 2.3522, 51.5074, -0.1278)).isCloseTo(343.5, within(1.0));
+        assertThat(GeoHash.distanceKm(0, 179.5, 0, -179.5)).isCloseTo(111.2, within(0.5));
+        assertThat(GeoHash.distanceKm(10, 20, 10, 20)).isZero();
+    }
+
+    private static boolean covers(List<long[]> cover, long key) {
+        return cover.stream().anyMatch(range -> key >= range[0] && key < range[1]);
+    }
+}
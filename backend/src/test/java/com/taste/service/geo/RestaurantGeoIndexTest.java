@@ -0,0 +1,161 @@
+package com.taste.service.geo;
+
+import com.taste.event.ChangeType;
+import com.taste.event.RestaurantChangedEvent;
+import com.taste.model.PriceRange;
+import com.taste.model.PrivacyLevel;
+import com.taste.repository.RestaurantGeoRow;
+import com.taste.repository.RestaurantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RestaurantGeoIndexTest {
+
+    private final RestaurantRepository repository = mock(RestaurantRepository.class);
+    private final RestaurantGeoIndex index = new RestaurantGeoIndex(repository);
+
+    @Test
+    void boxAcrossTheAntimeridianHoldsBothSides() {
+        load(row(1, 0.5, 179.9), row(2, 0.5, -179.9), row(3, 0.5, 0), row(4, 0.5, 178.5), row(5, 0.5, -178.5));
+
+        assertThat(ids(index.withinBox(0, 179, 1, -179, entry -> true, 10))).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(ids(index.withinBox(0, 178, 1, 179, entry -> true, 10))).containsExactly(4L);
+    }
+
+    @Test
+    void radiusAcrossTheAntimeridianIsNearestFirst() {
+        load(row(1, 0, 179.8), row(2, 0, -179.9), row(3, 0, 179.0), row(4, 0, -170));
+
+        List<GeoHit> hits = index.withinRadius(0, 180, 50, entry -> true, 10);
+
+        assertThat(hits).extracting(hit -> hit.entry().id()).containsExactly(2L, 1L);
+        assertThat(hits.get(0).distanceKm()).isLessThan(hits.get(1).distanceKm());
+    }
+
+    @Test
+    void nearestReturnsTheKClosestInOrder() {
+        List<RestaurantGeoRow> rows = new ArrayList<>();
+        Random random = new Random(7);
+        for (int id = 1; id <= 500; id++) {
+            rows.add(row(id, 52 + random.nextDouble() * 2 - 1, 13 + random.nextDouble() * 2 - 1));
+        }
+        load(rows.toArray(new RestaurantGeoRow[0]));
+
+        List<GeoHit> nearest = index.nearest(52.1, 13.2, 7, 500, entry -> true);
+
+        List<Long> expected = rows.stream()
+                .sorted(Comparator.comparingDouble(row -> GeoHash.distanceKm(52.1, 13.2, row.latitude(), row.longitude())))
+                .limit(7)
+                .map(RestaurantGeoRow::id)
+                .toList();
+        assertThat(nearest).extracting(hit -> hit.entry().id()).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void nearestStopsAtTheMaximumRadius() {
+        load(row(1, 0, 0), row(2, 0, 0.05), row(3, 0, 5));
+
+        assertThat(index.nearest(0, 0, 3, 20, entry -> true)).extracting(hit -> hit.entry().id()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void truncatedBoxKeepsTheEntriesNearestItsCentre() {
+        List<RestaurantGeoRow> rows = new ArrayList<>();
+        int id = 0;
+        for (int i = -5; i <= 5; i++) {
+            for (int j = -5; j <= 5; j++) {
+                rows.add(row(++id, 10 + i * 0.1, 20 + j * 0.1));
+            }
+        }
+        load(rows.toArray(new RestaurantGeoRow[0]));
+
+        List<GeoEntry> box = index.withinBox(9.45, 19.45, 10.55, 20.55, entry -> true, 5);
+
+        assertThat(box).hasSize(5);
+        assertThat(box.get(0).latitude()).isEqualTo(10.0);
+        assertThat(box.get(0).longitude()).isEqualTo(20.0);
+        assertThat(box).allMatch(entry -> GeoHash.distanceKm(10, 20, entry.latitude(), entry.longitude()) < 12);
+    }
+
+    @Test
+    void aMovedRestaurantIsOnlyFoundAtItsNewLocation() {
+        load(row(1, 10, 10));
+        when(repository.findGeoRowById(1L)).thenReturn(Optional.of(row(1, -10, -10)));
+
+        index.onRestaurantChanged(new RestaurantChangedEvent(1L, 1L, ChangeType.UPDATED));
+        index.onRestaurantChanged(new RestaurantChangedEvent(1L, 1L, ChangeType.UPDATED));
+
+        assertThat(index.withinBox(9, 9, 11, 11, entry -> true, 10)).isEmpty();
+        assertThat(ids(index.withinBox(-11, -11, -9, -9, entry -> true, 10))).containsExactly(1L);
+        assertThat(index.size()).isEqualTo(1);
+
+        index.onRestaurantChanged(new RestaurantChangedEvent(1L, 1L, ChangeType.DELETED));
+        assertThat(index.withinBox(-90, -180, 90, 180, entry -> true, 10)).isEmpty();
+    }
+
+    @Test
+    void concurrentChangesLeaveOneEntryPerRestaurant() throws Exception {
+        load(row(1, 0, 0));
+        when(repository.findGeoRowById(1L)).thenAnswer(invocation -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return Optional.of(row(1, random.nextDouble(-60, 60), random.nextDouble(-170, 170)));
+        });
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        index.onRestaurantChanged(new RestaurantChangedEvent(1L, 1L, ChangeType.UPDATED));
+                    }
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(index.withinBox(-90, -180, 90, 180, entry -> true, 10)).hasSize(1);
+    }
+
+    private void load(RestaurantGeoRow... rows) {
+        when(repository.findGeoRowsAfter(anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            long afterId = invocation.getArgument(0);
+            Pageable page = invocation.getArgument(1);
+            return List.of(rows).stream()
+                    .filter(row -> row.id() > afterId)
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        index.load();
+    }
+
+    private static RestaurantGeoRow row(long id, double latitude, double longitude) {
+        return new RestaurantGeoRow(id, "Restaurant " + id, "Address", latitude, longitude, PriceRange.MODERATE,
+                BigDecimal.ONE, (short) 0, PrivacyLevel.PUBLIC, 1L);
+    }
+
+    private static List<Long> ids(List<GeoEntry> entries) {
+        return entries.stream().map(GeoEntry::id).toList();
+    }
+}
@@ -0,0 +1,101 @@
+package com.taste.service.search;
+
+import com.taste.model.PrivacyLevel;
+import com.taste.model.Recipe;
+import com.taste.model.User;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Search only returns recipes the viewer may see, whether as hits or as loaded recipes.
+ * The index is kept current by the after-commit listener, which runs on the saving thread.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:recipe-search;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "management.server.port=-1"
+})
+class RecipeSearchServiceTest {
+
+    @Autowired
+    private RecipeSearchService searchService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    private User alice;
+    private User bob;
+    private Long publicId;
+    private Long friendsId;
+    private Long privateId;
+
+    @BeforeEach
+    void createRecipes() {
+        recipeRepository.deleteAll();
+        userRepository.deleteAll();
+        alice = userRepository.save(new User("alice", "alice@example.com", "secret"));
+        bob = userRepository.save(new User("bob", "bob@example.com", "secret"));
+        publicId = recipe("Public lasagne", PrivacyLevel.PUBLIC);
+        friendsId = recipe("Friends lasagne", PrivacyLevel.FRIENDS);
+        privateId = recipe("Private lasagne", PrivacyLevel.PRIVATE);
+    }
+
+    @Test
+    void privateRecipesDoNotComeBackForAnotherViewer() {
+        assertThat(ids(bob.getId(), "lasagne")).containsExactly(publicId);
+        assertThat(searchService.searchHits(bob.getId(), "lasa", PageRequest.of(0, 10)).getContent())
+                .extracting(SearchHit::id)
+                .containsExactly(publicId);
+        assertThat(searchService.searchHits(bob.getId(), "lasa", PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    @Test
+    void authorsFindAllTheirOwnRecipes() {
+        assertThat(ids(alice.getId(), "lasagne")).containsExactlyInAnyOrder(publicId, friendsId, privateId);
+    }
+
+    @Test
+    void anonymousSearchReturnsPublicRecipesOnly() {
+        assertThat(searchService.searchPublicRecipes("lasagne", PageRequest.of(0, 10)).getContent())
+                .extracting(Recipe::getId)
+                .containsExactly(publicId);
+    }
+
+    @Test
+    void aRecipeMadePrivateStopsMatching() {
+        Recipe recipe = recipeRepository.findById(publicId).orElseThrow();
+        recipe.setPrivacyLevel(PrivacyLevel.PRIVATE);
+        recipeRepository.save(recipe);
+
+        assertThat(ids(bob.getId(), "lasagne")).isEmpty();
+    }
+
+    private List<Long> ids(Long viewerId, String query) {
+        return searchService.searchRecipes(viewerId, query, PageRequest.of(0, 10)).getContent().stream()
+                .map(Recipe::getId)
+                .toList();
+    }
+
+    private Long recipe(String title, PrivacyLevel privacy) {
+        Recipe recipe = new Recipe(title, "Layered pasta", alice);
+        recipe.setPrivacyLevel(privacy);
+        return recipeRepository.save(recipe).getId();
+    }
+}
@@ -0,0 +1,168 @@
+package com.taste.service.timeline;
+
+import com.taste.dto.CursorPage;
+import com.taste.dto.TimelineItem;
+import com.taste.model.PrivacyLevel;
+import com.taste.model.Recipe;
+import com.taste.model.TimelineContentType;
+import com.taste.model.User;
+import com.taste.repository.RecipeRepository;
+import com.taste.repository.TimelineEntryRepository;
+import com.taste.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Paging through a timeline returns every item the viewer may see exactly once, in order,
+ * when some pushed entries are hidden from the viewer and pulled authors are merged in.
+ * Timeline rows are written here directly, so the fan-out listener is replaced.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:timeline;MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "management.server.port=-1",
+        "app.timeline.fanout-threshold=1",
+        "app.timeline.fanout-hysteresis=0"
+})
+class TimelineServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 12, 0);
+    private static final AtomicInteger USERS = new AtomicInteger();
+
+    @MockBean
+    private TimelineFanoutListener fanoutListener;
+
+    @Autowired
+    private TimelineService timelineService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    @Autowired
+    private TimelineEntryRepository timelineEntryRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void hiddenEntriesInsideTheWindowDoNotEndTheFeed() {
+        User viewer = user();
+        User author = user();
+        follow(viewer, author);
+        List<Long> expected = new ArrayList<>();
+        for (int minute = 1; minute <= 40; minute++) {
+            // A run longer than the reads for one page, and hidden entries scattered around it
+            PrivacyLevel privacy = minute >= 10 && minute < 25 ? PrivacyLevel.FRIENDS
+                    : minute % 4 == 0 ? PrivacyLevel.PRIVATE
+                    : minute % 5 == 0 ? PrivacyLevel.FRIENDS
+                    : PrivacyLevel.PUBLIC;
+            Long id = recipe(author, privacy, minute);
+            push(author, id, minute);
+            if (privacy == PrivacyLevel.PUBLIC) {
+                expected.add(0, id);
+            }
+        }
+        timelineService.loadHighFanoutAuthors();
+
+        assertThat(readAll(viewer, 2)).containsExactlyElementsOf(expected);
+        assertThat(readAll(viewer, 5)).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void pulledContentDoesNotSkipPushedEntriesNotYetRead() {
+        User viewer = user();
+        User pushed = user();
+        User pulled = user();
+        follow(viewer, pushed);
+        follow(viewer, pulled);
+        follow(user(), pulled);
+        List<Long> expected = new ArrayList<>();
+        // Pulled content is sparser than pushed, so a window of it reaches further back
+        for (int minute = 1; minute <= 60; minute++) {
+            if (minute % 5 != 0) {
+                PrivacyLevel privacy = minute % 7 == 0 || minute > 40 && minute < 55 ? PrivacyLevel.FRIENDS : PrivacyLevel.PUBLIC;
+                Long id = recipe(pushed, privacy, minute);
+                push(pushed, id, minute);
+                if (privacy == PrivacyLevel.PUBLIC) {
+                    expected.add(0, id);
+                }
+            } else {
+                expected.add(0, recipe(pulled, PrivacyLevel.PUBLIC, minute));
+            }
+        }
+        timelineService.loadHighFanoutAuthors();
+        assertThat(timelineService.isHighFanoutAuthor(pulled.getId())).isTrue();
+
+        assertThat(readAll(viewer, 3)).containsExactlyElementsOf(expected);
+        assertThat(readAll(viewer, 10)).containsExactlyElementsOf(expected);
+    }
+
+    private List<Long> readAll(User viewer, int pageSize) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        for (int page = 0; page < 100; page++) {
+            CursorPage<TimelineItem> result = timelineService.getTimeline(viewer.getId(), cursor, pageSize);
+            assertThat(result.items()).hasSizeLessThanOrEqualTo(pageSize);
+            result.items().forEach(item -> ids.add(item.recipe().id()));
+            cursor = result.nextCursor();
+            if (cursor == null) {
+                return ids;
+            }
+        }
+        throw new AssertionError("Timeline did not end");
+    }
+
+    private User user() {
+        int n = USERS.incrementAndGet();
+        return userRepository.save(new User("user" + n, "user" + n + "@example.com", "secret"));
+    }
+
+    private void follow(User follower, User followed) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.insertFollow(follower.getId(), followed.getId()));
+    }
+
+    // Creation times are set afterwards, as the entity stamps its own on insert
+    private Long recipe(User author, PrivacyLevel privacy, int minute) {
+        Recipe recipe = new Recipe("Recipe " + minute, "description", author);
+        recipe.setPrivacyLevel(privacy);
+        Long id = recipeRepository.save(recipe).getId();
+        jdbcTemplate.update("UPDATE recipes SET created_at = ? WHERE id = ?", START.plusMinutes(minute), id);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictAllRegions();
+        return id;
+    }
+
+    private void push(User author, Long recipeId, int minute) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                timelineEntryRepository.fanOut(TimelineContentType.RECIPE.name(), recipeId, author.getId(),
+                        START.plusMinutes(minute), TimelineContentType.RECIPE.sortKey(recipeId)));
+    }
+}